@@ -17,6 +17,8 @@ package de.learnlib.algorithms.adt.learner;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -26,12 +28,18 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import com.github.misberner.buildergen.annotations.GenerateBuilder;
+import com.google.common.base.Throwables;
 import de.learnlib.algorithms.adt.adt.ADT;
 import de.learnlib.algorithms.adt.adt.ADT.LCAInfo;
 import de.learnlib.algorithms.adt.adt.ADTLeafNode;
@@ -52,6 +60,7 @@ import de.learnlib.algorithms.adt.model.ObservationTree;
 import de.learnlib.algorithms.adt.model.ReplacementResult;
 import de.learnlib.algorithms.adt.util.ADTUtil;
 import de.learnlib.algorithms.adt.util.SQOOTBridge;
+import de.learnlib.algorithms.adt.util.SiftingSession;
 import de.learnlib.api.Resumable;
 import de.learnlib.api.algorithm.LearningAlgorithm;
 import de.learnlib.api.oracle.SymbolQueryOracle;
@@ -68,6 +77,12 @@ import net.automatalib.words.impl.Alphabets;
 
 /**
  * The main learning algorithm.
+ * <p>
+ * Optionally, open transitions can be sifted concurrently by several sessions (see {@link
+ * #setParallelSifting(ExecutorService, Collection)}), each of which operates on its own (independent) symbol query
+ * oracle. All open transitions of a round are sifted in parallel against the current ADT and the results are
+ * afterwards merged into the hypothesis, the ADT and the observation tree in the order of the open transitions queue.
+ * Therefore, the learned hypotheses are the same as in the sequential mode (given a deterministic system).
  *
  * @param <I>
  *         input alphabet type
@@ -91,9 +106,14 @@ public class ADTLearner<I, O> implements LearningAlgorithm.MealyLearner<I, O>,
     private final Queue<DefaultQuery<I, Word<O>>> openCounterExamples;
     private final Set<DefaultQuery<I, Word<O>>> allCounterExamples;
     private final ObservationTree<ADTState<I, O>, I, O> observationTree;
+    private final boolean useObservationTree;
     private ADTHypothesis<I, O> hypothesis;
     private ADT<ADTState<I, O>, I, O> adt;
 
+    @Nullable
+    private ExecutorService siftingExecutor;
+    private List<SiftingSession<I, O>> siftingSessions = Collections.emptyList();
+
     public ADTLearner(final Alphabet<I> alphabet,
                       final SymbolQueryOracle<I, O> oracle,
                       final LeafSplitter leafSplitter,
@@ -113,6 +133,7 @@ public class ADTLearner<I, O> implements LearningAlgorithm.MealyLearner<I, O>,
         this.alphabet = alphabet;
         this.observationTree = new ObservationTree<>(this.alphabet);
         this.oracle = new SQOOTBridge<>(this.observationTree, oracle, useObservationTree);
+        this.useObservationTree = useObservationTree;
 
         this.leafSplitter = leafSplitter;
         this.adtExtender = adtExtender;
@@ -125,6 +146,25 @@ public class ADTLearner<I, O> implements LearningAlgorithm.MealyLearner<I, O>,
         this.adt = new ADT<>(leafSplitter);
     }
 
+    /**
+     * Configures the concurrent sifting of open transitions.
+     *
+     * @param executor
+     *         the executor that runs the sifting sessions, or {@code null} to disable concurrent sifting
+     * @param oracles
+     *         the symbol query oracles of the individual sessions. Each oracle is used by at most one thread at a time
+     *         and must be independent of the oracle this learner has been constructed with (and of each other)
+     */
+    public void setParallelSifting(@Nullable ExecutorService executor,
+                                   Collection<? extends SymbolQueryOracle<I, O>> oracles) {
+        this.siftingExecutor = executor;
+        this.siftingSessions = new ArrayList<>(oracles.size());
+
+        for (final SymbolQueryOracle<I, O> o : oracles) {
+            this.siftingSessions.add(new SiftingSession<>(this.observationTree, o, this.useObservationTree));
+        }
+    }
+
     @Override
     public void startLearning() {
 
@@ -293,9 +333,162 @@ public class ADTLearner<I, O> implements LearningAlgorithm.MealyLearner<I, O>,
      * Close all pending open transitions.
      */
     private void closeTransitions() {
+        if (this.siftingExecutor != null && !this.siftingSessions.isEmpty()) {
+            this.closeTransitionsConcurrently(this.siftingExecutor);
+        } else {
+            while (!this.openTransitions.isEmpty()) {
+                this.closeTransition(this.openTransitions.poll());
+            }
+        }
+    }
+
+    /**
+     * Close all pending open transitions by means of the concurrent sifting sessions. Transitions that are discovered
+     * while closing the current open transitions are handled in subsequent rounds.
+     *
+     * @param executor
+     *         the executor that runs the sifting sessions
+     */
+    private void closeTransitionsConcurrently(final ExecutorService executor) {
+
         while (!this.openTransitions.isEmpty()) {
-            this.closeTransition(this.openTransitions.poll());
+
+            final List<ADTTransition<I, O>> round = new ArrayList<>(this.openTransitions.size());
+
+            while (!this.openTransitions.isEmpty()) {
+                final ADTTransition<I, O> transition = this.openTransitions.poll();
+                if (transition.needsSifting()) {
+                    round.add(transition);
+                }
+            }
+
+            final List<SiftResult<I, O>> results = this.siftConcurrently(executor, round);
+
+            for (int i = 0; i < round.size(); i++) {
+                this.applySiftResult(round.get(i), results.get(i));
+            }
+        }
+    }
+
+    private List<SiftResult<I, O>> siftConcurrently(final ExecutorService executor,
+                                                    final List<ADTTransition<I, O>> transitions) {
+
+        @SuppressWarnings("unchecked")
+        final SiftResult<I, O>[] results = new SiftResult[transitions.size()];
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final int numSessions = Math.min(this.siftingSessions.size(), transitions.size());
+        final List<Future<?>> futures = new ArrayList<>(numSessions);
+
+        try {
+            for (int i = 0; i < numSessions; i++) {
+                final SiftingSession<I, O> session = this.siftingSessions.get(i);
+                futures.add(executor.submit(() -> {
+                    int idx;
+                    while ((idx = nextIndex.getAndIncrement()) < transitions.size()) {
+                        results[idx] = sift(session, transitions.get(idx));
+                    }
+                }));
+            }
+
+            for (final Future<?> f : futures) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AssertionError("Runnables must not throw checked exceptions", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sifting open transitions", e);
+        } finally {
+            for (final Future<?> f : futures) {
+                f.cancel(true);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Sifts the long prefix of the given transition through the ADT without modifying it. The sifting stops when either
+     * reaching a leaf or an output of a symbol node for which no successor exists yet.
+     *
+     * @param session
+     *         the session used for posing the queries
+     * @param transition
+     *         the transition to sift
+     *
+     * @return the result of the sifting process
+     */
+    private static <I, O> SiftResult<I, O> sift(final SiftingSession<I, O> session,
+                                                final ADTTransition<I, O> transition) {
+
+        final Word<I> accessSequence = transition.getSource().getAccessSequence();
+        final I symbol = transition.getInput();
+
+        session.reset();
+        for (final I i : accessSequence) {
+            session.query(i);
+        }
+
+        final O transitionOutput = session.query(symbol);
+        final Word<I> longPrefix = accessSequence.append(symbol);
+
+        ADTNode<ADTState<I, O>, I, O> current = transition.getSiftNode();
+        O missingOutput = null;
+
+        while (!ADTUtil.isLeafNode(current)) {
+            if (ADTUtil.isResetNode(current)) {
+                session.reset();
+                for (final I i : longPrefix) {
+                    session.query(i);
+                }
+                current = current.getChildren().values().iterator().next();
+            } else {
+                final O o = session.query(current.getSymbol());
+                final ADTNode<ADTState<I, O>, I, O> successor = current.getChildren().get(o);
+
+                if (successor == null) {
+                    missingOutput = o;
+                    break;
+                }
+
+                current = successor;
+            }
+        }
+
+        return new SiftResult<>(transitionOutput, current, missingOutput, session.drainTraces());
+    }
+
+    private void applySiftResult(final ADTTransition<I, O> transition, final SiftResult<I, O> result) {
+
+        if (!transition.needsSifting()) {
+            return;
+        }
+
+        for (final Pair<Word<I>, Word<O>> trace : result.traces) {
+            this.observationTree.addTrace(trace.getFirst(), trace.getSecond());
+        }
+
+        transition.setOutput(result.output);
+
+        ADTNode<ADTState<I, O>, I, O> finalNode = result.node;
+
+        if (!ADTUtil.isLeafNode(finalNode)) {
+            // the successor may have been created by a previously merged result of the same round. Since such
+            // successors are leaves, no further sifting is required
+            final ADTNode<ADTState<I, O>, I, O> successor = finalNode.getChildren().get(result.missingOutput);
+
+            if (successor == null) {
+                final ADTNode<ADTState<I, O>, I, O> leaf = new ADTLeafNode<>(finalNode, null);
+                finalNode.getChildren().put(result.missingOutput, leaf);
+                finalNode = leaf;
+            } else {
+                finalNode = successor;
+            }
         }
+
+        final Word<I> longPrefix = transition.getSource().getAccessSequence().append(transition.getInput());
+        this.resolveTarget(transition, longPrefix, finalNode);
     }
 
     /**
@@ -324,6 +517,43 @@ public class ADTLearner<I, O> implements LearningAlgorithm.MealyLearner<I, O>,
         final ADTNode<ADTState<I, O>, I, O> finalNode =
                 this.adt.sift(this.oracle, longPrefix, transition.getSiftNode());
 
+        this.resolveTarget(transition, longPrefix, finalNode);
+    }
+
+    @Override
+    public void closeTransition(ADTState<I, O> state, I input) {
+
+        final ADTTransition<I, O> transition = this.hypothesis.getTransition(state, input);
+
+        if (transition.needsSifting()) {
+            final ADTNode<ADTState<I, O>, I, O> ads = transition.getSiftNode();
+            final int oldNumberOfFinalStates = ADTUtil.collectLeaves(ads).size();
+
+            this.closeTransition(transition);
+
+            final int newNumberOfFinalStates = ADTUtil.collectLeaves(ads).size();
+
+            if (oldNumberOfFinalStates < newNumberOfFinalStates) {
+                throw PartialTransitionAnalyzer.HYPOTHESIS_MODIFICATION_EXCEPTION;
+            }
+        }
+    }
+
+    /**
+     * Sets the target of the given transition to the hypothesis state of the given (leaf) node. If the node does not
+     * yet reference a hypothesis state, a new state is added to the hypothesis.
+     *
+     * @param transition
+     *         the transition to close
+     * @param longPrefix
+     *         the long prefix of the transition
+     * @param finalNode
+     *         the leaf reached by sifting the long prefix
+     */
+    private void resolveTarget(final ADTTransition<I, O> transition,
+                               final Word<I> longPrefix,
+                               final ADTNode<ADTState<I, O>, I, O> finalNode) {
+
         assert ADTUtil.isLeafNode(finalNode);
 
         final ADTState<I, O> targetState;
@@ -348,25 +578,6 @@ public class ADTLearner<I, O> implements LearningAlgorithm.MealyLearner<I, O>,
         transition.setTarget(targetState);
     }
 
-    @Override
-    public void closeTransition(ADTState<I, O> state, I input) {
-
-        final ADTTransition<I, O> transition = this.hypothesis.getTransition(state, input);
-
-        if (transition.needsSifting()) {
-            final ADTNode<ADTState<I, O>, I, O> ads = transition.getSiftNode();
-            final int oldNumberOfFinalStates = ADTUtil.collectLeaves(ads).size();
-
-            this.closeTransition(transition);
-
-            final int newNumberOfFinalStates = ADTUtil.collectLeaves(ads).size();
-
-            if (oldNumberOfFinalStates < newNumberOfFinalStates) {
-                throw PartialTransitionAnalyzer.HYPOTHESIS_MODIFICATION_EXCEPTION;
-            }
-        }
-    }
-
     @Override
     public boolean isTransitionDefined(ADTState<I, O> state, I input) {
         return !this.hypothesis.getTransition(state, input).needsSifting();
@@ -817,6 +1028,25 @@ public class ADTLearner<I, O> implements LearningAlgorithm.MealyLearner<I, O>,
         return adt;
     }
 
+    private static final class SiftResult<I, O> {
+
+        private final O output;
+        private final ADTNode<ADTState<I, O>, I, O> node;
+        @Nullable
+        private final O missingOutput;
+        private final List<Pair<Word<I>, Word<O>>> traces;
+
+        SiftResult(O output,
+                   ADTNode<ADTState<I, O>, I, O> node,
+                   @Nullable O missingOutput,
+                   List<Pair<Word<I>, Word<O>>> traces) {
+            this.output = output;
+            this.node = node;
+            this.missingOutput = missingOutput;
+            this.traces = traces;
+        }
+    }
+
     public static final class BuilderDefaults {
 
         private BuilderDefaults() {
@@ -101,6 +101,19 @@ public class ObservationTree<S, I, O> {
         }
     }
 
+    /**
+     * Store input/output information about the initial state of the system under learning in the internal data
+     * structure.
+     *
+     * @param input
+     *         the input sequence applied in the initial state
+     * @param output
+     *         the observed output sequence
+     */
+    public void addTrace(final Word<I> input, final Word<O> output) {
+        this.addTrace(this.observationTree.getInitialState(), input, output);
+    }
+
     /**
      * Store input/output information about a hypothesis state in the internal data structure.
      *
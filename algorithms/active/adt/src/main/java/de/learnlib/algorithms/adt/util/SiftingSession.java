@@ -0,0 +1,141 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.algorithms.adt.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import de.learnlib.algorithms.adt.model.ObservationTree;
+import de.learnlib.api.oracle.SymbolQueryOracle;
+import net.automatalib.automata.transducers.impl.FastMealy;
+import net.automatalib.automata.transducers.impl.FastMealyState;
+import net.automatalib.commons.util.Pair;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A read-only counterpart of the {@link SQOOTBridge} that allows several sessions to concurrently sift words through
+ * the ADT. Queries that can be answered by the (shared) observation tree are not delegated, however no new
+ * observations are written to the tree. Instead, each (reset-delimited) trace that required the delegate oracle is
+ * recorded and can be {@link #drainTraces() collected} for later (sequential) insertion into the observation tree.
+ * <p>
+ * Note: concurrent sessions may only read the observation tree as long as no other thread modifies it.
+ *
+ * @param <I>
+ *         input alphabet type
+ * @param <O>
+ *         output alphabet type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class SiftingSession<I, O> implements SymbolQueryOracle<I, O> {
+
+    private final FastMealy<I, O> observationTree;
+
+    private final SymbolQueryOracle<I, O> delegate;
+
+    private final boolean enableCache;
+
+    private final WordBuilder<I> currentInputs;
+
+    private final WordBuilder<O> currentOutputs;
+
+    private final List<Pair<Word<I>, Word<O>>> traces;
+
+    private FastMealyState<O> currentState;
+
+    private boolean currentTraceValid;
+
+    public SiftingSession(final ObservationTree<?, I, O> observationTree,
+                          final SymbolQueryOracle<I, O> delegate,
+                          final boolean enableCache) {
+        this.observationTree = observationTree.getObservationTree();
+        this.delegate = delegate;
+        this.enableCache = enableCache;
+        this.currentInputs = new WordBuilder<>();
+        this.currentOutputs = new WordBuilder<>();
+        this.traces = new ArrayList<>();
+    }
+
+    @Override
+    public O query(I i) {
+
+        if (this.currentTraceValid) {
+            final FastMealyState<O> succ = this.observationTree.getSuccessor(this.currentState, i);
+
+            if (succ != null) {
+                final O output = this.observationTree.getOutput(this.currentState, i);
+                this.currentInputs.append(i);
+                this.currentOutputs.append(output);
+                this.currentState = succ;
+                return output;
+            } else {
+                this.currentTraceValid = false;
+                this.delegate.reset();
+
+                for (final I trace : this.currentInputs) {
+                    this.delegate.query(trace);
+                }
+            }
+        }
+
+        final O output = this.delegate.query(i);
+
+        this.currentInputs.append(i);
+        this.currentOutputs.append(output);
+
+        return output;
+    }
+
+    @Override
+    public void reset() {
+        flushTrace();
+
+        this.currentState = this.observationTree.getInitialState();
+        this.currentTraceValid = this.enableCache;
+
+        if (!this.enableCache) {
+            this.delegate.reset();
+        }
+    }
+
+    /**
+     * Returns the traces (each starting in the initial state of the system under learning) that have been observed by
+     * the delegate oracle since the last invocation of this method.
+     *
+     * @return the newly observed traces
+     */
+    public List<Pair<Word<I>, Word<O>>> drainTraces() {
+        flushTrace();
+
+        final List<Pair<Word<I>, Word<O>>> result = new ArrayList<>(this.traces);
+        this.traces.clear();
+        return result;
+    }
+
+    private void flushTrace() {
+        // traces that were fully answered by the observation tree do not carry new information
+        if (this.enableCache && !this.currentTraceValid && !this.currentInputs.isEmpty()) {
+            this.traces.add(Pair.of(this.currentInputs.toWord(), this.currentOutputs.toWord()));
+        }
+
+        this.currentInputs.clear();
+        this.currentOutputs.clear();
+    }
+}
@@ -0,0 +1,144 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.algorithms.adt.learner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import de.learnlib.algorithms.adt.automaton.ADTState;
+import de.learnlib.api.oracle.SymbolQueryOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.examples.mealy.ExampleCoffeeMachine;
+import de.learnlib.examples.mealy.ExampleGrid;
+import de.learnlib.oracle.membership.SULSymbolQueryOracle;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that concurrently sifting open transitions yields the same hypotheses as the sequential mode.
+ *
+ * @author frohme
+ */
+public class ADTParallelSiftingTest {
+
+    private static final int NUM_SESSIONS = 4;
+
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(NUM_SESSIONS);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testCoffeeMachine() {
+        final ExampleCoffeeMachine example = ExampleCoffeeMachine.createExample();
+        checkEquivalentRuns(example.getReferenceAutomaton(), example.getAlphabet(), true);
+        checkEquivalentRuns(example.getReferenceAutomaton(), example.getAlphabet(), false);
+    }
+
+    @Test
+    public void testGrid() {
+        final ExampleGrid example = ExampleGrid.createExample(5, 6);
+        checkEquivalentRuns(example.getReferenceAutomaton(), example.getAlphabet(), true);
+        checkEquivalentRuns(example.getReferenceAutomaton(), example.getAlphabet(), false);
+    }
+
+    @Test
+    public void testRandom() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(1, 5);
+        final MealyMachine<?, Integer, ?, Character> target =
+                RandomAutomata.randomMealy(new Random(42), 50, alphabet, Alphabets.characters('a', 'c'));
+        checkEquivalentRuns(target, alphabet, true);
+        checkEquivalentRuns(target, alphabet, false);
+    }
+
+    private <I, O> void checkEquivalentRuns(MealyMachine<?, I, ?, O> target,
+                                            Alphabet<I> alphabet,
+                                            boolean useObservationTree) {
+
+        final ADTLearner<I, O> sequential = new ADTLearnerBuilder<I, O>().withAlphabet(alphabet)
+                                                                         .withOracle(newOracle(target))
+                                                                         .withUseObservationTree(useObservationTree)
+                                                                         .create();
+        final ADTLearner<I, O> parallel = new ADTLearnerBuilder<I, O>().withAlphabet(alphabet)
+                                                                       .withOracle(newOracle(target))
+                                                                       .withUseObservationTree(useObservationTree)
+                                                                       .create();
+
+        final List<SymbolQueryOracle<I, O>> sessions = new ArrayList<>(NUM_SESSIONS);
+        for (int i = 0; i < NUM_SESSIONS; i++) {
+            sessions.add(newOracle(target));
+        }
+        parallel.setParallelSifting(this.executor, sessions);
+
+        sequential.startLearning();
+        parallel.startLearning();
+        assertEqualHypotheses(sequential, parallel, alphabet);
+
+        Word<I> sepWord;
+        while ((sepWord = Automata.findSeparatingWord(target, sequential.getHypothesisModel(), alphabet)) != null) {
+            final DefaultQuery<I, Word<O>> ce =
+                    new DefaultQuery<>(Word.epsilon(), sepWord, target.computeOutput(sepWord));
+
+            Assert.assertTrue(sequential.refineHypothesis(ce));
+            Assert.assertTrue(parallel.refineHypothesis(ce));
+            assertEqualHypotheses(sequential, parallel, alphabet);
+        }
+
+        Assert.assertNull(Automata.findSeparatingWord(target, parallel.getHypothesisModel(), alphabet));
+    }
+
+    private static <I, O> SymbolQueryOracle<I, O> newOracle(MealyMachine<?, I, ?, O> target) {
+        return new SULSymbolQueryOracle<>(new MealySimulatorSUL<>(target));
+    }
+
+    private static <I, O> void assertEqualHypotheses(ADTLearner<I, O> expected,
+                                                     ADTLearner<I, O> actual,
+                                                     Alphabet<I> alphabet) {
+        Assert.assertEquals(getAccessSequences(actual), getAccessSequences(expected));
+        Assert.assertTrue(Automata.testEquivalence(expected.getHypothesisModel(),
+                                                   actual.getHypothesisModel(),
+                                                   alphabet));
+    }
+
+    private static <I, O> List<Word<I>> getAccessSequences(ADTLearner<I, O> learner) {
+        return learner.suspend()
+                      .getHypothesis()
+                      .getStates()
+                      .stream()
+                      .map(ADTState::getAccessSequence)
+                      .collect(Collectors.toList());
+    }
+}
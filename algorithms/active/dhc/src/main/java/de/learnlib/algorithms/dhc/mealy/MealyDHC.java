@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Queue;
 
 import com.github.misberner.buildergen.annotations.GenerateBuilder;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Interner;
 import com.google.common.collect.Interners;
 import com.google.common.collect.Sets;
@@ -65,6 +66,7 @@ public class MealyDHC<I, O> implements MealyLearner<I, O>,
     private CompactMealy<I, O> hypothesis;
     private MutableMapping<Integer, QueueElement<I, O>> accessSequences;
     private final GlobalSuffixFinder<? super I, ? super Word<O>> suffixFinder;
+    private final int batchSize;
 
     /**
      * Constructor, provided for backwards compatibility reasons.
@@ -91,14 +93,42 @@ public class MealyDHC<I, O> implements MealyLearner<I, O>,
      *         the initial set of splitters, {@code null} or an empty collection will result in the set of splitters
      *         being initialized as the set of alphabet symbols (interpreted as {@link Word}s)
      */
-    @GenerateBuilder(defaults = BuilderDefaults.class, builderFinal = false)
     public MealyDHC(Alphabet<I> alphabet,
                     MembershipOracle<I, Word<O>> oracle,
                     GlobalSuffixFinder<? super I, ? super Word<O>> suffixFinder,
                     Collection<? extends Word<I>> initialSplitters) {
+        this(alphabet, oracle, suffixFinder, initialSplitters, 1);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the learning alphabet
+     * @param oracle
+     *         the learning membership oracle
+     * @param suffixFinder
+     *         the {@link GlobalSuffixFinder suffix finder} to use for analyzing counterexamples
+     * @param initialSplitters
+     *         the initial set of splitters, {@code null} or an empty collection will result in the set of splitters
+     *         being initialized as the set of alphabet symbols (interpreted as {@link Word}s)
+     * @param batchSize
+     *         the maximum number of (breadth-first) exploration queue elements whose queries are submitted to the
+     *         membership oracle in a single batch. Larger values allow parallel oracles to process the queries of
+     *         several states at once, but do not change the learned hypothesis.
+     */
+    @GenerateBuilder(defaults = BuilderDefaults.class, builderFinal = false)
+    public MealyDHC(Alphabet<I> alphabet,
+                    MembershipOracle<I, Word<O>> oracle,
+                    GlobalSuffixFinder<? super I, ? super Word<O>> suffixFinder,
+                    Collection<? extends Word<I>> initialSplitters,
+                    int batchSize) {
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be positive");
+
         this.alphabet = alphabet;
         this.oracle = oracle;
         this.suffixFinder = suffixFinder;
+        this.batchSize = batchSize;
         // ensure that the first k splitters are the k alphabet symbols,
         // in correct order (this is required by scheduleSuccessors)
         for (I symbol : alphabet) {
@@ -162,63 +192,56 @@ public class MealyDHC<I, O> implements MealyLearner<I, O>,
         Interner<Word<O>> deduplicator = Interners.newStrongInterner();
 
         while (!queue.isEmpty()) {
-            // get element to be explored from queue
-            QueueElement<I, O> elem = queue.poll();
-
-            // determine access sequence for state
-            Word<I> access = assembleAccessSequence(elem);
+            // get elements to be explored from queue
+            List<QueueElement<I, O>> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+            while (batch.size() < batchSize && !queue.isEmpty()) {
+                batch.add(queue.poll());
+            }
 
             // assemble queries
-            ArrayList<DefaultQuery<I, Word<O>>> queries = new ArrayList<>(splitters.size());
-            for (Word<I> suffix : splitters) {
-                queries.add(new DefaultQuery<>(access, suffix));
+            ArrayList<DefaultQuery<I, Word<O>>> queries = new ArrayList<>(batch.size() * splitters.size());
+            for (QueueElement<I, O> elem : batch) {
+                Word<I> access = elem.getAccessSequence();
+                for (Word<I> suffix : splitters) {
+                    queries.add(new DefaultQuery<>(access, suffix));
+                }
             }
 
             // retrieve answers
             oracle.processQueries(queries);
 
-            // assemble output signature
-            List<Word<O>> sig = new ArrayList<>(splitters.size());
-            for (DefaultQuery<I, Word<O>> query : queries) {
-                sig.add(deduplicator.intern(query.getOutput()));
-            }
-
-            Integer sibling = signatures.get(sig);
-
-            if (sibling != null) {
-                // this element does not possess a new output signature
-                // create a transition from parent state to sibling
-                hypothesis.addTransition(elem.parentState, elem.transIn, sibling, elem.transOut);
-            } else {
-                // this is actually an observably distinct state! Progress!
-                // Create state and connect via transition to parent
-                Integer state = elem.parentElement == null ? hypothesis.addInitialState() : hypothesis.addState();
-                if (elem.parentElement != null) {
-                    hypothesis.addTransition(elem.parentState, elem.transIn, state, elem.transOut);
+            // process the elements in the order they have been polled, so that the resulting hypothesis is identical
+            // to the one of a sequential exploration (new elements are only appended to the queue)
+            Iterator<DefaultQuery<I, Word<O>>> answers = queries.iterator();
+            for (QueueElement<I, O> elem : batch) {
+                // assemble output signature
+                List<Word<O>> sig = new ArrayList<>(splitters.size());
+                for (int i = 0; i < splitters.size(); i++) {
+                    sig.add(deduplicator.intern(answers.next().getOutput()));
                 }
-                signatures.put(sig, state);
-                accessSequences.put(state, elem);
 
-                scheduleSuccessors(elem, state, queue, sig);
+                Integer sibling = signatures.get(sig);
+
+                if (sibling != null) {
+                    // this element does not possess a new output signature
+                    // create a transition from parent state to sibling
+                    hypothesis.addTransition(elem.parentState, elem.transIn, sibling, elem.transOut);
+                } else {
+                    // this is actually an observably distinct state! Progress!
+                    // Create state and connect via transition to parent
+                    Integer state = elem.parentElement == null ? hypothesis.addInitialState() : hypothesis.addState();
+                    if (elem.parentElement != null) {
+                        hypothesis.addTransition(elem.parentState, elem.transIn, state, elem.transOut);
+                    }
+                    signatures.put(sig, state);
+                    accessSequences.put(state, elem);
+
+                    scheduleSuccessors(elem, state, queue, sig);
+                }
             }
         }
     }
 
-    private Word<I> assembleAccessSequence(QueueElement<I, O> elem) {
-        List<I> word = new ArrayList<>(elem.depth);
-
-        QueueElement<I, O> pre = elem.parentElement;
-        I sym = elem.transIn;
-        while (pre != null && sym != null) {
-            word.add(sym);
-            sym = pre.transIn;
-            pre = pre.parentElement;
-        }
-
-        Collections.reverse(word);
-        return Word.fromList(word);
-    }
-
     private void scheduleSuccessors(QueueElement<I, O> elem,
                                     Integer state,
                                     Queue<QueueElement<I, O>> queue,
@@ -293,7 +316,7 @@ public class MealyDHC<I, O> implements MealyLearner<I, O>,
     public Word<I> transformAccessSequence(Word<I> word) {
         checkInternalState();
         Integer state = hypothesis.getSuccessor(hypothesis.getInitialState(), word);
-        return assembleAccessSequence(accessSequences.get(state));
+        return accessSequences.get(state).getAccessSequence();
     }
 
     @Override
@@ -316,6 +339,10 @@ public class MealyDHC<I, O> implements MealyLearner<I, O>,
         public static <I> Collection<Word<I>> initialSplitters() {
             return null;
         }
+
+        public static int batchSize() {
+            return 1;
+        }
     }
 
     static final class QueueElement<I, O> implements Serializable {
@@ -325,6 +352,8 @@ public class MealyDHC<I, O> implements MealyLearner<I, O>,
         private final I transIn;
         private final O transOut;
         private final int depth;
+        // lazily computed (and not serialized), so that each access sequence is only assembled once
+        private transient Word<I> accessSequence;
 
         QueueElement(Integer parentState, QueueElement<I, O> parentElement, I transIn, O transOut) {
             this.parentState = parentState;
@@ -333,5 +362,16 @@ public class MealyDHC<I, O> implements MealyLearner<I, O>,
             this.transOut = transOut;
             this.depth = (parentElement != null) ? parentElement.depth + 1 : 0;
         }
+
+        Word<I> getAccessSequence() {
+            if (accessSequence == null) {
+                if (parentElement == null) {
+                    accessSequence = Word.epsilon();
+                } else {
+                    accessSequence = parentElement.getAccessSequence().append(transIn);
+                }
+            }
+            return accessSequence;
+        }
     }
 }
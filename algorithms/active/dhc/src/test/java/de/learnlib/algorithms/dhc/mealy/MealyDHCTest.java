@@ -18,7 +18,9 @@ package de.learnlib.algorithms.dhc.mealy;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.DefaultQuery;
 import de.learnlib.examples.mealy.ExampleCoffeeMachine;
 import de.learnlib.examples.mealy.ExampleGrid;
@@ -28,6 +30,7 @@ import de.learnlib.oracle.membership.SimulatorOracle;
 import de.learnlib.oracle.membership.SimulatorOracle.MealySimulatorOracle;
 import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
@@ -153,6 +156,64 @@ public class MealyDHCTest {
 
     }
 
+    @Test
+    public void testMealyDHCBatched() {
+        ExampleStack stackExample = ExampleStack.createExample();
+        MealyMachine<?, ExampleStack.Input, ?, ExampleStack.Output> fm = stackExample.getReferenceAutomaton();
+        Alphabet<ExampleStack.Input> inputs = stackExample.getAlphabet();
+
+        MealySimulatorEQOracle<ExampleStack.Input, ExampleStack.Output> eqoracle = new MealySimulatorEQOracle<>(fm);
+
+        for (int batchSize : new int[] {2, 10, Integer.MAX_VALUE}) {
+            AtomicInteger sequentialQueries = new AtomicInteger();
+            AtomicInteger batchedQueries = new AtomicInteger();
+
+            MealyDHC<ExampleStack.Input, ExampleStack.Output> sequential =
+                    new MealyDHC<>(inputs, countingOracle(fm, sequentialQueries));
+            MealyDHC<ExampleStack.Input, ExampleStack.Output> batched =
+                    new MealyDHCBuilder<ExampleStack.Input, ExampleStack.Output>().withAlphabet(inputs)
+                                                                                  .withOracle(countingOracle(fm,
+                                                                                                             batchedQueries))
+                                                                                  .withBatchSize(batchSize)
+                                                                                  .create();
+
+            sequential.startLearning();
+            batched.startLearning();
+
+            DefaultQuery<ExampleStack.Input, Word<ExampleStack.Output>> counterexample;
+            do {
+                // batching must not change the hypothesis (including its state numbering)
+                Assert.assertTrue(Automata.testEquivalence(sequential.getHypothesisModel(),
+                                                           batched.getHypothesisModel(),
+                                                           inputs));
+                for (Integer s : sequential.getHypothesisModel().getStates()) {
+                    for (ExampleStack.Input i : inputs) {
+                        Assert.assertEquals(batched.getHypothesisModel().getSuccessor(s, i),
+                                            sequential.getHypothesisModel().getSuccessor(s, i));
+                    }
+                }
+
+                counterexample = eqoracle.findCounterExample(sequential.getHypothesisModel(), inputs);
+                if (counterexample != null) {
+                    sequential.refineHypothesis(counterexample);
+                    batched.refineHypothesis(counterexample);
+                }
+            } while (counterexample != null);
+
+            Assert.assertTrue(Automata.testEquivalence(fm, batched.getHypothesisModel(), inputs));
+            Assert.assertEquals(batchedQueries.get(), sequentialQueries.get());
+        }
+    }
+
+    private static <I, O> MembershipOracle<I, Word<O>> countingOracle(MealyMachine<?, I, ?, O> machine,
+                                                                      AtomicInteger counter) {
+        final SimulatorOracle<I, Word<O>> delegate = new SimulatorOracle<>(machine);
+        return queries -> {
+            counter.addAndGet(queries.size());
+            delegate.processQueries(queries);
+        };
+    }
+
     @Test
     public void testMealyDHCRandom() {
 
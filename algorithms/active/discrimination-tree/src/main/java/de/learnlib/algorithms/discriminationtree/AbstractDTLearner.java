@@ -46,6 +46,7 @@ public abstract class AbstractDTLearner<M extends SuffixOutput<I, D>, I, D, SP,
     private final MembershipOracle<I, D> oracle;
     private final LocalSuffixFinder<? super I, ? super D> suffixFinder;
     private final boolean repeatedCounterexampleEvaluation;
+    private final int speculationDepth;
     private final List<HState<I, D, SP, TP>> newStates = new ArrayList<>();
     private final List<HTransition<I, D, SP, TP>> newTransitions = new ArrayList<>();
     private final Deque<HTransition<I, D, SP, TP>> openTransitions = new ArrayDeque<>();
@@ -57,12 +58,23 @@ public abstract class AbstractDTLearner<M extends SuffixOutput<I, D>, I, D, SP,
                                 LocalSuffixFinder<? super I, ? super D> suffixFinder,
                                 boolean repeatedCounterexampleEvaluation,
                                 AbstractWordBasedDiscriminationTree<I, D, HState<I, D, SP, TP>> dtree) {
+        this(alphabet, oracle, suffixFinder, repeatedCounterexampleEvaluation, dtree, 1);
+    }
+
+    protected AbstractDTLearner(Alphabet<I> alphabet,
+                                MembershipOracle<I, D> oracle,
+                                LocalSuffixFinder<? super I, ? super D> suffixFinder,
+                                boolean repeatedCounterexampleEvaluation,
+                                AbstractWordBasedDiscriminationTree<I, D, HState<I, D, SP, TP>> dtree,
+                                int speculationDepth) {
         this.alphabet = alphabet;
         this.oracle = oracle;
         this.suffixFinder = suffixFinder;
         this.hypothesis = new DTLearnerHypothesis<>(alphabet);
         this.dtree = dtree;
         this.repeatedCounterexampleEvaluation = repeatedCounterexampleEvaluation;
+        this.speculationDepth = speculationDepth;
+        this.dtree.setSpeculationDepth(speculationDepth);
     }
 
     @Override
@@ -260,6 +272,7 @@ public abstract class AbstractDTLearner<M extends SuffixOutput<I, D>, I, D, SP,
         this.hypothesis = state.getHypothesis();
         this.dtree = state.getDtree();
         this.dtree.setOracle(oracle);
+        this.dtree.setSpeculationDepth(speculationDepth);
     }
 
     public static final class BuilderDefaults {
@@ -275,6 +288,10 @@ public abstract class AbstractDTLearner<M extends SuffixOutput<I, D>, I, D, SP,
         public static boolean repeatedCounterexampleEvaluation() {
             return true;
         }
+
+        public static int speculationDepth() {
+            return 1;
+        }
     }
 
 }
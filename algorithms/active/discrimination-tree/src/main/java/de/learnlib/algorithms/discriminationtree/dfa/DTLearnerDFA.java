@@ -55,13 +55,42 @@ public class DTLearnerDFA<I> extends AbstractDTLearner<DFA<?, I>, I, Boolean, Bo
      * @param epsilonRoot
      *         whether or not to ensure the root of the discrimination tree is always labeled using the empty word.
      */
-    @GenerateBuilder
     public DTLearnerDFA(Alphabet<I> alphabet,
                         MembershipOracle<I, Boolean> oracle,
                         LocalSuffixFinder<? super I, ? super Boolean> suffixFinder,
                         boolean repeatedCounterexampleEvaluation,
                         boolean epsilonRoot) {
-        super(alphabet, oracle, suffixFinder, repeatedCounterexampleEvaluation, new BinaryDTree<>(oracle));
+        this(alphabet, oracle, suffixFinder, repeatedCounterexampleEvaluation, epsilonRoot, 1);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param oracle
+     *         the membership oracle
+     * @param suffixFinder
+     *         method to use for analyzing counterexamples
+     * @param epsilonRoot
+     *         whether or not to ensure the root of the discrimination tree is always labeled using the empty word.
+     * @param speculationDepth
+     *         the number of discrimination tree levels that are queried in a single batch when sifting (see {@link
+     *         BinaryDTree#setSpeculationDepth(int)})
+     */
+    @GenerateBuilder
+    public DTLearnerDFA(Alphabet<I> alphabet,
+                        MembershipOracle<I, Boolean> oracle,
+                        LocalSuffixFinder<? super I, ? super Boolean> suffixFinder,
+                        boolean repeatedCounterexampleEvaluation,
+                        boolean epsilonRoot,
+                        int speculationDepth) {
+        super(alphabet,
+              oracle,
+              suffixFinder,
+              repeatedCounterexampleEvaluation,
+              new BinaryDTree<>(oracle),
+              speculationDepth);
         this.hypWrapper = new HypothesisWrapperDFA<>(hypothesis);
         if (epsilonRoot) {
             dtree.getRoot().split(Word.epsilon(), false, true);
@@ -112,6 +141,10 @@ public class DTLearnerDFA<I> extends AbstractDTLearner<DFA<?, I>, I, Boolean, Bo
         public static boolean repeatedCounterexampleEvaluation() {
             return true;
         }
+
+        public static int speculationDepth() {
+            return 1;
+        }
     }
 
 }
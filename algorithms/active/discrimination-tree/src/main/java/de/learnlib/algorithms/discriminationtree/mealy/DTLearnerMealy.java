@@ -53,12 +53,38 @@ public class DTLearnerMealy<I, O> extends AbstractDTLearner<MealyMachine<?, I, ?
      * @param suffixFinder
      *         method to use for analyzing counterexamples
      */
-    @GenerateBuilder(defaults = AbstractDTLearner.BuilderDefaults.class)
     public DTLearnerMealy(Alphabet<I> alphabet,
                           MembershipOracle<I, Word<O>> oracle,
                           LocalSuffixFinder<? super I, ? super Word<O>> suffixFinder,
                           boolean repeatedCounterexampleEvaluation) {
-        super(alphabet, oracle, suffixFinder, repeatedCounterexampleEvaluation, new MultiDTree<>(oracle));
+        this(alphabet, oracle, suffixFinder, repeatedCounterexampleEvaluation, 1);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param oracle
+     *         the membership oracle
+     * @param suffixFinder
+     *         method to use for analyzing counterexamples
+     * @param speculationDepth
+     *         the number of discrimination tree levels that are queried in a single batch when sifting (see {@link
+     *         MultiDTree#setSpeculationDepth(int)})
+     */
+    @GenerateBuilder(defaults = AbstractDTLearner.BuilderDefaults.class)
+    public DTLearnerMealy(Alphabet<I> alphabet,
+                          MembershipOracle<I, Word<O>> oracle,
+                          LocalSuffixFinder<? super I, ? super Word<O>> suffixFinder,
+                          boolean repeatedCounterexampleEvaluation,
+                          int speculationDepth) {
+        super(alphabet,
+              oracle,
+              suffixFinder,
+              repeatedCounterexampleEvaluation,
+              new MultiDTree<>(oracle),
+              speculationDepth);
         this.hypWrapper = new HypothesisWrapperMealy<>(hypothesis);
     }
 
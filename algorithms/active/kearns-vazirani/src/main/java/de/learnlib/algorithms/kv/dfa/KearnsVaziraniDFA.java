@@ -58,6 +58,7 @@ public class KearnsVaziraniDFA<I>
     private final MembershipOracle<I, Boolean> oracle;
     private final boolean repeatedCounterexampleEvaluation;
     private final AcexAnalyzer ceAnalyzer;
+    private final int speculationDepth;
     protected BinaryDTree<I, StateInfo<I, Boolean>> discriminationTree;
     protected List<StateInfo<I, Boolean>> stateInfos = new ArrayList<>();
     private CompactDFA<I> hypothesis;
@@ -70,17 +71,38 @@ public class KearnsVaziraniDFA<I>
      * @param oracle
      *         the membership oracle
      */
-    @GenerateBuilder
     public KearnsVaziraniDFA(Alphabet<I> alphabet,
                              MembershipOracle<I, Boolean> oracle,
                              boolean repeatedCounterexampleEvaluation,
                              AcexAnalyzer counterexampleAnalyzer) {
+        this(alphabet, oracle, repeatedCounterexampleEvaluation, counterexampleAnalyzer, 1);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the learning alphabet
+     * @param oracle
+     *         the membership oracle
+     * @param speculationDepth
+     *         the number of discrimination tree levels that are queried in a single batch when sifting (see {@link
+     *         BinaryDTree#setSpeculationDepth(int)})
+     */
+    @GenerateBuilder
+    public KearnsVaziraniDFA(Alphabet<I> alphabet,
+                             MembershipOracle<I, Boolean> oracle,
+                             boolean repeatedCounterexampleEvaluation,
+                             AcexAnalyzer counterexampleAnalyzer,
+                             int speculationDepth) {
         this.alphabet = alphabet;
         this.hypothesis = new CompactDFA<>(alphabet);
         this.discriminationTree = new BinaryDTree<>(oracle);
         this.oracle = oracle;
         this.repeatedCounterexampleEvaluation = repeatedCounterexampleEvaluation;
         this.ceAnalyzer = counterexampleAnalyzer;
+        this.speculationDepth = speculationDepth;
+        this.discriminationTree.setSpeculationDepth(speculationDepth);
     }
 
     @Override
@@ -335,6 +357,7 @@ public class KearnsVaziraniDFA<I>
         this.hypothesis = state.getHypothesis();
         this.discriminationTree = state.getDiscriminationTree();
         this.discriminationTree.setOracle(oracle);
+        this.discriminationTree.setSpeculationDepth(speculationDepth);
         this.stateInfos = state.getStateInfos();
     }
 
@@ -351,6 +374,10 @@ public class KearnsVaziraniDFA<I>
         public static AcexAnalyzer counterexampleAnalyzer() {
             return AcexAnalyzers.LINEAR_FWD;
         }
+
+        public static int speculationDepth() {
+            return 1;
+        }
     }
 
     protected class KVAbstractCounterexample extends AbstractBaseCounterexample<Boolean> {
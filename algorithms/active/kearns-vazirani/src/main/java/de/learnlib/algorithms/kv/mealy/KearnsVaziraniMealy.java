@@ -60,21 +60,32 @@ public class KearnsVaziraniMealy<I, O>
     private final MembershipOracle<I, Word<O>> oracle;
     private final boolean repeatedCounterexampleEvaluation;
     private final AcexAnalyzer ceAnalyzer;
+    private final int speculationDepth;
     protected MultiDTree<I, Word<O>, StateInfo<I, Word<O>>> discriminationTree;
     protected List<StateInfo<I, Word<O>>> stateInfos = new ArrayList<>();
     private CompactMealy<I, O> hypothesis;
 
-    @GenerateBuilder
     public KearnsVaziraniMealy(Alphabet<I> alphabet,
                                MembershipOracle<I, Word<O>> oracle,
                                boolean repeatedCounterexampleEvaluation,
                                AcexAnalyzer counterexampleAnalyzer) {
+        this(alphabet, oracle, repeatedCounterexampleEvaluation, counterexampleAnalyzer, 1);
+    }
+
+    @GenerateBuilder
+    public KearnsVaziraniMealy(Alphabet<I> alphabet,
+                               MembershipOracle<I, Word<O>> oracle,
+                               boolean repeatedCounterexampleEvaluation,
+                               AcexAnalyzer counterexampleAnalyzer,
+                               int speculationDepth) {
         this.alphabet = alphabet;
         this.hypothesis = new CompactMealy<>(alphabet);
         this.oracle = oracle;
         this.repeatedCounterexampleEvaluation = repeatedCounterexampleEvaluation;
         this.discriminationTree = new MultiDTree<>(oracle);
         this.ceAnalyzer = counterexampleAnalyzer;
+        this.speculationDepth = speculationDepth;
+        this.discriminationTree.setSpeculationDepth(speculationDepth);
     }
 
     @Override
@@ -355,6 +366,7 @@ public class KearnsVaziraniMealy<I, O>
         this.hypothesis = state.getHypothesis();
         this.discriminationTree = state.getDiscriminationTree();
         this.discriminationTree.setOracle(oracle);
+        this.discriminationTree.setSpeculationDepth(speculationDepth);
         this.stateInfos = state.getStateInfos();
     }
 
@@ -371,6 +383,10 @@ public class KearnsVaziraniMealy<I, O>
         public static AcexAnalyzer counterexampleAnalyzer() {
             return AcexAnalyzers.LINEAR_FWD;
         }
+
+        public static int speculationDepth() {
+            return 1;
+        }
     }
 
     protected class KVAbstractCounterexample extends AbstractBaseCounterexample<Boolean> {
@@ -23,6 +23,7 @@ import java.util.List;
 import de.learnlib.api.Resumable;
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.datastructure.observationtable.AbstractObservationTable;
 import de.learnlib.datastructure.observationtable.ObservationTable;
 import de.learnlib.datastructure.observationtable.Row;
 import net.automatalib.SupportsGrowingAlphabet;
@@ -68,6 +69,28 @@ public abstract class AbstractAutomatonLStar<A, I, D, S, T, SP, TP, AI extends M
         internalHyp.clear();
     }
 
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the learning alphabet
+     * @param oracle
+     *         the learning oracle
+     * @param internalHyp
+     *         the internal hypothesis, which is cleared upon construction
+     * @param table
+     *         the (uninitialized) observation table to use, e.g. a {@link
+     *         de.learnlib.datastructure.observationtable.GenericObservationTable#createPacked(Alphabet) packed} one
+     */
+    protected AbstractAutomatonLStar(Alphabet<I> alphabet,
+                                     MembershipOracle<I, D> oracle,
+                                     AI internalHyp,
+                                     AbstractObservationTable<I, D> table) {
+        super(alphabet, oracle, table);
+        this.internalHyp = internalHyp;
+        internalHyp.clear();
+    }
+
     @Override
     public A getHypothesisModel() {
         return exposeInternalHypothesis();
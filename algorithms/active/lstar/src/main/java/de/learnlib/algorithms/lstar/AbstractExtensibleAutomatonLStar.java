@@ -24,6 +24,8 @@ import de.learnlib.algorithms.lstar.closing.ClosingStrategies;
 import de.learnlib.algorithms.lstar.closing.ClosingStrategy;
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.datastructure.observationtable.AbstractObservationTable;
+import de.learnlib.datastructure.observationtable.GenericObservationTable;
 import de.learnlib.datastructure.observationtable.Row;
 import net.automatalib.SupportsGrowingAlphabet;
 import net.automatalib.automata.MutableDeterministic;
@@ -45,13 +47,31 @@ public abstract class AbstractExtensibleAutomatonLStar<A, I, D, S, T, SP, TP, AI
                                                List<Word<I>> initialSuffixes,
                                                ObservationTableCEXHandler<? super I, ? super D> cexHandler,
                                                ClosingStrategy<? super I, ? super D> closingStrategy) {
-        super(alphabet, oracle, internalHyp);
+        this(alphabet, oracle, internalHyp, initialPrefixes, initialSuffixes, cexHandler, closingStrategy, false);
+    }
+
+    protected AbstractExtensibleAutomatonLStar(Alphabet<I> alphabet,
+                                               MembershipOracle<I, D> oracle,
+                                               AI internalHyp,
+                                               List<Word<I>> initialPrefixes,
+                                               List<Word<I>> initialSuffixes,
+                                               ObservationTableCEXHandler<? super I, ? super D> cexHandler,
+                                               ClosingStrategy<? super I, ? super D> closingStrategy,
+                                               boolean packedTable) {
+        super(alphabet, oracle, internalHyp, createTable(alphabet, packedTable));
         this.initialPrefixes = initialPrefixes;
         this.initialSuffixes = initialSuffixes;
         this.cexHandler = cexHandler;
         this.closingStrategy = closingStrategy;
     }
 
+    private static <I, D> AbstractObservationTable<I, D> createTable(Alphabet<I> alphabet, boolean packedTable) {
+        if (packedTable) {
+            return GenericObservationTable.createPacked(alphabet);
+        }
+        return new GenericObservationTable<>(alphabet);
+    }
+
     @Override
     protected void refineHypothesisInternal(DefaultQuery<I, D> ceQuery) {
         List<List<Row<I>>> unclosed = cexHandler.handleCounterexample(ceQuery, table, hypothesisOutput(), oracle);
@@ -95,6 +115,10 @@ public abstract class AbstractExtensibleAutomatonLStar<A, I, D, S, T, SP, TP, AI
             return ClosingStrategies.CLOSE_FIRST;
         }
 
+        public static boolean packedTable() {
+            return false;
+        }
+
     }
 
 }
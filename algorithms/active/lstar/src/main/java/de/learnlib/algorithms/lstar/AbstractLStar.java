@@ -70,9 +70,23 @@ public abstract class AbstractLStar<A, I, D>
      *         the membership oracle.
      */
     protected AbstractLStar(Alphabet<I> alphabet, MembershipOracle<I, D> oracle) {
+        this(alphabet, oracle, new GenericObservationTable<>(alphabet));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the learning alphabet.
+     * @param oracle
+     *         the membership oracle.
+     * @param table
+     *         the (uninitialized) observation table to use.
+     */
+    protected AbstractLStar(Alphabet<I> alphabet, MembershipOracle<I, D> oracle, AbstractObservationTable<I, D> table) {
         this.alphabet = alphabet;
         this.oracle = oracle;
-        this.table = new GenericObservationTable<>(alphabet);
+        this.table = table;
     }
 
     @Override
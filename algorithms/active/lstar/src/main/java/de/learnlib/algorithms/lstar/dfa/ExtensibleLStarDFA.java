@@ -61,20 +61,31 @@ public class ExtensibleLStarDFA<I>
         this(alphabet, oracle, Collections.singletonList(Word.epsilon()), initialSuffixes, cexHandler, closingStrategy);
     }
 
-    @GenerateBuilder(defaults = AbstractExtensibleAutomatonLStar.BuilderDefaults.class)
     public ExtensibleLStarDFA(Alphabet<I> alphabet,
                               MembershipOracle<I, Boolean> oracle,
                               List<Word<I>> initialPrefixes,
                               List<Word<I>> initialSuffixes,
                               ObservationTableCEXHandler<? super I, ? super Boolean> cexHandler,
                               ClosingStrategy<? super I, ? super Boolean> closingStrategy) {
+        this(alphabet, oracle, initialPrefixes, initialSuffixes, cexHandler, closingStrategy, false);
+    }
+
+    @GenerateBuilder(defaults = AbstractExtensibleAutomatonLStar.BuilderDefaults.class)
+    public ExtensibleLStarDFA(Alphabet<I> alphabet,
+                              MembershipOracle<I, Boolean> oracle,
+                              List<Word<I>> initialPrefixes,
+                              List<Word<I>> initialSuffixes,
+                              ObservationTableCEXHandler<? super I, ? super Boolean> cexHandler,
+                              ClosingStrategy<? super I, ? super Boolean> closingStrategy,
+                              boolean packedTable) {
         super(alphabet,
               oracle,
               new CompactDFA<>(alphabet),
               initialPrefixes,
               LStarDFAUtil.ensureSuffixCompliancy(initialSuffixes),
               cexHandler,
-              closingStrategy);
+              closingStrategy,
+              packedTable);
     }
 
     @Override
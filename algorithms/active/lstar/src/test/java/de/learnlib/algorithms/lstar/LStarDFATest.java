@@ -22,6 +22,7 @@ import java.util.List;
 import de.learnlib.algorithms.lstar.ce.ObservationTableCEXHandler;
 import de.learnlib.algorithms.lstar.closing.ClosingStrategy;
 import de.learnlib.algorithms.lstar.dfa.ExtensibleLStarDFA;
+import de.learnlib.algorithms.lstar.dfa.ExtensibleLStarDFABuilder;
 import de.learnlib.api.algorithm.LearningAlgorithm;
 import de.learnlib.api.oracle.EquivalenceOracle;
 import de.learnlib.api.oracle.MembershipOracle.DFAMembershipOracle;
@@ -64,6 +65,16 @@ public class LStarDFATest extends LearningTest {
                             new ExtensibleLStarDFA<>(alphabet, dfaOracle, suffixes, handler, strategy);
 
                     testLearnModel(targetDFA, alphabet, learner, dfaOracle, eqOracle);
+
+                    LearningAlgorithm<? extends DFA<?, Symbol>, Symbol, Boolean> packedLearner =
+                            new ExtensibleLStarDFABuilder<Symbol>().withAlphabet(alphabet)
+                                                                   .withOracle(dfaOracle)
+                                                                   .withCexHandler(handler)
+                                                                   .withClosingStrategy(strategy)
+                                                                   .withPackedTable(true)
+                                                                   .create();
+
+                    testLearnModel(targetDFA, alphabet, packedLearner, dfaOracle, eqOracle);
                 }
             }
         }
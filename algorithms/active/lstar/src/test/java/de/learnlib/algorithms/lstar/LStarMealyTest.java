@@ -21,6 +21,7 @@ import java.util.List;
 import de.learnlib.algorithms.lstar.ce.ObservationTableCEXHandler;
 import de.learnlib.algorithms.lstar.closing.ClosingStrategy;
 import de.learnlib.algorithms.lstar.mealy.ClassicLStarMealy;
+import de.learnlib.algorithms.lstar.mealy.ClassicLStarMealyBuilder;
 import de.learnlib.algorithms.lstar.mealy.ExtensibleLStarMealy;
 import de.learnlib.api.algorithm.LearningAlgorithm;
 import de.learnlib.api.oracle.EquivalenceOracle;
@@ -61,6 +62,17 @@ public class LStarMealyTest extends LearningTest {
                         learner = ClassicLStarMealy.createForWordOracle(alphabet, oracle, handler, strategy);
 
                 testLearnModel(mealy, alphabet, learner, MealyUtil.wrapWordOracle(oracle), mealySymEqOracle);
+
+                LearningAlgorithm<MealyMachine<?, ExampleStack.Input, ?, ExampleStack.Output>, ExampleStack.Input, ExampleStack.Output>
+                        packedLearner = new ClassicLStarMealyBuilder<ExampleStack.Input, ExampleStack.Output>()
+                        .withAlphabet(alphabet)
+                        .withOracle(MealyUtil.wrapWordOracle(oracle))
+                        .withCexHandler(handler)
+                        .withClosingStrategy(strategy)
+                        .withPackedTable(true)
+                        .create();
+
+                testLearnModel(mealy, alphabet, packedLearner, MealyUtil.wrapWordOracle(oracle), mealySymEqOracle);
             }
         }
     }
@@ -36,13 +36,17 @@ public class ClassicLStarMealyIT extends AbstractMealySymLearnerIT {
         builder.setAlphabet(alphabet);
         builder.setOracle(mqOracle);
 
-        for (ObservationTableCEXHandler<? super I, ? super O> handler : ObservationTableCEXHandlers.values()) {
-            builder.setCexHandler(handler);
-            for (ClosingStrategy<? super I, ? super O> closingStrategy : ClosingStrategies.values()) {
-                builder.setClosingStrategy(closingStrategy);
+        for (boolean packedTable : new boolean[] {false, true}) {
+            builder.setPackedTable(packedTable);
+            for (ObservationTableCEXHandler<? super I, ? super O> handler : ObservationTableCEXHandlers.values()) {
+                builder.setCexHandler(handler);
+                for (ClosingStrategy<? super I, ? super O> closingStrategy : ClosingStrategies.values()) {
+                    builder.setClosingStrategy(closingStrategy);
 
-                String variantName = "cexHandler=" + handler + ",closingStrategy=" + closingStrategy;
-                variants.addLearnerVariant(variantName, builder.create());
+                    String variantName = "cexHandler=" + handler + ",closingStrategy=" + closingStrategy +
+                                         ",packedTable=" + packedTable;
+                    variants.addLearnerVariant(variantName, builder.create());
+                }
             }
         }
     }
@@ -62,6 +62,7 @@ public abstract class AbstractTTTLearner<A, I, D>
     protected final Alphabet<I> alphabet;
     protected final MembershipOracle<I, D> oracle;
     protected final AcexAnalyzer analyzer;
+    private final int speculationDepth;
     /**
      * Open transitions, i.e., transitions that possibly point to a non-leaf node in the discrimination tree.
      */
@@ -79,11 +80,22 @@ public abstract class AbstractTTTLearner<A, I, D>
                                  AbstractTTTHypothesis<I, D, ?> hypothesis,
                                  BaseTTTDiscriminationTree<I, D> dtree,
                                  AcexAnalyzer analyzer) {
+        this(alphabet, oracle, hypothesis, dtree, analyzer, 1);
+    }
+
+    protected AbstractTTTLearner(Alphabet<I> alphabet,
+                                 MembershipOracle<I, D> oracle,
+                                 AbstractTTTHypothesis<I, D, ?> hypothesis,
+                                 BaseTTTDiscriminationTree<I, D> dtree,
+                                 AcexAnalyzer analyzer,
+                                 int speculationDepth) {
         this.alphabet = alphabet;
         this.hypothesis = hypothesis;
         this.oracle = oracle;
         this.dtree = dtree;
         this.analyzer = analyzer;
+        this.speculationDepth = speculationDepth;
+        this.dtree.setSpeculationDepth(speculationDepth);
     }
 
     /**
@@ -977,6 +989,7 @@ public abstract class AbstractTTTLearner<A, I, D>
         this.hypothesis.setAlphabet(alphabet);
         this.dtree = state.getDiscriminationTree();
         this.dtree.setOracle(oracle);
+        this.dtree.setSpeculationDepth(speculationDepth);
     }
 
     public static final class BuilderDefaults {
@@ -988,6 +1001,10 @@ public abstract class AbstractTTTLearner<A, I, D>
         public static AcexAnalyzer analyzer() {
             return AcexAnalyzers.BINARY_SEARCH_BWD;
         }
+
+        public static int speculationDepth() {
+            return 1;
+        }
     }
 
     /**
@@ -34,20 +34,36 @@ import net.automatalib.words.Word;
 
 public class TTTLearnerDFA<I> extends AbstractTTTLearner<DFA<?, I>, I, Boolean> implements DFALearner<I> {
 
-    @GenerateBuilder(defaults = AbstractTTTLearner.BuilderDefaults.class)
     public TTTLearnerDFA(Alphabet<I> alphabet, MembershipOracle<I, Boolean> oracle, AcexAnalyzer analyzer) {
-        this(alphabet, oracle, analyzer, TTTDTNodeDFA::new);
+        this(alphabet, oracle, analyzer, 1);
+    }
+
+    @GenerateBuilder(defaults = AbstractTTTLearner.BuilderDefaults.class)
+    public TTTLearnerDFA(Alphabet<I> alphabet,
+                         MembershipOracle<I, Boolean> oracle,
+                         AcexAnalyzer analyzer,
+                         int speculationDepth) {
+        this(alphabet, oracle, analyzer, TTTDTNodeDFA::new, speculationDepth);
     }
 
     protected TTTLearnerDFA(Alphabet<I> alphabet,
                             MembershipOracle<I, Boolean> oracle,
                             AcexAnalyzer analyzer,
                             Supplier<? extends AbstractBaseDTNode<I, Boolean>> rootSupplier) {
+        this(alphabet, oracle, analyzer, rootSupplier, 1);
+    }
+
+    protected TTTLearnerDFA(Alphabet<I> alphabet,
+                            MembershipOracle<I, Boolean> oracle,
+                            AcexAnalyzer analyzer,
+                            Supplier<? extends AbstractBaseDTNode<I, Boolean>> rootSupplier,
+                            int speculationDepth) {
         super(alphabet,
               oracle,
               new TTTHypothesisDFA<>(alphabet),
               new BaseTTTDiscriminationTree<>(oracle, rootSupplier),
-              analyzer);
+              analyzer,
+              speculationDepth);
 
         split(dtree.getRoot(), Word.epsilon(), false, true);
     }
@@ -37,13 +37,21 @@ import net.automatalib.words.WordBuilder;
 public class TTTLearnerMealy<I, O> extends AbstractTTTLearner<MealyMachine<?, I, ?, O>, I, Word<O>>
         implements LearningAlgorithm.MealyLearner<I, O> {
 
-    @GenerateBuilder(defaults = AbstractTTTLearner.BuilderDefaults.class)
     public TTTLearnerMealy(Alphabet<I> alphabet, MembershipOracle<I, Word<O>> oracle, AcexAnalyzer analyzer) {
+        this(alphabet, oracle, analyzer, 1);
+    }
+
+    @GenerateBuilder(defaults = AbstractTTTLearner.BuilderDefaults.class)
+    public TTTLearnerMealy(Alphabet<I> alphabet,
+                           MembershipOracle<I, Word<O>> oracle,
+                           AcexAnalyzer analyzer,
+                           int speculationDepth) {
         super(alphabet,
               oracle,
               new TTTHypothesisMealy<>(alphabet),
               new BaseTTTDiscriminationTree<>(oracle, TTTDTNodeMealy::new),
-              analyzer);
+              analyzer,
+              speculationDepth);
     }
 
     @Override
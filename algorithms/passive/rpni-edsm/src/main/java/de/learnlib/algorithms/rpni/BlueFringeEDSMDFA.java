@@ -15,22 +15,26 @@
  */
 package de.learnlib.algorithms.rpni;
 
-import java.util.Comparator;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
 
 import de.learnlib.datastructure.pta.pta.BlueFringePTA;
 import de.learnlib.datastructure.pta.pta.BlueFringePTAState;
 import de.learnlib.datastructure.pta.pta.PTATransition;
 import de.learnlib.datastructure.pta.pta.RedBlueMerge;
-import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.automata.fsa.DFA;
-import net.automatalib.commons.util.Pair;
 import net.automatalib.words.Alphabet;
 
 /**
@@ -39,8 +43,12 @@ import net.automatalib.words.Alphabet;
  * pair of nodes that resemble a valid merge, the EDSM variant prioritizes the promotion of states (to be unmergable)
  * and only proceeds to merge states, if there exists at least one mergable blue state for every red state. If such a
  * situation occurs, the algorithm merges the two states whose merge would yield the biggest score (see {@link
- * EDSMUtil#score(UniversalDeterministicAutomaton, List, List)}). Thus the behavior of this algorithm is more passive,
- * or as the name suggest evidence-driven.
+ * RedBlueMerge#getEvidence()}). Thus the behavior of this algorithm is more passive, or as the name suggest
+ * evidence-driven.
+ * <p>
+ * The score of a merge is computed incrementally while folding the blue state into the red state. Furthermore, the
+ * scores of all red/blue pairs are cached in a priority queue. A pair is only re-evaluated if one of the red states
+ * that its merge has inspected is modified by a subsequent merge, or if its blue state has been replaced.
  *
  * @param <I>
  *         input symbol type
@@ -59,62 +67,244 @@ public class BlueFringeEDSMDFA<I> extends BlueFringeRPNIDFA<I> {
         super(alphabet);
     }
 
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the alphabet
+     * @param ptaFile
+     *         the (possibly {@code null}) file in which the samples are stored. If {@code null}, samples are stored on
+     *         the heap.
+     */
+    public BlueFringeEDSMDFA(Alphabet<I> alphabet, @Nullable Path ptaFile) {
+        super(alphabet, ptaFile);
+    }
+
     @Override
     public DFA<?, I> computeModel() {
         BlueFringePTA<Boolean, Void> pta = new BlueFringePTA<>(super.alphabetSize);
         initializePTA(pta);
 
         Set<PTATransition<BlueFringePTAState<Boolean, Void>>> blue = new HashSet<>();
+        Map<PTATransition<BlueFringePTAState<Boolean, Void>>, BlueCandidate> candidates = new IdentityHashMap<>();
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
 
         pta.init(blue::add);
 
         while (!blue.isEmpty()) {
-            boolean promotion = false;
-            RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> bestMerge = null;
-            PTATransition<BlueFringePTAState<Boolean, Void>> bestTransition = null;
-            long bestScore = Long.MIN_VALUE;
+            BlueCandidate promotion = null;
+
+            for (PTATransition<BlueFringePTAState<Boolean, Void>> qbRef : blue) {
+                BlueCandidate bc = candidates.get(qbRef);
 
-            final Iterator<PTATransition<BlueFringePTAState<Boolean, Void>>> blueIter = blue.iterator();
+                // a merge may have replaced the blue state by a (modified) copy
+                if (bc == null || bc.qb != qbRef.getTarget()) {
+                    if (bc != null) {
+                        bc.invalidate(id -> true);
+                    }
+                    bc = new BlueCandidate(qbRef);
+                    candidates.put(qbRef, bc);
+                }
 
-            while (blueIter.hasNext()) {
-                final PTATransition<BlueFringePTAState<Boolean, Void>> qbRef = blueIter.next();
-                final BlueFringePTAState<Boolean, Void> qb = qbRef.getTarget();
+                evaluate(pta, bc, queue);
 
-                Stream<BlueFringePTAState<Boolean, Void>> stream = pta.redStatesStream();
-                if (super.parallel) {
-                    stream = stream.parallel();
+                if (!bc.isMergeable() && (promotion == null || bc.compareTo(promotion) < 0)) {
+                    promotion = bc;
                 }
+            }
 
-                final Optional<Pair<RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>>, Long>> result =
-                        stream.map(qr -> tryMerge(pta, qr, qb))
-                              .filter(Objects::nonNull)
-                              .map(merge -> Pair.of(merge,
-                                                    EDSMUtil.score(merge.toMergedAutomaton(),
-                                                                   super.positive,
-                                                                   super.negative)))
-                              .max(Comparator.comparingLong(Pair::getSecond));
-
-                if (result.isPresent()) {
-                    final Pair<RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>>, Long> mergeResult =
-                            result.get();
-
-                    if (mergeResult.getSecond() > bestScore) {
-                        bestMerge = mergeResult.getFirst();
-                        bestTransition = qbRef;
-                    }
-                } else {
-                    promotion = true;
-                    blueIter.remove();
-                    pta.promote(qb, blue::add);
-                    break;
+            final BitSet modified;
+
+            if (promotion != null) {
+                final PTATransition<BlueFringePTAState<Boolean, Void>> qbRef = promotion.qbRef;
+                final int parentId = pta.getRedStates().indexOf(qbRef.getSource());
+
+                blue.remove(qbRef);
+                candidates.remove(qbRef).invalidate(id -> true);
+                pta.promote(promotion.qb, blue::add);
+
+                // the promoted state is now treated as red by all merges that have passed its parent
+                modified = new BitSet();
+                modified.set(parentId);
+            } else {
+                Candidate best = queue.poll();
+                while (!best.valid) {
+                    best = queue.poll();
                 }
+
+                final RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> merge =
+                        tryMerge(pta, best.qr, best.blue.qb);
+                assert merge != null && merge.getEvidence() - pta.getEvidence() == best.gain;
+
+                modified = merge.getModifiedRedStates();
+
+                blue.remove(best.blue.qbRef);
+                candidates.remove(best.blue.qbRef).invalidate(id -> true);
+                merge.apply(pta, blue::add);
             }
-            if (!promotion) {
-                blue.remove(bestTransition);
-                bestMerge.apply(pta, blue::add);
+
+            for (BlueCandidate bc : candidates.values()) {
+                bc.invalidate(modified::get);
+            }
+
+            // drop invalidated entries, so that the queue does not grow beyond the number of cached pairs
+            if (queue.size() > 2 * numberOfValidCandidates(candidates)) {
+                queue.removeIf(c -> !c.valid);
             }
         }
 
         return ptaToModel(pta);
     }
-}
\ No newline at end of file
+
+    /**
+     * Evaluates the merges of the given blue state with all red states whose results are not cached (any more).
+     */
+    private void evaluate(BlueFringePTA<Boolean, Void> pta, BlueCandidate bc, PriorityQueue<Candidate> queue) {
+        final List<BlueFringePTAState<Boolean, Void>> redStates = pta.getRedStates();
+
+        while (bc.merges.size() < redStates.size()) {
+            bc.merges.add(null);
+        }
+
+        IntStream missing = IntStream.range(0, redStates.size()).filter(i -> bc.merges.get(i) == null);
+        if (super.parallel) {
+            missing = missing.parallel();
+        }
+
+        final List<Candidate> results =
+                missing.mapToObj(i -> evaluateMerge(pta, bc, redStates.get(i), i)).collect(Collectors.toList());
+
+        for (Candidate c : results) {
+            bc.merges.set(c.redId, c);
+            if (c.mergeable) {
+                queue.add(c);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the merge of the blue state of the given candidate into the given red state.
+     */
+    Candidate evaluateMerge(BlueFringePTA<Boolean, Void> pta,
+                            BlueCandidate bc,
+                            BlueFringePTAState<Boolean, Void> qr,
+                            int redId) {
+        final RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> merge =
+                new RedBlueMerge<>(pta, qr, bc.qb);
+        final boolean mergeable = merge.merge();
+        final long gain = mergeable ? merge.getEvidence() - pta.getEvidence() : Long.MIN_VALUE;
+
+        return new Candidate(bc, qr, redId, merge.getInspectedRedStates().stream().toArray(), mergeable, gain);
+    }
+
+    private static int numberOfValidCandidates(Map<?, BlueCandidate> candidates) {
+        int result = 0;
+        for (BlueCandidate bc : candidates.values()) {
+            for (Candidate c : bc.merges) {
+                if (c != null && c.mergeable) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The cached merges of a blue state, indexed by the id of the respective red state.
+     */
+    static final class BlueCandidate implements Comparable<BlueCandidate> {
+
+        private final PTATransition<BlueFringePTAState<Boolean, Void>> qbRef;
+        private final BlueFringePTAState<Boolean, Void> qb;
+        private final List<Candidate> merges = new ArrayList<>();
+
+        BlueCandidate(PTATransition<BlueFringePTAState<Boolean, Void>> qbRef) {
+            this.qbRef = qbRef;
+            this.qb = qbRef.getTarget();
+        }
+
+        boolean isMergeable() {
+            for (Candidate c : merges) {
+                if (c.mergeable) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Invalidates all cached merges that have inspected a red state matching the given predicate.
+         */
+        void invalidate(IntPredicate modified) {
+            for (int i = 0; i < merges.size(); i++) {
+                final Candidate c = merges.get(i);
+                if (c != null && c.dependsOn(modified)) {
+                    c.valid = false;
+                    merges.set(i, null);
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(BlueCandidate other) {
+            final int srcCmp = qbRef.getSource().compareTo(other.qbRef.getSource());
+            if (srcCmp != 0) {
+                return srcCmp;
+            }
+            return Integer.compare(qbRef.getIndex(), other.qbRef.getIndex());
+        }
+    }
+
+    /**
+     * The (cached) result of merging a blue state into a red state, together with the ids of all red states that have
+     * been inspected while computing it.
+     */
+    static final class Candidate implements Comparable<Candidate> {
+
+        private final BlueCandidate blue;
+        private final BlueFringePTAState<Boolean, Void> qr;
+        private final int redId;
+        private final int[] inspectedRedStates;
+        private final boolean mergeable;
+        // the evidence gained by the merge, which (unlike the absolute evidence) is not affected by other merges
+        private final long gain;
+        private boolean valid = true;
+
+        Candidate(BlueCandidate blue,
+                  BlueFringePTAState<Boolean, Void> qr,
+                  int redId,
+                  int[] inspectedRedStates,
+                  boolean mergeable,
+                  long gain) {
+            this.blue = blue;
+            this.qr = qr;
+            this.redId = redId;
+            this.inspectedRedStates = inspectedRedStates;
+            this.mergeable = mergeable;
+            this.gain = gain;
+        }
+
+        boolean dependsOn(IntPredicate modified) {
+            for (int id : inspectedRedStates) {
+                if (modified.test(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            final int cmp = Long.compare(other.gain, this.gain);
+            if (cmp != 0) {
+                return cmp;
+            }
+
+            final int blueCmp = blue.compareTo(other.blue);
+            if (blueCmp != 0) {
+                return blueCmp;
+            }
+            return Integer.compare(redId, other.redId);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.algorithms.rpni;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.datastructure.pta.pta.BlueFringePTA;
+import de.learnlib.datastructure.pta.pta.BlueFringePTAState;
+import de.learnlib.datastructure.pta.pta.PTATransition;
+import de.learnlib.datastructure.pta.pta.RedBlueMerge;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that caching the merges of red/blue pairs yields the same model as re-evaluating all pairs in each iteration,
+ * while requiring fewer merge evaluations.
+ *
+ * @author frohme
+ */
+@Test
+public class EDSMCacheTest {
+
+    private static final int NUM_SAMPLES = 1000;
+    private static final int MAX_LENGTH = 16;
+    private static final int MODULUS = 7;
+
+    private final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+
+    @Test
+    public void testCachedMerges() {
+        final Random random = new Random(42);
+        final List<DefaultQuery<Character, Boolean>> samples = new ArrayList<>(NUM_SAMPLES);
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final WordBuilder<Character> wb = new WordBuilder<>();
+            final int length = random.nextInt(MAX_LENGTH);
+            int count = 0;
+            for (int j = 0; j < length; j++) {
+                final int idx = random.nextInt(alphabet.size());
+                wb.add(alphabet.getSymbol(idx));
+                count += idx;
+            }
+            samples.add(new DefaultQuery<>(wb.toWord(), count % MODULUS == 0));
+        }
+
+        final CountingEDSM cached = new CountingEDSM(alphabet);
+        cached.addSamples(samples);
+        cached.setParallel(false);
+
+        final ReferenceEDSM reference = new ReferenceEDSM(alphabet);
+        reference.addSamples(samples);
+
+        final DFA<?, Character> cachedModel = cached.computeModel();
+        final DFA<?, Character> referenceModel = reference.computeModel();
+
+        Assert.assertTrue(Automata.testEquivalence(cachedModel, referenceModel, alphabet));
+        for (DefaultQuery<Character, Boolean> sample : samples) {
+            Assert.assertEquals(cachedModel.computeOutput(sample.getInput()), sample.getOutput());
+        }
+
+        Assert.assertTrue(cached.evaluations > 0);
+        Assert.assertTrue(cached.evaluations < reference.evaluations,
+                          cached.evaluations + " vs. " + reference.evaluations);
+    }
+
+    private static final class CountingEDSM extends BlueFringeEDSMDFA<Character> {
+
+        private int evaluations;
+
+        CountingEDSM(Alphabet<Character> alphabet) {
+            super(alphabet);
+        }
+
+        @Override
+        Candidate evaluateMerge(BlueFringePTA<Boolean, Void> pta,
+                                BlueCandidate bc,
+                                BlueFringePTAState<Boolean, Void> qr,
+                                int redId) {
+            evaluations++;
+            return super.evaluateMerge(pta, bc, qr, redId);
+        }
+    }
+
+    /**
+     * Re-evaluates all red/blue pairs in each iteration, using the same order for promotions and ties as the cached
+     * implementation.
+     */
+    private static final class ReferenceEDSM extends BlueFringeRPNIDFA<Character> {
+
+        private int evaluations;
+
+        ReferenceEDSM(Alphabet<Character> alphabet) {
+            super(alphabet);
+        }
+
+        @Override
+        public DFA<?, Character> computeModel() {
+            final BlueFringePTA<Boolean, Void> pta = new BlueFringePTA<>(super.alphabetSize);
+            initializePTA(pta);
+
+            final List<PTATransition<BlueFringePTAState<Boolean, Void>>> blue = new ArrayList<>();
+            pta.init(blue::add);
+
+            while (!blue.isEmpty()) {
+                blue.sort(ReferenceEDSM::compare);
+
+                PTATransition<BlueFringePTAState<Boolean, Void>> promotion = null;
+                PTATransition<BlueFringePTAState<Boolean, Void>> bestRef = null;
+                RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> bestMerge = null;
+
+                for (PTATransition<BlueFringePTAState<Boolean, Void>> qbRef : blue) {
+                    boolean mergeable = false;
+
+                    for (BlueFringePTAState<Boolean, Void> qr : pta.getRedStates()) {
+                        evaluations++;
+                        final RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> merge =
+                                tryMerge(pta, qr, qbRef.getTarget());
+                        if (merge != null) {
+                            mergeable = true;
+                            // strict comparison keeps the first pair (in blue/red order) among equal scores
+                            if (bestMerge == null || merge.getEvidence() > bestMerge.getEvidence()) {
+                                bestMerge = merge;
+                                bestRef = qbRef;
+                            }
+                        }
+                    }
+
+                    if (!mergeable) {
+                        promotion = qbRef;
+                        break;
+                    }
+                }
+
+                if (promotion != null) {
+                    blue.remove(promotion);
+                    pta.promote(promotion.getTarget(), blue::add);
+                } else {
+                    blue.remove(bestRef);
+                    bestMerge.apply(pta, blue::add);
+                }
+            }
+
+            return ptaToModel(pta);
+        }
+
+        private static int compare(PTATransition<BlueFringePTAState<Boolean, Void>> t1,
+                                   PTATransition<BlueFringePTAState<Boolean, Void>> t2) {
+            final int cmp = t1.getSource().compareTo(t2.getSource());
+            return cmp != 0 ? cmp : Integer.compare(t1.getIndex(), t2.getIndex());
+        }
+    }
+}
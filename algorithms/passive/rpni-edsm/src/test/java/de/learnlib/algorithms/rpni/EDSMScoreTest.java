@@ -15,12 +15,16 @@
  */
 package de.learnlib.algorithms.rpni;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import de.learnlib.datastructure.pta.pta.BlueFringePTA;
 import de.learnlib.datastructure.pta.pta.BlueFringePTAState;
+import de.learnlib.datastructure.pta.pta.PTATransition;
+import de.learnlib.datastructure.pta.pta.RedBlueMerge;
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
@@ -80,6 +84,57 @@ public class EDSMScoreTest {
         Assert.assertEquals(2L, EDSMUtil.score(secondMerged, positiveSamplesAsIntArray, negativeSamplesAsIntArray));
     }
 
+    @Test
+    public void testIncrementalEvidence() {
+        final Random random = new Random(42);
+        final List<int[]> positive = new ArrayList<>();
+        final List<int[]> negative = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            final int[] sample = new int[random.nextInt(10)];
+            int count = 0;
+            for (int j = 0; j < sample.length; j++) {
+                sample[j] = random.nextInt(alphabet.size());
+                count += sample[j];
+            }
+            (count % 3 == 0 ? positive : negative).add(sample);
+        }
+
+        final BlueFringePTA<Boolean, Void> pta = new BlueFringePTA<>(alphabet.size());
+        positive.forEach(s -> pta.addSample(s, true));
+        negative.forEach(s -> pta.addSample(s, false));
+
+        Assert.assertEquals(pta.getEvidence(), EDSMUtil.score(pta, positive, negative));
+
+        final List<PTATransition<BlueFringePTAState<Boolean, Void>>> blue = new ArrayList<>();
+        pta.init(blue::add);
+
+        while (!blue.isEmpty()) {
+            final PTATransition<BlueFringePTAState<Boolean, Void>> qbRef = blue.remove(0);
+            final BlueFringePTAState<Boolean, Void> qb = qbRef.getTarget();
+
+            RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> firstMerge = null;
+
+            for (BlueFringePTAState<Boolean, Void> qr : pta.getRedStates()) {
+                final RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> merge = pta.tryMerge(qr, qb);
+                if (merge != null) {
+                    Assert.assertEquals(merge.getEvidence(),
+                                        EDSMUtil.score(merge.toMergedAutomaton(), positive, negative));
+                    if (firstMerge == null) {
+                        firstMerge = merge;
+                    }
+                }
+            }
+
+            if (firstMerge == null) {
+                pta.promote(qb, blue::add);
+            } else {
+                firstMerge.apply(pta, blue::add);
+                Assert.assertEquals(pta.getEvidence(), EDSMUtil.score(pta, positive, negative));
+            }
+        }
+    }
+
     /*
      * Build PTA from Fig 14.12
      */
@@ -15,8 +15,11 @@
  */
 package de.learnlib.algorithms.rpni;
 
+import java.nio.file.Path;
 import java.util.Collection;
 
+import javax.annotation.Nullable;
+
 import de.learnlib.api.query.DefaultQuery;
 import de.learnlib.datastructure.pta.pta.BlueFringePTAState;
 import de.learnlib.datastructure.pta.pta.RedBlueMerge;
@@ -50,6 +53,19 @@ public class BlueFringeMDLDFA<I> extends BlueFringeRPNIDFA<I> {
         super(alphabet);
     }
 
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the alphabet
+     * @param ptaFile
+     *         the (possibly {@code null}) file in which the samples are stored. If {@code null}, samples are stored on
+     *         the heap.
+     */
+    public BlueFringeMDLDFA(Alphabet<I> alphabet, @Nullable Path ptaFile) {
+        super(alphabet, ptaFile);
+    }
+
     @Override
     public void addSamples(Collection<? extends DefaultQuery<I, Boolean>> samples) {
         if (samples.stream().anyMatch(q -> !q.getOutput())) {
@@ -58,9 +74,18 @@ public class BlueFringeMDLDFA<I> extends BlueFringeRPNIDFA<I> {
         super.addSamples(samples);
     }
 
+    @Override
+    protected void addSample(int[] input, Boolean output) {
+        // streamed samples can only be checked individually
+        if (!output) {
+            throw new IllegalArgumentException("Only positive examples are allowed");
+        }
+        super.addSample(input, output);
+    }
+
     @Override
     protected boolean decideOnValidMerge(RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> merge) {
-        final double score = MDLUtil.score(merge.toMergedAutomaton(), super.alphabetSize, super.positive);
+        final double score = MDLUtil.score(merge.toMergedAutomaton(), super.alphabetSize, super.samples);
         if (score < currentScore) {
             currentScore = score;
             return true;
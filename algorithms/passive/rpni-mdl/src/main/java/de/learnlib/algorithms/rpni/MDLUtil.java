@@ -15,8 +15,11 @@
  */
 package de.learnlib.algorithms.rpni;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
+import de.learnlib.datastructure.pta.pta.CompactPTA;
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 
 /**
@@ -38,16 +41,54 @@ final class MDLUtil {
         return (pta.size() * alphabetSize) + sampleScore;
     }
 
+    /**
+     * Computes the same score as {@link #score(UniversalDeterministicAutomaton, int, List)}, but for the positive samples
+     * stored in the given {@link CompactPTA}. Since samples with a common prefix share their path in both automata, the
+     * choices of each prefix are only computed once.
+     */
+    static <S> double score(UniversalDeterministicAutomaton<S, Integer, ?, Boolean, ?> pta,
+                            int alphabetSize,
+                            CompactPTA<Boolean, ?> samples) {
+        double sampleScore = 0;
+
+        final Deque<Frame<S>> stack = new ArrayDeque<>();
+        final S init = pta.getInitialState();
+        stack.push(new Frame<>(samples.getRoot(), init, log2(countStateChoices(pta, alphabetSize, init))));
+
+        while (!stack.isEmpty()) {
+            final Frame<S> frame = stack.pop();
+
+            if (Boolean.TRUE.equals(samples.getStateProperty(frame.sampleState))) {
+                sampleScore += samples.getSampleCount(frame.sampleState) * frame.choices;
+            }
+
+            for (int i = 0; i < alphabetSize; i++) {
+                final int sampleSucc = samples.getSuccessor(frame.sampleState, i);
+                if (sampleSucc != CompactPTA.NO_STATE) {
+                    final S succ = pta.getSuccessor(frame.state, i);
+                    stack.push(new Frame<>(sampleSucc,
+                                           succ,
+                                           frame.choices + log2(countStateChoices(pta, alphabetSize, succ))));
+                }
+            }
+        }
+
+        return (pta.size() * alphabetSize) + sampleScore;
+    }
+
+    private static double log2(int x) {
+        return Math.log(x) / Math.log(2); // log_2 x = log_e x / log_e 2
+    }
+
     private static <S> double countWordChoices(UniversalDeterministicAutomaton<S, Integer, ?, Boolean, ?> pta,
                                                int alphabetSize,
                                                int[] word) {
         S currentState = pta.getInitialState();
-        double result = Math.log(countStateChoices(pta, alphabetSize, currentState)) /
-                        Math.log(2); // log_2 x = log_e x / log_e 2
+        double result = log2(countStateChoices(pta, alphabetSize, currentState));
 
         for (final int i : word) {
             currentState = pta.getSuccessor(currentState, i);
-            result += Math.log(countStateChoices(pta, alphabetSize, currentState)) / Math.log(2);
+            result += log2(countStateChoices(pta, alphabetSize, currentState));
         }
 
         return result;
@@ -67,4 +108,16 @@ final class MDLUtil {
         return choices;
     }
 
+    private static final class Frame<S> {
+
+        private final int sampleState;
+        private final S state;
+        private final double choices;
+
+        Frame(int sampleState, S state, double choices) {
+            this.sampleState = sampleState;
+            this.state = state;
+            this.choices = choices;
+        }
+    }
 }
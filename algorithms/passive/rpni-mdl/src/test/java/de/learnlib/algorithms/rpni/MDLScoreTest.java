@@ -20,6 +20,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import de.learnlib.datastructure.pta.pta.BlueFringePTA;
+import de.learnlib.datastructure.pta.pta.CompactPTA;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
@@ -73,6 +74,13 @@ public class MDLScoreTest {
 
         Assert.assertTrue(51.67 < encodingInformation);
         Assert.assertTrue(encodingInformation < 51.68);
+
+        final CompactPTA<Boolean, Void> samples = new CompactPTA<>(alphabet.size(), false);
+        for (final int[] w : positiveSamplesAsIntArray) {
+            samples.addSample(w, true);
+        }
+
+        Assert.assertEquals(MDLUtil.score(pta, alphabet.size(), samples), encodingInformation, 1e-9);
     }
 
     @Test
@@ -15,6 +15,8 @@
  */
 package de.learnlib.algorithms.rpni;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
@@ -23,10 +25,12 @@ import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 
 import de.learnlib.api.algorithm.PassiveLearningAlgorithm;
+import de.learnlib.api.query.DefaultQuery;
 import de.learnlib.datastructure.pta.bluefringe.DefaultProcessingOrders;
 import de.learnlib.datastructure.pta.bluefringe.ProcessingOrder;
 import de.learnlib.datastructure.pta.pta.BlueFringePTA;
 import de.learnlib.datastructure.pta.pta.BlueFringePTAState;
+import de.learnlib.datastructure.pta.pta.CompactPTA;
 import de.learnlib.datastructure.pta.pta.PTATransition;
 import de.learnlib.datastructure.pta.pta.RedBlueMerge;
 import net.automatalib.words.Alphabet;
@@ -41,6 +45,11 @@ import net.automatalib.words.Alphabet;
  * itself. The procedure terminates when all states are red.
  * <p>
  * A blue fringe version of RPNI is described in the book "Grammatical Inference" by Colin de la Higuera.
+ * <p>
+ * Samples are not stored individually, but directly inserted into a {@link CompactPTA}, which may be backed by a file.
+ * Hence, samples can be streamed into the algorithm (see {@link #addSamples(Iterator)}) without materializing the
+ * complete sample set in memory. The (object-based) PTA that is used for state-merging is only built upon {@link
+ * #computeModel()}.
  *
  * @param <I>
  *         input symbol type
@@ -59,6 +68,7 @@ public abstract class AbstractBlueFringeRPNI<I, D, SP, TP, M> implements Passive
 
     protected final Alphabet<I> alphabet;
     protected final int alphabetSize;
+    protected final CompactPTA<SP, TP> samples;
 
     @Nonnull
     protected final ProcessingOrder order = DefaultProcessingOrders.CANONICAL_ORDER;
@@ -66,14 +76,28 @@ public abstract class AbstractBlueFringeRPNI<I, D, SP, TP, M> implements Passive
     protected boolean deterministic;
 
     /**
-     * Constructor.
+     * Constructor. Samples are stored in a heap-based {@link CompactPTA} that supports both state and transition
+     * properties.
      *
      * @param alphabet
      *         the alphabet
      */
     public AbstractBlueFringeRPNI(Alphabet<I> alphabet) {
+        this(alphabet, new CompactPTA<>(alphabet.size(), true));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the alphabet
+     * @param samples
+     *         the (empty) compact PTA to store the samples in
+     */
+    public AbstractBlueFringeRPNI(Alphabet<I> alphabet, CompactPTA<SP, TP> samples) {
         this.alphabet = alphabet;
         this.alphabetSize = alphabet.size();
+        this.samples = samples;
     }
 
     /**
@@ -105,6 +129,19 @@ public abstract class AbstractBlueFringeRPNI<I, D, SP, TP, M> implements Passive
         this.deterministic = deterministic;
     }
 
+    @Override
+    public void addSamples(Collection<? extends DefaultQuery<I, D>> samples) {
+        addSamples(samples.iterator());
+    }
+
+    @Override
+    public void addSamples(Iterator<? extends DefaultQuery<I, D>> samples) {
+        while (samples.hasNext()) {
+            final DefaultQuery<I, D> sample = samples.next();
+            addSample(sample.getInput().toIntArray(alphabet), sample.getOutput());
+        }
+    }
+
     @Override
     public M computeModel() {
         BlueFringePTA<SP, TP> pta = new BlueFringePTA<>(alphabetSize);
@@ -140,13 +177,25 @@ public abstract class AbstractBlueFringeRPNI<I, D, SP, TP, M> implements Passive
         return ptaToModel(pta);
     }
 
+    /**
+     * Adds a single sample to the {@link #samples compact PTA}.
+     *
+     * @param input
+     *         the input of the sample (represented as an {@code int} array)
+     * @param output
+     *         the output of the sample
+     */
+    protected abstract void addSample(int[] input, D output);
+
     /**
      * Initializes an empty PTA with sample data.
      *
      * @param pta
      *         the PTA to initialize
      */
-    protected abstract void initializePTA(BlueFringePTA<SP, TP> pta);
+    protected void initializePTA(BlueFringePTA<SP, TP> pta) {
+        pta.addSamples(samples);
+    }
 
     /**
      * Attempts to merge a blue state into a red state.
@@ -15,13 +15,13 @@
  */
 package de.learnlib.algorithms.rpni;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
 
 import de.learnlib.api.algorithm.PassiveLearningAlgorithm;
-import de.learnlib.api.query.DefaultQuery;
 import de.learnlib.datastructure.pta.pta.BlueFringePTA;
+import de.learnlib.datastructure.pta.pta.CompactPTA;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.words.Alphabet;
@@ -37,9 +37,6 @@ import net.automatalib.words.Alphabet;
 public class BlueFringeRPNIDFA<I> extends AbstractBlueFringeRPNI<I, Boolean, Boolean, Void, DFA<?, I>>
         implements PassiveLearningAlgorithm.PassiveDFALearner<I> {
 
-    protected final List<int[]> positive = new ArrayList<>();
-    protected final List<int[]> negative = new ArrayList<>();
-
     /**
      * Constructor.
      *
@@ -47,29 +44,25 @@ public class BlueFringeRPNIDFA<I> extends AbstractBlueFringeRPNI<I, Boolean, Boo
      *         the alphabet
      */
     public BlueFringeRPNIDFA(Alphabet<I> alphabet) {
-        super(alphabet);
+        this(alphabet, null);
     }
 
-    @Override
-    public void addSamples(Collection<? extends DefaultQuery<I, Boolean>> samples) {
-        for (DefaultQuery<I, Boolean> query : samples) {
-            int[] arr = query.getInput().toIntArray(alphabet);
-            if (query.getOutput()) {
-                positive.add(arr);
-            } else {
-                negative.add(arr);
-            }
-        }
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the alphabet
+     * @param ptaFile
+     *         the (possibly {@code null}) file in which the samples are stored. If {@code null}, samples are stored on
+     *         the heap.
+     */
+    public BlueFringeRPNIDFA(Alphabet<I> alphabet, @Nullable Path ptaFile) {
+        super(alphabet, new CompactPTA<>(alphabet.size(), false, ptaFile));
     }
 
     @Override
-    protected void initializePTA(BlueFringePTA<Boolean, Void> pta) {
-        for (int[] sample : positive) {
-            pta.addSample(sample, true);
-        }
-        for (int[] sample : negative) {
-            pta.addSample(sample, false);
-        }
+    protected void addSample(int[] input, Boolean output) {
+        samples.addSample(input, output);
     }
 
     @Override
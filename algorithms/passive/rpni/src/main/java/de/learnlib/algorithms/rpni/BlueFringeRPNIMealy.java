@@ -15,16 +15,15 @@
  */
 package de.learnlib.algorithms.rpni;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
 
 import de.learnlib.api.algorithm.PassiveLearningAlgorithm;
-import de.learnlib.api.query.DefaultQuery;
 import de.learnlib.datastructure.pta.pta.BlueFringePTA;
+import de.learnlib.datastructure.pta.pta.CompactPTA;
 import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
-import net.automatalib.commons.util.Pair;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 
@@ -41,24 +40,26 @@ import net.automatalib.words.Word;
 public class BlueFringeRPNIMealy<I, O> extends AbstractBlueFringeRPNI<I, Word<O>, Void, O, MealyMachine<?, I, ?, O>>
         implements PassiveLearningAlgorithm.PassiveMealyLearner<I, O> {
 
-    private final List<Pair<int[], Word<O>>> samples = new ArrayList<>();
-
     public BlueFringeRPNIMealy(Alphabet<I> alphabet) {
-        super(alphabet);
+        this(alphabet, null);
     }
 
-    @Override
-    public void addSamples(Collection<? extends DefaultQuery<I, Word<O>>> samples) {
-        for (DefaultQuery<I, Word<O>> qry : samples) {
-            this.samples.add(Pair.of(qry.getInput().toIntArray(alphabet), qry.getOutput()));
-        }
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the alphabet
+     * @param ptaFile
+     *         the (possibly {@code null}) file in which the samples are stored. If {@code null}, samples are stored on
+     *         the heap.
+     */
+    public BlueFringeRPNIMealy(Alphabet<I> alphabet, @Nullable Path ptaFile) {
+        super(alphabet, new CompactPTA<>(alphabet.size(), true, ptaFile));
     }
 
     @Override
-    protected void initializePTA(BlueFringePTA<Void, O> pta) {
-        for (Pair<int[], Word<O>> sample : samples) {
-            pta.addSampleWithTransitionProperties(sample.getFirst(), sample.getSecond().asList());
-        }
+    protected void addSample(int[] input, Word<O> output) {
+        samples.addSampleWithTransitionProperties(input, output.asList());
     }
 
     @Override
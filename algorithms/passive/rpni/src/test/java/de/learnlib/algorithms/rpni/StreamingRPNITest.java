@@ -0,0 +1,141 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.algorithms.rpni;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that streaming samples into a file-backed PTA yields the same models as the default (heap-based) learners.
+ *
+ * @author frohme
+ */
+public class StreamingRPNITest {
+
+    private static final int NUM_SAMPLES = 1000;
+    private static final int MAX_LENGTH = 10;
+    private static final int MODULUS = 3;
+
+    private final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+
+    @Test
+    public void testDFA() throws IOException {
+        final List<DefaultQuery<Character, Boolean>> samples = new ArrayList<>(NUM_SAMPLES);
+        for (Word<Character> w : randomWords()) {
+            samples.add(new DefaultQuery<>(w, countA(w) % MODULUS == 0));
+        }
+
+        final BlueFringeRPNIDFA<Character> heapLearner = new BlueFringeRPNIDFA<>(alphabet);
+        configure(heapLearner);
+        heapLearner.addSamples(samples);
+
+        final Path file = Files.createTempFile("rpni", ".pta");
+        try {
+            final BlueFringeRPNIDFA<Character> mappedLearner = new BlueFringeRPNIDFA<>(alphabet, file);
+            configure(mappedLearner);
+            mappedLearner.addSamples(samples.iterator());
+
+            final DFA<?, Character> expected = heapLearner.computeModel();
+            final DFA<?, Character> actual = mappedLearner.computeModel();
+
+            Assert.assertTrue(Automata.testEquivalence(expected, actual, alphabet));
+            for (DefaultQuery<Character, Boolean> q : samples) {
+                Assert.assertEquals(actual.computeOutput(q.getInput()), q.getOutput());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMealy() throws IOException {
+        final List<DefaultQuery<Character, Word<Integer>>> samples = new ArrayList<>(NUM_SAMPLES);
+        for (Word<Character> w : randomWords()) {
+            final WordBuilder<Integer> wb = new WordBuilder<>(w.length());
+            for (int i = 1; i <= w.length(); i++) {
+                wb.add(countA(w.prefix(i)) % MODULUS);
+            }
+            samples.add(new DefaultQuery<>(w, wb.toWord()));
+        }
+
+        final BlueFringeRPNIMealy<Character, Integer> heapLearner = new BlueFringeRPNIMealy<>(alphabet);
+        configure(heapLearner);
+        heapLearner.addSamples(samples);
+
+        final Path file = Files.createTempFile("rpni", ".pta");
+        try {
+            final BlueFringeRPNIMealy<Character, Integer> mappedLearner = new BlueFringeRPNIMealy<>(alphabet, file);
+            configure(mappedLearner);
+            mappedLearner.addSamples(samples.iterator());
+
+            final MealyMachine<?, Character, ?, Integer> expected = heapLearner.computeModel();
+            final MealyMachine<?, Character, ?, Integer> actual = mappedLearner.computeModel();
+
+            Assert.assertTrue(Automata.testEquivalence(expected, actual, alphabet));
+            for (DefaultQuery<Character, Word<Integer>> q : samples) {
+                Assert.assertEquals(actual.computeOutput(q.getInput()), q.getOutput());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void configure(AbstractBlueFringeRPNI<?, ?, ?, ?, ?> learner) {
+        learner.setParallel(false);
+        learner.setDeterministic(true);
+    }
+
+    private List<Word<Character>> randomWords() {
+        final Random random = new Random(42);
+        final List<Word<Character>> result = new ArrayList<>(NUM_SAMPLES);
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final int length = random.nextInt(MAX_LENGTH);
+            final WordBuilder<Character> wb = new WordBuilder<>(length);
+            for (int j = 0; j < length; j++) {
+                wb.add(alphabet.getSymbol(random.nextInt(alphabet.size())));
+            }
+            result.add(wb.toWord());
+        }
+
+        return result;
+    }
+
+    private static int countA(Word<Character> word) {
+        int result = 0;
+        for (Character c : word) {
+            if (c == 'a') {
+                result++;
+            }
+        }
+        return result;
+    }
+}
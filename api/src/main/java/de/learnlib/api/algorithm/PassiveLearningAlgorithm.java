@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import de.learnlib.api.query.DefaultQuery;
@@ -32,6 +33,20 @@ public interface PassiveLearningAlgorithm<M, I, D> {
 
     void addSamples(Collection<? extends DefaultQuery<I, D>> samples);
 
+    /**
+     * Adds the samples of the given iterator. This allows implementations to process sample sets that are produced
+     * on-the-fly (e.g. read from a file) without materializing them in memory first. By default, samples are added one
+     * at a time.
+     *
+     * @param samples
+     *         the samples to add
+     */
+    default void addSamples(Iterator<? extends DefaultQuery<I, D>> samples) {
+        while (samples.hasNext()) {
+            addSample(samples.next());
+        }
+    }
+
     @SuppressWarnings("unchecked")
     default void addSamples(DefaultQuery<I, D>... samples) {
         addSamples(Arrays.asList(samples));
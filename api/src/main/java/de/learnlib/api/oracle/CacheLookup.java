@@ -0,0 +1,48 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.api.oracle;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.words.Word;
+
+/**
+ * A read-only view on the contents of a query cache. In contrast to a {@link MembershipOracle}, a lookup never poses
+ * queries to the system under learning but only reports the answers that are already known.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public interface CacheLookup<I, D> {
+
+    /**
+     * Returns the cached output of the given input word.
+     *
+     * @param input
+     *         the input word
+     *
+     * @return the cached output of the given input word, or {@code null} if the output of the word is not (completely)
+     * known to the cache
+     */
+    @Nullable
+    D lookup(Word<I> input);
+}
@@ -0,0 +1,131 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.cache;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.benchmarks.util.Workloads;
+import de.learnlib.filter.cache.dfa.DFACacheOracle;
+import de.learnlib.oracle.membership.SimulatorOracle.DFASimulatorOracle;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the insertion and lookup throughput of the {@link DFACacheOracle} variants. The cache delegates to a
+ * simulator of a random DFA, so that the measured time is dominated by the cache itself.
+ *
+ * @author frohme
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DFACacheBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int NUM_STATES = 100;
+    private static final int NUM_QUERIES = 1000;
+    private static final int MIN_LENGTH = 5;
+
+    @Param({"TREE", "DAG"})
+    public CacheType cacheType;
+
+    @Param({"10"})
+    public int alphabetSize;
+
+    @Param({"25"})
+    public int maxLength;
+
+    private Alphabet<Integer> alphabet;
+    private MembershipOracle<Integer, Boolean> delegate;
+    private List<DefaultQuery<Integer, Boolean>> queries;
+    private DFACacheOracle<Integer> filledCache;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEED);
+
+        this.alphabet = Alphabets.integers(0, alphabetSize - 1);
+
+        final CompactDFA<Integer> target = RandomAutomata.randomDFA(random, NUM_STATES, alphabet);
+
+        this.delegate = new DFASimulatorOracle<>(target);
+        this.queries =
+                Workloads.toQueries(Workloads.randomWords(random, alphabet, NUM_QUERIES, MIN_LENGTH, maxLength));
+
+        this.filledCache = cacheType.create(alphabet, delegate);
+        this.filledCache.processQueries(queries);
+    }
+
+    /**
+     * Inserts all queries into an empty cache, i.e. every query is a cache miss.
+     *
+     * @return the cache, to prevent dead-code elimination
+     */
+    @Benchmark
+    public DFACacheOracle<Integer> insert() {
+        final DFACacheOracle<Integer> cache = cacheType.create(alphabet, delegate);
+        cache.processQueries(queries);
+        return cache;
+    }
+
+    /**
+     * Answers all queries from a pre-populated cache, i.e. every query is a cache hit.
+     *
+     * @return the last answered query, to prevent dead-code elimination
+     */
+    @Benchmark
+    public DefaultQuery<Integer, Boolean> lookup() {
+        filledCache.processQueries(queries);
+        return queries.get(queries.size() - 1);
+    }
+
+    public enum CacheType {
+        TREE {
+            @Override
+            <I> DFACacheOracle<I> create(Alphabet<I> alphabet, MembershipOracle<I, Boolean> delegate) {
+                return DFACacheOracle.createTreeCacheOracle(alphabet, delegate);
+            }
+        },
+        DAG {
+            @Override
+            <I> DFACacheOracle<I> create(Alphabet<I> alphabet, MembershipOracle<I, Boolean> delegate) {
+                return DFACacheOracle.createDAGCacheOracle(alphabet, delegate);
+            }
+        };
+
+        abstract <I> DFACacheOracle<I> create(Alphabet<I> alphabet, MembershipOracle<I, Boolean> delegate);
+    }
+}
@@ -0,0 +1,145 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.cache;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import de.learnlib.api.SUL;
+import de.learnlib.benchmarks.util.Workloads;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.filter.cache.sul.SULCache;
+import de.learnlib.oracle.membership.SULOracle;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the insertion and lookup throughput of the {@link SULCache} variants. In contrast to the oracle-based
+ * caches, the {@link SULCache} is queried symbol by symbol, which is the access pattern of SUL-based learning setups.
+ *
+ * @author frohme
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SULCacheBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int NUM_STATES = 100;
+    private static final int NUM_QUERIES = 1000;
+    private static final int MIN_LENGTH = 5;
+
+    @Param({"TREE", "DAG", "CONCURRENT_TREE"})
+    public CacheType cacheType;
+
+    @Param({"10"})
+    public int alphabetSize;
+
+    @Param({"25"})
+    public int maxLength;
+
+    private Alphabet<Integer> alphabet;
+    private SUL<Integer, String> delegate;
+    private List<Word<Integer>> words;
+    private SULCache<Integer, String> filledCache;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEED);
+
+        this.alphabet = Alphabets.integers(0, alphabetSize - 1);
+
+        final CompactMealy<Integer, String> target =
+                RandomAutomata.randomMealy(random, NUM_STATES, alphabet, Workloads.outputs(alphabetSize));
+
+        this.delegate = new MealySimulatorSUL<>(target);
+        this.words = Workloads.randomWords(random, alphabet, NUM_QUERIES, MIN_LENGTH, maxLength);
+
+        this.filledCache = cacheType.create(alphabet, delegate);
+        for (Word<Integer> w : words) {
+            SULOracle.answerQuery(filledCache, Word.epsilon(), w);
+        }
+    }
+
+    /**
+     * Inserts all words into an empty cache, i.e. every word is a cache miss.
+     *
+     * @param blackhole
+     *         the JMH blackhole for consuming the outputs
+     */
+    @Benchmark
+    public void insert(Blackhole blackhole) {
+        final SULCache<Integer, String> cache = cacheType.create(alphabet, delegate);
+        for (Word<Integer> w : words) {
+            blackhole.consume(SULOracle.answerQuery(cache, Word.epsilon(), w));
+        }
+    }
+
+    /**
+     * Answers all words from a pre-populated cache, i.e. every word is a cache hit.
+     *
+     * @param blackhole
+     *         the JMH blackhole for consuming the outputs
+     */
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        for (Word<Integer> w : words) {
+            blackhole.consume(SULOracle.answerQuery(filledCache, Word.epsilon(), w));
+        }
+    }
+
+    public enum CacheType {
+        TREE {
+            @Override
+            <I, O> SULCache<I, O> create(Alphabet<I> alphabet, SUL<I, O> delegate) {
+                return SULCache.createTreeCache(alphabet, delegate);
+            }
+        },
+        DAG {
+            @Override
+            <I, O> SULCache<I, O> create(Alphabet<I> alphabet, SUL<I, O> delegate) {
+                return SULCache.createDAGCache(alphabet, delegate);
+            }
+        },
+        CONCURRENT_TREE {
+            @Override
+            <I, O> SULCache<I, O> create(Alphabet<I> alphabet, SUL<I, O> delegate) {
+                return SULCache.createConcurrentTreeCache(alphabet, delegate);
+            }
+        };
+
+        abstract <I, O> SULCache<I, O> create(Alphabet<I> alphabet, SUL<I, O> delegate);
+    }
+}
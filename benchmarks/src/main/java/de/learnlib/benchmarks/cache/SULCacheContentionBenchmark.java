@@ -0,0 +1,142 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.learnlib.api.SUL;
+import de.learnlib.benchmarks.cache.SULCacheBenchmark.CacheType;
+import de.learnlib.benchmarks.util.Workloads;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.filter.cache.sul.SULCache;
+import de.learnlib.oracle.membership.SULOracle;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the contention of the {@link SULCache} variants: several threads query their own {@link SULCache#fork()
+ * fork} of a shared, initially empty cache with the same words in different orders, so that concurrent cache hits and
+ * cache updates compete for the shared cache. Each measurement starts with a new cache, hence the benchmark reports the
+ * time for answering all words once per thread. The number of threads can be changed via JMH's {@code -t} option.
+ *
+ * @author frohme
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+@Fork(1)
+public class SULCacheContentionBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int NUM_STATES = 100;
+    private static final int NUM_QUERIES = 10000;
+    private static final int MIN_LENGTH = 0;
+
+    @Param({"TREE", "DAG", "CONCURRENT_TREE"})
+    public CacheType cacheType;
+
+    @Param({"8"})
+    public int alphabetSize;
+
+    @Param({"20"})
+    public int maxLength;
+
+    private Alphabet<Integer> alphabet;
+    private SUL<Integer, String> delegate;
+    private List<Word<Integer>> words;
+    private SULCache<Integer, String> cache;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEED);
+
+        this.alphabet = Alphabets.integers(0, alphabetSize - 1);
+
+        final CompactMealy<Integer, String> target =
+                RandomAutomata.randomMealy(random, NUM_STATES, alphabet, Workloads.outputs(alphabetSize));
+
+        this.delegate = new MealySimulatorSUL<>(target);
+        this.words = Workloads.randomWords(random, alphabet, NUM_QUERIES, MIN_LENGTH, maxLength);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpCache() {
+        this.cache = cacheType.create(alphabet, delegate);
+    }
+
+    /**
+     * Answers all words via the fork of the executing thread.
+     *
+     * @param worker
+     *         the state of the executing thread
+     * @param blackhole
+     *         the JMH blackhole for consuming the outputs
+     */
+    @Benchmark
+    public void query(Worker worker, Blackhole blackhole) {
+        for (Word<Integer> w : worker.words) {
+            blackhole.consume(SULOracle.answerQuery(worker.fork, Word.epsilon(), w));
+        }
+    }
+
+    /**
+     * The fork of the shared cache and the (individually shuffled) words of a single thread.
+     */
+    @State(Scope.Thread)
+    public static class Worker {
+
+        private List<Word<Integer>> words;
+        private SUL<Integer, String> fork;
+
+        @Setup
+        public void setUp(SULCacheContentionBenchmark benchmark) {
+            this.words = new ArrayList<>(benchmark.words);
+            Collections.shuffle(this.words, new Random(SEED + benchmark.threadCounter.incrementAndGet()));
+        }
+
+        @Setup(Level.Iteration)
+        public void setUpFork(SULCacheContentionBenchmark benchmark) {
+            this.fork = benchmark.cache.fork();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.datastructure;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.benchmarks.util.Workloads;
+import de.learnlib.datastructure.observationtable.GenericObservationTable;
+import de.learnlib.oracle.membership.SimulatorOracle.MealySimulatorOracle;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the core operations of the observation table implementations, i.e. the initialization with a set of
+ * prefixes and suffixes, the (incremental) addition of suffixes and the closedness/consistency checks.
+ * <p>
+ * The prefixes and suffixes are given by a state cover and a characterizing set of a random Mealy machine, so that the
+ * resulting table corresponds to the final table of an L* run for the same target.
+ *
+ * @author frohme
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservationTableBenchmark {
+
+    private static final long SEED = 42L;
+
+    @Param({"GENERIC", "PACKED"})
+    public TableType tableType;
+
+    @Param({"50", "200"})
+    public int numStates;
+
+    @Param({"5"})
+    public int alphabetSize;
+
+    private Alphabet<Integer> alphabet;
+    private MembershipOracle<Integer, Word<String>> oracle;
+    private List<Word<Integer>> prefixes;
+    private List<Word<Integer>> suffixes;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEED);
+
+        this.alphabet = Alphabets.integers(0, alphabetSize - 1);
+
+        final CompactMealy<Integer, String> target =
+                RandomAutomata.randomMealy(random, numStates, alphabet, Workloads.outputs(alphabetSize));
+
+        this.oracle = new MealySimulatorOracle<>(target);
+        this.prefixes = Automata.stateCover(target, alphabet);
+        this.suffixes = Automata.characterizingSet(target, alphabet);
+    }
+
+    /**
+     * Initializes an empty table with all prefixes and suffixes at once.
+     *
+     * @return the table, to prevent dead-code elimination
+     */
+    @Benchmark
+    public GenericObservationTable<Integer, Word<String>> initialize() {
+        final GenericObservationTable<Integer, Word<String>> table = tableType.create(alphabet);
+        table.initialize(prefixes, suffixes, oracle);
+        return table;
+    }
+
+    /**
+     * Initializes an empty table with all prefixes and adds the suffixes one by one, which reflects the refinement of
+     * the table when processing counterexamples.
+     *
+     * @return the table, to prevent dead-code elimination
+     */
+    @Benchmark
+    public GenericObservationTable<Integer, Word<String>> addSuffixes() {
+        final GenericObservationTable<Integer, Word<String>> table = tableType.create(alphabet);
+        table.initialize(prefixes, suffixes.subList(0, 1), oracle);
+        for (Word<Integer> suffix : suffixes.subList(1, suffixes.size())) {
+            table.addSuffix(suffix, oracle);
+        }
+        return table;
+    }
+
+    /**
+     * Checks a freshly initialized (closed and consistent) table for unclosed rows and inconsistencies. Since the table
+     * maintains the rows that may violate closedness or consistency incrementally, only the first check after the
+     * initialization inspects all rows, hence each invocation operates on a new table (see {@link FilledTable}).
+     *
+     * @param table
+     *         the freshly initialized table
+     * @param blackhole
+     *         the JMH blackhole for consuming the results
+     */
+    @Benchmark
+    public void closednessAndConsistency(FilledTable table, Blackhole blackhole) {
+        blackhole.consume(table.table.findUnclosedRow());
+        blackhole.consume(table.table.findInconsistency());
+    }
+
+    /**
+     * A table that has been initialized with all prefixes and suffixes, but has not been checked yet.
+     */
+    @State(Scope.Thread)
+    public static class FilledTable {
+
+        private GenericObservationTable<Integer, Word<String>> table;
+
+        @Setup(Level.Invocation)
+        public void setUp(ObservationTableBenchmark benchmark) {
+            this.table = benchmark.tableType.create(benchmark.alphabet);
+            this.table.initialize(benchmark.prefixes, benchmark.suffixes, benchmark.oracle);
+        }
+    }
+
+    public enum TableType {
+        GENERIC {
+            @Override
+            <I, D> GenericObservationTable<I, D> create(Alphabet<I> alphabet) {
+                return new GenericObservationTable<>(alphabet);
+            }
+        },
+        PACKED {
+            @Override
+            <I, D> GenericObservationTable<I, D> create(Alphabet<I> alphabet) {
+                return GenericObservationTable.createPacked(alphabet);
+            }
+        };
+
+        abstract <I, D> GenericObservationTable<I, D> create(Alphabet<I> alphabet);
+    }
+}
@@ -0,0 +1,131 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.datastructure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import de.learnlib.algorithms.rpni.BlueFringeRPNIDFA;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.benchmarks.util.Workloads;
+import de.learnlib.datastructure.pta.pta.BlueFringePTA;
+import de.learnlib.datastructure.pta.pta.BlueFringePTAState;
+import de.learnlib.datastructure.pta.pta.PTATransition;
+import de.learnlib.datastructure.pta.pta.RedBlueMerge;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of (tentative) {@link RedBlueMerge}s in a {@link BlueFringePTA} as well as the end-to-end runtime
+ * of the {@link BlueFringeRPNIDFA RPNI} algorithm, whose runtime is dominated by these merges.
+ * <p>
+ * The samples are random words labeled by a random DFA.
+ *
+ * @author frohme
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedBlueMergeBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int NUM_STATES = 20;
+    private static final int MIN_LENGTH = 1;
+    private static final int MAX_LENGTH = 20;
+
+    @Param({"1000", "10000"})
+    public int numSamples;
+
+    @Param({"3"})
+    public int alphabetSize;
+
+    private Alphabet<Integer> alphabet;
+    private List<DefaultQuery<Integer, Boolean>> samples;
+    private BlueFringePTA<Boolean, Void> pta;
+    private List<PTATransition<BlueFringePTAState<Boolean, Void>>> blueTransitions;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEED);
+
+        this.alphabet = Alphabets.integers(0, alphabetSize - 1);
+
+        final CompactDFA<Integer> target = RandomAutomata.randomDFA(random, NUM_STATES, alphabet);
+        final List<Word<Integer>> words = Workloads.randomWords(random, alphabet, numSamples, MIN_LENGTH, MAX_LENGTH);
+
+        this.samples = new ArrayList<>(numSamples);
+        this.pta = new BlueFringePTA<>(alphabetSize);
+
+        for (Word<Integer> w : words) {
+            final boolean label = target.accepts(w);
+            this.samples.add(new DefaultQuery<>(w, label));
+            this.pta.addSample(w.toIntArray(alphabet), label);
+        }
+
+        this.blueTransitions = new ArrayList<>();
+        this.pta.init(blueTransitions::add);
+    }
+
+    /**
+     * Tries to merge every blue state of the initial fringe into the (red) root. Tentative merges do not modify the
+     * PTA, hence the benchmark can be repeated on the same PTA.
+     *
+     * @param blackhole
+     *         the JMH blackhole for consuming the merges
+     */
+    @Benchmark
+    public void tryMerge(Blackhole blackhole) {
+        final BlueFringePTAState<Boolean, Void> root = pta.getRoot();
+        for (PTATransition<BlueFringePTAState<Boolean, Void>> t : blueTransitions) {
+            final RedBlueMerge<Boolean, Void, BlueFringePTAState<Boolean, Void>> merge =
+                    pta.tryMerge(root, t.getTarget());
+            blackhole.consume(merge);
+        }
+    }
+
+    /**
+     * Runs the complete RPNI algorithm, including the construction of the PTA.
+     *
+     * @return the learned model, to prevent dead-code elimination
+     */
+    @Benchmark
+    public DFA<?, Integer> rpni() {
+        final BlueFringeRPNIDFA<Integer> learner = new BlueFringeRPNIDFA<>(alphabet);
+        learner.addSamples(samples);
+        return learner.computeModel();
+    }
+}
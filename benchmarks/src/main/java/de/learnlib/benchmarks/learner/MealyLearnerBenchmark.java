@@ -0,0 +1,170 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.learner;
+
+import java.util.concurrent.TimeUnit;
+
+import de.learnlib.acex.analyzers.AcexAnalyzers;
+import de.learnlib.algorithms.adt.learner.ADTLearnerBuilder;
+import de.learnlib.algorithms.kv.mealy.KearnsVaziraniMealyBuilder;
+import de.learnlib.algorithms.lstar.mealy.ExtensibleLStarMealyBuilder;
+import de.learnlib.algorithms.ttt.mealy.TTTLearnerMealyBuilder;
+import de.learnlib.api.SUL;
+import de.learnlib.api.algorithm.LearningAlgorithm.MealyLearner;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.SymbolQueryOracle;
+import de.learnlib.benchmarks.util.DelayedSUL;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.examples.LearningExample.MealyLearningExample;
+import de.learnlib.examples.LearningExamples;
+import de.learnlib.filter.cache.mealy.MealyCacheOracle;
+import de.learnlib.filter.cache.mealy.SymbolQueryCache;
+import de.learnlib.oracle.equivalence.MealySimulatorEQOracle;
+import de.learnlib.oracle.membership.SULOracle;
+import de.learnlib.oracle.membership.SULSymbolQueryOracle;
+import de.learnlib.util.Experiment.MealyExperiment;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the end-to-end runtime of complete learning setups (learner, cache and simulated system) for various
+ * targets of the {@link LearningExamples}.
+ * <p>
+ * The system under learning is a simulator of the target that delays resets and steps in order to mimic the latency
+ * of a real system. Counterexamples are provided by a (perfect) simulator-based equivalence oracle, so that the
+ * measured time reflects the membership queries posed by the respective learner.
+ *
+ * @author frohme
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MealyLearnerBenchmark {
+
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    @Param({"TTT", "LSTAR", "KV", "ADT"})
+    public LearnerType learnerType;
+
+    /**
+     * The (simple) class name of the {@link LearningExamples#createMealyExamples() learning example} to learn.
+     */
+    @Param({"ExampleCoffeeMachine", "ExampleGrid", "ExampleShahbazGroz", "ExampleStack", "ExampleRandomMealy"})
+    public String target;
+
+    @Param({"0", "20"})
+    public long resetDelayMicros;
+
+    @Param({"0", "2"})
+    public long stepDelayMicros;
+
+    private MealyLearningExample<?, ?> example;
+
+    @Setup
+    public void setUp() {
+        for (MealyLearningExample<?, ?> e : LearningExamples.createMealyExamples()) {
+            if (e.getClass().getSimpleName().equals(target)) {
+                this.example = e;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unknown learning example: " + target);
+    }
+
+    /**
+     * Learns the target from scratch.
+     *
+     * @return the final hypothesis, to prevent dead-code elimination
+     */
+    @Benchmark
+    public MealyMachine<?, ?, ?, ?> learn() {
+        return learn(example);
+    }
+
+    private <I, O> MealyMachine<?, I, ?, O> learn(MealyLearningExample<I, O> example) {
+        final Alphabet<I> alphabet = example.getAlphabet();
+        final MealyMachine<?, I, ?, O> reference = example.getReferenceAutomaton();
+
+        final SUL<I, O> sul = new DelayedSUL<>(new MealySimulatorSUL<>(reference),
+                                               resetDelayMicros * NANOS_PER_MICRO,
+                                               stepDelayMicros * NANOS_PER_MICRO);
+
+        final MealyLearner<I, O> learner = learnerType.create(alphabet, sul);
+        final MealyExperiment<I, O> experiment =
+                new MealyExperiment<>(learner, new MealySimulatorEQOracle<>(reference), alphabet);
+
+        return experiment.run();
+    }
+
+    public enum LearnerType {
+        TTT {
+            @Override
+            <I, O> MealyLearner<I, O> create(Alphabet<I> alphabet, SUL<I, O> sul) {
+                return new TTTLearnerMealyBuilder<I, O>().withAlphabet(alphabet)
+                                                         .withOracle(cachedOracle(alphabet, sul))
+                                                         .withAnalyzer(AcexAnalyzers.BINARY_SEARCH_FWD)
+                                                         .create();
+            }
+        },
+        LSTAR {
+            @Override
+            <I, O> MealyLearner<I, O> create(Alphabet<I> alphabet, SUL<I, O> sul) {
+                return new ExtensibleLStarMealyBuilder<I, O>().withAlphabet(alphabet)
+                                                              .withOracle(cachedOracle(alphabet, sul))
+                                                              .create();
+            }
+        },
+        KV {
+            @Override
+            <I, O> MealyLearner<I, O> create(Alphabet<I> alphabet, SUL<I, O> sul) {
+                final KearnsVaziraniMealyBuilder<I, O> builder = new KearnsVaziraniMealyBuilder<>();
+                builder.setAlphabet(alphabet);
+                builder.setOracle(cachedOracle(alphabet, sul));
+                builder.setCounterexampleAnalyzer(AcexAnalyzers.BINARY_SEARCH_FWD);
+                return builder.create();
+            }
+        },
+        ADT {
+            @Override
+            <I, O> MealyLearner<I, O> create(Alphabet<I> alphabet, SUL<I, O> sul) {
+                final SymbolQueryOracle<I, O> oracle =
+                        new SymbolQueryCache<>(new SULSymbolQueryOracle<>(sul), alphabet);
+                return new ADTLearnerBuilder<I, O>().withAlphabet(alphabet).withOracle(oracle).create();
+            }
+        };
+
+        abstract <I, O> MealyLearner<I, O> create(Alphabet<I> alphabet, SUL<I, O> sul);
+
+        static <I, O> MembershipOracle<I, Word<O>> cachedOracle(Alphabet<I> alphabet, SUL<I, O> sul) {
+            return MealyCacheOracle.createDAGCacheOracle(alphabet, new SULOracle<>(sul));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.parallelism;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.benchmarks.util.DelayedSUL;
+import de.learnlib.benchmarks.util.Workloads;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.oracle.membership.SULOracle;
+import de.learnlib.oracle.parallelism.ParallelOracle;
+import de.learnlib.oracle.parallelism.ParallelOracleBuilders;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the scaling behavior of the different {@link ParallelOracle} implementations with an increasing number of
+ * (simulated) system instances. Each instance delays resets and steps to mimic the latency of a real system, so the
+ * ideal speed-up is linear in the number of instances.
+ *
+ * @author frohme
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelOracleBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int NUM_STATES = 50;
+    private static final int ALPHABET_SIZE = 5;
+    private static final int MIN_LENGTH = 5;
+    private static final int MAX_LENGTH = 15;
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    @Param({"DYNAMIC", "STATIC", "WORK_STEALING"})
+    public OracleType oracleType;
+
+    @Param({"1", "2", "4", "8"})
+    public int numInstances;
+
+    @Param({"500"})
+    public int batchSize;
+
+    @Param({"50"})
+    public long resetDelayMicros;
+
+    @Param({"5"})
+    public long stepDelayMicros;
+
+    private ParallelOracle<Integer, Word<String>> oracle;
+    private List<DefaultQuery<Integer, Word<String>>> queries;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEED);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, ALPHABET_SIZE - 1);
+        final CompactMealy<Integer, String> target =
+                RandomAutomata.randomMealy(random, NUM_STATES, alphabet, Workloads.outputs(ALPHABET_SIZE));
+
+        final long resetNanos = resetDelayMicros * NANOS_PER_MICRO;
+        final long stepNanos = stepDelayMicros * NANOS_PER_MICRO;
+        final Supplier<MembershipOracle<Integer, Word<String>>> supplier =
+                () -> new SULOracle<>(new DelayedSUL<>(new MealySimulatorSUL<>(target), resetNanos, stepNanos));
+
+        this.oracle = oracleType.create(supplier, numInstances);
+        this.queries =
+                Workloads.toQueries(Workloads.randomWords(random, alphabet, batchSize, MIN_LENGTH, MAX_LENGTH));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.oracle.shutdownNow();
+    }
+
+    /**
+     * Answers a single batch of queries.
+     *
+     * @return the last answered query, to prevent dead-code elimination
+     */
+    @Benchmark
+    public DefaultQuery<Integer, Word<String>> processBatch() {
+        oracle.processQueries(queries);
+        return queries.get(queries.size() - 1);
+    }
+
+    public enum OracleType {
+        DYNAMIC {
+            @Override
+            <I, D> ParallelOracle<I, D> create(Supplier<? extends MembershipOracle<I, D>> supplier, int instances) {
+                return ParallelOracleBuilders.newDynamicParallelOracle(supplier).withPoolSize(instances).create();
+            }
+        },
+        STATIC {
+            @Override
+            <I, D> ParallelOracle<I, D> create(Supplier<? extends MembershipOracle<I, D>> supplier, int instances) {
+                return ParallelOracleBuilders.newStaticParallelOracle(supplier).withNumInstances(instances).create();
+            }
+        },
+        WORK_STEALING {
+            @Override
+            <I, D> ParallelOracle<I, D> create(Supplier<? extends MembershipOracle<I, D>> supplier, int instances) {
+                return ParallelOracleBuilders.newWorkStealingParallelOracle(supplier)
+                                             .withParallelism(instances)
+                                             .create();
+            }
+        };
+
+        abstract <I, D> ParallelOracle<I, D> create(Supplier<? extends MembershipOracle<I, D>> supplier,
+                                                    int instances);
+    }
+}
@@ -0,0 +1,84 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.Nullable;
+
+import de.learnlib.api.SUL;
+
+/**
+ * A {@link SUL} wrapper that simulates the latency of a real system by parking the calling thread for a fixed amount
+ * of time on every reset and every step. This allows to benchmark the effect of caches and parallelism under
+ * realistic conditions, where the cost of a query is dominated by the communication with the system.
+ * <p>
+ * Parking (instead of busy-waiting) does not occupy the CPU, so multiple forked instances scale like independent
+ * systems would.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+public class DelayedSUL<I, O> implements SUL<I, O> {
+
+    private final SUL<I, O> delegate;
+    private final long resetNanos;
+    private final long stepNanos;
+
+    public DelayedSUL(SUL<I, O> delegate, long resetNanos, long stepNanos) {
+        this.delegate = delegate;
+        this.resetNanos = resetNanos;
+        this.stepNanos = stepNanos;
+    }
+
+    @Override
+    public void pre() {
+        delay(resetNanos);
+        delegate.pre();
+    }
+
+    @Override
+    public void post() {
+        delegate.post();
+    }
+
+    @Nullable
+    @Override
+    public O step(@Nullable I in) {
+        delay(stepNanos);
+        return delegate.step(in);
+    }
+
+    @Override
+    public boolean canFork() {
+        return delegate.canFork();
+    }
+
+    @Override
+    public SUL<I, O> fork() {
+        return new DelayedSUL<>(delegate.fork(), resetNanos, stepNanos);
+    }
+
+    private static void delay(long nanos) {
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+}
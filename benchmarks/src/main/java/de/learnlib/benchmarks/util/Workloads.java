@@ -0,0 +1,111 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.benchmarks.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Utility methods for generating the (reproducible) workloads of the benchmarks.
+ *
+ * @author frohme
+ */
+public final class Workloads {
+
+    private Workloads() {
+        // prevent instantiation
+    }
+
+    /**
+     * Generates a list of random words.
+     *
+     * @param random
+     *         the source of randomness
+     * @param alphabet
+     *         the alphabet from which the symbols are drawn
+     * @param count
+     *         the number of words to generate
+     * @param minLength
+     *         the minimal length (inclusive) of the generated words
+     * @param maxLength
+     *         the maximal length (inclusive) of the generated words
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the generated words
+     */
+    public static <I> List<Word<I>> randomWords(Random random,
+                                                Alphabet<I> alphabet,
+                                                int count,
+                                                int minLength,
+                                                int maxLength) {
+        final List<Word<I>> result = new ArrayList<>(count);
+        final int numSyms = alphabet.size();
+
+        for (int i = 0; i < count; i++) {
+            final int length = minLength + random.nextInt(maxLength - minLength + 1);
+            final WordBuilder<I> wb = new WordBuilder<>(length);
+            for (int j = 0; j < length; j++) {
+                wb.append(alphabet.getSymbol(random.nextInt(numSyms)));
+            }
+            result.add(wb.toWord());
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a list of distinct output symbols.
+     *
+     * @param count
+     *         the number of output symbols
+     *
+     * @return the output symbols {@code o0} to {@code o(count - 1)}
+     */
+    public static List<String> outputs(int count) {
+        final List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add("o" + i);
+        }
+        return result;
+    }
+
+    /**
+     * Wraps the given words into fresh (unanswered) queries with an empty prefix.
+     *
+     * @param words
+     *         the words to wrap
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the (unanswered) queries
+     */
+    public static <I, D> List<DefaultQuery<I, D>> toQueries(List<Word<I>> words) {
+        final List<DefaultQuery<I, D>> result = new ArrayList<>(words.size());
+        for (Word<I> w : words) {
+            result.add(new DefaultQuery<>(w));
+        }
+        return result;
+    }
+}
@@ -15,6 +15,9 @@
  */
 package de.learnlib.acex;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface AbstractCounterexample<E> {
 
     int getLength();
@@ -26,4 +29,23 @@ public interface AbstractCounterexample<E> {
     boolean checkEffects(E eff1, E eff2);
 
     E effect(int index);
+
+    /**
+     * Retrieves the effects of several indices at once. Implementations may override this method to compute the
+     * effects of all given indices in a single batch (e.g. by means of a single membership oracle call), which allows
+     * analyzers to reduce the number of sequential round trips. The default implementation successively delegates to
+     * {@link #effect(int)}.
+     *
+     * @param indices
+     *         the indices whose effects should be retrieved
+     *
+     * @return the effects of the given indices, in the order of the given indices
+     */
+    default List<E> effects(int... indices) {
+        final List<E> result = new ArrayList<>(indices.length);
+        for (int idx : indices) {
+            result.add(effect(idx));
+        }
+        return result;
+    }
 }
@@ -15,6 +15,8 @@
  */
 package de.learnlib.acex.analyzers;
 
+import java.util.List;
+
 import de.learnlib.acex.AbstractCounterexample;
 
 public final class AcexAnalysisAlgorithms {
@@ -190,4 +192,156 @@ public final class AcexAnalysisAlgorithms {
 
         return lowIter;
     }
+
+    /**
+     * Search for a suffix index using a k-ary search. This is a generalization of {@link
+     * #binarySearchRight(AbstractCounterexample, int, int)} that probes {@code arity - 1} evenly spaced indices per
+     * round. The effects of all probes of a round are requested in a single batch (see {@link
+     * AbstractCounterexample#effects(int...)}), which reduces the number of rounds to {@code log_arity(high - low)}. If
+     * the search range contains at most {@code arity - 1} inner indices, all of them are probed at once.
+     *
+     * @param acex
+     *         the abstract counterexample
+     * @param low
+     *         the lower bound of the search range
+     * @param high
+     *         the upper bound of the search range
+     * @param arity
+     *         the number of sub-ranges the search range is divided into per round, must be at least 2
+     *
+     * @return an index <code>i</code> such that <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+     */
+    public static <E> int kArySearchRight(AbstractCounterexample<E> acex, int low, int high, int arity) {
+        checkArity(arity);
+
+        int highIter = high;
+        int lowIter = low;
+
+        // the effects of the bounds are requested together with the first probes
+        final int[] initialProbes = computeProbes(lowIter, highIter, arity);
+        final List<E> initialEffects = acex.effects(withBounds(lowIter, highIter, initialProbes));
+
+        E effHigh = initialEffects.get(1);
+
+        assert !acex.checkEffects(initialEffects.get(0), effHigh) :
+                "compatible effects at " + low + ", " + high + ": " + initialEffects.get(0) + ", " + effHigh;
+
+        int[] probes = initialProbes;
+        List<E> effects = initialEffects.subList(2, initialEffects.size());
+
+        while (probes.length > 0) {
+            int j = probes.length - 1;
+
+            while (j >= 0 && acex.checkEffects(effects.get(j), effHigh)) {
+                highIter = probes[j];
+                effHigh = effects.get(j);
+                j--;
+            }
+
+            if (j >= 0) {
+                lowIter = probes[j];
+            }
+
+            probes = computeProbes(lowIter, highIter, arity);
+            effects = acex.effects(probes);
+        }
+
+        return lowIter;
+    }
+
+    /**
+     * Search for a suffix index using a k-ary search. This is a generalization of {@link
+     * #binarySearchLeft(AbstractCounterexample, int, int)} that probes {@code arity - 1} evenly spaced indices per
+     * round. See {@link #kArySearchRight(AbstractCounterexample, int, int, int)} for further details.
+     *
+     * @param acex
+     *         the abstract counterexample
+     * @param low
+     *         the lower bound of the search range
+     * @param high
+     *         the upper bound of the search range
+     * @param arity
+     *         the number of sub-ranges the search range is divided into per round, must be at least 2
+     *
+     * @return an index <code>i</code> such that <code>acex.testEffect(i) != acex.testEffect(i+1)</code>
+     */
+    public static <E> int kArySearchLeft(AbstractCounterexample<E> acex, int low, int high, int arity) {
+        checkArity(arity);
+
+        int highIter = high;
+        int lowIter = low;
+
+        // the effects of the bounds are requested together with the first probes
+        final int[] initialProbes = computeProbes(lowIter, highIter, arity);
+        final List<E> initialEffects = acex.effects(withBounds(lowIter, highIter, initialProbes));
+
+        E effLow = initialEffects.get(0);
+
+        assert !acex.checkEffects(effLow, initialEffects.get(1)) :
+                "compatible effects at " + low + ", " + high + ": " + effLow + ", " + initialEffects.get(1);
+
+        int[] probes = initialProbes;
+        List<E> effects = initialEffects.subList(2, initialEffects.size());
+
+        while (probes.length > 0) {
+            int j = 0;
+
+            while (j < probes.length && acex.checkEffects(effLow, effects.get(j))) {
+                lowIter = probes[j];
+                effLow = effects.get(j);
+                j++;
+            }
+
+            if (j < probes.length) {
+                highIter = probes[j];
+            }
+
+            probes = computeProbes(lowIter, highIter, arity);
+            effects = acex.effects(probes);
+        }
+
+        return lowIter;
+    }
+
+    /**
+     * Checks that the given arity of a k-ary search is valid, i.e. at least 2.
+     *
+     * @param arity
+     *         the arity to check
+     *
+     * @throws IllegalArgumentException
+     *         if the arity is less than 2
+     */
+    static void checkArity(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2, got " + arity);
+        }
+    }
+
+    /**
+     * Computes (at most {@code arity - 1}) evenly spaced, strictly increasing indices within the open interval {@code
+     * (low, high)}.
+     */
+    private static int[] computeProbes(int low, int high, int arity) {
+        final int range = high - low;
+        final int numProbes = Math.min(arity - 1, range - 1);
+
+        if (numProbes <= 0) {
+            return new int[0];
+        }
+
+        final int[] result = new int[numProbes];
+        for (int i = 0; i < numProbes; i++) {
+            result[i] = low + (int) ((long) (i + 1) * range / (numProbes + 1));
+        }
+        return result;
+    }
+
+    private static int[] withBounds(int low, int high, int[] probes) {
+        final int[] result = new int[probes.length + 2];
+        result[0] = low;
+        result[1] = high;
+        System.arraycopy(probes, 0, result, 2, probes.length);
+        return result;
+    }
 }
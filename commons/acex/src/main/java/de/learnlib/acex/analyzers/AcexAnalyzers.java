@@ -29,6 +29,11 @@ import de.learnlib.acex.AbstractCounterexample;
  */
 public final class AcexAnalyzers {
 
+    /**
+     * The default arity of the k-ary search analyzers, i.e. three probes per round.
+     */
+    public static final int DEFAULT_SEARCH_ARITY = 4;
+
     /**
      * Analyzer that linearly scans through the abstract counterexample in ascending order.
      */
@@ -84,17 +89,72 @@ public final class AcexAnalyzers {
             return AcexAnalysisAlgorithms.exponentialSearchFwd(acex, low, high);
         }
     };
+
+    /**
+     * Analyzer that searches for a suffix index using a k-ary search with {@link #DEFAULT_SEARCH_ARITY}, probing the
+     * sub-ranges from the back and posing the queries of each round in a single batch.
+     */
+    public static final AbstractNamedAcexAnalyzer KARY_SEARCH_BWD = kArySearchBwd(DEFAULT_SEARCH_ARITY);
+
+    /**
+     * Analyzer that searches for a suffix index using a k-ary search with {@link #DEFAULT_SEARCH_ARITY}, probing the
+     * sub-ranges from the front and posing the queries of each round in a single batch.
+     */
+    public static final AbstractNamedAcexAnalyzer KARY_SEARCH_FWD = kArySearchFwd(DEFAULT_SEARCH_ARITY);
+
     public static final Map<String, AbstractNamedAcexAnalyzer> FWD_ANALYZERS =
-            createMap(LINEAR_FWD, EXPONENTIAL_FWD, BINARY_SEARCH_FWD);
+            createMap(LINEAR_FWD, EXPONENTIAL_FWD, BINARY_SEARCH_FWD, KARY_SEARCH_FWD);
 
     public static final Map<String, AbstractNamedAcexAnalyzer> BWD_ANALYZERS =
-            createMap(LINEAR_BWD, EXPONENTIAL_BWD, BINARY_SEARCH_BWD);
+            createMap(LINEAR_BWD, EXPONENTIAL_BWD, BINARY_SEARCH_BWD, KARY_SEARCH_BWD);
     public static final Map<String, AbstractNamedAcexAnalyzer> ALL_ANALYZERS = createMap(FWD_ANALYZERS, BWD_ANALYZERS);
 
     private AcexAnalyzers() {
         throw new AssertionError("Class should not be instantiated");
     }
 
+    /**
+     * Creates an analyzer that searches for a suffix index using a k-ary search, probing the sub-ranges from the back
+     * (see {@link AcexAnalysisAlgorithms#kArySearchRight(AbstractCounterexample, int, int, int)}).
+     *
+     * @param arity
+     *         the number of sub-ranges the search range is divided into per round
+     *
+     * @return the analyzer
+     */
+    public static AbstractNamedAcexAnalyzer kArySearchBwd(int arity) {
+        AcexAnalysisAlgorithms.checkArity(arity);
+
+        return new AbstractNamedAcexAnalyzer("KArySearchBwd(" + arity + ")") {
+
+            @Override
+            public int analyzeAbstractCounterexample(AbstractCounterexample<?> acex, int low, int high) {
+                return AcexAnalysisAlgorithms.kArySearchRight(acex, low, high, arity);
+            }
+        };
+    }
+
+    /**
+     * Creates an analyzer that searches for a suffix index using a k-ary search, probing the sub-ranges from the front
+     * (see {@link AcexAnalysisAlgorithms#kArySearchLeft(AbstractCounterexample, int, int, int)}).
+     *
+     * @param arity
+     *         the number of sub-ranges the search range is divided into per round
+     *
+     * @return the analyzer
+     */
+    public static AbstractNamedAcexAnalyzer kArySearchFwd(int arity) {
+        AcexAnalysisAlgorithms.checkArity(arity);
+
+        return new AbstractNamedAcexAnalyzer("KArySearchFwd(" + arity + ")") {
+
+            @Override
+            public int analyzeAbstractCounterexample(AbstractCounterexample<?> acex, int low, int high) {
+                return AcexAnalysisAlgorithms.kArySearchLeft(acex, low, high, arity);
+            }
+        };
+    }
+
     private static Map<String, AbstractNamedAcexAnalyzer> createMap(AbstractNamedAcexAnalyzer... analyzers) {
         Map<String, AbstractNamedAcexAnalyzer> analyzerMap = new HashMap<>(analyzers.length * 3 / 2);
         for (AbstractNamedAcexAnalyzer a : analyzers) {
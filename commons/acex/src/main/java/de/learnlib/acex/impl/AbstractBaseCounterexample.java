@@ -15,6 +15,10 @@
  */
 package de.learnlib.acex.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import de.learnlib.acex.AbstractCounterexample;
 import net.automatalib.commons.smartcollections.ArrayStorage;
 
@@ -52,12 +56,74 @@ public abstract class AbstractBaseCounterexample<E> implements AbstractCounterex
         return eff;
     }
 
+    /**
+     * Retrieves the effects of several indices at once. Only the effects which have not been computed before are
+     * passed to {@link #computeEffects(int[])}.
+     *
+     * @param indices
+     *         the indices whose effects should be retrieved
+     *
+     * @return the effects of the given indices, in the order of the given indices
+     */
+    @Override
+    public List<E> effects(int... indices) {
+        final int[] missing = new int[indices.length];
+        int numMissing = 0;
+
+        for (int idx : indices) {
+            if (values.get(idx) == null && !contains(missing, numMissing, idx)) {
+                missing[numMissing++] = idx;
+            }
+        }
+
+        if (numMissing > 0) {
+            final int[] toCompute = numMissing == missing.length ? missing : Arrays.copyOf(missing, numMissing);
+            final List<E> computed = computeEffects(toCompute);
+
+            for (int i = 0; i < numMissing; i++) {
+                values.set(toCompute[i], computed.get(i));
+            }
+        }
+
+        final List<E> result = new ArrayList<>(indices.length);
+        for (int idx : indices) {
+            result.add(values.get(idx));
+        }
+        return result;
+    }
+
     protected abstract E computeEffect(int index);
 
+    /**
+     * Computes the effects of the given indices. The default implementation successively delegates to {@link
+     * #computeEffect(int)}. Subclasses may override this method in order to compute the effects in a single batch.
+     *
+     * @param indices
+     *         the (distinct) indices whose effects should be computed
+     *
+     * @return the effects of the given indices, in the order of the given indices
+     */
+    protected List<E> computeEffects(int[] indices) {
+        final List<E> result = new ArrayList<>(indices.length);
+        for (int idx : indices) {
+            result.add(computeEffect(idx));
+        }
+        return result;
+    }
+
     public void setEffect(int index, E effect) {
         values.set(index, effect);
     }
 
+    private static boolean contains(int[] array, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(values.size());
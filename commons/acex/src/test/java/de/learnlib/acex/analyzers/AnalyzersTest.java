@@ -17,9 +17,11 @@ package de.learnlib.acex.analyzers;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
 
 import de.learnlib.acex.AbstractCounterexample;
+import de.learnlib.acex.impl.AbstractBaseCounterexample;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -99,4 +101,83 @@ public class AnalyzersTest {
         }
         return new DummyAcex(values);
     }
+
+    @Test
+    public void testKArySearchBatches() {
+        final Random r = new Random(SEED);
+
+        for (int arity = 2; arity <= 10; arity++) {
+            for (int i = 0; i < NUM_RANDOM; i++) {
+                final BatchCountingAcex bwd = new BatchCountingAcex(createRandomValues(LENGTH, r));
+                final BatchCountingAcex fwd = new BatchCountingAcex(createRandomValues(LENGTH, r));
+
+                checkResult(bwd, AcexAnalysisAlgorithms.kArySearchRight(bwd, 0, LENGTH, arity));
+                checkResult(fwd, AcexAnalysisAlgorithms.kArySearchLeft(fwd, 0, LENGTH, arity));
+
+                // each round shrinks the search range by the factor arity
+                final int maxRounds = (int) Math.ceil(Math.log(LENGTH) / Math.log(arity)) + 1;
+                Assert.assertTrue(bwd.batches <= maxRounds, "batches: " + bwd.batches + ", arity: " + arity);
+                Assert.assertTrue(fwd.batches <= maxRounds, "batches: " + fwd.batches + ", arity: " + arity);
+            }
+        }
+    }
+
+    @Test
+    public void testKArySearchShortCounterexample() {
+        final int length = 5;
+        final BatchCountingAcex acex = new BatchCountingAcex(new int[] {0, 0, 0, 1, 1, 1});
+
+        Assert.assertEquals(AcexAnalysisAlgorithms.kArySearchRight(acex, 0, length, length), 2);
+        Assert.assertEquals(acex.batches, 1);
+        Assert.assertEquals(acex.effects, length + 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testKAryInvalidArity() {
+        AcexAnalyzers.kArySearchBwd(1);
+    }
+
+    private static int[] createRandomValues(int length, Random random) {
+        int[] values = new int[length + 1];
+        values[0] = 0;
+        values[length] = 1;
+        for (int i = 1; i < length; i++) {
+            values[i] = random.nextInt(2);
+        }
+        return values;
+    }
+
+    private static final class BatchCountingAcex extends AbstractBaseCounterexample<Integer> {
+
+        private final int[] values;
+        private int batches;
+        private int effects;
+
+        BatchCountingAcex(int[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        protected Integer computeEffect(int index) {
+            throw new AssertionError("Effects should be computed in batches");
+        }
+
+        @Override
+        protected List<Integer> computeEffects(int[] indices) {
+            batches++;
+            effects += indices.length;
+
+            final Integer[] result = new Integer[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                result[i] = values[indices[i]];
+            }
+            return Arrays.asList(result);
+        }
+
+        @Override
+        public boolean checkEffects(Integer eff1, Integer eff2) {
+            return eff1.equals(eff2);
+        }
+    }
 }
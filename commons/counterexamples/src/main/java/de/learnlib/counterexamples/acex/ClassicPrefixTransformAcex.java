@@ -15,11 +15,14 @@
  */
 package de.learnlib.counterexamples.acex;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 
 import de.learnlib.acex.impl.AbstractBaseCounterexample;
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
 import net.automatalib.automata.concepts.SuffixOutput;
 import net.automatalib.words.Word;
 
@@ -74,6 +77,23 @@ public class ClassicPrefixTransformAcex<I, D> extends AbstractBaseCounterexample
         return Objects.equals(hypOut.computeSuffixOutput(asPrefix, suffix), oracle.answerQuery(asPrefix, suffix));
     }
 
+    @Override
+    protected List<Boolean> computeEffects(int[] indices) {
+        final List<DefaultQuery<I, D>> queries = new ArrayList<>(indices.length);
+
+        for (int index : indices) {
+            queries.add(new DefaultQuery<>(asTransform.apply(this.suffix.prefix(index)), this.suffix.subWord(index)));
+        }
+
+        oracle.processQueries(queries);
+
+        final List<Boolean> result = new ArrayList<>(indices.length);
+        for (DefaultQuery<I, D> q : queries) {
+            result.add(Objects.equals(hypOut.computeSuffixOutput(q.getPrefix(), q.getSuffix()), q.getOutput()));
+        }
+        return result;
+    }
+
     @Override
     public boolean checkEffects(Boolean eff1, Boolean eff2) {
         return Objects.equals(eff1, eff2);
@@ -36,6 +36,14 @@ public enum LearnLibProperty {
      */
     PARALLEL_BATCH_SIZE_STATIC("parallel.batch_size.static"),
 
+    /**
+     * {@code learnlib.parallel.concurrency_limit}.
+     * <p>
+     * Maximum number of concurrently processed query batches for parallel oracles that are not bounded by the size of
+     * their thread pool (e.g. ones running on virtual threads).
+     */
+    PARALLEL_CONCURRENCY_LIMIT("parallel.concurrency_limit"),
+
     /**
      * {@code learnlib.parallel.pool_policy}.
      * <p>
@@ -44,6 +44,9 @@ public class LearnLibSettingsTest {
                 case PARALLEL_BATCH_SIZE_STATIC:
                     Assert.assertEquals(2, settings.getInt(LearnLibProperty.PARALLEL_BATCH_SIZE_STATIC, 0));
                     break;
+                case PARALLEL_CONCURRENCY_LIMIT:
+                    Assert.assertEquals(4, settings.getInt(LearnLibProperty.PARALLEL_CONCURRENCY_LIMIT, 0));
+                    break;
                 case PARALLEL_POOL_POLICY:
                     Assert.assertEquals("CACHED", settings.getProperty(LearnLibProperty.PARALLEL_POOL_POLICY));
                     break;
@@ -42,6 +42,7 @@ public abstract class AbstractDTNode<DSCR, O, D, N extends AbstractDTNode<DSCR,
     protected Map<O, N> children;
     protected DSCR discriminator;
     protected D data;
+    private int branchFrequency;
 
     public AbstractDTNode(D data) {
         this(null, null, data);
@@ -165,6 +166,45 @@ public abstract class AbstractDTNode<DSCR, O, D, N extends AbstractDTNode<DSCR,
         return parentOutcome;
     }
 
+    /**
+     * Returns the number of times a sift has passed from the parent of this node into this node, i.e. how often the
+     * branch leading into this node has been taken.
+     *
+     * @return the branch frequency of this node
+     */
+    public int getBranchFrequency() {
+        return branchFrequency;
+    }
+
+    void incrementBranchFrequency() {
+        branchFrequency++;
+    }
+
+    /**
+     * Returns the child of this (inner) node whose branch has been taken most often. Ties are resolved in favor of the
+     * child that comes first in the iteration order of the children.
+     *
+     * @return the most frequently visited child, or {@code null} if this node is a leaf or none of its branches has
+     * been taken so far
+     */
+    public N getMostFrequentChild() {
+        if (isLeaf()) {
+            return null;
+        }
+
+        N result = null;
+        int maxFrequency = 0;
+
+        for (N child : children.values()) {
+            if (child.getBranchFrequency() > maxFrequency) {
+                result = child;
+                maxFrequency = child.getBranchFrequency();
+            }
+        }
+
+        return result;
+    }
+
     public class SplitResult {
 
         public final N nodeOld;
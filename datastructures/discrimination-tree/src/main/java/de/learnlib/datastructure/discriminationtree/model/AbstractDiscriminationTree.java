@@ -27,6 +27,7 @@ import java.util.Map.Entry;
 import java.util.RandomAccess;
 import java.util.function.Predicate;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.DefaultQuery;
@@ -60,6 +61,10 @@ public abstract class AbstractDiscriminationTree<DSCR, I, O, D, N extends Abstra
     protected final N root;
     protected transient MembershipOracle<I, O> oracle;
 
+    private int speculationDepth = 1;
+    private long savedSpeculativeQueries;
+    private long wastedSpeculativeQueries;
+
     public AbstractDiscriminationTree(N root, MembershipOracle<I, O> oracle) {
         this.root = root;
         this.oracle = oracle;
@@ -74,12 +79,16 @@ public abstract class AbstractDiscriminationTree<DSCR, I, O, D, N extends Abstra
     }
 
     protected N sift(N start, Word<I> prefix, Predicate<N> continueExploring) {
+        if (speculationDepth > 1) {
+            return sift(Collections.singletonList(start), Collections.singletonList(prefix), continueExploring).get(0);
+        }
+
         N curr = start;
 
         while (continueExploring.test(curr)) {
             final DefaultQuery<I, O> query = buildQuery(curr, prefix);
             oracle.processQuery(query);
-            curr = curr.child(query.getOutput());
+            curr = descend(curr, query.getOutput());
         }
 
         return curr;
@@ -95,7 +104,7 @@ public abstract class AbstractDiscriminationTree<DSCR, I, O, D, N extends Abstra
 
         if (starts.isEmpty()) {
             return Collections.emptyList();
-        } else if (starts.size() == 1) {
+        } else if (starts.size() == 1 && speculationDepth <= 1) {
             return Collections.singletonList(sift(starts.get(0), prefixes.get(0), continueExploring));
         }
 
@@ -114,6 +123,11 @@ public abstract class AbstractDiscriminationTree<DSCR, I, O, D, N extends Abstra
             prefixStorage = new ArrayStorage<>(prefixes);
         }
 
+        if (speculationDepth > 1) {
+            siftSpeculatively(result, prefixStorage, activeVector, continueExploring);
+            return result;
+        }
+
         while (!activeVector.isEmpty()) {
 
             final List<DefaultQuery<I, O>> queries = new ArrayList<>(activeVector.cardinality());
@@ -133,7 +147,7 @@ public abstract class AbstractDiscriminationTree<DSCR, I, O, D, N extends Abstra
                 final int idx = postIter.nextInt();
                 final N current = result.get(idx);
                 final O out = responseIter.next().getOutput();
-                final N child = current.child(out);
+                final N child = descend(current, out);
                 result.set(idx, child);
 
                 if (!continueExploring.test(child)) {
@@ -145,6 +159,135 @@ public abstract class AbstractDiscriminationTree<DSCR, I, O, D, N extends Abstra
         return result;
     }
 
+    private void siftSpeculatively(List<N> result,
+                                   List<Word<I>> prefixes,
+                                   BitSet activeVector,
+                                   Predicate<N> continueExploring) {
+
+        while (!activeVector.isEmpty()) {
+
+            final List<List<N>> paths = new ArrayList<>(activeVector.cardinality());
+            final List<DefaultQuery<I, O>> queries = new ArrayList<>(activeVector.cardinality() * speculationDepth);
+            final BitSetIterator preIter = new BitSetIterator(activeVector);
+
+            while (preIter.hasNext()) {
+                final int idx = preIter.nextInt();
+                final Word<I> prefix = prefixes.get(idx);
+                final List<N> path = speculativePath(result.get(idx), continueExploring);
+
+                for (N node : path) {
+                    queries.add(buildQuery(node, prefix));
+                }
+                paths.add(path);
+            }
+
+            oracle.processQueries(queries);
+
+            final BitSetIterator postIter = new BitSetIterator(activeVector);
+            final Iterator<List<N>> pathIter = paths.iterator();
+            final Iterator<DefaultQuery<I, O>> responseIter = queries.iterator();
+
+            while (postIter.hasNext()) {
+                final int idx = postIter.nextInt();
+                final List<N> path = pathIter.next();
+
+                N current = descend(path.get(0), responseIter.next().getOutput());
+                int used = 1;
+
+                // the answers remain valid as long as the sift follows the speculated path
+                while (used < path.size() && current == path.get(used)) {
+                    current = descend(current, responseIter.next().getOutput());
+                    used++;
+                }
+
+                for (int i = used; i < path.size(); i++) {
+                    responseIter.next();
+                }
+
+                savedSpeculativeQueries += used - 1;
+                wastedSpeculativeQueries += path.size() - used;
+
+                result.set(idx, current);
+
+                if (!continueExploring.test(current)) {
+                    activeVector.clear(idx);
+                }
+            }
+        }
+    }
+
+    private List<N> speculativePath(N start, Predicate<N> continueExploring) {
+        final List<N> path = new ArrayList<>(speculationDepth);
+        path.add(start);
+
+        N curr = start;
+        while (path.size() < speculationDepth) {
+            final N next = curr.getMostFrequentChild();
+
+            if (next == null || !continueExploring.test(next)) {
+                break;
+            }
+
+            path.add(next);
+            curr = next;
+        }
+
+        return path;
+    }
+
+    private N descend(N node, O output) {
+        final N child = node.child(output);
+        child.incrementBranchFrequency();
+        return child;
+    }
+
+    /**
+     * Returns the number of tree levels whose queries are posed in a single batch when sifting.
+     *
+     * @return the speculation depth
+     *
+     * @see #setSpeculationDepth(int)
+     */
+    public int getSpeculationDepth() {
+        return speculationDepth;
+    }
+
+    /**
+     * Sets the number of tree levels whose queries are posed in a single batch when sifting. For a depth {@code k > 1},
+     * each sift speculatively follows the {@link AbstractDTNode#getMostFrequentChild() most frequently taken} branches
+     * for up to {@code k - 1} additional levels and queries the discriminators of all nodes on this path at once. The
+     * answers of nodes that are not reached by the actual sift are discarded. This reduces the number of (sequential)
+     * round trips to the membership oracle at the cost of additional queries, which can be beneficial for systems with
+     * a high query latency.
+     *
+     * @param speculationDepth
+     *         the number of levels per batch. A value of {@code 1} disables the speculation.
+     */
+    public void setSpeculationDepth(int speculationDepth) {
+        Preconditions.checkArgument(speculationDepth > 0, "Speculation depth must be positive");
+        this.speculationDepth = speculationDepth;
+    }
+
+    /**
+     * Returns the number of speculatively posed queries whose answers could be used for sifting. Each of these queries
+     * saved a separate round trip to the membership oracle.
+     *
+     * @return the number of saved queries
+     */
+    public long getSavedSpeculativeQueries() {
+        return savedSpeculativeQueries;
+    }
+
+    /**
+     * Returns the number of speculatively posed queries whose answers had to be discarded, because the sift took a
+     * different branch.
+     *
+     * @return the number of wasted queries
+     */
+    public long getWastedSpeculativeQueries() {
+        return wastedSpeculativeQueries;
+    }
+
     public N getRoot() {
         return root;
     }
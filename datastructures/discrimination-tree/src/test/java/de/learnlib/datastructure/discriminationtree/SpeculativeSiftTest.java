@@ -0,0 +1,126 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.discriminationtree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.datastructure.discriminationtree.model.AbstractWordBasedDTNode;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class SpeculativeSiftTest {
+
+    private static final int DEPTH = 8;
+
+    @Test
+    public void testEquivalenceToRegularSift() {
+        final CountingOracle regularOracle = new CountingOracle();
+        final CountingOracle speculativeOracle = new CountingOracle();
+
+        final BinaryDTree<Integer, Integer> regular = buildTree(regularOracle);
+        final BinaryDTree<Integer, Integer> speculative = buildTree(speculativeOracle);
+        speculative.setSpeculationDepth(3);
+
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 20; i++) {
+            final List<Word<Integer>> prefixes = new ArrayList<>();
+
+            for (int j = 0; j < 10; j++) {
+                // bias towards long prefixes, so that the branch frequencies favor deep paths
+                final int length = random.nextInt(4) == 0 ? random.nextInt(DEPTH + 1) : DEPTH;
+                prefixes.add(Word.fromList(Collections.nCopies(length, 0)));
+            }
+
+            Assert.assertEquals(getData(speculative.sift(Collections.nCopies(prefixes.size(), speculative.getRoot()),
+                                                         prefixes)),
+                                getData(regular.sift(Collections.nCopies(prefixes.size(), regular.getRoot()),
+                                                     prefixes)));
+        }
+
+        for (int i = 0; i <= DEPTH; i++) {
+            final Word<Integer> prefix = Word.fromList(Collections.nCopies(i, 0));
+            Assert.assertEquals(speculative.sift(prefix).getData(), regular.sift(prefix).getData());
+        }
+
+        // every answer that has been used corresponds to exactly one query of the regular sift
+        Assert.assertEquals(speculativeOracle.queries,
+                            regularOracle.queries + speculative.getWastedSpeculativeQueries());
+        Assert.assertTrue(speculative.getSavedSpeculativeQueries() > 0);
+        Assert.assertTrue(speculativeOracle.batches < regularOracle.batches);
+
+        Assert.assertEquals(regular.getSavedSpeculativeQueries(), 0);
+        Assert.assertEquals(regular.getWastedSpeculativeQueries(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidDepth() {
+        buildTree(new CountingOracle()).setSpeculationDepth(0);
+    }
+
+    /**
+     * Builds a degenerated tree, whose inner node at level {@code k} checks whether the length of a prefix exceeds
+     * {@code k}.
+     */
+    private static BinaryDTree<Integer, Integer> buildTree(MembershipOracle<Integer, Boolean> oracle) {
+        final BinaryDTree<Integer, Integer> tree = new BinaryDTree<>(oracle);
+
+        AbstractWordBasedDTNode<Integer, Boolean, Integer> node = tree.getRoot();
+        for (int i = 0; i < DEPTH; i++) {
+            final AbstractWordBasedDTNode<Integer, Boolean, Integer>.SplitResult split =
+                    node.split(Word.fromLetter(i), false, true);
+            split.nodeOld.setData(i);
+            node = split.nodeNew;
+        }
+        node.setData(DEPTH);
+
+        return tree;
+    }
+
+    private static List<Integer> getData(List<AbstractWordBasedDTNode<Integer, Boolean, Integer>> nodes) {
+        final List<Integer> result = new ArrayList<>(nodes.size());
+        for (AbstractWordBasedDTNode<Integer, Boolean, Integer> n : nodes) {
+            result.add(n.getData());
+        }
+        return result;
+    }
+
+    private static final class CountingOracle implements MembershipOracle<Integer, Boolean> {
+
+        private long batches;
+        private long queries;
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Boolean>> queries) {
+            this.batches++;
+            for (Query<Integer, Boolean> q : queries) {
+                this.queries++;
+                final Word<Integer> input = q.getInput();
+                q.answer(input.length() - 1 > input.lastSymbol());
+            }
+        }
+    }
+}
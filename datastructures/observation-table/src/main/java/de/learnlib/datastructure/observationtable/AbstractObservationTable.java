@@ -16,9 +16,11 @@
 package de.learnlib.datastructure.observationtable;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +29,7 @@ import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.DefaultQuery;
@@ -63,15 +66,17 @@ import net.automatalib.words.Word;
  */
 public abstract class AbstractObservationTable<I, D> implements MutableObservationTable<I, D>, Serializable {
 
-    private static final Integer NO_ENTRY = null; // TODO: replace with primitive specialization
     protected final List<RowImpl<I>> shortPrefixRows = new ArrayList<>();
-    // private static final int NO_ENTRY = -1;
     private final List<RowImpl<I>> longPrefixRows = new ArrayList<>();
     private final List<RowImpl<I>> allRows = new ArrayList<>();
-    private final List<List<D>> allRowContents = new ArrayList<>();
+    private final RowContentStorage<D> rowContentStorage;
     private final List<RowImpl<I>> canonicalRows = new ArrayList<>();
-    // private final TObjectIntMap<List<D>> rowContentIds = new TObjectIntHashMap<>(10, 0.75f, NO_ENTRY);
-    private final Map<List<D>, Integer> rowContentIds = new HashMap<>(); // TODO: replace with primitive specialization
+    // the (short prefix) rows of each content class. May contain stale entries which are removed lazily
+    private final List<List<RowImpl<I>>> spRowsByContent = new ArrayList<>();
+    // long prefix rows which (potentially) have no short prefix row with identical contents
+    private final Deque<RowImpl<I>> unclosedCandidates = new ArrayDeque<>();
+    // short prefix rows whose successors (potentially) differ from the ones of their canonical row
+    private final Deque<RowImpl<I>> inconsistencyCandidates = new ArrayDeque<>();
     private final Map<Word<I>, RowImpl<I>> rowMap = new HashMap<>();
     private final List<Word<I>> suffixes = new ArrayList<>();
     private final Set<Word<I>> suffixSet = new HashSet<>();
@@ -86,7 +91,12 @@ public abstract class AbstractObservationTable<I, D> implements MutableObservati
      *         the learning alphabet.
      */
     public AbstractObservationTable(Alphabet<I> alphabet) {
+        this(alphabet, new ListRowContentStorage<>());
+    }
+
+    AbstractObservationTable(Alphabet<I> alphabet, RowContentStorage<D> rowContentStorage) {
         this.alphabet = alphabet;
+        this.rowContentStorage = rowContentStorage;
     }
 
     protected static <I, D> void buildQueries(List<DefaultQuery<I, D>> queryList,
@@ -176,28 +186,59 @@ public abstract class AbstractObservationTable<I, D> implements MutableObservati
     }
 
     protected boolean processContents(RowImpl<I> row, List<D> rowContents, boolean makeCanonical) {
-        Integer contentId; // TODO: replace with primitive specialization
-        // int contentId;
-        boolean added = false;
-        contentId = rowContentIds.get(rowContents);
-        if (contentId == NO_ENTRY) {
-            contentId = numberOfDistinctRows();
-            rowContentIds.put(rowContents, contentId);
-            allRowContents.add(rowContents);
-            added = true;
+        final int numContents = rowContentStorage.size();
+        final int contentId = rowContentStorage.intern(rowContents);
+        final boolean added = contentId == numContents;
+        if (added) {
             if (makeCanonical) {
                 canonicalRows.add(row);
             } else {
                 canonicalRows.add(null);
             }
+            spRowsByContent.add(new ArrayList<>());
+        } else if (makeCanonical && canonicalRows.get(contentId) == null) {
+            canonicalRows.set(contentId, row);
         }
-        row.setRowContentId(contentId);
+        updateRowContentId(row, contentId);
         return added;
     }
 
+    /**
+     * Sets the content id of the given row and records the rows whose closedness or consistency may be affected by
+     * this change.
+     *
+     * @param row
+     *         the row whose content id changes
+     * @param contentId
+     *         the new content id
+     */
+    private void updateRowContentId(RowImpl<I> row, int contentId) {
+        if (row.getRowContentId() == contentId) {
+            return;
+        }
+
+        row.setRowContentId(contentId);
+
+        if (row.isShortPrefixRow()) {
+            spRowsByContent.get(contentId).add(row);
+            inconsistencyCandidates.add(row);
+        } else if (canonicalRows.get(contentId) == null) {
+            unclosedCandidates.add(row);
+        }
+
+        // the row is a successor of its parent row, whose consistency needs to be re-checked
+        final Word<I> label = row.getLabel();
+        if (!label.isEmpty()) {
+            final RowImpl<I> parent = rowMap.get(label.prefix(-1));
+            if (parent != null && parent.isShortPrefixRow()) {
+                inconsistencyCandidates.add(parent);
+            }
+        }
+    }
+
     @Override
     public int numberOfDistinctRows() {
-        return allRowContents.size();
+        return rowContentStorage.size();
     }
 
     @Override
@@ -240,31 +281,40 @@ public abstract class AbstractObservationTable<I, D> implements MutableObservati
         Iterator<DefaultQuery<I, D>> queryIt = queries.iterator();
 
         for (RowImpl<I> row : shortPrefixRows) {
-            List<D> rowContents = allRowContents.get(row.getRowContentId());
-            if (rowContents.size() == oldSuffixCount) {
-                rowContentIds.remove(rowContents);
-                fetchResults(queryIt, rowContents, numNewSuffixes);
-                rowContentIds.put(rowContents, row.getRowContentId());
+            int contentId = row.getRowContentId();
+            if (rowContentStorage.getLength(contentId) == oldSuffixCount) {
+                List<D> newCells = new ArrayList<>(numNewSuffixes);
+                fetchResults(queryIt, newCells, numNewSuffixes);
+                rowContentStorage.extend(contentId, newCells);
             } else {
                 List<D> newContents = new ArrayList<>(oldSuffixCount + numNewSuffixes);
-                newContents.addAll(rowContents.subList(0, oldSuffixCount));
+                newContents.addAll(rowContentStorage.getContents(contentId).subList(0, oldSuffixCount));
                 fetchResults(queryIt, newContents, numNewSuffixes);
                 processContents(row, newContents, true);
             }
         }
 
+        // a canonical row may have left its (in-place extended) content class, so choose a new one
+        for (RowImpl<I> row : shortPrefixRows) {
+            int contentId = row.getRowContentId();
+            if (canonicalRows.get(contentId).getRowContentId() != contentId) {
+                canonicalRows.set(contentId, row);
+                inconsistencyCandidates.add(row);
+            }
+        }
+
         List<List<Row<I>>> unclosed = new ArrayList<>();
         numSpRows = numberOfDistinctRows();
 
         for (RowImpl<I> row : longPrefixRows) {
-            List<D> rowContents = allRowContents.get(row.getRowContentId());
-            if (rowContents.size() == oldSuffixCount) {
-                rowContentIds.remove(rowContents);
-                fetchResults(queryIt, rowContents, numNewSuffixes);
-                rowContentIds.put(rowContents, row.getRowContentId());
+            int contentId = row.getRowContentId();
+            if (rowContentStorage.getLength(contentId) == oldSuffixCount) {
+                List<D> newCells = new ArrayList<>(numNewSuffixes);
+                fetchResults(queryIt, newCells, numNewSuffixes);
+                rowContentStorage.extend(contentId, newCells);
             } else {
                 List<D> newContents = new ArrayList<>(oldSuffixCount + numNewSuffixes);
-                newContents.addAll(rowContents.subList(0, oldSuffixCount));
+                newContents.addAll(rowContentStorage.getContents(contentId).subList(0, oldSuffixCount));
                 fetchResults(queryIt, newContents, numNewSuffixes);
                 if (processContents(row, newContents, false)) {
                     unclosed.add(new ArrayList<>());
@@ -328,6 +378,8 @@ public abstract class AbstractObservationTable<I, D> implements MutableObservati
             if (canonicalRows.get(cid) == null) {
                 canonicalRows.set(cid, row);
             }
+            spRowsByContent.get(cid).add(row);
+            inconsistencyCandidates.add(row);
         }
     }
 
@@ -339,9 +391,109 @@ public abstract class AbstractObservationTable<I, D> implements MutableObservati
         }
     }
 
+    /**
+     * Returns a long prefix row without a short prefix row of identical contents, if existent.
+     * <p>
+     * In contrast to the default implementation, this table keeps track of the rows whose contents changed, so that only
+     * these rows need to be checked.
+     */
+    @Nullable
+    @Override
+    public Row<I> findUnclosedRow() {
+        while (!unclosedCandidates.isEmpty()) {
+            final RowImpl<I> candidate = unclosedCandidates.peek();
+            // once a content class contains a short prefix row, it does so forever
+            if (!candidate.isShortPrefixRow() && canonicalRows.get(candidate.getRowContentId()) == null) {
+                return candidate;
+            }
+            unclosedCandidates.poll();
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns an inconsistency of this table, if existent.
+     * <p>
+     * In contrast to the default implementation, this table keeps track of the short prefix rows whose contents (or
+     * whose successors' contents) changed, so that only these rows need to be checked against the canonical rows of
+     * their content classes.
+     */
+    @Nullable
+    @Override
+    public Inconsistency<I> findInconsistency() {
+        while (!inconsistencyCandidates.isEmpty()) {
+            final RowImpl<I> candidate = inconsistencyCandidates.peek();
+            final Inconsistency<I> inconsistency = checkConsistency(candidate);
+            if (inconsistency != null) {
+                return inconsistency;
+            }
+            inconsistencyCandidates.poll();
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private Inconsistency<I> checkConsistency(RowImpl<I> row) {
+        if (!row.isShortPrefixRow() || !row.hasContents()) {
+            return null;
+        }
+
+        final int contentId = row.getRowContentId();
+        final RowImpl<I> canonicalRow = canonicalRows.get(contentId);
+
+        if (canonicalRow != row) {
+            return checkConsistency(canonicalRow, row);
+        }
+
+        // the canonical row itself changed, so all other rows of its class need to be checked
+        final List<RowImpl<I>> members = spRowsByContent.get(contentId);
+        final Iterator<RowImpl<I>> iter = members.iterator();
+
+        while (iter.hasNext()) {
+            final RowImpl<I> member = iter.next();
+            if (member.getRowContentId() != contentId) {
+                iter.remove();
+            } else if (member != row) {
+                final Inconsistency<I> inconsistency = checkConsistency(row, member);
+                if (inconsistency != null) {
+                    return inconsistency;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private Inconsistency<I> checkConsistency(RowImpl<I> canonicalRow, RowImpl<I> row) {
+        final Alphabet<I> alphabet = getInputAlphabet();
+
+        for (int i = 0; i < alphabet.size(); i++) {
+            final RowImpl<I> rowSucc = row.getSuccessor(i);
+
+            if (rowSucc != null && rowSucc.hasContents()) {
+                final RowImpl<I> canRowSucc = canonicalRow.getSuccessor(i);
+                assert canRowSucc != null;
+
+                if (rowSucc.getRowContentId() != canRowSucc.getRowContentId()) {
+                    return new Inconsistency<>(canonicalRow, row, alphabet.getSymbol(i));
+                }
+            }
+        }
+
+        return null;
+    }
+
     @Override
     public List<D> rowContents(Row<I> row) {
-        return allRowContents.get(row.getRowContentId());
+        return rowContentStorage.getContents(row.getRowContentId());
+    }
+
+    @Override
+    public D cellContents(Row<I> row, int columnId) {
+        return rowContentStorage.getCell(row.getRowContentId(), columnId);
     }
 
     @Override
@@ -49,6 +49,35 @@ public final class GenericObservationTable<I, D> extends AbstractObservationTabl
         this.alphabetSize = alphabet.size();
     }
 
+    private GenericObservationTable(Alphabet<I> alphabet, RowContentStorage<D> rowContentStorage) {
+        super(alphabet, rowContentStorage);
+        this.alphabetSize = alphabet.size();
+    }
+
+    /**
+     * Creates an observation table with a memory-efficient storage of its row contents.
+     * <p>
+     * Each (distinct) cell output is interned to an int id, so that row contents are stored as packed {@code int[]}
+     * arrays instead of lists of output objects. Distinct row contents are identified by incrementally maintained row
+     * hashes, which makes adding suffixes to the table independent of the number of columns already present.
+     * <p>
+     * This table is especially useful for large tables with few distinct outputs (e.g. when learning DFAs or Mealy
+     * machines with small output alphabets). The lists returned by {@link #rowContents(Row)} are views on the packed
+     * data.
+     *
+     * @param alphabet
+     *         the learning alphabet.
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return an observation table with packed row contents
+     */
+    public static <I, D> GenericObservationTable<I, D> createPacked(Alphabet<I> alphabet) {
+        return new GenericObservationTable<>(alphabet, new PackedRowContentStorage<>());
+    }
+
     @Override
     public List<List<Row<I>>> initialize(List<Word<I>> initialShortPrefixes,
                                          List<Word<I>> initialSuffixes,
@@ -0,0 +1,77 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.observationtable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link RowContentStorage} that stores row contents as plain lists and identifies them via a hash map.
+ *
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+final class ListRowContentStorage<D> implements RowContentStorage<D> {
+
+    private final List<List<D>> allRowContents = new ArrayList<>();
+    private final Map<List<D>, Integer> rowContentIds = new HashMap<>();
+
+    @Override
+    public int size() {
+        return allRowContents.size();
+    }
+
+    @Override
+    public int intern(List<D> contents) {
+        final Integer contentId = rowContentIds.get(contents);
+
+        if (contentId != null) {
+            return contentId;
+        }
+
+        final int newId = allRowContents.size();
+        rowContentIds.put(contents, newId);
+        allRowContents.add(contents);
+        return newId;
+    }
+
+    @Override
+    public void extend(int contentId, List<D> cells) {
+        final List<D> contents = allRowContents.get(contentId);
+        rowContentIds.remove(contents);
+        contents.addAll(cells);
+        rowContentIds.put(contents, contentId);
+    }
+
+    @Override
+    public List<D> getContents(int contentId) {
+        return allRowContents.get(contentId);
+    }
+
+    @Override
+    public D getCell(int contentId, int index) {
+        return allRowContents.get(contentId).get(index);
+    }
+
+    @Override
+    public int getLength(int contentId) {
+        return allRowContents.get(contentId).size();
+    }
+}
@@ -0,0 +1,221 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.observationtable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A {@link RowContentStorage} that interns each cell output to an int id and stores row contents as packed {@code
+ * int[]} arrays.
+ * <p>
+ * Distinct row contents are indexed by an open hash table whose buckets are chained via primitive arrays. The hash
+ * value of a row is a polynomial hash over its cell ids and can therefore be updated incrementally when a row is
+ * extended by additional columns, without re-hashing the existing cells.
+ *
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+final class PackedRowContentStorage<D> implements RowContentStorage<D> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int NO_ENTRY = -1;
+
+    private final List<D> outputs = new ArrayList<>();
+    private final Map<D, Integer> outputIds = new HashMap<>();
+
+    private int[][] cells = new int[INITIAL_CAPACITY][];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] buckets = newBuckets(INITIAL_CAPACITY);
+    private int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int intern(List<D> contents) {
+        final int length = contents.size();
+        final int[] ids = new int[length];
+        final int hash = appendCells(ids, 0, contents, 1);
+
+        for (int id = buckets[bucketOf(hash)]; id != NO_ENTRY; id = next[id]) {
+            if (hashes[id] == hash && lengths[id] == length && rangeEquals(cells[id], ids, length)) {
+                return id;
+            }
+        }
+
+        ensureCapacity(size + 1);
+
+        final int newId = size++;
+        cells[newId] = ids;
+        lengths[newId] = length;
+        hashes[newId] = hash;
+        link(newId);
+
+        return newId;
+    }
+
+    @Override
+    public void extend(int contentId, List<D> newCells) {
+        unlink(contentId);
+
+        final int oldLength = lengths[contentId];
+        final int newLength = oldLength + newCells.size();
+
+        if (cells[contentId].length < newLength) {
+            cells[contentId] = Arrays.copyOf(cells[contentId], Math.max(newLength, oldLength + (oldLength >> 1)));
+        }
+
+        hashes[contentId] = appendCells(cells[contentId], oldLength, newCells, hashes[contentId]);
+        lengths[contentId] = newLength;
+
+        link(contentId);
+    }
+
+    @Override
+    public List<D> getContents(int contentId) {
+        return new ContentsView(contentId);
+    }
+
+    @Override
+    public D getCell(int contentId, int index) {
+        if (index >= lengths[contentId]) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return outputs.get(cells[contentId][index]);
+    }
+
+    @Override
+    public int getLength(int contentId) {
+        return lengths[contentId];
+    }
+
+    private int appendCells(int[] target, int offset, List<D> newCells, int hash) {
+        int result = hash;
+        int idx = offset;
+
+        for (D output : newCells) {
+            final int outputId = internOutput(output);
+            target[idx++] = outputId;
+            result = HASH_MULTIPLIER * result + outputId;
+        }
+
+        return result;
+    }
+
+    private int internOutput(D output) {
+        final Integer id = outputIds.get(output);
+
+        if (id != null) {
+            return id;
+        }
+
+        final int newId = outputs.size();
+        outputs.add(output);
+        outputIds.put(output, newId);
+        return newId;
+    }
+
+    private void link(int contentId) {
+        final int bucket = bucketOf(hashes[contentId]);
+        next[contentId] = buckets[bucket];
+        buckets[bucket] = contentId;
+    }
+
+    private void unlink(int contentId) {
+        final int bucket = bucketOf(hashes[contentId]);
+        int curr = buckets[bucket];
+
+        if (curr == contentId) {
+            buckets[bucket] = next[contentId];
+            return;
+        }
+
+        while (next[curr] != contentId) {
+            curr = next[curr];
+        }
+        next[curr] = next[contentId];
+    }
+
+    private int bucketOf(int hash) {
+        // spread higher bits, similar to java.util.HashMap
+        return (hash ^ (hash >>> (Integer.SIZE / 2))) & (buckets.length - 1);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= cells.length) {
+            return;
+        }
+
+        final int newCapacity = cells.length << 1;
+        cells = Arrays.copyOf(cells, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        hashes = Arrays.copyOf(hashes, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+
+        // buckets are kept at the same size as the entry arrays, i.e. a load factor of at most 1
+        buckets = newBuckets(newCapacity);
+        for (int i = 0; i < size; i++) {
+            link(i);
+        }
+    }
+
+    private static int[] newBuckets(int capacity) {
+        final int[] result = new int[capacity];
+        Arrays.fill(result, NO_ENTRY);
+        return result;
+    }
+
+    private static boolean rangeEquals(int[] a, int[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class ContentsView extends AbstractList<D> implements RandomAccess {
+
+        private final int contentId;
+
+        ContentsView(int contentId) {
+            this.contentId = contentId;
+        }
+
+        @Override
+        public D get(int index) {
+            return getCell(contentId, index);
+        }
+
+        @Override
+        public int size() {
+            return lengths[contentId];
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.observationtable;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Storage for the distinct row contents of an {@link AbstractObservationTable}. Each distinct row content is identified
+ * by a (consecutive) content id, which is assigned upon its first occurrence.
+ *
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+interface RowContentStorage<D> extends Serializable {
+
+    /**
+     * Returns the number of distinct row contents stored.
+     *
+     * @return the number of distinct row contents
+     */
+    int size();
+
+    /**
+     * Returns the id of the given row contents. If the contents are not yet stored, they are added and assigned the id
+     * {@link #size()} (before the insertion).
+     *
+     * @param contents
+     *         the row contents
+     *
+     * @return the content id of the given row contents
+     */
+    int intern(List<D> contents);
+
+    /**
+     * Appends the given cells to the row contents identified by the given id.
+     *
+     * @param contentId
+     *         the content id
+     * @param cells
+     *         the cells to append
+     */
+    void extend(int contentId, List<D> cells);
+
+    /**
+     * Returns the contents of the given id. The returned list may be a view that reflects subsequent {@link
+     * #extend(int, List) extensions}.
+     *
+     * @param contentId
+     *         the content id
+     *
+     * @return the row contents
+     */
+    List<D> getContents(int contentId);
+
+    D getCell(int contentId, int index);
+
+    int getLength(int contentId);
+}
@@ -0,0 +1,149 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.observationtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the incrementally maintained closedness and consistency information of {@link AbstractObservationTable}s
+ * against the (rescanning) default implementations of {@link ObservationTable}.
+ *
+ * @author frohme
+ */
+public class IncrementalObservationTableTest {
+
+    private static final int NUMBER_OF_STEPS = 200;
+    private static final int MAXIMUM_SUFFIX_LENGTH = 4;
+    private static final int MODULUS = 5;
+
+    static final MembershipOracle<Character, Boolean> ORACLE = queries -> {
+        for (Query<Character, Boolean> q : queries) {
+            int count = 0;
+            for (Character c : q.getInput()) {
+                if (c == 'a') {
+                    count++;
+                } else if (c == 'c') {
+                    count += 2;
+                }
+            }
+            q.answer(count % MODULUS == 1 ^ q.getInput().length() % 3 == 0);
+        }
+    };
+
+    @DataProvider
+    public static Object[][] tables() {
+        final Function<Alphabet<Character>, AbstractObservationTable<Character, Boolean>> generic =
+                GenericObservationTable::new;
+        final Function<Alphabet<Character>, AbstractObservationTable<Character, Boolean>> packed =
+                GenericObservationTable::createPacked;
+        return new Object[][] {{generic}, {packed}};
+    }
+
+    @Test(dataProvider = "tables")
+    public void testRandomOperations(Function<Alphabet<Character>, AbstractObservationTable<Character, Boolean>> tableProvider) {
+        final Random random = new Random(42);
+        final Alphabet<Character> alphabet = new GrowingMapAlphabet<>(Arrays.asList('a', 'b'));
+        final AbstractObservationTable<Character, Boolean> table = tableProvider.apply(alphabet);
+        final ObservationTable<Character, Boolean> rescanningTable = new RescanningObservationTable<>(table);
+
+        table.initialize(Collections.singletonList(Word.epsilon()), Collections.singletonList(Word.epsilon()), ORACLE);
+        checkTable(table, rescanningTable);
+
+        for (int i = 0; i < NUMBER_OF_STEPS; i++) {
+            final int op = random.nextInt(10);
+
+            if (op < 4) {
+                final Row<Character> unclosed = table.findUnclosedRow();
+                if (unclosed != null) {
+                    table.toShortPrefixes(Collections.singletonList(unclosed), ORACLE);
+                } else {
+                    final List<Row<Character>> lpRows = new ArrayList<>(table.getLongPrefixRows());
+                    final Row<Character> lpRow = lpRows.get(random.nextInt(lpRows.size()));
+                    table.addShortPrefixes(Collections.singletonList(lpRow.getLabel()), ORACLE);
+                }
+            } else if (op < 8) {
+                final Inconsistency<Character> inconsistency = table.findInconsistency();
+                if (inconsistency != null) {
+                    final int suffixIdx = table.findDistinguishingSuffixIndex(inconsistency);
+                    final Word<Character> suffix =
+                            table.getSuffix(suffixIdx).prepend(inconsistency.getSymbol());
+                    table.addSuffix(suffix, ORACLE);
+                } else {
+                    table.addSuffix(randomWord(random, alphabet), ORACLE);
+                }
+            } else if (op < 9 && alphabet.size() < 3) {
+                table.addAlphabetSymbol('c', ORACLE);
+            } else {
+                table.addSuffix(randomWord(random, alphabet), ORACLE);
+            }
+
+            checkTable(table, rescanningTable);
+        }
+    }
+
+    private static void checkTable(ObservationTable<Character, Boolean> table,
+                                   ObservationTable<Character, Boolean> rescanningTable) {
+
+        final Row<Character> unclosed = table.findUnclosedRow();
+        Assert.assertEquals(unclosed == null, rescanningTable.findUnclosedRow() == null);
+
+        if (unclosed != null) {
+            Assert.assertFalse(unclosed.isShortPrefixRow());
+            for (Row<Character> spRow : table.getShortPrefixRows()) {
+                Assert.assertNotEquals(spRow.getRowContentId(), unclosed.getRowContentId());
+            }
+        }
+
+        final Inconsistency<Character> inconsistency = table.findInconsistency();
+        Assert.assertEquals(inconsistency == null, rescanningTable.findInconsistency() == null);
+
+        if (inconsistency != null) {
+            final Row<Character> first = inconsistency.getFirstRow();
+            final Row<Character> second = inconsistency.getSecondRow();
+            Assert.assertTrue(first.isShortPrefixRow());
+            Assert.assertTrue(second.isShortPrefixRow());
+            Assert.assertEquals(first.getRowContentId(), second.getRowContentId());
+            Assert.assertNotEquals(table.getRowSuccessor(first, inconsistency.getSymbol()).getRowContentId(),
+                                   table.getRowSuccessor(second, inconsistency.getSymbol()).getRowContentId());
+        }
+    }
+
+    private static Word<Character> randomWord(Random random, Alphabet<Character> alphabet) {
+        final int length = random.nextInt(MAXIMUM_SUFFIX_LENGTH + 1);
+        final WordBuilder<Character> wb = new WordBuilder<>(length);
+
+        for (int i = 0; i < length; i++) {
+            wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+
+        return wb.toWord();
+    }
+}
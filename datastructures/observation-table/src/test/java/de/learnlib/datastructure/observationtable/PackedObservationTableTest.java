@@ -0,0 +1,132 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.observationtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class PackedObservationTableTest {
+
+    private static final MembershipOracle<Character, Integer> ORACLE = queries -> {
+        for (Query<Character, Integer> q : queries) {
+            int count = 0;
+            for (Character c : q.getInput()) {
+                if (c == 'a') {
+                    count++;
+                }
+            }
+            q.answer(count % 3);
+        }
+    };
+
+    @Test
+    public void testStorage() {
+        final PackedRowContentStorage<String> storage = new PackedRowContentStorage<>();
+
+        Assert.assertEquals(storage.intern(new ArrayList<>(Arrays.asList("a", "b"))), 0);
+        Assert.assertEquals(storage.intern(new ArrayList<>(Arrays.asList("b", "a"))), 1);
+        Assert.assertEquals(storage.intern(new ArrayList<>(Arrays.asList("a", "b"))), 0);
+        Assert.assertEquals(storage.size(), 2);
+
+        storage.extend(0, Collections.singletonList("c"));
+        Assert.assertEquals(storage.getContents(0), Arrays.asList("a", "b", "c"));
+        Assert.assertEquals(storage.getLength(0), 3);
+        Assert.assertEquals(storage.getCell(0, 2), "c");
+
+        // the old contents are no longer present, whereas the extended ones are found
+        Assert.assertEquals(storage.intern(Arrays.asList("a", "b", "c")), 0);
+        Assert.assertEquals(storage.intern(Arrays.asList("a", "b")), 2);
+
+        // force re-hashing
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(storage.intern(Collections.singletonList(Integer.toString(i))), i + 3);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(storage.intern(Collections.singletonList(Integer.toString(i))), i + 3);
+        }
+        Assert.assertEquals(storage.intern(Arrays.asList("b", "a")), 1);
+    }
+
+    @Test
+    public void testEquivalenceToGenericTable() {
+        final Alphabet<Character> genericAlphabet = new GrowingMapAlphabet<>(Arrays.asList('a', 'b'));
+        final Alphabet<Character> packedAlphabet = new GrowingMapAlphabet<>(Arrays.asList('a', 'b'));
+
+        final GenericObservationTable<Character, Integer> generic = new GenericObservationTable<>(genericAlphabet);
+        final GenericObservationTable<Character, Integer> packed =
+                GenericObservationTable.createPacked(packedAlphabet);
+
+        final List<Word<Character>> prefixes = Collections.singletonList(Word.epsilon());
+        final List<Word<Character>> suffixes = Collections.singletonList(Word.epsilon());
+
+        Assert.assertEquals(packed.initialize(prefixes, suffixes, ORACLE).size(),
+                            generic.initialize(prefixes, suffixes, ORACLE).size());
+        assertEqualTables(generic, packed);
+
+        final List<Word<Character>> newSuffixes = Arrays.asList(Word.fromLetter('a'), Word.fromSymbols('b', 'a'));
+        Assert.assertEquals(packed.addSuffixes(newSuffixes, ORACLE).size(),
+                            generic.addSuffixes(newSuffixes, ORACLE).size());
+        assertEqualTables(generic, packed);
+
+        final List<Word<Character>> newPrefixes = Arrays.asList(Word.fromLetter('a'), Word.fromSymbols('a', 'a'));
+        Assert.assertEquals(packed.addShortPrefixes(newPrefixes, ORACLE).size(),
+                            generic.addShortPrefixes(newPrefixes, ORACLE).size());
+        assertEqualTables(generic, packed);
+
+        Assert.assertEquals(packed.addAlphabetSymbol('c', ORACLE).size(),
+                            generic.addAlphabetSymbol('c', ORACLE).size());
+        assertEqualTables(generic, packed);
+
+        final Word<Character> suffix = Word.fromSymbols('a', 'c', 'a');
+        Assert.assertEquals(packed.addSuffix(suffix, ORACLE).size(), generic.addSuffix(suffix, ORACLE).size());
+        assertEqualTables(generic, packed);
+    }
+
+    private static void assertEqualTables(ObservationTable<Character, Integer> expected,
+                                          ObservationTable<Character, Integer> actual) {
+        Assert.assertEquals(actual.numberOfDistinctRows(), expected.numberOfDistinctRows());
+        Assert.assertEquals(actual.numberOfRows(), expected.numberOfRows());
+        Assert.assertEquals(actual.getSuffixes(), expected.getSuffixes());
+
+        for (Row<Character> row : expected.getAllRows()) {
+            final Row<Character> other = actual.getRow(row.getLabel());
+            Assert.assertNotNull(other);
+            Assert.assertEquals(other.isShortPrefixRow(), row.isShortPrefixRow());
+            Assert.assertEquals(other.getRowContentId(), row.getRowContentId());
+            Assert.assertEquals(actual.rowContents(other), expected.rowContents(row));
+
+            for (int i = 0; i < expected.numberOfSuffixes(); i++) {
+                Assert.assertEquals(actual.cellContents(other, i), expected.cellContents(row, i));
+            }
+        }
+
+        Assert.assertEquals(actual.findUnclosedRow() == null, expected.findUnclosedRow() == null);
+        Assert.assertEquals(actual.findInconsistency() == null, expected.findInconsistency() == null);
+    }
+}
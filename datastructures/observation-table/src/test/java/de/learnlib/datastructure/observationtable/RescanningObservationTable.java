@@ -0,0 +1,94 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.observationtable;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+/**
+ * A view on an {@link ObservationTable} that only delegates the non-default methods, so that closedness and
+ * consistency are determined by the (rescanning) default implementations of the {@link ObservationTable} interface.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         observation (output) domain type
+ *
+ * @author frohme
+ */
+class RescanningObservationTable<I, D> implements ObservationTable<I, D> {
+
+    private final ObservationTable<I, D> delegate;
+
+    RescanningObservationTable(ObservationTable<I, D> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return delegate.getInputAlphabet();
+    }
+
+    @Nonnull
+    @Override
+    public Collection<Row<I>> getShortPrefixRows() {
+        return delegate.getShortPrefixRows();
+    }
+
+    @Nonnull
+    @Override
+    public Collection<Row<I>> getLongPrefixRows() {
+        return delegate.getLongPrefixRows();
+    }
+
+    @Nullable
+    @Override
+    public Row<I> getRow(int idx) {
+        return delegate.getRow(idx);
+    }
+
+    @Override
+    public int numberOfDistinctRows() {
+        return delegate.numberOfDistinctRows();
+    }
+
+    @Nonnull
+    @Override
+    public List<Word<I>> getSuffixes() {
+        return delegate.getSuffixes();
+    }
+
+    @Override
+    public List<D> rowContents(Row<I> row) {
+        return delegate.rowContents(row);
+    }
+
+    @Override
+    public Word<I> transformAccessSequence(Word<I> word) {
+        return delegate.transformAccessSequence(word);
+    }
+
+    @Override
+    public boolean isAccessSequence(Word<I> word) {
+        return delegate.isAccessSequence(word);
+    }
+}
@@ -16,8 +16,10 @@
 package de.learnlib.datastructure.pta.pta;
 
 import java.awt.Color;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -26,17 +28,98 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import net.automatalib.commons.util.Pair;
+
 @ParametersAreNonnullByDefault
 public abstract class AbstractBlueFringePTA<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S>>
         extends BasePTA<SP, TP, S> {
 
     @Nonnull
     protected final List<S> redStates = new ArrayList<>();
+    // the sum of the number of samples ending in each state minus one (over all states with samples)
+    protected long evidence;
 
     public AbstractBlueFringePTA(@Nonnegative int alphabetSize, S root) {
         super(alphabetSize, root);
     }
 
+    /**
+     * Adds a sample to the PTA and additionally counts the number of samples ending in the target state, which is used
+     * to compute the {@link #getEvidence() evidence} of the PTA.
+     */
+    @Override
+    public void addSample(int[] sample, SP lastProperty) {
+        final S target = getOrCreateState(sample);
+        if (!target.tryMergeStateProperty(lastProperty)) {
+            throw new IllegalStateException();
+        }
+        if (target.sampleCount++ > 0) {
+            evidence++;
+        }
+    }
+
+    /**
+     * Adds all samples of the given {@link CompactPTA} to this PTA, including their state and transition properties as
+     * well as the number of samples ending in each state.
+     *
+     * @param samples
+     *         the compact PTA containing the samples
+     *
+     * @throws IllegalArgumentException
+     *         if the alphabet sizes of both PTAs do not match
+     * @throws IllegalStateException
+     *         if a property of the given samples conflicts with a property of this PTA
+     */
+    public void addSamples(CompactPTA<? extends SP, ? extends TP> samples) {
+        if (samples.getAlphabetSize() != alphabetSize) {
+            throw new IllegalArgumentException("Alphabet sizes do not match");
+        }
+
+        final Deque<Pair<Integer, S>> stack = new ArrayDeque<>();
+        stack.push(Pair.of(samples.getRoot(), root));
+
+        while (!stack.isEmpty()) {
+            final Pair<Integer, S> curr = stack.pop();
+            final int id = curr.getFirst();
+            final S state = curr.getSecond();
+
+            final SP sp = samples.getStateProperty(id);
+            if (sp != null && !state.tryMergeStateProperty(sp)) {
+                throw new IllegalStateException();
+            }
+
+            final int count = samples.getSampleCount(id);
+            if (count > 0) {
+                evidence += state.sampleCount > 0 ? count : count - 1;
+                state.sampleCount += count;
+            }
+
+            for (int i = 0; i < alphabetSize; i++) {
+                final int succId = samples.getSuccessor(id, i);
+                if (succId != CompactPTA.NO_STATE) {
+                    final TP tp = samples.getTransitionProperty(id, i);
+                    if (tp != null && !state.tryMergeTransitionProperty(i, alphabetSize, tp)) {
+                        throw new IllegalStateException();
+                    }
+                    stack.push(Pair.of(succId, state.getOrCreateSuccessor(i, alphabetSize)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the evidence of this PTA, i.e. the sum (over all states) of the number of samples ending in a state minus
+     * one. States in which no sample ends are not considered. Only samples added via {@link #addSample(int[], Object)}
+     * are counted.
+     *
+     * @return the evidence of this PTA
+     *
+     * @see RedBlueMerge#getEvidence()
+     */
+    public long getEvidence() {
+        return evidence;
+    }
+
     public S getRedState(@Nonnegative int id) {
         return redStates.get(id);
     }
@@ -35,6 +35,12 @@ public abstract class AbstractBlueFringePTAState<SP, TP, S extends AbstractBlueF
     protected int parentInput = -1;
     @Nullable
     protected int[] access;
+    // the number of samples ending in this state
+    protected int sampleCount;
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
 
     @Nonnull
     public Color getColor() {
@@ -0,0 +1,379 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.pta.pta;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A compact prefix tree acceptor that is intended for the (streaming) ingestion of large sample sets.
+ * <p>
+ * States are identified by consecutive integers (the root having id {@code 0}) and stored in an array-of-structs
+ * layout: each state occupies a fixed-size record containing its successor ids, the (interned) properties of its
+ * outgoing transitions, the number of samples ending in the state, and its (interned) state property as a single byte.
+ * Records are organized in fixed-size blocks, which are either allocated on the heap, or mapped from a backing file so
+ * that the tree may exceed the available heap space. In the latter case, the file is truncated upon construction and
+ * not deleted afterwards.
+ * <p>
+ * Unlike a {@link BasePTA}, this class only supports the insertion of samples. In order to run a state-merging
+ * algorithm, the samples can be transferred to an {@link AbstractBlueFringePTA} via {@link
+ * AbstractBlueFringePTA#addSamples(CompactPTA)}. At most {@value #MAX_STATE_PROPERTIES} distinct (non-{@code null})
+ * state properties are supported.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <SP>
+ *         state property type
+ * @param <TP>
+ *         transition property type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class CompactPTA<SP, TP> {
+
+    public static final int NO_STATE = -1;
+    public static final int MAX_STATE_PROPERTIES = 255;
+
+    private static final int ROOT = 0;
+    private static final int STATES_PER_BLOCK = 4096;
+
+    @Nonnegative
+    private final int alphabetSize;
+    private final boolean transitionProperties;
+
+    private final int tpOffset;
+    private final int countOffset;
+    private final int spOffset;
+    private final int recordSize;
+    private final int statesPerBlock;
+
+    @Nullable
+    private final Path backingFile;
+    private final List<ByteBuffer> blocks = new ArrayList<>();
+
+    private final List<SP> spValues = new ArrayList<>();
+    private final Map<SP, Integer> spIds = new HashMap<>();
+    private final List<TP> tpValues = new ArrayList<>();
+    private final Map<TP, Integer> tpIds = new HashMap<>();
+
+    private int size;
+    private long numSamples;
+
+    /**
+     * Constructor. Creates a PTA whose states are stored on the heap.
+     *
+     * @param alphabetSize
+     *         the size of the input alphabet
+     * @param transitionProperties
+     *         whether transition properties should be stored (e.g. for learning Mealy machines)
+     */
+    public CompactPTA(@Nonnegative int alphabetSize, boolean transitionProperties) {
+        this(alphabetSize, transitionProperties, null);
+    }
+
+    /**
+     * Constructor. Creates a PTA whose states are stored in the given file, if non-{@code null}, or on the heap
+     * otherwise.
+     *
+     * @param alphabetSize
+     *         the size of the input alphabet
+     * @param transitionProperties
+     *         whether transition properties should be stored (e.g. for learning Mealy machines)
+     * @param backingFile
+     *         the (possibly {@code null}) file to store the states in. Existing contents will be overwritten.
+     *
+     * @throws UncheckedIOException
+     *         if the backing file cannot be created
+     */
+    public CompactPTA(@Nonnegative int alphabetSize, boolean transitionProperties, @Nullable Path backingFile) {
+        this.alphabetSize = alphabetSize;
+        this.transitionProperties = transitionProperties;
+        this.backingFile = backingFile;
+
+        this.tpOffset = alphabetSize * Integer.BYTES;
+        this.countOffset = transitionProperties ? 2 * tpOffset : tpOffset;
+        this.spOffset = countOffset + Integer.BYTES;
+        this.recordSize = spOffset + 1;
+        this.statesPerBlock = Math.max(1, Math.min(STATES_PER_BLOCK, Integer.MAX_VALUE / recordSize));
+
+        if (backingFile != null) {
+            try {
+                FileChannel.open(backingFile,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.WRITE,
+                                 StandardOpenOption.TRUNCATE_EXISTING).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        createState();
+    }
+
+    @Nonnegative
+    public int getAlphabetSize() {
+        return alphabetSize;
+    }
+
+    /**
+     * Returns the number of states of this PTA.
+     *
+     * @return the number of states
+     */
+    @Nonnegative
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of samples that have been added to this PTA (including duplicates).
+     *
+     * @return the number of samples
+     */
+    @Nonnegative
+    public long getNumSamples() {
+        return numSamples;
+    }
+
+    public int getRoot() {
+        return ROOT;
+    }
+
+    /**
+     * Returns the successor of the given state for the given input.
+     *
+     * @param state
+     *         the id of the source state
+     * @param input
+     *         the input symbol index
+     *
+     * @return the id of the successor state, or {@link #NO_STATE} if there is no successor
+     */
+    public int getSuccessor(int state, int input) {
+        // the root can never be a successor, hence 0 encodes an undefined successor
+        final int succ = block(state).getInt(offset(state) + input * Integer.BYTES);
+        return succ == ROOT ? NO_STATE : succ;
+    }
+
+    @Nullable
+    public SP getStateProperty(int state) {
+        final int id = Byte.toUnsignedInt(block(state).get(offset(state) + spOffset));
+        return id == 0 ? null : spValues.get(id - 1);
+    }
+
+    @Nullable
+    public TP getTransitionProperty(int state, int input) {
+        if (!transitionProperties) {
+            return null;
+        }
+        final int id = block(state).getInt(offset(state) + tpOffset + input * Integer.BYTES);
+        return id == 0 ? null : tpValues.get(id - 1);
+    }
+
+    /**
+     * Returns the number of samples ending in the given state.
+     *
+     * @param state
+     *         the id of the state
+     *
+     * @return the number of samples ending in the given state
+     */
+    public int getSampleCount(int state) {
+        return block(state).getInt(offset(state) + countOffset);
+    }
+
+    /**
+     * Adds a sample to the PTA, and sets the property of the last reached (or inserted) state accordingly.
+     *
+     * @param sample
+     *         the word to add to the PTA
+     * @param lastProperty
+     *         the property of the last state to set
+     *
+     * @throws IllegalStateException
+     *         if the property of the last state conflicts with the given property
+     */
+    public void addSample(int[] sample, @Nullable SP lastProperty) {
+        final int target = getOrCreateState(sample);
+
+        if (lastProperty != null) {
+            final ByteBuffer block = block(target);
+            final int idx = offset(target) + spOffset;
+            final int newId = internStateProperty(lastProperty);
+            final int oldId = Byte.toUnsignedInt(block.get(idx));
+
+            if (oldId == 0) {
+                block.put(idx, (byte) newId);
+            } else if (oldId != newId) {
+                throw new IllegalStateException();
+            }
+        }
+
+        incrementSampleCount(target);
+    }
+
+    /**
+     * Adds a sample to the PTA, and sets the properties of the last transitions accordingly.
+     *
+     * @param sample
+     *         the word to add to the PTA
+     * @param lastTransitionProperties
+     *         the properties of the last transitions of the sample
+     *
+     * @throws IllegalArgumentException
+     *         if more properties than transitions are given, or if a transition property conflicts with an existing
+     *         one
+     * @throws IllegalStateException
+     *         if this PTA does not store transition properties
+     */
+    public void addSampleWithTransitionProperties(int[] sample, List<? extends TP> lastTransitionProperties) {
+        if (!transitionProperties) {
+            throw new IllegalStateException("This PTA does not store transition properties");
+        }
+
+        final int sampleLen = sample.length;
+        final int skip = sampleLen - lastTransitionProperties.size();
+        if (skip < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        int curr = ROOT;
+        int i = 0;
+        while (i < skip) {
+            curr = getOrCreateSuccessor(curr, sample[i++]);
+        }
+
+        final Iterator<? extends TP> tpIt = lastTransitionProperties.iterator();
+        while (i < sampleLen) {
+            final int sym = sample[i++];
+            final TP tp = tpIt.next();
+
+            if (tp != null) {
+                final ByteBuffer block = block(curr);
+                final int idx = offset(curr) + tpOffset + sym * Integer.BYTES;
+                final int newId = internTransitionProperty(tp);
+                final int oldId = block.getInt(idx);
+
+                if (oldId == 0) {
+                    block.putInt(idx, newId);
+                } else if (oldId != newId) {
+                    throw new IllegalArgumentException();
+                }
+            }
+
+            curr = getOrCreateSuccessor(curr, sym);
+        }
+
+        // analogous to AbstractBlueFringePTA, only samples with state properties are counted per state
+        numSamples++;
+    }
+
+    private int getOrCreateState(int[] word) {
+        int curr = ROOT;
+        for (int sym : word) {
+            curr = getOrCreateSuccessor(curr, sym);
+        }
+        return curr;
+    }
+
+    private int getOrCreateSuccessor(int state, int input) {
+        final int succ = getSuccessor(state, input);
+        if (succ != NO_STATE) {
+            return succ;
+        }
+
+        final int newState = createState();
+        block(state).putInt(offset(state) + input * Integer.BYTES, newState);
+        return newState;
+    }
+
+    private void incrementSampleCount(int state) {
+        final ByteBuffer block = block(state);
+        final int idx = offset(state) + countOffset;
+        block.putInt(idx, block.getInt(idx) + 1);
+        numSamples++;
+    }
+
+    private int createState() {
+        if (size % statesPerBlock == 0) {
+            blocks.add(allocateBlock(blocks.size()));
+        }
+        return size++;
+    }
+
+    private ByteBuffer allocateBlock(int index) {
+        final int blockSize = statesPerBlock * recordSize;
+
+        if (backingFile == null) {
+            return ByteBuffer.allocate(blockSize);
+        }
+
+        // mapped buffers remain valid after closing the channel, hence we do not need to keep it open
+        try (FileChannel channel = FileChannel.open(backingFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(MapMode.READ_WRITE, (long) index * blockSize, blockSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ByteBuffer block(int state) {
+        return blocks.get(state / statesPerBlock);
+    }
+
+    private int offset(int state) {
+        return (state % statesPerBlock) * recordSize;
+    }
+
+    private int internStateProperty(SP property) {
+        final Integer id = spIds.get(property);
+        if (id != null) {
+            return id;
+        }
+        if (spValues.size() >= MAX_STATE_PROPERTIES) {
+            throw new IllegalStateException("Only " + MAX_STATE_PROPERTIES + " distinct state properties are supported");
+        }
+        spValues.add(property);
+        final int newId = spValues.size();
+        spIds.put(property, newId);
+        return newId;
+    }
+
+    private int internTransitionProperty(TP property) {
+        final Integer id = tpIds.get(property);
+        if (id != null) {
+            return id;
+        }
+        tpValues.add(property);
+        final int newId = tpValues.size();
+        tpIds.put(property, newId);
+        return newId;
+    }
+}
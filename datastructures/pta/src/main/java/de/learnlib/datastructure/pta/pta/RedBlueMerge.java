@@ -17,6 +17,7 @@ package de.learnlib.datastructure.pta.pta;
 
 import java.awt.Color;
 import java.util.ArrayDeque;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.Iterator;
@@ -36,10 +37,13 @@ public class RedBlueMerge<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S
     private final ArrayStorage<ArrayStorage<S>> succMod;
     private final ArrayStorage<ArrayStorage<TP>> transPropMod;
     private final ArrayStorage<SP> propMod;
+    private final int[] sampleCountMod;
+    private final BitSet inspectedRedStates;
     private final int alphabetSize;
     private final S qr;
     private final S qb;
     private boolean merged;
+    private long evidence;
 
     public RedBlueMerge(AbstractBlueFringePTA<SP, TP, S> pta, S qr, S qb) {
         if (!qr.isRed()) {
@@ -55,6 +59,8 @@ public class RedBlueMerge<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S
         this.succMod = new ArrayStorage<>(numRedStates);
         this.transPropMod = new ArrayStorage<>(numRedStates);
         this.propMod = new ArrayStorage<>(numRedStates);
+        this.sampleCountMod = new int[numRedStates];
+        this.inspectedRedStates = new BitSet(numRedStates);
         this.alphabetSize = pta.alphabetSize;
 
         this.qr = qr;
@@ -69,8 +75,54 @@ public class RedBlueMerge<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S
         return qb;
     }
 
+    /**
+     * Returns the evidence of the merged automaton, i.e. the sum (over all states of the merged automaton) of the number
+     * of samples ending in a state minus one. The evidence is computed incrementally during the {@link #merge()}
+     * operation: it equals the evidence of the PTA (see {@link AbstractBlueFringePTA#getEvidence()}) plus the number of
+     * state pairs (both having samples ending in them) that are folded together.
+     *
+     * @return the evidence of the merged automaton
+     */
+    public long getEvidence() {
+        if (!this.merged) {
+            throw new IllegalStateException("#merge has not been called yet");
+        }
+        return evidence;
+    }
+
+    /**
+     * Returns the ids of the red states that have been inspected (or modified) during the {@link #merge()} operation.
+     * Since non-red states are never modified in place, the result of this merge does not change as long as none of
+     * these red states is modified (or gains a new red successor) and the blue state is still the same object.
+     *
+     * @return the ids of the inspected red states
+     */
+    public BitSet getInspectedRedStates() {
+        return (BitSet) inspectedRedStates.clone();
+    }
+
+    /**
+     * Returns the ids of the red states that are modified when {@link #apply(AbstractBlueFringePTA, Consumer) applying}
+     * this merge.
+     *
+     * @return the ids of the modified red states
+     */
+    public BitSet getModifiedRedStates() {
+        final BitSet result = new BitSet(sampleCountMod.length);
+
+        for (int i = 0; i < sampleCountMod.length; i++) {
+            if (succMod.get(i) != null || transPropMod.get(i) != null || propMod.get(i) != null ||
+                sampleCountMod[i] != 0) {
+                result.set(i);
+            }
+        }
+
+        return result;
+    }
+
     public boolean merge() {
         this.merged = true;
+        this.evidence = pta.getEvidence();
         if (!mergeRedProperties(qr, qb)) {
             return false;
         }
@@ -128,11 +180,17 @@ public class RedBlueMerge<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S
                             }
                         }
 
-                        if (newSP != null || newTPs != null) {
+                        final int rSuccSamples = rSucc.sampleCount;
+                        if (rSuccSamples > 0 && qSucc.sampleCount > 0) {
+                            evidence++;
+                        }
+
+                        if (newSP != null || newTPs != null || rSuccSamples > 0) {
                             qSucc = cloneTopSucc(qSucc, i, stack, newTPs);
                             if (newSP != null) {
                                 qSucc.property = newSP;
                             }
+                            qSucc.sampleCount += rSuccSamples;
                         }
                     }
 
@@ -230,6 +288,7 @@ public class RedBlueMerge<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S
     private S getSucc(S q, int i) {
         if (q.isRed()) {
             int qId = q.id;
+            inspectedRedStates.set(qId);
             ArrayStorage<S> modSuccs = succMod.get(qId);
             if (modSuccs != null) {
                 return modSuccs.get(i);
@@ -246,6 +305,7 @@ public class RedBlueMerge<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S
         assert redSrc.isRed();
 
         int id = redSrc.id;
+        inspectedRedStates.set(id);
         ArrayStorage<S> newSuccs = succMod.get(id);
         if (newSuccs == null) {
             if (redSrc.successors == null) {
@@ -271,7 +331,24 @@ public class RedBlueMerge<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S
     }
 
     private boolean mergeRedProperties(S qr, S qb) {
-        return mergeRedStateProperty(qr, qb) && mergeRedTransProperties(qr, qb);
+        inspectedRedStates.set(qr.id);
+        if (!mergeRedStateProperty(qr, qb) || !mergeRedTransProperties(qr, qb)) {
+            return false;
+        }
+        mergeRedSampleCount(qr, qb);
+        return true;
+    }
+
+    private void mergeRedSampleCount(S qr, S qb) {
+        assert qr.isRed();
+
+        int qbSamples = qb.sampleCount;
+        if (qbSamples > 0) {
+            if (qr.sampleCount + sampleCountMod[qr.id] > 0) {
+                evidence++;
+            }
+            sampleCountMod[qr.id] += qbSamples;
+        }
     }
 
     private boolean mergeRedTransProperties(S qr, S qb) {
@@ -389,7 +466,10 @@ public class RedBlueMerge<SP, TP, S extends AbstractBlueFringePTAState<SP, TP, S
             if (newTransProps != null) {
                 redState.transProperties = newTransProps;
             }
+            redState.sampleCount += sampleCountMod[i];
         }
+
+        pta.evidence = evidence;
     }
 
     private void incorporate(S state) {
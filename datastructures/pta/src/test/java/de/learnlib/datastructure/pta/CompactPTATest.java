@@ -0,0 +1,149 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.datastructure.pta;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import de.learnlib.datastructure.pta.pta.BlueFringePTA;
+import de.learnlib.datastructure.pta.pta.BlueFringePTAState;
+import de.learnlib.datastructure.pta.pta.CompactPTA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class CompactPTATest {
+
+    private static final int ALPHABET_SIZE = 3;
+    private static final int NUM_SAMPLES = 5000;
+    private static final int MAX_LENGTH = 15;
+
+    private final Alphabet<Integer> alphabet = Alphabets.integers(0, ALPHABET_SIZE - 1);
+
+    @Test
+    public void testHeapPTA() {
+        checkStateProperties(new CompactPTA<>(ALPHABET_SIZE, false));
+        checkTransitionProperties(new CompactPTA<>(ALPHABET_SIZE, true));
+    }
+
+    @Test
+    public void testMappedPTA() throws IOException {
+        final Path file = Files.createTempFile("pta", ".bin");
+        try {
+            checkStateProperties(new CompactPTA<>(ALPHABET_SIZE, false, file));
+            checkTransitionProperties(new CompactPTA<>(ALPHABET_SIZE, true, file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testConflicts() {
+        final CompactPTA<Boolean, Void> dfaPTA = new CompactPTA<>(ALPHABET_SIZE, false);
+        dfaPTA.addSample(new int[] {0, 1}, true);
+        Assert.assertThrows(IllegalStateException.class, () -> dfaPTA.addSample(new int[] {0, 1}, false));
+        Assert.assertThrows(IllegalStateException.class,
+                            () -> dfaPTA.addSampleWithTransitionProperties(new int[] {0}, Collections.singletonList(null)));
+
+        final CompactPTA<Void, Character> mealyPTA = new CompactPTA<>(ALPHABET_SIZE, true);
+        mealyPTA.addSampleWithTransitionProperties(new int[] {0, 1}, Arrays.asList('a', 'b'));
+        Assert.assertThrows(IllegalArgumentException.class,
+                            () -> mealyPTA.addSampleWithTransitionProperties(new int[] {0, 1},
+                                                                             Arrays.asList('a', 'c')));
+        Assert.assertThrows(IllegalArgumentException.class,
+                            () -> mealyPTA.addSampleWithTransitionProperties(new int[] {0}, Arrays.asList('a', 'b')));
+    }
+
+    private void checkStateProperties(CompactPTA<Boolean, Void> compactPTA) {
+        final Random random = new Random(42);
+        final BlueFringePTA<Boolean, Void> expected = new BlueFringePTA<>(ALPHABET_SIZE);
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final int[] sample = randomSample(random);
+            final boolean property = Arrays.stream(sample).sum() % 2 == 0;
+            expected.addSample(sample, property);
+            compactPTA.addSample(sample, property);
+        }
+
+        Assert.assertEquals(compactPTA.size(), expected.size());
+        Assert.assertEquals(compactPTA.getNumSamples(), NUM_SAMPLES);
+
+        final BlueFringePTA<Boolean, Void> actual = new BlueFringePTA<>(ALPHABET_SIZE);
+        actual.addSamples(compactPTA);
+
+        Assert.assertEquals(actual.size(), expected.size());
+        Assert.assertEquals(actual.getEvidence(), expected.getEvidence());
+        checkEquivalence(actual, expected);
+    }
+
+    private void checkTransitionProperties(CompactPTA<Void, Character> compactPTA) {
+        final Random random = new Random(42);
+        final BlueFringePTA<Void, Character> expected = new BlueFringePTA<>(ALPHABET_SIZE);
+
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final int[] sample = randomSample(random);
+            final List<Character> outputs = new ArrayList<>(sample.length);
+            for (int sym : sample) {
+                outputs.add((char) ('a' + sym));
+            }
+            expected.addSampleWithTransitionProperties(sample, outputs);
+            compactPTA.addSampleWithTransitionProperties(sample, outputs);
+        }
+
+        Assert.assertEquals(compactPTA.size(), expected.size());
+
+        final BlueFringePTA<Void, Character> actual = new BlueFringePTA<>(ALPHABET_SIZE);
+        actual.addSamples(compactPTA);
+
+        Assert.assertEquals(actual.size(), expected.size());
+        checkEquivalence(actual, expected);
+    }
+
+    private <SP, TP> void checkEquivalence(BlueFringePTA<SP, TP> actual, BlueFringePTA<SP, TP> expected) {
+        for (Word<Integer> w : Automata.stateCover(expected, alphabet)) {
+            final int[] word = w.toIntArray(alphabet);
+            final BlueFringePTAState<SP, TP> expectedState = expected.getState(word);
+            final BlueFringePTAState<SP, TP> actualState = actual.getState(word);
+
+            Assert.assertNotNull(actualState);
+            Assert.assertEquals(actualState.getStateProperty(), expectedState.getStateProperty());
+            Assert.assertEquals(actualState.getSampleCount(), expectedState.getSampleCount());
+            for (int i = 0; i < ALPHABET_SIZE; i++) {
+                Assert.assertEquals(actualState.getTransProperty(i), expectedState.getTransProperty(i));
+            }
+        }
+    }
+
+    private static int[] randomSample(Random random) {
+        final int[] sample = new int[random.nextInt(MAX_LENGTH)];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = random.nextInt(ALPHABET_SIZE);
+        }
+        return sample;
+    }
+}
@@ -15,16 +15,25 @@
  */
 package de.learnlib.oracle.equivalence;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Streams;
+import de.learnlib.api.oracle.CacheLookup;
 import de.learnlib.api.oracle.EquivalenceOracle;
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.DefaultQuery;
@@ -39,6 +48,22 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Being {@link Stream stream}-based, this oracle encourages the lazy computation of counterexamples, so that all
  * counterexamples do not have to be computed upfront, but only until the first valid counterexample is found.
+ * <p>
+ * Optionally, this oracle can operate in a pipelined mode (see {@link #setPipelining(ExecutorService, int)}). In this
+ * mode, the test words are generated by the calling thread while several batches are concurrently answered (and
+ * compared against the hypothesis) by the given executor. Hence, the membership oracle (and the hypothesis) need to
+ * support concurrent access, e.g. by using one of the parallel oracles. Batches are evaluated in the order of their
+ * generation, so that the returned counterexample is the same as in the sequential mode (given a deterministic system).
+ * <p>
+ * For {@link net.automatalib.automata.transducers.MealyMachine Mealy machine} and {@link
+ * net.automatalib.automata.fsa.DFA DFA} hypotheses, the answered test words are compared against an immutable,
+ * table-based compilation of the hypothesis, which can be shared by concurrently evaluated batches.
+ * <p>
+ * Optionally, this oracle can consult the contents of a query cache (see {@link #setCacheLookup(CacheLookup)}). Test
+ * words whose cached output already agrees with the hypothesis are skipped, as they cannot yield a counterexample. For
+ * oracles with a {@link #getTestBudget() test budget}, skipped words do not count towards the budget, i.e. they are
+ * replaced by freshly generated ones. A test word whose cached output contradicts the hypothesis is returned as a
+ * counterexample without being posed to the membership oracle.
  *
  * @param <A>
  *         hypothesis type
@@ -56,6 +81,15 @@ public abstract class AbstractTestWordEQOracle<A extends Output<I, D>, I, D> imp
     private final MembershipOracle<I, D> membershipOracle;
     private final int batchSize;
 
+    @Nullable
+    private ExecutorService pipelineExecutor;
+    private int maxBatchesInFlight = 1;
+
+    @Nullable
+    private CacheLookup<I, D> cacheLookup;
+    private long cacheAnsweredTests;
+    private long executedTests;
+
     public AbstractTestWordEQOracle(MembershipOracle<I, D> membershipOracle) {
         this(membershipOracle, 1);
     }
@@ -67,6 +101,52 @@ public abstract class AbstractTestWordEQOracle<A extends Output<I, D>, I, D> imp
         this.batchSize = batchSize;
     }
 
+    /**
+     * Configures the pipelined mode of this oracle.
+     *
+     * @param executor
+     *         the executor that answers the batches of test queries, or {@code null} to disable pipelining
+     * @param maxBatchesInFlight
+     *         the maximum number of batches that are concurrently submitted to the executor
+     */
+    public void setPipelining(@Nullable ExecutorService executor, int maxBatchesInFlight) {
+        Preconditions.checkArgument(maxBatchesInFlight > 0);
+
+        this.pipelineExecutor = executor;
+        this.maxBatchesInFlight = maxBatchesInFlight;
+    }
+
+    /**
+     * Sets the cache whose contents are consulted before posing test words to the membership oracle.
+     *
+     * @param cacheLookup
+     *         the cache lookup (e.g. the cache consistency test of a learning cache), or {@code null} to pose every
+     *         generated test word
+     */
+    public void setCacheLookup(@Nullable CacheLookup<I, D> cacheLookup) {
+        this.cacheLookup = cacheLookup;
+    }
+
+    /**
+     * Returns the number of test words of the most recent equivalence check that have been answered by the {@link
+     * #setCacheLookup(CacheLookup) cache} and have therefore been skipped.
+     *
+     * @return the number of cache-answered test words
+     */
+    public long getCacheAnsweredTests() {
+        return cacheAnsweredTests;
+    }
+
+    /**
+     * Returns the number of test words of the most recent equivalence check that have been posed to the membership
+     * oracle.
+     *
+     * @return the number of executed test words
+     */
+    public long getExecutedTests() {
+        return executedTests;
+    }
+
     @Nullable
     @Override
     public DefaultQuery<I, D> findCounterExample(A hypothesis, Collection<? extends I> inputs) {
@@ -76,16 +156,44 @@ public abstract class AbstractTestWordEQOracle<A extends Output<I, D>, I, D> imp
             return null;
         }
 
-        final Stream<Word<I>> testWordStream = generateTestWords(hypothesis, inputs);
+        // compile the hypothesis once per round, so that test words are simulated on dense transition tables
+        final CompiledHypothesisSimulator<I, D> simulator =
+                CompiledHypothesisSimulator.create(hypothesis, inputs);
+        final long testBudget = getTestBudget();
+
+        final Iterator<Word<I>> testWords = generateTestWords(hypothesis, inputs).iterator();
+        final TestWordFilter<I, D> filter =
+                new TestWordFilter<>(testWords, cacheLookup, simulator, testBudget, CancellationToken.current());
+
+        final Stream<Word<I>> filteredStream = Streams.stream(filter);
+        final Stream<Word<I>> testWordStream = testBudget >= 0 ? filteredStream.limit(testBudget) : filteredStream;
         final Stream<DefaultQuery<I, D>> queryStream = testWordStream.map(DefaultQuery::new);
-        final Stream<DefaultQuery<I, D>> answeredQueryStream = answerQueries(queryStream);
 
-        final Stream<DefaultQuery<I, D>> ceStream = answeredQueryStream.filter(query -> {
-            D hypOutput = hypothesis.computeOutput(query.getInput());
-            return !Objects.equals(hypOutput, query.getOutput());
-        });
+        try {
+            final DefaultQuery<I, D> ce;
+
+            if (pipelineExecutor != null) {
+                ce = findCounterExamplePipelined(simulator, queryStream, pipelineExecutor);
+            } else {
+                final Stream<DefaultQuery<I, D>> answeredQueryStream = answerQueries(queryStream);
+
+                final Stream<DefaultQuery<I, D>> ceStream = answeredQueryStream.filter(simulator::isCounterExample);
 
-        return ceStream.findFirst().orElse(null);
+                ce = ceStream.findFirst().orElse(null);
+            }
+
+            // the filter only ends at a cached counterexample after all previous test words have been checked
+            return ce == null ? filter.cachedCounterExample : ce;
+        } finally {
+            cacheAnsweredTests = filter.cacheAnswered;
+            executedTests = filter.executed;
+
+            if (cacheLookup != null) {
+                LOGGER.debug("Cache answered {} test words, {} test words were executed",
+                             cacheAnsweredTests,
+                             executedTests);
+            }
+        }
     }
 
     /**
@@ -102,6 +210,80 @@ public abstract class AbstractTestWordEQOracle<A extends Output<I, D>, I, D> imp
      */
     protected abstract Stream<Word<I>> generateTestWords(A hypothesis, Collection<? extends I> inputs);
 
+    /**
+     * Returns the maximum number of test words that should be posed to the membership oracle during a single
+     * equivalence check cycle. Test words that are skipped because of their {@link #setCacheLookup(CacheLookup) cached}
+     * outputs do not count towards this budget. Hence, oracles with a budget should {@link #generateTestWords(Output,
+     * Collection) generate} an unbounded stream of test words.
+     *
+     * @return the maximum number of test words, or a negative value if the number of test words is solely determined by
+     * the generated stream
+     */
+    protected long getTestBudget() {
+        return -1;
+    }
+
+    @Nullable
+    private DefaultQuery<I, D> findCounterExamplePipelined(CompiledHypothesisSimulator<I, D> simulator,
+                                                           Stream<DefaultQuery<I, D>> queryStream,
+                                                           ExecutorService executor) {
+        final Iterator<List<DefaultQuery<I, D>>> batches = Iterators.partition(queryStream.iterator(), batchSize);
+        final Deque<Future<DefaultQuery<I, D>>> inFlight = new ArrayDeque<>(maxBatchesInFlight);
+        final AtomicBoolean found = new AtomicBoolean();
+
+        try {
+            // stop generating new batches as soon as any in-flight batch has found a counterexample
+            while (!found.get() && batches.hasNext()) {
+                final List<DefaultQuery<I, D>> batch = batches.next();
+                inFlight.addLast(executor.submit(() -> answerBatch(simulator, batch, found)));
+
+                // evaluate finished (or, if the pipeline is full, the oldest) batches in the order of their generation
+                while (!inFlight.isEmpty() && (inFlight.size() >= maxBatchesInFlight || inFlight.peekFirst().isDone())) {
+                    final DefaultQuery<I, D> ce = inFlight.pollFirst().get();
+                    if (ce != null) {
+                        return ce;
+                    }
+                }
+            }
+
+            while (!inFlight.isEmpty()) {
+                final DefaultQuery<I, D> ce = inFlight.pollFirst().get();
+                if (ce != null) {
+                    return ce;
+                }
+            }
+
+            return null;
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AssertionError("Batches must not throw checked exceptions", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for test batches", e);
+        } finally {
+            // later batches are no longer of interest
+            for (Future<?> f : inFlight) {
+                f.cancel(false);
+            }
+        }
+    }
+
+    @Nullable
+    private DefaultQuery<I, D> answerBatch(CompiledHypothesisSimulator<I, D> simulator,
+                                           List<DefaultQuery<I, D>> batch,
+                                           AtomicBoolean found) {
+        membershipOracle.processQueries(batch);
+
+        for (DefaultQuery<I, D> query : batch) {
+            if (simulator.isCounterExample(query)) {
+                found.set(true);
+                return query;
+            }
+        }
+
+        return null;
+    }
+
     private Stream<DefaultQuery<I, D>> answerQueries(final Stream<DefaultQuery<I, D>> stream) {
         if (isBatched()) {
             /*
@@ -121,4 +303,79 @@ public abstract class AbstractTestWordEQOracle<A extends Output<I, D>, I, D> imp
         return this.batchSize > 1;
     }
 
-}
\ No newline at end of file
+    /**
+     * An iterator that skips the test words whose cached outputs already agree with the hypothesis. The first word with a
+     * cached output that contradicts the hypothesis ends the iteration and is stored as {@link #cachedCounterExample},
+     * so that it is reported without being posed to the membership oracle again.
+     * <p>
+     * In order not to exhaust a (potentially infinite) generator whose words are all known, the iteration stops once
+     * the number of consecutively skipped words exceeds the test budget. If the equivalence check has been cancelled by
+     * a {@link RacingEQOracle}, the iteration ends without further test words.
+     */
+    private static final class TestWordFilter<I, D> extends AbstractIterator<Word<I>> {
+
+        private final Iterator<Word<I>> source;
+        @Nullable
+        private final CacheLookup<I, D> cacheLookup;
+        private final CompiledHypothesisSimulator<I, D> simulator;
+        private final long maxConsecutiveSkips;
+        @Nullable
+        private final CancellationToken cancellationToken;
+
+        private long consecutiveSkips;
+        private long cacheAnswered;
+        private long executed;
+        @Nullable
+        private DefaultQuery<I, D> cachedCounterExample;
+
+        TestWordFilter(Iterator<Word<I>> source,
+                       @Nullable CacheLookup<I, D> cacheLookup,
+                       CompiledHypothesisSimulator<I, D> simulator,
+                       long maxConsecutiveSkips,
+                       @Nullable CancellationToken cancellationToken) {
+            this.source = source;
+            this.cacheLookup = cacheLookup;
+            this.simulator = simulator;
+            this.maxConsecutiveSkips = maxConsecutiveSkips;
+            this.cancellationToken = cancellationToken;
+        }
+
+        @Override
+        protected Word<I> computeNext() {
+            while (source.hasNext()) {
+                // allow cancelling racing equivalence checks cooperatively
+                if (cancellationToken != null && cancellationToken.isCancelled()) {
+                    break;
+                }
+
+                final Word<I> word = source.next();
+
+                if (cacheLookup != null) {
+                    final D cached = cacheLookup.lookup(word);
+
+                    if (cached != null) {
+                        cacheAnswered++;
+
+                        final DefaultQuery<I, D> query = new DefaultQuery<>(word, cached);
+                        if (simulator.isCounterExample(query)) {
+                            cachedCounterExample = query;
+                            break;
+                        }
+
+                        if (maxConsecutiveSkips >= 0 && ++consecutiveSkips > maxConsecutiveSkips) {
+                            break;
+                        }
+                        continue;
+                    }
+                }
+
+                consecutiveSkips = 0;
+                executed++;
+                return word;
+            }
+
+            return endOfData();
+        }
+    }
+
+}
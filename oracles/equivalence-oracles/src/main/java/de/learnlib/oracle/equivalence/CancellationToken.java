@@ -0,0 +1,73 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.concurrent.Callable;
+
+import javax.annotation.Nullable;
+
+/**
+ * A flag that allows the {@link RacingEQOracle} to cancel its remaining delegates cooperatively. While a delegate is
+ * executed, the token of its round is bound to the executing thread, so that delegates (see {@link
+ * AbstractTestWordEQOracle}) can pick it up via {@link #current()} and regularly check for {@link #isCancelled()
+ * cancellation}. The token of a nested racing oracle is cancelled as soon as the token of its parent is.
+ *
+ * @author frohme
+ */
+final class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    @Nullable
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+
+    CancellationToken(@Nullable CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Returns the token bound to the current thread.
+     *
+     * @return the token bound to the current thread, or {@code null} if the current thread does not execute a delegate
+     * of a racing oracle
+     */
+    @Nullable
+    static CancellationToken current() {
+        return CURRENT.get();
+    }
+
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * Executes the given callable with this token bound to the current thread.
+     */
+    <T> T callWith(Callable<T> callable) throws Exception {
+        final CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return callable.call();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.DeterministicAutomaton;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+/**
+ * Compares answered test queries against the output of a hypothesis.
+ * <p>
+ * For {@link MealyMachine}s and {@link DFA}s, the hypothesis is compiled into dense int-based transition (and output)
+ * tables upon construction, which are immutable afterwards. Test words are then simulated on these tables. For Mealy
+ * machines, the outputs are compared symbol by symbol during the simulation, hence the hypothesis output is never
+ * materialized and the simulation stops at the first mismatch. Other hypotheses (as well as test words that leave
+ * the compiled part of a partial hypothesis) are simulated via {@link Output#computeOutput(Iterable)}.
+ * <p>
+ * A simulator is only valid as long as the hypothesis is not modified, i.e. for a single equivalence query.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+class CompiledHypothesisSimulator<I, D> {
+
+    private static final int UNDEFINED = -1;
+
+    private final Output<I, D> hypothesis;
+
+    CompiledHypothesisSimulator(Output<I, D> hypothesis) {
+        this.hypothesis = hypothesis;
+    }
+
+    /**
+     * Creates a simulator for the given hypothesis.
+     *
+     * @param hypothesis
+     *         the hypothesis
+     * @param inputs
+     *         the inputs of the test words
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a simulator for the given hypothesis, compiled if the hypothesis type is supported
+     */
+    @SuppressWarnings("unchecked")
+    static <I, D> CompiledHypothesisSimulator<I, D> create(Output<I, D> hypothesis,
+                                                               Collection<? extends I> inputs) {
+        if (inputs.isEmpty()) {
+            return new CompiledHypothesisSimulator<>(hypothesis);
+        } else if (hypothesis instanceof MealyMachine) {
+            final MealyMachine<?, I, ?, ?> mealy = (MealyMachine<?, I, ?, ?>) hypothesis;
+            return (CompiledHypothesisSimulator<I, D>) new CompiledMealy<>(mealy, inputs);
+        } else if (hypothesis instanceof DFA) {
+            final DFA<?, I> dfa = (DFA<?, I>) hypothesis;
+            return (CompiledHypothesisSimulator<I, D>) new CompiledDFA<>(dfa, inputs);
+        }
+        return new CompiledHypothesisSimulator<>(hypothesis);
+    }
+
+    /**
+     * Checks whether the given (answered) query constitutes a counterexample, i.e. whether its output differs from the
+     * output of the hypothesis.
+     *
+     * @param query
+     *         the answered query
+     *
+     * @return {@code true} if the query is a counterexample, {@code false} otherwise
+     */
+    boolean isCounterExample(DefaultQuery<I, D> query) {
+        return !Objects.equals(hypothesis.computeOutput(query.getInput()), query.getOutput());
+    }
+
+    private abstract static class AbstractCompiled<S, I, D> extends CompiledHypothesisSimulator<I, D> {
+
+        protected final StateIDs<S> stateIDs;
+        protected final int numInputs;
+
+        private final int[] transitions;
+        private final int initial;
+
+        private final Map<I, Integer> inputIndices;
+        private final Alphabet<I> alphabet;
+
+        @SuppressWarnings("unchecked")
+        AbstractCompiled(Output<I, D> hypothesis,
+                         DeterministicAutomaton<S, I, ?> automaton,
+                         Collection<? extends I> inputs) {
+            super(hypothesis);
+
+            this.numInputs = inputs.size();
+
+            if (inputs instanceof Alphabet) {
+                this.alphabet = (Alphabet<I>) inputs;
+                this.inputIndices = null;
+            } else {
+                this.alphabet = null;
+                this.inputIndices = new HashMap<>();
+                for (I i : inputs) {
+                    this.inputIndices.putIfAbsent(i, this.inputIndices.size());
+                }
+            }
+
+            this.stateIDs = automaton.stateIDs();
+            this.transitions = new int[automaton.size() * numInputs];
+
+            for (S s : automaton) {
+                for (I i : inputs) {
+                    final S succ = automaton.getSuccessor(s, i);
+                    this.transitions[transitionIndex(s, i)] = succ == null ? UNDEFINED : stateIDs.getStateId(succ);
+                }
+            }
+
+            final S init = automaton.getInitialState();
+            this.initial = init == null ? UNDEFINED : stateIDs.getStateId(init);
+        }
+
+        /**
+         * Returns the index of the given transition in the dense transition table.
+         *
+         * @param state
+         *         the source state
+         * @param input
+         *         the input symbol
+         *
+         * @return the index of the transition
+         */
+        protected int transitionIndex(S state, I input) {
+            return stateIDs.getStateId(state) * numInputs + indexOf(input);
+        }
+
+        /**
+         * Checks whether the output of the given (compiled) transition differs from the output of the query.
+         *
+         * @param query
+         *         the query
+         * @param position
+         *         the position of the input symbol in the input of the query
+         * @param transition
+         *         the index of the transition in the dense transition table
+         *
+         * @return {@code true} if the outputs differ, {@code false} otherwise
+         */
+        protected abstract boolean transitionMismatch(DefaultQuery<I, D> query, int position, int transition);
+
+        /**
+         * Checks whether the output of the given (compiled) state differs from the output of the query.
+         *
+         * @param query
+         *         the query
+         * @param state
+         *         the id of the state reached by the input of the query
+         *
+         * @return {@code true} if the outputs differ, {@code false} otherwise
+         */
+        protected abstract boolean stateMismatch(DefaultQuery<I, D> query, int state);
+
+        /**
+         * Checks whether the given query can be checked via the compiled tables at all.
+         *
+         * @param query
+         *         the query
+         *
+         * @return {@code true} if the query can be checked via the compiled tables, {@code false} otherwise
+         */
+        protected abstract boolean isCompatible(DefaultQuery<I, D> query);
+
+        @Override
+        boolean isCounterExample(DefaultQuery<I, D> query) {
+            if (initial == UNDEFINED || !isCompatible(query)) {
+                return super.isCounterExample(query);
+            }
+
+            final Word<I> input = query.getInput();
+            final int length = input.length();
+
+            int state = initial;
+
+            for (int pos = 0; pos < length; pos++) {
+                final int in = indexOf(input.getSymbol(pos));
+                if (in == UNDEFINED) {
+                    return super.isCounterExample(query);
+                }
+
+                final int transition = state * numInputs + in;
+                final int succ = transitions[transition];
+                if (succ == UNDEFINED) {
+                    return super.isCounterExample(query);
+                }
+
+                if (transitionMismatch(query, pos, transition)) {
+                    return true;
+                }
+                state = succ;
+            }
+
+            return stateMismatch(query, state);
+        }
+
+        protected int indexOf(I input) {
+            if (alphabet != null) {
+                return alphabet.containsSymbol(input) ? alphabet.getSymbolIndex(input) : UNDEFINED;
+            }
+            final Integer idx = inputIndices.get(input);
+            return idx == null ? UNDEFINED : idx;
+        }
+    }
+
+    private static final class CompiledMealy<S, I, O> extends AbstractCompiled<S, I, Word<O>> {
+
+        private final Object[] outputs;
+
+        CompiledMealy(MealyMachine<S, I, ?, O> mealy, Collection<? extends I> inputs) {
+            super(mealy, mealy, inputs);
+
+            this.outputs = new Object[mealy.size() * numInputs];
+            for (S s : mealy) {
+                for (I i : inputs) {
+                    this.outputs[transitionIndex(s, i)] = mealy.getOutput(s, i);
+                }
+            }
+        }
+
+        @Override
+        protected boolean isCompatible(DefaultQuery<I, Word<O>> query) {
+            // the hypothesis output of the complete input is compared to the output of the query
+            final Word<O> output = query.getOutput();
+            return output != null && output.length() == query.getInput().length();
+        }
+
+        @Override
+        protected boolean transitionMismatch(DefaultQuery<I, Word<O>> query, int position, int transition) {
+            return !Objects.equals(outputs[transition], query.getOutput().getSymbol(position));
+        }
+
+        @Override
+        protected boolean stateMismatch(DefaultQuery<I, Word<O>> query, int state) {
+            return false;
+        }
+    }
+
+    private static final class CompiledDFA<S, I> extends AbstractCompiled<S, I, Boolean> {
+
+        private final boolean[] accepting;
+
+        CompiledDFA(DFA<S, I> dfa, Collection<? extends I> inputs) {
+            super(dfa, dfa, inputs);
+
+            this.accepting = new boolean[dfa.size()];
+            for (S s : dfa) {
+                this.accepting[stateIDs.getStateId(s)] = dfa.isAccepting(s);
+            }
+        }
+
+        @Override
+        protected boolean isCompatible(DefaultQuery<I, Boolean> query) {
+            return query.getOutput() != null;
+        }
+
+        @Override
+        protected boolean transitionMismatch(DefaultQuery<I, Boolean> query, int position, int transition) {
+            return false;
+        }
+
+        @Override
+        protected boolean stateMismatch(DefaultQuery<I, Boolean> query, int state) {
+            return accepting[state] != query.getOutput();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.oracle.EquivalenceOracle.DFAEquivalenceOracle;
+import de.learnlib.api.oracle.EquivalenceOracle.MealyEquivalenceOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.buildtool.refinement.annotation.GenerateRefinement;
+import de.learnlib.buildtool.refinement.annotation.Generic;
+import de.learnlib.buildtool.refinement.annotation.Interface;
+import de.learnlib.buildtool.refinement.annotation.Map;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.words.Word;
+
+/**
+ * An equivalence oracle that runs several delegate oracles concurrently and returns the first counterexample found by
+ * any of them. In contrast to the {@link EQOracleChain}, a (slow) delegate that does not find a counterexample does not
+ * delay the other delegates.
+ * <p>
+ * Optionally, a deadline can be specified. In this case, after the first counterexample has been found, the oracle
+ * waits (at most) the given amount of time for the results of the remaining delegates and returns the shortest
+ * counterexample among all delegates that have finished so far.
+ * <p>
+ * Once a result has been determined, the remaining delegates are cancelled and the oracle waits for them to finish
+ * before returning, so that no delegate accesses the hypothesis (or a shared membership oracle) after the equivalence
+ * query has been answered. Delegates based on {@link AbstractTestWordEQOracle} react to the cancellation by no longer
+ * generating test words. Other delegates are additionally interrupted, and should return once they notice the
+ * interrupt, as they would otherwise delay the result. Note that the delegates access the hypothesis concurrently.
+ * <p>
+ * For each delegate, this oracle records how often it has contributed a counterexample (see {@link
+ * #getHitRate(int)}). These statistics may be used to order the delegates of a sequential {@link EQOracleChain} (see
+ * {@link #getOraclesByHitRate()}). The statistics are maintained atomically, so that they can be queried while
+ * equivalence queries are in progress.
+ *
+ * @param <A>
+ *         hypothesis type
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+@GenerateRefinement(name = "DFARacingEQOracle",
+                    generics = "I",
+                    parentGenerics = {@Generic(clazz = DFA.class, generics = {"?", "I"}),
+                                      @Generic("I"),
+                                      @Generic(clazz = Boolean.class)},
+                    parameterMapping = @Map(from = EquivalenceOracle.class,
+                                            to = DFAEquivalenceOracle.class,
+                                            withGenerics = "I"),
+                    interfaces = @Interface(clazz = DFAEquivalenceOracle.class, generics = "I"))
+@GenerateRefinement(name = "MealyRacingEQOracle",
+                    generics = {"I", "O"},
+                    parentGenerics = {@Generic(clazz = MealyMachine.class, generics = {"?", "I", "?", "O"}),
+                                      @Generic("I"),
+                                      @Generic(clazz = Word.class, generics = "O")},
+                    parameterMapping = @Map(from = EquivalenceOracle.class,
+                                            to = MealyEquivalenceOracle.class,
+                                            withGenerics = {"I", "O"}),
+                    interfaces = @Interface(clazz = MealyEquivalenceOracle.class, generics = {"I", "O"}))
+public class RacingEQOracle<A, I, D> implements EquivalenceOracle<A, I, D> {
+
+    private final List<EquivalenceOracle<? super A, I, D>> oracles;
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+
+    private final AtomicLongArray hits;
+    private final AtomicLong rounds;
+
+    /**
+     * Constructor. Returns the first counterexample found by any delegate.
+     *
+     * @param executor
+     *         the executor that runs the delegates. It should provide (at least) one thread per delegate, as otherwise
+     *         queued delegates are only started once others have finished
+     * @param oracles
+     *         the delegate oracles
+     */
+    @SafeVarargs
+    public RacingEQOracle(ExecutorService executor, EquivalenceOracle<? super A, I, D>... oracles) {
+        this(executor, Arrays.asList(oracles));
+    }
+
+    /**
+     * Constructor. Returns the first counterexample found by any delegate.
+     *
+     * @param executor
+     *         the executor that runs the delegates. It should provide (at least) one thread per delegate, as otherwise
+     *         queued delegates are only started once others have finished
+     * @param oracles
+     *         the delegate oracles
+     */
+    public RacingEQOracle(ExecutorService executor, List<? extends EquivalenceOracle<? super A, I, D>> oracles) {
+        this(executor, 0, TimeUnit.NANOSECONDS, oracles);
+    }
+
+    /**
+     * Constructor. Returns the shortest counterexample found by the delegates within the given deadline.
+     *
+     * @param executor
+     *         the executor that runs the delegates. It should provide (at least) one thread per delegate, as otherwise
+     *         queued delegates are only started once others have finished
+     * @param deadline
+     *         the time to wait for (shorter) counterexamples of other delegates after the first counterexample has
+     *         been found
+     * @param unit
+     *         the time unit of {@code deadline}
+     * @param oracles
+     *         the delegate oracles
+     */
+    public RacingEQOracle(ExecutorService executor,
+                          long deadline,
+                          TimeUnit unit,
+                          List<? extends EquivalenceOracle<? super A, I, D>> oracles) {
+        Preconditions.checkArgument(deadline >= 0);
+
+        this.oracles = new ArrayList<>(oracles);
+        this.executor = executor;
+        this.deadlineNanos = unit.toNanos(deadline);
+        this.hits = new AtomicLongArray(oracles.size());
+        this.rounds = new AtomicLong();
+    }
+
+    @Nullable
+    @Override
+    public DefaultQuery<I, D> findCounterExample(A hypothesis, Collection<? extends I> inputs) {
+        final CompletionService<Result<I, D>> completionService = new ExecutorCompletionService<>(executor);
+        final List<Future<Result<I, D>>> futures = new ArrayList<>(oracles.size());
+        final List<AtomicBoolean> claims = new ArrayList<>(oracles.size());
+        final CountDownLatch finished = new CountDownLatch(oracles.size());
+        final CancellationToken token = new CancellationToken(CancellationToken.current());
+
+        for (int i = 0; i < oracles.size(); i++) {
+            final EquivalenceOracle<? super A, I, D> oracle = oracles.get(i);
+            final int index = i;
+            // a delegate is either run by the executor or, if cancelled before being started, skipped by this thread
+            final AtomicBoolean claimed = new AtomicBoolean();
+            claims.add(claimed);
+            futures.add(completionService.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return new Result<>(index, null);
+                }
+                try {
+                    return token.callWith(() -> new Result<>(index, oracle.findCounterExample(hypothesis, inputs)));
+                } finally {
+                    finished.countDown();
+                }
+            }));
+        }
+
+        rounds.incrementAndGet();
+
+        Result<I, D> best = null;
+        long deadline = 0;
+
+        try {
+            for (int pending = futures.size(); pending > 0; pending--) {
+                final Future<Result<I, D>> next;
+
+                if (best == null) {
+                    next = completionService.take();
+                } else {
+                    final long remaining = deadline - System.nanoTime();
+                    next = remaining > 0 ? completionService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                }
+
+                final Result<I, D> result = next.get();
+                if (result.counterExample == null) {
+                    continue;
+                }
+
+                hits.incrementAndGet(result.index);
+
+                if (best == null) {
+                    best = result;
+                    deadline = System.nanoTime() + deadlineNanos;
+                } else if (isBetter(result, best)) {
+                    best = result;
+                }
+
+                if (deadlineNanos == 0) {
+                    break;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AssertionError("Equivalence oracles must not throw checked exceptions", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the delegate oracles", e);
+        } finally {
+            // the results of the remaining delegates are no longer of interest
+            token.cancel();
+            for (int i = 0; i < futures.size(); i++) {
+                if (claims.get(i).compareAndSet(false, true)) {
+                    finished.countDown();
+                }
+                futures.get(i).cancel(true);
+            }
+            Uninterruptibles.awaitUninterruptibly(finished);
+        }
+
+        return best == null ? null : best.counterExample;
+    }
+
+    /**
+     * Returns the fraction of the equivalence queries in which the given delegate has found a counterexample (before
+     * being cancelled).
+     *
+     * @param index
+     *         the index of the delegate
+     *
+     * @return the hit rate of the delegate, or {@code 0} if no equivalence query has been posed yet
+     */
+    public double getHitRate(int index) {
+        final long r = rounds.get();
+        return r == 0 ? 0 : (double) hits.get(index) / r;
+    }
+
+    /**
+     * Returns the delegate oracles, sorted by their {@link #getHitRate(int) hit rates} in descending order. Delegates
+     * with equal hit rates retain their original order.
+     *
+     * @return the delegate oracles sorted by their hit rates
+     */
+    public List<EquivalenceOracle<? super A, I, D>> getOraclesByHitRate() {
+        final List<Integer> indices = new ArrayList<>(oracles.size());
+        for (int i = 0; i < oracles.size(); i++) {
+            indices.add(i);
+        }
+
+        indices.sort(Comparator.comparingLong((Integer i) -> hits.get(i)).reversed());
+
+        final List<EquivalenceOracle<? super A, I, D>> result = new ArrayList<>(oracles.size());
+        for (Integer i : indices) {
+            result.add(oracles.get(i));
+        }
+        return result;
+    }
+
+    private static boolean isBetter(Result<?, ?> candidate, Result<?, ?> current) {
+        final int candidateLength = candidate.counterExample.getInput().length();
+        final int currentLength = current.counterExample.getInput().length();
+
+        // prefer the delegate that comes first in case of equally long counterexamples
+        return candidateLength < currentLength ||
+               (candidateLength == currentLength && candidate.index < current.index);
+    }
+
+    private static final class Result<I, D> {
+
+        private final int index;
+        @Nullable
+        private final DefaultQuery<I, D> counterExample;
+
+        Result(int index, @Nullable DefaultQuery<I, D> counterExample) {
+            this.index = index;
+            this.counterExample = counterExample;
+        }
+    }
+}
@@ -192,10 +192,12 @@ public class RandomWMethodEQOracle<A extends UniversalDeterministicAutomaton<?,
         List<Word<I>> globalSuffixes = new ArrayList<>();
         Automata.characterizingSet(hypothesis, inputs, globalSuffixes);
 
-        final Stream<Word<I>> result =
-                Stream.generate(() -> generateSingleTestWord(transitionCover, arrayAlphabet, globalSuffixes));
+        return Stream.generate(() -> generateSingleTestWord(transitionCover, arrayAlphabet, globalSuffixes));
+    }
 
-        return bound > 0 ? result.limit(bound) : result;
+    @Override
+    protected long getTestBudget() {
+        return bound > 0 ? bound : -1;
     }
 
     private Word<I> generateSingleTestWord(List<Word<I>> stateCover,
@@ -94,7 +94,12 @@ public class RandomWordsEQOracle<A extends Output<I, D>, I, D> extends AbstractT
 
         final List<? extends I> symbolList = CollectionsUtil.randomAccessList(inputs);
 
-        return Stream.generate(() -> generateTestWord(symbolList, symbolList.size())).limit(maxTests);
+        return Stream.generate(() -> generateTestWord(symbolList, symbolList.size()));
+    }
+
+    @Override
+    protected long getTestBudget() {
+        return maxTests;
     }
 
     private Word<I> generateTestWord(List<? extends I> symbolList, int numSyms) {
@@ -197,13 +197,16 @@ public class RandomWpMethodEQOracle<A extends UniversalDeterministicAutomaton<?,
             localSuffixSets.put(state, suffixSet);
         }
 
-        final Stream<Word<I>> result = Stream.generate(() -> generateSingleTestWord(hypothesis,
-                                                                                    stateCover,
-                                                                                    arrayAlphabet,
-                                                                                    globalSuffixes,
-                                                                                    localSuffixSets));
+        return Stream.generate(() -> generateSingleTestWord(hypothesis,
+                                                            stateCover,
+                                                            arrayAlphabet,
+                                                            globalSuffixes,
+                                                            localSuffixSets));
+    }
 
-        return bound > 0 ? result.limit(bound) : result;
+    @Override
+    protected long getTestBudget() {
+        return bound > 0 ? bound : -1;
     }
 
     private <S> Word<I> generateSingleTestWord(UniversalDeterministicAutomaton<S, I, ?, ?, ?> hypothesis,
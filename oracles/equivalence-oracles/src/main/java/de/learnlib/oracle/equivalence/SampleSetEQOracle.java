@@ -15,18 +15,20 @@
  */
 package de.learnlib.oracle.equivalence;
 
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.Nullable;
 
 import de.learnlib.api.oracle.EquivalenceOracle;
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.DefaultQuery;
-import de.learnlib.api.query.Query;
 import net.automatalib.automata.concepts.SuffixOutput;
 import net.automatalib.words.Word;
 
@@ -38,6 +40,12 @@ import net.automatalib.words.Word;
  * During an equivalence query, for each of those queries if the respective actual suffix output of the hypothesis
  * equals the expected output.
  * <p>
+ * The sample set is stored as a prefix trie of the input words, so that samples sharing common prefixes are
+ * simulated only once for {@link net.automatalib.automata.transducers.MealyMachine Mealy machine} and {@link
+ * net.automatalib.automata.fsa.DFA DFA} hypotheses. Of all samples contradicting the hypothesis, a shortest one is
+ * returned as counterexample. Optionally, the subtrees of the trie can be checked concurrently (see {@link
+ * #setExecutor(ExecutorService)}).
+ * <p>
  * This oracle will always repeatedly test queries from the sample set if they turned out to be counterexamples.
  * However, the oracle can be configured to remove queries from the sample set if they did not serve as
  * counterexamples.
@@ -52,23 +60,33 @@ import net.automatalib.words.Word;
 public class SampleSetEQOracle<I, D> implements EquivalenceOracle<SuffixOutput<I, D>, I, D> {
 
     private final boolean removeUnsuccessful;
-    private final List<DefaultQuery<I, D>> testQueries;
+    private final SampleTrie<I, D> testQueries;
+
+    @Nullable
+    private ExecutorService executor;
 
     /**
      * Constructor. Initializes the oracle with an empty sample set.
      *
      * @param removeUnsuccessful
      *         if set to {@code true}, queries will be removed from the sample set if they did not reveal a
-     *         counterexample. Otherwise, all queries from the sample set will always be tested upon each invocation of
-     *         {@link #findCounterExample(SuffixOutput, Collection)}.
+     *         counterexample, i.e. if no counterexample was found. Otherwise, all queries from the sample set will
+     *         always be tested upon each invocation of {@link #findCounterExample(SuffixOutput, Collection)}.
      */
     public SampleSetEQOracle(boolean removeUnsuccessful) {
         this.removeUnsuccessful = removeUnsuccessful;
-        if (!removeUnsuccessful) {
-            testQueries = new ArrayList<>();
-        } else {
-            testQueries = new LinkedList<>(); // for O(1) removal of elements
-        }
+        this.testQueries = new SampleTrie<>();
+    }
+
+    /**
+     * Sets the executor that is used to check the (top-level) subtrees of the sample set concurrently. Note that in
+     * this case, the hypothesis needs to support concurrent access.
+     *
+     * @param executor
+     *         the executor, or {@code null} to check the sample set in the calling thread
+     */
+    public void setExecutor(@Nullable ExecutorService executor) {
+        this.executor = executor;
     }
 
     /**
@@ -82,7 +100,7 @@ public class SampleSetEQOracle<I, D> implements EquivalenceOracle<SuffixOutput<I
      * @return {@code this}, to enable chained {@code add} or {@code addAll} calls
      */
     public SampleSetEQOracle<I, D> add(Word<I> input, D expectedOutput) {
-        testQueries.add(new DefaultQuery<>(input, expectedOutput));
+        testQueries.addSample(testQueries.node(input), 0, expectedOutput);
         return this;
     }
 
@@ -122,8 +140,7 @@ public class SampleSetEQOracle<I, D> implements EquivalenceOracle<SuffixOutput<I
         }
         oracle.processQueries(newQueries);
 
-        testQueries.addAll(newQueries);
-        return this;
+        return addAll(newQueries);
     }
 
     /**
@@ -150,68 +167,88 @@ public class SampleSetEQOracle<I, D> implements EquivalenceOracle<SuffixOutput<I
      * @return {@code this}, to enable chained {@code add} or {@code addAll} calls
      */
     public SampleSetEQOracle<I, D> addAll(Collection<? extends DefaultQuery<I, D>> newTestQueries) {
-        testQueries.addAll(newTestQueries);
-        return this;
-    }
-
-    @Override
-    public DefaultQuery<I, D> findCounterExample(SuffixOutput<I, D> hypothesis, Collection<? extends I> inputs) {
-        Iterator<DefaultQuery<I, D>> queryIt = testQueries.iterator();
-
-        while (queryIt.hasNext()) {
-            DefaultQuery<I, D> query = queryIt.next();
-
-            if (checkInputs(query, inputs)) {
-                if (!test(query, hypothesis)) {
-                    return query;
-                } else if (removeUnsuccessful) {
-                    queryIt.remove();
-                }
-            }
+        for (DefaultQuery<I, D> query : newTestQueries) {
+            testQueries.addSample(testQueries.node(query.getInput()), query.getPrefix().length(), query.getOutput());
         }
-        return null;
+        return this;
     }
 
     /**
-     * Tests if the input word of the given {@link Query} consists entirely of symbols in {@code inputs}.
+     * Adds the samples of a binary trace file to the sample set. The samples are directly inserted into the sample set,
+     * i.e. no intermediate words or queries are constructed. The data consists of a sequence of records (until the end
+     * of the input is reached), each of which is structured as follows:
+     * <ul>
+     * <li>the length of the prefix and the length of the suffix, as {@code int}s,</li>
+     * <li>the symbols of the prefix and the suffix, as read by the given {@code inputReader},</li>
+     * <li>the expected output, as read by the given {@code outputReader}.</li>
+     * </ul>
      *
-     * @param query
-     *         the query to test
-     * @param inputs
-     *         the set of allowed inputs
+     * @param in
+     *         the data input providing the records
+     * @param inputReader
+     *         the reader for input symbols
+     * @param outputReader
+     *         the reader for expected outputs
+     *
+     * @return {@code this}, to enable chained {@code add} or {@code addAll} calls
      *
-     * @return {@code true} if the input word of {@code query} consists entirely of symbols in {@code inputs}, {@code
-     * false} otherwise
+     * @throws IOException
+     *         if reading from the input fails or the input ends in the middle of a record
      */
-    private static <I> boolean checkInputs(Query<I, ?> query, Collection<? extends I> inputs) {
-        for (I sym : query.getPrefix()) {
-            if (!inputs.contains(sym)) {
-                return false;
+    public SampleSetEQOracle<I, D> addAll(DataInput in,
+                                          DataReader<? extends I> inputReader,
+                                          DataReader<? extends D> outputReader) throws IOException {
+        while (true) {
+            final int prefixLength;
+            try {
+                prefixLength = in.readInt();
+            } catch (EOFException e) {
+                return this;
             }
-        }
-        for (I sym : query.getSuffix()) {
-            if (!inputs.contains(sym)) {
-                return false;
+            final int suffixLength = in.readInt();
+
+            int node = testQueries.root();
+            for (int i = 0; i < prefixLength + suffixLength; i++) {
+                node = testQueries.child(node, inputReader.read(in));
             }
+
+            testQueries.addSample(node, prefixLength, outputReader.read(in));
+        }
+    }
+
+    @Nullable
+    @Override
+    public DefaultQuery<I, D> findCounterExample(SuffixOutput<I, D> hypothesis, Collection<? extends I> inputs) {
+        final DefaultQuery<I, D> result = testQueries.findCounterExample(hypothesis, inputs, executor);
+
+        if (result == null && removeUnsuccessful) {
+            testQueries.removeSamples(inputs);
         }
-        return true;
+
+        return result;
     }
 
     /**
-     * Tests if the suffix output of the given hypothesis matches the expected output stored in the query.
+     * Reads a single value from a {@link DataInput}.
      *
-     * @param query
-     *         the query, containing the expected output
-     * @param hypOutput
-     *         the suffix output portion of the hypothesis
-     *
-     * @return {@code true} if the suffix output by {@code hypOutput} matches the expected output stored in {@code
-     * query}, {@code false} otherwise.
+     * @param <T>
+     *         value type
      */
-    private static <I, D> boolean test(DefaultQuery<I, D> query, SuffixOutput<I, D> hypOutput) {
-        D hypOut = hypOutput.computeSuffixOutput(query.getPrefix(), query.getSuffix());
-
-        return Objects.equals(hypOut, query.getOutput());
+    @FunctionalInterface
+    public interface DataReader<T> {
+
+        /**
+         * Reads a single value.
+         *
+         * @param in
+         *         the data input
+         *
+         * @return the read value
+         *
+         * @throws IOException
+         *         if reading from the input fails
+         */
+        T read(DataInput in) throws IOException;
     }
 
 }
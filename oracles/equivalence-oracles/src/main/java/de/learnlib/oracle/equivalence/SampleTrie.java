@@ -0,0 +1,649 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.concepts.SuffixOutput;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A prefix trie that stores the samples of a {@link SampleSetEQOracle}.
+ * <p>
+ * Nodes and samples are stored in primitive arrays: each node references its input symbol (as an interned int id), its
+ * parent, its first and last child, and its next sibling, and keeps a linked list of the samples whose input word ends
+ * in this node. A sample consists of the length of its prefix and its expected (suffix) output only, hence samples
+ * sharing common prefixes of their input words share the respective nodes.
+ * <p>
+ * The samples are checked against a hypothesis by a depth-first traversal of the trie. For {@link MealyMachine}s and
+ * {@link DFA}s, the hypothesis is simulated step by step along the traversal, so that each trie node is simulated
+ * once. Other hypotheses are queried via {@link SuffixOutput#computeSuffixOutput(Iterable, Iterable)}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+final class SampleTrie<I, D> {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+
+    private final List<I> symbols = new ArrayList<>();
+    private final Map<I, Integer> symbolIds = new HashMap<>();
+
+    private int[] nodeSymbols = new int[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] depths = new int[INITIAL_CAPACITY];
+    private int[] firstChildren = new int[INITIAL_CAPACITY];
+    private int[] lastChildren = new int[INITIAL_CAPACITY];
+    private int[] nextSiblings = new int[INITIAL_CAPACITY];
+    private int[] firstSamples = new int[INITIAL_CAPACITY];
+    private int[] lastSamples = new int[INITIAL_CAPACITY];
+    private int numNodes;
+
+    private int[] sampleNodes = new int[INITIAL_CAPACITY];
+    private int[] prefixLengths = new int[INITIAL_CAPACITY];
+    private int[] nextSamples = new int[INITIAL_CAPACITY];
+    private List<D> expectedOutputs = new ArrayList<>();
+    private int size;
+
+    SampleTrie() {
+        this.numNodes = 1;
+        this.nodeSymbols[ROOT] = NONE;
+        this.parents[ROOT] = NONE;
+        this.firstChildren[ROOT] = NONE;
+        this.lastChildren[ROOT] = NONE;
+        this.nextSiblings[ROOT] = NONE;
+        this.firstSamples[ROOT] = NONE;
+        this.lastSamples[ROOT] = NONE;
+    }
+
+    /**
+     * Returns the number of samples stored in this trie.
+     *
+     * @return the number of samples
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the root node of this trie, which represents the empty word.
+     *
+     * @return the root node
+     */
+    int root() {
+        return ROOT;
+    }
+
+    /**
+     * Returns the child of the given node for the given symbol. If no such child exists, it is created.
+     *
+     * @param node
+     *         the parent node
+     * @param symbol
+     *         the input symbol
+     *
+     * @return the child node
+     */
+    int child(int node, I symbol) {
+        final int symbolId = internSymbol(symbol);
+
+        for (int c = firstChildren[node]; c != NONE; c = nextSiblings[c]) {
+            if (nodeSymbols[c] == symbolId) {
+                return c;
+            }
+        }
+
+        ensureNodeCapacity(numNodes + 1);
+
+        final int newNode = numNodes++;
+        nodeSymbols[newNode] = symbolId;
+        parents[newNode] = node;
+        depths[newNode] = depths[node] + 1;
+        firstChildren[newNode] = NONE;
+        lastChildren[newNode] = NONE;
+        nextSiblings[newNode] = NONE;
+        firstSamples[newNode] = NONE;
+        lastSamples[newNode] = NONE;
+
+        // append, so that children are traversed in the order of their insertion
+        if (lastChildren[node] == NONE) {
+            firstChildren[node] = newNode;
+        } else {
+            nextSiblings[lastChildren[node]] = newNode;
+        }
+        lastChildren[node] = newNode;
+
+        return newNode;
+    }
+
+    /**
+     * Returns the node that represents the given word. Missing nodes are created.
+     *
+     * @param word
+     *         the word
+     *
+     * @return the node of the word
+     */
+    int node(Word<? extends I> word) {
+        int node = ROOT;
+        for (I sym : word) {
+            node = child(node, sym);
+        }
+        return node;
+    }
+
+    /**
+     * Adds a sample whose input word is represented by the given node.
+     *
+     * @param node
+     *         the node of the (complete) input word
+     * @param prefixLength
+     *         the length of the prefix of the input word
+     * @param expectedOutput
+     *         the expected output of the suffix
+     */
+    void addSample(int node, int prefixLength, D expectedOutput) {
+        Preconditions.checkArgument(prefixLength >= 0 && prefixLength <= depths[node], "Invalid prefix length");
+
+        if (size == prefixLengths.length) {
+            sampleNodes = Arrays.copyOf(sampleNodes, size * 2);
+            prefixLengths = Arrays.copyOf(prefixLengths, size * 2);
+            nextSamples = Arrays.copyOf(nextSamples, size * 2);
+        }
+
+        final int sample = size++;
+        sampleNodes[sample] = node;
+        prefixLengths[sample] = prefixLength;
+        nextSamples[sample] = NONE;
+        expectedOutputs.add(expectedOutput);
+
+        if (lastSamples[node] == NONE) {
+            firstSamples[node] = sample;
+        } else {
+            nextSamples[lastSamples[node]] = sample;
+        }
+        lastSamples[node] = sample;
+    }
+
+    /**
+     * Searches for a sample whose expected output differs from the output of the given hypothesis. Only samples whose
+     * input words consist entirely of symbols in {@code inputs} are considered.
+     * <p>
+     * If an executor is given, the subtrees of the root are searched concurrently. Hence, the hypothesis needs to
+     * support concurrent (read) access.
+     *
+     * @param hypothesis
+     *         the hypothesis
+     * @param inputs
+     *         the set of allowed inputs
+     * @param executor
+     *         the executor for searching the subtrees of the root, may be {@code null}
+     *
+     * @return a counterexample of minimal length, or {@code null} if no sample contradicts the hypothesis. Among
+     * counterexamples of equal length, the one that is reached first by a depth-first traversal is returned, where the
+     * children of a node are traversed in the order of their creation and the samples of a node in the order of their
+     * insertion.
+     */
+    @Nullable
+    DefaultQuery<I, D> findCounterExample(SuffixOutput<I, D> hypothesis,
+                                          Collection<? extends I> inputs,
+                                          @Nullable ExecutorService executor) {
+        final boolean[] admissible = computeAdmissible(inputs);
+        final AtomicInteger bound = new AtomicInteger(Integer.MAX_VALUE);
+
+        final int result;
+        if (executor == null) {
+            result = new Search(createChecker(hypothesis), admissible, bound).run();
+        } else {
+            result = findCounterExampleParallel(hypothesis, admissible, bound, executor);
+        }
+
+        return result == NONE ? null : toQuery(result);
+    }
+
+    /**
+     * Removes all samples whose input words consist entirely of symbols in {@code inputs}. The nodes of the trie are
+     * retained, whereas the storage of the remaining samples is compacted.
+     *
+     * @param inputs
+     *         the set of allowed inputs
+     */
+    void removeSamples(Collection<? extends I> inputs) {
+        final boolean[] admissible = computeAdmissible(inputs);
+        final int[] stack = new int[numNodes];
+        int top = 0;
+        stack[top++] = ROOT;
+        int removed = 0;
+
+        while (top > 0) {
+            final int node = stack[--top];
+
+            for (int s = firstSamples[node]; s != NONE; s = nextSamples[s]) {
+                sampleNodes[s] = NONE;
+                removed++;
+            }
+
+            for (int c = firstChildren[node]; c != NONE; c = nextSiblings[c]) {
+                if (admissible[nodeSymbols[c]]) {
+                    stack[top++] = c;
+                }
+            }
+        }
+
+        if (removed > 0) {
+            compactSamples(size - removed);
+        }
+    }
+
+    private int findCounterExampleParallel(SuffixOutput<I, D> hypothesis,
+                                           boolean[] admissible,
+                                           AtomicInteger bound,
+                                           ExecutorService executor) {
+
+        // samples of the empty word are the shortest possible counterexamples
+        final int rootResult = new Search(createChecker(hypothesis), admissible, bound).checkSamples(ROOT);
+        if (rootResult != NONE) {
+            return rootResult;
+        }
+
+        final List<Future<Integer>> futures = new ArrayList<>();
+
+        for (int c = firstChildren[ROOT]; c != NONE; c = nextSiblings[c]) {
+            if (admissible[nodeSymbols[c]]) {
+                final Search search = new Search(createChecker(hypothesis), admissible, bound);
+                final int subtree = c;
+                futures.add(executor.submit(() -> search.run(subtree)));
+            }
+        }
+
+        int result = NONE;
+
+        try {
+            // subtrees are combined in the order of their creation, so that the result equals the sequential one
+            for (Future<Integer> f : futures) {
+                final int sample = f.get();
+                if (sample != NONE && (result == NONE || sampleLength(sample) < sampleLength(result))) {
+                    result = sample;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AssertionError("Searches must not throw checked exceptions", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching the sample set", e);
+        } finally {
+            for (Future<?> f : futures) {
+                f.cancel(false);
+            }
+        }
+
+        return result;
+    }
+
+    private void compactSamples(int newSize) {
+        final int capacity = Math.max(INITIAL_CAPACITY, newSize);
+        final int[] newSampleNodes = new int[capacity];
+        final int[] newPrefixLengths = new int[capacity];
+        final int[] newNextSamples = new int[capacity];
+        final List<D> newExpectedOutputs = new ArrayList<>(capacity);
+
+        Arrays.fill(firstSamples, 0, numNodes, NONE);
+        Arrays.fill(lastSamples, 0, numNodes, NONE);
+
+        // re-link the remaining samples in ascending order, so that the order of insertion is preserved
+        int sample = 0;
+        for (int s = 0; s < size; s++) {
+            final int node = sampleNodes[s];
+            if (node == NONE) {
+                continue;
+            }
+
+            newSampleNodes[sample] = node;
+            newPrefixLengths[sample] = prefixLengths[s];
+            newNextSamples[sample] = NONE;
+            newExpectedOutputs.add(expectedOutputs.get(s));
+
+            if (lastSamples[node] == NONE) {
+                firstSamples[node] = sample;
+            } else {
+                newNextSamples[lastSamples[node]] = sample;
+            }
+            lastSamples[node] = sample;
+            sample++;
+        }
+
+        sampleNodes = newSampleNodes;
+        prefixLengths = newPrefixLengths;
+        nextSamples = newNextSamples;
+        expectedOutputs = newExpectedOutputs;
+        size = newSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    private PathChecker createChecker(SuffixOutput<I, D> hypothesis) {
+        if (hypothesis instanceof MealyMachine) {
+            return new MealyChecker<>(hypothesis, (MealyMachine<?, I, ?, ?>) hypothesis);
+        } else if (hypothesis instanceof DFA) {
+            return new DFAChecker<>(hypothesis, (DFA<?, I>) hypothesis);
+        }
+        return new PathChecker(hypothesis);
+    }
+
+    private int sampleLength(int sample) {
+        return depths[sampleNodes[sample]];
+    }
+
+    private boolean[] computeAdmissible(Collection<? extends I> inputs) {
+        final boolean[] result = new boolean[symbols.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = inputs.contains(symbols.get(i));
+        }
+        return result;
+    }
+
+    private DefaultQuery<I, D> toQuery(int sample) {
+        final int node = sampleNodes[sample];
+        final Word<I> input = wordOf(node);
+        final int prefixLength = prefixLengths[sample];
+
+        return new DefaultQuery<>(input.prefix(prefixLength),
+                                  input.subWord(prefixLength),
+                                  expectedOutputs.get(sample));
+    }
+
+    private Word<I> wordOf(int node) {
+        final WordBuilder<I> wb = new WordBuilder<>(depths[node]);
+
+        for (int curr = node; curr != ROOT; curr = parents[curr]) {
+            wb.append(symbols.get(nodeSymbols[curr]));
+        }
+
+        return wb.reverse().toWord();
+    }
+
+    private int internSymbol(I symbol) {
+        final Integer id = symbolIds.get(symbol);
+
+        if (id != null) {
+            return id;
+        }
+
+        final int newId = symbols.size();
+        symbols.add(symbol);
+        symbolIds.put(symbol, newId);
+        return newId;
+    }
+
+    private void ensureNodeCapacity(int capacity) {
+        if (capacity <= nodeSymbols.length) {
+            return;
+        }
+
+        final int newCapacity = nodeSymbols.length * 2;
+        nodeSymbols = Arrays.copyOf(nodeSymbols, newCapacity);
+        parents = Arrays.copyOf(parents, newCapacity);
+        depths = Arrays.copyOf(depths, newCapacity);
+        firstChildren = Arrays.copyOf(firstChildren, newCapacity);
+        lastChildren = Arrays.copyOf(lastChildren, newCapacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, newCapacity);
+        firstSamples = Arrays.copyOf(firstSamples, newCapacity);
+        lastSamples = Arrays.copyOf(lastSamples, newCapacity);
+    }
+
+    /**
+     * A depth-first search for the shortest counterexample in a subtree of the trie.
+     */
+    private final class Search {
+
+        private final PathChecker checker;
+        private final boolean[] admissible;
+        private final AtomicInteger bound;
+
+        private int result = NONE;
+
+        Search(PathChecker checker, boolean[] admissible, AtomicInteger bound) {
+            this.checker = checker;
+            this.admissible = admissible;
+            this.bound = bound;
+        }
+
+        int run() {
+            return search(ROOT);
+        }
+
+        int run(int subtree) {
+            // the symbol of the subtree (a child of the root) needs to be simulated first
+            checker.enter(0, symbols.get(nodeSymbols[subtree]));
+            return search(subtree);
+        }
+
+        int checkSamples(int node) {
+            final int length = depths[node];
+
+            for (int s = firstSamples[node]; s != NONE; s = nextSamples[s]) {
+                if (result != NONE && length >= sampleLength(result)) {
+                    break;
+                }
+                if (!checker.isConsistent(node, prefixLengths[s], expectedOutputs.get(s))) {
+                    result = s;
+                    bound.accumulateAndGet(length, Math::min);
+                }
+            }
+
+            return result;
+        }
+
+        private int search(int start) {
+            final int base = depths[start];
+            int[] cursors = new int[INITIAL_CAPACITY];
+
+            int node = start;
+            cursors[0] = firstChildren[start];
+            checkSamples(start);
+
+            while (true) {
+                final int depth = depths[node];
+
+                int c = cursors[depth - base];
+                while (c != NONE && !admissible[nodeSymbols[c]]) {
+                    c = nextSiblings[c];
+                }
+
+                // do not descend beyond the shortest counterexample found so far (by any search)
+                if (c == NONE || depth >= bound.get()) {
+                    if (node == start) {
+                        return result;
+                    }
+                    node = parents[node];
+                    continue;
+                }
+
+                cursors[depth - base] = nextSiblings[c];
+                checker.enter(depth, symbols.get(nodeSymbols[c]));
+                node = c;
+
+                if (depth + 1 - base == cursors.length) {
+                    cursors = Arrays.copyOf(cursors, cursors.length * 2);
+                }
+                cursors[depth + 1 - base] = firstChildren[c];
+                checkSamples(c);
+            }
+        }
+    }
+
+    /**
+     * Simulates the hypothesis along the currently traversed path of the trie. This base implementation does not
+     * keep any simulation state and queries the hypothesis for each sample individually.
+     */
+    private class PathChecker {
+
+        private final SuffixOutput<I, D> hypothesis;
+
+        PathChecker(SuffixOutput<I, D> hypothesis) {
+            this.hypothesis = hypothesis;
+        }
+
+        /**
+         * Updates the simulation state after the given symbol has been appended to the current path.
+         *
+         * @param depth
+         *         the position of the symbol in the path
+         * @param symbol
+         *         the symbol
+         */
+        void enter(int depth, I symbol) {}
+
+        /**
+         * Checks whether the output of the hypothesis matches the expected output of a sample that ends in the given
+         * node. The node is the last node of the current path.
+         *
+         * @param node
+         *         the node
+         * @param prefixLength
+         *         the prefix length of the sample
+         * @param expected
+         *         the expected output of the sample
+         *
+         * @return {@code true} if the outputs match, {@code false} otherwise
+         */
+        boolean isConsistent(int node, int prefixLength, D expected) {
+            final Word<I> input = wordOf(node);
+            final D output = hypothesis.computeSuffixOutput(input.prefix(prefixLength), input.subWord(prefixLength));
+            return Objects.equals(output, expected);
+        }
+    }
+
+    private final class MealyChecker<S, T> extends PathChecker {
+
+        private final MealyMachine<S, I, T, ?> mealy;
+
+        // states[i] is the state reached by the first i symbols of the path, outputs[i] the output of the i-th symbol
+        private Object[] states = new Object[INITIAL_CAPACITY];
+        private Object[] outputs = new Object[INITIAL_CAPACITY];
+
+        MealyChecker(SuffixOutput<I, D> hypothesis, MealyMachine<S, I, T, ?> mealy) {
+            super(hypothesis);
+            this.mealy = mealy;
+            this.states[0] = mealy.getInitialState();
+        }
+
+        @Override
+        void enter(int depth, I symbol) {
+            if (depth + 1 == states.length) {
+                states = Arrays.copyOf(states, states.length * 2);
+                outputs = Arrays.copyOf(outputs, outputs.length * 2);
+            }
+
+            @SuppressWarnings("unchecked")
+            final S state = (S) states[depth];
+            final T trans = state == null ? null : mealy.getTransition(state, symbol);
+
+            if (trans == null) {
+                states[depth + 1] = null;
+            } else {
+                outputs[depth] = mealy.getTransitionOutput(trans);
+                states[depth + 1] = mealy.getSuccessor(trans);
+            }
+        }
+
+        @Override
+        boolean isConsistent(int node, int prefixLength, D expected) {
+            final int length = depths[node];
+
+            // undefined transitions are handled by the hypothesis itself
+            if (states[length] == null || !(expected instanceof Word)) {
+                return super.isConsistent(node, prefixLength, expected);
+            }
+
+            final Word<?> expectedWord = (Word<?>) expected;
+
+            if (expectedWord.length() != length - prefixLength) {
+                return false;
+            }
+
+            for (int i = prefixLength; i < length; i++) {
+                if (!Objects.equals(outputs[i], expectedWord.getSymbol(i - prefixLength))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private final class DFAChecker<S> extends PathChecker {
+
+        private final DFA<S, I> dfa;
+
+        // states[i] is the state reached by the first i symbols of the path
+        private Object[] states = new Object[INITIAL_CAPACITY];
+
+        DFAChecker(SuffixOutput<I, D> hypothesis, DFA<S, I> dfa) {
+            super(hypothesis);
+            this.dfa = dfa;
+            this.states[0] = dfa.getInitialState();
+        }
+
+        @Override
+        void enter(int depth, I symbol) {
+            if (depth + 1 == states.length) {
+                states = Arrays.copyOf(states, states.length * 2);
+            }
+
+            @SuppressWarnings("unchecked")
+            final S state = (S) states[depth];
+            states[depth + 1] = state == null ? null : dfa.getSuccessor(state, symbol);
+        }
+
+        @Override
+        boolean isConsistent(int node, int prefixLength, D expected) {
+            @SuppressWarnings("unchecked")
+            final S state = (S) states[depths[node]];
+
+            // undefined transitions are handled by the hypothesis itself
+            if (state == null) {
+                return super.isConsistent(node, prefixLength, expected);
+            }
+
+            return Objects.equals(dfa.isAccepting(state), expected);
+        }
+    }
+}
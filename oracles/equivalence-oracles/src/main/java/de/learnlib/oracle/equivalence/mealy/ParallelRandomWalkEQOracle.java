@@ -0,0 +1,293 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence.mealy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import de.learnlib.api.SUL;
+import de.learnlib.api.oracle.EquivalenceOracle.MealyEquivalenceOracle;
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A parallel version of the {@link RandomWalkEQOracle}. The oracle {@link SUL#fork() forks} the given system into
+ * several walkers that concurrently perform random walks over the hypothesis, each with its own random stream split
+ * off from the given {@link Random} instance.
+ * <p>
+ * The step budget is shared by all walkers: for each search, the remaining budget is distributed evenly among the
+ * walkers. As soon as a walker finds a counterexample, all other walkers stop once they have reached the end of the
+ * current round (see below). Among all counterexamples found in the same round, the shortest one is returned.
+ * <p>
+ * Walkers are compared based on their own (local) number of steps rather than on wall-clock time: a round comprises
+ * the steps of an expected walk length (i.e. the inverse restart probability) of each walker. Hence, the returned
+ * counterexample (and the consumed budget) only depends on the seed of the given {@link Random} instance and the number
+ * of walkers, but not on the scheduling of the walkers.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+public class ParallelRandomWalkEQOracle<I, O> implements MealyEquivalenceOracle<I, O> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRandomWalkEQOracle.class);
+
+    private final double restartProbability;
+    private final long maxSteps;
+    private final boolean resetStepCount;
+    private final Random random;
+    private final long roundSize;
+    private final List<SUL<I, O>> walkers;
+    private final ExecutorService executor;
+
+    private final AtomicLong steps = new AtomicLong();
+
+    public ParallelRandomWalkEQOracle(SUL<I, O> sul,
+                                      double restartProbability,
+                                      long maxSteps,
+                                      Random random,
+                                      @Nonnegative int numWalkers,
+                                      ExecutorService executor) {
+        this(sul, restartProbability, maxSteps, false, random, numWalkers, executor);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sul
+     *         the system under learning, which is forked for every additional walker
+     * @param restartProbability
+     *         the probability to restart a walk before every step
+     * @param maxSteps
+     *         the maximum number of steps of all walkers
+     * @param resetStepCount
+     *         flag whether the step count should be reset for every search
+     * @param random
+     *         the random instance from which the random streams of the walkers are split off
+     * @param numWalkers
+     *         the number of concurrent walkers
+     * @param executor
+     *         the executor that runs the additional walkers (the first walker runs in the calling thread)
+     */
+    public ParallelRandomWalkEQOracle(SUL<I, O> sul,
+                                      double restartProbability,
+                                      long maxSteps,
+                                      boolean resetStepCount,
+                                      Random random,
+                                      @Nonnegative int numWalkers,
+                                      ExecutorService executor) {
+        Preconditions.checkArgument(numWalkers > 0, "At least one walker is required");
+        Preconditions.checkArgument(numWalkers == 1 || sul.canFork(), "Multiple walkers require a forkable SUL");
+
+        this.restartProbability = restartProbability;
+        this.maxSteps = maxSteps;
+        this.resetStepCount = resetStepCount;
+        this.random = random;
+        this.roundSize = restartProbability > 0 ? Math.max(1, (long) Math.ceil(1 / restartProbability)) : 1;
+        this.executor = executor;
+
+        this.walkers = new ArrayList<>(numWalkers);
+        this.walkers.add(sul);
+        for (int i = 1; i < numWalkers; i++) {
+            this.walkers.add(sul.fork());
+        }
+    }
+
+    /**
+     * Returns the total number of steps consumed by all walkers (since the last reset, if enabled).
+     *
+     * @return the number of consumed steps
+     */
+    public long getSteps() {
+        return steps.get();
+    }
+
+    @Nullable
+    @Override
+    public DefaultQuery<I, Word<O>> findCounterExample(MealyMachine<?, I, ?, O> hypothesis,
+                                                       Collection<? extends I> inputs) {
+        // reset termination counter?
+        if (resetStepCount) {
+            steps.set(0);
+        }
+
+        if (inputs.isEmpty()) {
+            LOGGER.warn("Passed empty set of inputs to equivalence oracle; no counterexample can be found!");
+            return null;
+        }
+
+        final List<? extends I> choices = CollectionsUtil.randomAccessList(inputs);
+        final int numWalkers = walkers.size();
+        final long budget = Math.max(0, maxSteps - steps.get());
+
+        // split the random streams (and the budget) in a fixed order, so that results are reproducible
+        final List<Walk> walks = new ArrayList<>(numWalkers);
+        final AtomicLong stopBound = new AtomicLong(Long.MAX_VALUE);
+
+        for (int i = 0; i < numWalkers; i++) {
+            final long quota = budget / numWalkers + (i < budget % numWalkers ? 1 : 0);
+            walks.add(new Walk(walkers.get(i), new Random(random.nextLong()), quota, stopBound));
+        }
+
+        final List<Future<?>> futures = new ArrayList<>(numWalkers - 1);
+
+        try {
+            for (int i = 1; i < numWalkers; i++) {
+                final Walk walk = walks.get(i);
+                futures.add(executor.submit(() -> walk.run(hypothesis, choices)));
+            }
+
+            walks.get(0).run(hypothesis, choices);
+
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AssertionError("Walkers must not throw checked exceptions", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for walkers", e);
+        } finally {
+            // stop remaining walkers in case of an exception
+            stopBound.set(0);
+            for (Future<?> f : futures) {
+                f.cancel(false);
+            }
+        }
+
+        return selectCounterExample(walks);
+    }
+
+    @Nullable
+    private DefaultQuery<I, Word<O>> selectCounterExample(List<Walk> walks) {
+        // the earliest round in which a counterexample has been found
+        long bound = Long.MAX_VALUE;
+        for (Walk w : walks) {
+            if (w.counterexample != null) {
+                bound = Math.min(bound, roundBound(w.ceStep));
+            }
+        }
+
+        DefaultQuery<I, Word<O>> result = null;
+        long consumed = 0;
+
+        for (Walk w : walks) {
+            consumed += Math.min(w.quota, bound);
+
+            if (w.counterexample != null && w.ceStep <= bound &&
+                (result == null || w.counterexample.getInput().length() < result.getInput().length())) {
+                result = w.counterexample;
+            }
+        }
+
+        steps.addAndGet(consumed);
+        return result;
+    }
+
+    private long roundBound(long step) {
+        return ((step - 1) / roundSize + 1) * roundSize;
+    }
+
+    private final class Walk {
+
+        private final SUL<I, O> sul;
+        private final Random random;
+        private final long quota;
+        private final AtomicLong stopBound;
+
+        private DefaultQuery<I, Word<O>> counterexample;
+        private long ceStep;
+
+        Walk(SUL<I, O> sul, Random random, long quota, AtomicLong stopBound) {
+            this.sul = sul;
+            this.random = random;
+            this.quota = quota;
+            this.stopBound = stopBound;
+        }
+
+        void run(MealyMachine<?, I, ?, O> hypothesis, List<? extends I> choices) {
+            doRun(hypothesis, choices);
+        }
+
+        private <S> void doRun(MealyMachine<S, I, ?, O> hypothesis, List<? extends I> choices) {
+            final int bound = choices.size();
+            final WordBuilder<I> wbIn = new WordBuilder<>();
+            final WordBuilder<O> wbOut = new WordBuilder<>();
+
+            S cur = hypothesis.getInitialState();
+            long localSteps = 0;
+            boolean first = true;
+
+            sul.pre();
+            try {
+                while (localSteps < quota && localSteps < stopBound.get()) {
+
+                    if (first) {
+                        first = false;
+                    } else if (random.nextDouble() < restartProbability) {
+                        sul.post();
+                        sul.pre();
+                        cur = hypothesis.getInitialState();
+                        wbIn.clear();
+                        wbOut.clear();
+                        first = true;
+                    }
+
+                    // step
+                    localSteps++;
+                    final I in = choices.get(random.nextInt(bound));
+                    final O outSul = sul.step(in);
+                    final O outHyp = hypothesis.getTransitionProperty(cur, in);
+                    wbIn.add(in);
+                    wbOut.add(outSul);
+
+                    // ce?
+                    if (!Objects.equals(outSul, outHyp)) {
+                        counterexample = new DefaultQuery<>(wbIn.toWord());
+                        counterexample.answer(wbOut.toWord());
+                        ceStep = localSteps;
+                        stopBound.accumulateAndGet(roundBound(localSteps), Math::min);
+                        return;
+                    }
+                    cur = hypothesis.getSuccessor(cur, in);
+                }
+            } finally {
+                sul.post();
+            }
+        }
+    }
+}
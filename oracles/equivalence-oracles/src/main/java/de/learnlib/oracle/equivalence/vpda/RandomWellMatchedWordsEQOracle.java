@@ -82,8 +82,12 @@ public class RandomWellMatchedWordsEQOracle<I> extends AbstractTestWordEQOracle<
         final VPDAlphabet<I> alphabet = (VPDAlphabet<I>) inputs;
 
         final int lengthRange = (maxLength - minLength) + 1;
-        return Stream.generate(() -> generateWellMatched(alphabet, minLength + random.nextInt(lengthRange)))
-                     .limit(maxTests);
+        return Stream.generate(() -> generateWellMatched(alphabet, minLength + random.nextInt(lengthRange)));
+    }
+
+    @Override
+    protected long getTestBudget() {
+        return maxTests;
     }
 
     private Word<I> generateWellMatched(VPDAlphabet<I> alphabet, final int len) {
@@ -0,0 +1,134 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class CompiledHypothesisSimulatorTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+    private static final int SIZE = 10;
+    private static final int NUM_WORDS = 1000;
+    private static final int MAX_LENGTH = 10;
+
+    @Test
+    public void testMealy() {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Character> target = RandomAutomata.randomMealy(random, SIZE, ALPHABET, ALPHABET);
+        final CompactMealy<Character, Character> hyp = RandomAutomata.randomMealy(random, SIZE, ALPHABET, ALPHABET);
+
+        checkConsistency(target, hyp, ALPHABET, random);
+        // non-alphabet inputs
+        checkConsistency(target, hyp, new ArrayList<>(ALPHABET), random);
+        // the hypothesis itself never yields a counterexample
+        Assert.assertEquals(checkConsistency(hyp, hyp, ALPHABET, random), 0);
+    }
+
+    @Test
+    public void testPartialMealy() {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Character> target = RandomAutomata.randomMealy(random, SIZE, ALPHABET, ALPHABET);
+        final CompactMealy<Character, Character> hyp = RandomAutomata.randomMealy(random, SIZE, ALPHABET, ALPHABET);
+
+        hyp.removeAllTransitions(hyp.getInitialState(), 'a');
+
+        checkConsistency(target, hyp, ALPHABET, random);
+    }
+
+    @Test
+    public void testDFA() {
+        final Random random = new Random(42);
+        final CompactDFA<Character> target = RandomAutomata.randomDFA(random, SIZE, ALPHABET);
+        final CompactDFA<Character> hyp = RandomAutomata.randomDFA(random, SIZE, ALPHABET);
+
+        checkConsistency(target, hyp, ALPHABET, random);
+        checkConsistency(target, hyp, new ArrayList<>(ALPHABET), random);
+        Assert.assertEquals(checkConsistency(hyp, hyp, ALPHABET, random), 0);
+    }
+
+    @Test
+    public void testUnknownInputs() {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Character> target = RandomAutomata.randomMealy(random, SIZE, ALPHABET, ALPHABET);
+        final CompactMealy<Character, Character> hyp = RandomAutomata.randomMealy(random, SIZE, ALPHABET, ALPHABET);
+
+        // test words may contain symbols that are not part of the given inputs
+        checkConsistency(target, hyp, Arrays.asList('a', 'b'), random);
+    }
+
+    private static <D> int checkConsistency(Output<Character, D> target,
+                                            Output<Character, D> hypothesis,
+                                            Collection<Character> inputs,
+                                            Random random) {
+        final CompiledHypothesisSimulator<Character, D> simulator =
+                CompiledHypothesisSimulator.create(hypothesis, inputs);
+
+        int counterexamples = 0;
+
+        for (Word<Character> w : generateWords(random)) {
+            final DefaultQuery<Character, D> query = new DefaultQuery<>(w);
+            query.answer(target.computeOutput(w));
+
+            final boolean expected = !Objects.equals(hypothesis.computeOutput(w), query.getOutput());
+            Assert.assertEquals(simulator.isCounterExample(query), expected, w.toString());
+
+            if (expected) {
+                counterexamples++;
+            }
+        }
+
+        return counterexamples;
+    }
+
+    private static List<Word<Character>> generateWords(Random random) {
+        final List<Word<Character>> result = new ArrayList<>(NUM_WORDS * 2);
+        final WordBuilder<Character> wb = new WordBuilder<>();
+
+        for (int i = 0; i < NUM_WORDS; i++) {
+            final int length = random.nextInt(MAX_LENGTH + 1);
+            for (int j = 0; j < length; j++) {
+                wb.append(ALPHABET.getSymbol(random.nextInt(ALPHABET.size())));
+            }
+            final Word<Character> word = wb.toWord();
+            result.add(word);
+            // add prefixes of previous words, so that test words share common prefixes
+            result.add(word.prefix(random.nextInt(length + 1)));
+            wb.clear();
+        }
+
+        return result;
+    }
+}
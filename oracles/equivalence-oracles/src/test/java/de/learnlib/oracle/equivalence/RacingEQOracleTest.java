@@ -0,0 +1,178 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import de.learnlib.api.oracle.EquivalenceOracle;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class RacingEQOracleTest {
+
+    private static final List<Character> INPUTS = Arrays.asList('a', 'b');
+    private static final Output<Character, Boolean> HYPOTHESIS = input -> Boolean.TRUE;
+
+    private static final DefaultQuery<Character, Boolean> SHORT_CE =
+            new DefaultQuery<>(Word.fromLetter('a'), Boolean.FALSE);
+    private static final DefaultQuery<Character, Boolean> LONG_CE =
+            new DefaultQuery<>(Word.fromSymbols('a', 'b', 'a'), Boolean.FALSE);
+
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(timeOut = 10000)
+    public void testFirstCounterExample() {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+
+        final EquivalenceOracle<Output<Character, Boolean>, Character, Boolean> blocking = (hyp, inputs) -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+            }
+            return SHORT_CE;
+        };
+        // only return once the blocking delegate is running, so that it is actually interrupted
+        final EquivalenceOracle<Output<Character, Boolean>, Character, Boolean> fast = (hyp, inputs) -> {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return LONG_CE;
+        };
+
+        final RacingEQOracle<Output<Character, Boolean>, Character, Boolean> oracle =
+                new RacingEQOracle<>(executor, blocking, fast);
+
+        Assert.assertSame(oracle.findCounterExample(HYPOTHESIS, INPUTS), LONG_CE);
+        // the oracle only returns once the cancelled delegate has finished
+        Assert.assertEquals(cancelled.getCount(), 0);
+
+        Assert.assertEquals(oracle.getHitRate(0), 0.0);
+        Assert.assertEquals(oracle.getHitRate(1), 1.0);
+    }
+
+    @Test(timeOut = 10000)
+    public void testShortestWithinDeadline() {
+        final EquivalenceOracle<Output<Character, Boolean>, Character, Boolean> slow = (hyp, inputs) -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return SHORT_CE;
+        };
+        final EquivalenceOracle<Output<Character, Boolean>, Character, Boolean> fast = (hyp, inputs) -> LONG_CE;
+        final EquivalenceOracle<Output<Character, Boolean>, Character, Boolean> none = (hyp, inputs) -> null;
+
+        final RacingEQOracle<Output<Character, Boolean>, Character, Boolean> oracle =
+                new RacingEQOracle<>(executor, 5, TimeUnit.SECONDS, Arrays.asList(fast, none, slow));
+
+        Assert.assertSame(oracle.findCounterExample(HYPOTHESIS, INPUTS), SHORT_CE);
+
+        Assert.assertEquals(oracle.getHitRate(0), 1.0);
+        Assert.assertEquals(oracle.getHitRate(1), 0.0);
+        Assert.assertEquals(oracle.getHitRate(2), 1.0);
+        Assert.assertEquals(oracle.getOraclesByHitRate(), Arrays.asList(fast, slow, none));
+    }
+
+    @Test(timeOut = 10000)
+    public void testNoCounterExample() {
+        final EquivalenceOracle<Output<Character, Boolean>, Character, Boolean> none = (hyp, inputs) -> null;
+
+        final RacingEQOracle<Output<Character, Boolean>, Character, Boolean> oracle =
+                new RacingEQOracle<>(executor, Collections.nCopies(3, none));
+
+        Assert.assertNull(oracle.findCounterExample(HYPOTHESIS, INPUTS));
+        Assert.assertNull(oracle.findCounterExample(HYPOTHESIS, INPUTS));
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(oracle.getHitRate(i), 0.0);
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testCooperativeCancellation() {
+        final CountDownLatch started = new CountDownLatch(1);
+
+        final MembershipOracle<Character, Boolean> mqOracle = queries -> {
+            started.countDown();
+            for (Query<Character, Boolean> q : queries) {
+                q.answer(Boolean.TRUE);
+            }
+        };
+
+        final RandomWordsEQOracle<Output<Character, Boolean>, Character, Boolean> randomWords =
+                new RandomWordsEQOracle<>(mqOracle, 1, 10, Integer.MAX_VALUE, new Random(42));
+
+        final CountDownLatch finished = new CountDownLatch(1);
+        final EquivalenceOracle<Output<Character, Boolean>, Character, Boolean> generating = (hyp, inputs) -> {
+            try {
+                return randomWords.findCounterExample(hyp, inputs);
+            } finally {
+                finished.countDown();
+            }
+        };
+
+        final EquivalenceOracle<Output<Character, Boolean>, Character, Boolean> waiting = (hyp, inputs) -> {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return SHORT_CE;
+        };
+
+        final RacingEQOracle<Output<Character, Boolean>, Character, Boolean> oracle =
+                new RacingEQOracle<>(executor, generating, waiting);
+
+        Assert.assertSame(oracle.findCounterExample(HYPOTHESIS, INPUTS), SHORT_CE);
+
+        // the random words oracle stops generating test words once it has been cancelled
+        Assert.assertEquals(finished.getCount(), 0);
+        Assert.assertNull(CancellationToken.current());
+    }
+}
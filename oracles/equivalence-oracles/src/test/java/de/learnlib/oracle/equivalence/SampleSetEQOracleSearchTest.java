@@ -0,0 +1,302 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Iterables;
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.concepts.SuffixOutput;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.commons.util.random.RandomUtil;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the prefix trie based counterexample search of {@link SampleSetEQOracle}.
+ *
+ * @author frohme
+ */
+public class SampleSetEQOracleSearchTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+    private static final List<Character> SYMBOLS = new ArrayList<>(ALPHABET);
+    private static final List<Integer> OUTPUTS = Arrays.asList(0, 1);
+    private static final int SIZE = 8;
+    private static final int NUM_SAMPLES = 500;
+    private static final int MAX_LENGTH = 20;
+
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMealy() {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Integer> target = RandomAutomata.randomMealy(random, SIZE, ALPHABET, OUTPUTS);
+        final CompactMealy<Character, Integer> hyp = RandomAutomata.randomMealy(random, SIZE, ALPHABET, OUTPUTS);
+
+        final List<DefaultQuery<Character, Word<Integer>>> samples = new ArrayList<>(NUM_SAMPLES);
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final Word<Character> input = generateWord(random);
+            final int split = random.nextInt(input.length() + 1);
+            final Word<Character> prefix = input.prefix(split);
+            final Word<Character> suffix = input.subWord(split);
+            samples.add(new DefaultQuery<>(prefix, suffix, target.computeSuffixOutput(prefix, suffix)));
+        }
+
+        checkShortestCounterExample(samples, hyp);
+        checkShortestCounterExample(samples, target);
+    }
+
+    @Test
+    public void testPartialMealy() {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Integer> target = RandomAutomata.randomMealy(random, SIZE, ALPHABET, OUTPUTS);
+        final CompactMealy<Character, Integer> hyp = RandomAutomata.randomMealy(random, SIZE, ALPHABET, OUTPUTS);
+        hyp.removeAllTransitions(hyp.getState(0), 'c');
+
+        final List<DefaultQuery<Character, Word<Integer>>> samples = new ArrayList<>(NUM_SAMPLES);
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final Word<Character> input = generateWord(random);
+            samples.add(new DefaultQuery<>(input, target.computeOutput(input)));
+        }
+
+        checkShortestCounterExample(samples, hyp);
+    }
+
+    @Test
+    public void testDFA() {
+        final Random random = new Random(42);
+        final CompactDFA<Character> target = RandomAutomata.randomDFA(random, SIZE, ALPHABET);
+        final CompactDFA<Character> hyp = RandomAutomata.randomDFA(random, SIZE, ALPHABET);
+
+        final List<DefaultQuery<Character, Boolean>> samples = new ArrayList<>(NUM_SAMPLES);
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final Word<Character> input = generateWord(random);
+            samples.add(new DefaultQuery<>(input, target.computeOutput(input)));
+        }
+
+        checkShortestCounterExample(samples, hyp);
+        checkShortestCounterExample(samples, target);
+    }
+
+    @Test
+    public void testGenericHypothesis() {
+        final Random random = new Random(42);
+        final SuffixOutput<Character, Integer> target =
+                (prefix, suffix) -> Iterables.size(prefix) + 2 * Iterables.size(suffix);
+        final SuffixOutput<Character, Integer> hyp =
+                (prefix, suffix) -> target.computeSuffixOutput(prefix, suffix) + (Iterables.size(suffix) > 3 ? 1 : 0);
+
+        final List<DefaultQuery<Character, Integer>> samples = new ArrayList<>(NUM_SAMPLES);
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final Word<Character> input = generateWord(random);
+            final int split = random.nextInt(input.length() + 1);
+            final Word<Character> prefix = input.prefix(split);
+            final Word<Character> suffix = input.subWord(split);
+            samples.add(new DefaultQuery<>(prefix, suffix, target.computeSuffixOutput(prefix, suffix)));
+        }
+
+        checkShortestCounterExample(samples, hyp);
+    }
+
+    @Test
+    public void testInputFilter() {
+        final SampleSetEQOracle<Character, Boolean> oracle = new SampleSetEQOracle<>(false);
+        oracle.add(Word.fromSymbols('a', 'c'), Boolean.FALSE);
+        oracle.add(Word.fromSymbols('a', 'b', 'b'), Boolean.FALSE);
+
+        final SuffixOutput<Character, Boolean> hyp = (prefix, suffix) -> Boolean.TRUE;
+
+        Assert.assertNull(oracle.findCounterExample(hyp, Collections.singleton('d')));
+
+        final DefaultQuery<Character, Boolean> ce = oracle.findCounterExample(hyp, Arrays.asList('a', 'b'));
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getInput(), Word.fromSymbols('a', 'b', 'b'));
+
+        final DefaultQuery<Character, Boolean> shortestCE = oracle.findCounterExample(hyp, ALPHABET);
+        Assert.assertNotNull(shortestCE);
+        Assert.assertEquals(shortestCE.getInput(), Word.fromSymbols('a', 'c'));
+    }
+
+    @Test
+    public void testRemoveUnsuccessful() {
+        final SampleSetEQOracle<Character, Boolean> oracle = new SampleSetEQOracle<>(true);
+        oracle.add(Word.fromSymbols('a', 'c'), Boolean.TRUE);
+        oracle.add(Word.fromSymbols('a', 'b'), Boolean.TRUE);
+
+        final SuffixOutput<Character, Boolean> accepting = (prefix, suffix) -> Boolean.TRUE;
+        final SuffixOutput<Character, Boolean> rejecting = (prefix, suffix) -> Boolean.FALSE;
+
+        // samples with inputs outside of the considered inputs are not removed
+        Assert.assertNull(oracle.findCounterExample(accepting, Arrays.asList('a', 'b')));
+        final DefaultQuery<Character, Boolean> ce = oracle.findCounterExample(rejecting, ALPHABET);
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getInput(), Word.fromSymbols('a', 'c'));
+
+        Assert.assertNull(oracle.findCounterExample(accepting, ALPHABET));
+        Assert.assertNull(oracle.findCounterExample(rejecting, ALPHABET));
+    }
+
+    @Test
+    public void testRemoveSamples() {
+        final SampleTrie<Character, Boolean> trie = new SampleTrie<>();
+        trie.addSample(trie.node(Word.fromSymbols('a', 'c')), 0, Boolean.FALSE);
+        trie.addSample(trie.node(Word.fromSymbols('a', 'b')), 1, Boolean.FALSE);
+        trie.addSample(trie.node(Word.fromSymbols('a', 'c', 'b')), 0, Boolean.FALSE);
+        trie.addSample(trie.node(Word.fromSymbols('a', 'b')), 0, Boolean.TRUE);
+
+        trie.removeSamples(Arrays.asList('a', 'b'));
+        Assert.assertEquals(trie.size(), 2);
+
+        final SuffixOutput<Character, Boolean> hyp = (prefix, suffix) -> Boolean.TRUE;
+        final DefaultQuery<Character, Boolean> ce = trie.findCounterExample(hyp, ALPHABET, null);
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getInput(), Word.fromSymbols('a', 'c'));
+
+        // samples added after the removal are stored next to the remaining ones
+        trie.addSample(trie.node(Word.fromSymbols('b')), 0, Boolean.FALSE);
+        Assert.assertEquals(trie.size(), 3);
+        Assert.assertEquals(trie.findCounterExample(hyp, ALPHABET, null).getInput(), Word.fromLetter('b'));
+
+        trie.removeSamples(ALPHABET);
+        Assert.assertEquals(trie.size(), 0);
+        Assert.assertNull(trie.findCounterExample(hyp, ALPHABET, null));
+    }
+
+    @Test
+    public void testBinaryTraces() throws IOException {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Integer> target = RandomAutomata.randomMealy(random, SIZE, ALPHABET, OUTPUTS);
+        final CompactMealy<Character, Integer> hyp = RandomAutomata.randomMealy(random, SIZE, ALPHABET, OUTPUTS);
+
+        final SampleSetEQOracle<Character, Word<Integer>> expected = new SampleSetEQOracle<>(false);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int i = 0; i < NUM_SAMPLES; i++) {
+                final Word<Character> input = generateWord(random);
+                final int split = random.nextInt(input.length() + 1);
+                final Word<Integer> output = target.computeSuffixOutput(input.prefix(split), input.subWord(split));
+
+                expected.addAll(new DefaultQuery<>(input.prefix(split), input.subWord(split), output));
+
+                out.writeInt(split);
+                out.writeInt(input.length() - split);
+                for (Character c : input) {
+                    out.writeChar(c);
+                }
+                out.writeInt(output.length());
+                for (Integer o : output) {
+                    out.writeInt(o);
+                }
+            }
+        }
+
+        final SampleSetEQOracle<Character, Word<Integer>> oracle = new SampleSetEQOracle<>(false);
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            oracle.addAll(in, DataInput::readChar, SampleSetEQOracleSearchTest::readOutput);
+        }
+
+        final DefaultQuery<Character, Word<Integer>> expectedCE = expected.findCounterExample(hyp, ALPHABET);
+        final DefaultQuery<Character, Word<Integer>> actualCE = oracle.findCounterExample(hyp, ALPHABET);
+
+        Assert.assertNotNull(expectedCE);
+        Assert.assertNotNull(actualCE);
+        Assert.assertEquals(actualCE.getPrefix(), expectedCE.getPrefix());
+        Assert.assertEquals(actualCE.getSuffix(), expectedCE.getSuffix());
+        Assert.assertEquals(actualCE.getOutput(), expectedCE.getOutput());
+    }
+
+    private <D> void checkShortestCounterExample(List<DefaultQuery<Character, D>> samples,
+                                                 SuffixOutput<Character, D> hypothesis) {
+        final SampleSetEQOracle<Character, D> sequential = new SampleSetEQOracle<Character, D>(false).addAll(samples);
+        final SampleSetEQOracle<Character, D> parallel = new SampleSetEQOracle<Character, D>(false).addAll(samples);
+        parallel.setExecutor(executor);
+
+        int minLength = Integer.MAX_VALUE;
+        for (DefaultQuery<Character, D> q : samples) {
+            if (isCounterExample(q, hypothesis)) {
+                minLength = Math.min(minLength, q.getInput().length());
+            }
+        }
+
+        final DefaultQuery<Character, D> sequentialCE = sequential.findCounterExample(hypothesis, ALPHABET);
+        final DefaultQuery<Character, D> parallelCE = parallel.findCounterExample(hypothesis, ALPHABET);
+
+        if (minLength == Integer.MAX_VALUE) {
+            Assert.assertNull(sequentialCE);
+            Assert.assertNull(parallelCE);
+            return;
+        }
+
+        Assert.assertNotNull(sequentialCE);
+        Assert.assertNotNull(parallelCE);
+        Assert.assertTrue(isCounterExample(sequentialCE, hypothesis));
+        Assert.assertEquals(sequentialCE.getInput().length(), minLength);
+
+        Assert.assertEquals(parallelCE.getPrefix(), sequentialCE.getPrefix());
+        Assert.assertEquals(parallelCE.getSuffix(), sequentialCE.getSuffix());
+        Assert.assertEquals(parallelCE.getOutput(), sequentialCE.getOutput());
+    }
+
+    private static <D> boolean isCounterExample(DefaultQuery<Character, D> query, SuffixOutput<Character, D> hyp) {
+        return !Objects.equals(hyp.computeSuffixOutput(query.getPrefix(), query.getSuffix()), query.getOutput());
+    }
+
+    private static Word<Character> generateWord(Random random) {
+        return Word.fromList(RandomUtil.sample(SYMBOLS, random.nextInt(MAX_LENGTH), random));
+    }
+
+    private static Word<Integer> readOutput(DataInput in) throws IOException {
+        final int length = in.readInt();
+        final Integer[] symbols = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            symbols[i] = in.readInt();
+        }
+        return Word.fromSymbols(symbols);
+    }
+}
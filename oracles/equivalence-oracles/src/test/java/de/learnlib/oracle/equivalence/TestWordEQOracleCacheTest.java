@@ -0,0 +1,173 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the cache-aware test word filtering of {@link AbstractTestWordEQOracle}.
+ *
+ * @author frohme
+ */
+public class TestWordEQOracleCacheTest {
+
+    private static final List<Character> INPUTS = Arrays.asList('a', 'b');
+
+    private static final Output<Character, Integer> SYSTEM = input -> countAs(input) % 3;
+
+    private final Map<Word<Character>, Integer> cache = new HashMap<>();
+    private final List<Word<Character>> posedWords = new ArrayList<>();
+    private final MembershipOracle<Character, Integer> oracle = queries -> {
+        for (Query<Character, Integer> q : queries) {
+            posedWords.add(q.getInput());
+            q.answer(SYSTEM.computeOutput(q.getInput()));
+        }
+    };
+
+    @BeforeMethod
+    public void setUp() {
+        cache.clear();
+        posedWords.clear();
+
+        // the cache knows all words up to length 2
+        cache.put(Word.epsilon(), SYSTEM.computeOutput(Word.epsilon()));
+        for (Character a : INPUTS) {
+            cache.put(Word.fromLetter(a), SYSTEM.computeOutput(Word.fromLetter(a)));
+            for (Character b : INPUTS) {
+                cache.put(Word.fromSymbols(a, b), SYSTEM.computeOutput(Word.fromSymbols(a, b)));
+            }
+        }
+    }
+
+    @Test
+    public void testSkipCachedWords() {
+        final CompleteExplorationEQOracle<Output<Character, Integer>, Character, Integer> eqOracle =
+                new CompleteExplorationEQOracle<>(oracle, 1, 3);
+        eqOracle.setCacheLookup(cache::get);
+
+        Assert.assertNull(eqOracle.findCounterExample(SYSTEM, INPUTS));
+
+        Assert.assertEquals(posedWords.size(), 8);
+        Assert.assertTrue(posedWords.stream().allMatch(w -> w.length() == 3));
+        Assert.assertEquals(eqOracle.getCacheAnsweredTests(), 6);
+        Assert.assertEquals(eqOracle.getExecutedTests(), 8);
+    }
+
+    @Test
+    public void testBudgetOfNewWords() {
+        final RandomWordsEQOracle<Output<Character, Integer>, Character, Integer> eqOracle =
+                new RandomWordsEQOracle<>(oracle, 1, 3, 5, new Random(42));
+        eqOracle.setCacheLookup(cache::get);
+
+        Assert.assertNull(eqOracle.findCounterExample(SYSTEM, INPUTS));
+
+        // skipped words are replaced by fresh ones
+        Assert.assertEquals(posedWords.size(), 5);
+        Assert.assertTrue(posedWords.stream().allMatch(w -> w.length() == 3));
+        Assert.assertEquals(eqOracle.getExecutedTests(), 5);
+        Assert.assertTrue(eqOracle.getCacheAnsweredTests() > 0);
+
+        // without a cache, the budget includes the known words
+        posedWords.clear();
+        eqOracle.setCacheLookup(null);
+
+        Assert.assertNull(eqOracle.findCounterExample(SYSTEM, INPUTS));
+        Assert.assertEquals(posedWords.size(), 5);
+        Assert.assertEquals(eqOracle.getExecutedTests(), 5);
+        Assert.assertEquals(eqOracle.getCacheAnsweredTests(), 0);
+    }
+
+    @Test(timeOut = 10000)
+    public void testExhaustedSuite() {
+        final RandomWordsEQOracle<Output<Character, Integer>, Character, Integer> eqOracle =
+                new RandomWordsEQOracle<>(oracle, 1, 2, 5, new Random(42));
+        eqOracle.setCacheLookup(cache::get);
+
+        Assert.assertNull(eqOracle.findCounterExample(SYSTEM, INPUTS));
+
+        Assert.assertTrue(posedWords.isEmpty());
+        Assert.assertEquals(eqOracle.getExecutedTests(), 0);
+        Assert.assertEquals(eqOracle.getCacheAnsweredTests(), 6);
+    }
+
+    @Test
+    public void testInconsistentCachedWord() {
+        final Output<Character, Integer> hypothesis = input -> countAs(input) % 2;
+
+        final CompleteExplorationEQOracle<Output<Character, Integer>, Character, Integer> eqOracle =
+                new CompleteExplorationEQOracle<>(oracle, 1, 3);
+        eqOracle.setCacheLookup(cache::get);
+
+        final DefaultQuery<Character, Integer> ce = eqOracle.findCounterExample(hypothesis, INPUTS);
+
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getInput(), Word.fromSymbols('a', 'a'));
+        Assert.assertEquals(ce.getOutput(), Integer.valueOf(2));
+
+        // the cached counterexample is reported directly
+        Assert.assertTrue(posedWords.isEmpty());
+        Assert.assertEquals(eqOracle.getCacheAnsweredTests(), 3);
+        Assert.assertEquals(eqOracle.getExecutedTests(), 0);
+    }
+
+    @Test
+    public void testInconsistentCachedWordWithBudget() {
+        final Word<Character> cachedCe = Word.fromSymbols('a', 'a', 'a', 'a');
+        cache.put(cachedCe, SYSTEM.computeOutput(cachedCe));
+
+        // the hypothesis only differs from the system on the cached word
+        final Output<Character, Integer> hypothesis =
+                input -> cachedCe.equals(input) ? SYSTEM.computeOutput(input) + 1 : SYSTEM.computeOutput(input);
+
+        final RandomWordsEQOracle<Output<Character, Integer>, Character, Integer> eqOracle =
+                new RandomWordsEQOracle<>(oracle, 4, 4, 100, new Random(42));
+        eqOracle.setCacheLookup(w -> w.equals(cachedCe) ? cache.get(w) : null);
+
+        final DefaultQuery<Character, Integer> ce = eqOracle.findCounterExample(hypothesis, INPUTS);
+
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getInput(), cachedCe);
+
+        // all posed words have been checked before the cached counterexample has been reached
+        Assert.assertEquals(eqOracle.getCacheAnsweredTests(), 1);
+        Assert.assertEquals(eqOracle.getExecutedTests(), posedWords.size());
+        Assert.assertFalse(posedWords.contains(cachedCe));
+    }
+
+    private static int countAs(Iterable<? extends Character> input) {
+        int count = 0;
+        for (Character c : input) {
+            if (c == 'a') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,142 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.MembershipOracle.DFAMembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.automata.concepts.Output;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Test for the pipelined mode of {@link AbstractTestWordEQOracle}.
+ *
+ * @author frohme
+ */
+public class TestWordEQOraclePipelineTest {
+
+    private static final int NUM_THREADS = 4;
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_QUERIES = 1000;
+    private static final int FIRST_CE = 537;
+    private static final int SECOND_CE = 542;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+
+    @AfterClass
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @DataProvider
+    public static Object[][] batchesInFlight() {
+        return new Object[][] {{1}, {2}, {NUM_THREADS}, {2 * NUM_THREADS}};
+    }
+
+    @Test(dataProvider = "batchesInFlight")
+    public void testFirstCounterexample(int batchesInFlight) {
+        final CountingMQOracle mqOracle = new CountingMQOracle();
+        final LengthEQOracle eqOracle = new LengthEQOracle(mqOracle);
+        eqOracle.setPipelining(executor, batchesInFlight);
+
+        final Output<Character, Boolean> hyp = input -> {
+            final int length = size(input);
+            return (length % 2 == 0) ^ (length == FIRST_CE || length == SECOND_CE);
+        };
+
+        for (int i = 0; i < 10; i++) {
+            final DefaultQuery<Character, Boolean> ce = eqOracle.findCounterExample(hyp, Collections.singleton('a'));
+            Assert.assertNotNull(ce);
+            Assert.assertEquals(ce.getInput().length(), FIRST_CE);
+        }
+
+        // queries after the counterexample are only processed if they have already been in flight
+        final int maxQueriesPerRun = FIRST_CE + BATCH_SIZE * (batchesInFlight + 1);
+        Assert.assertTrue(mqOracle.counter.get() <= 10 * maxQueriesPerRun);
+    }
+
+    @Test(dataProvider = "batchesInFlight")
+    public void testNoCounterexample(int batchesInFlight) {
+        final CountingMQOracle mqOracle = new CountingMQOracle();
+        final LengthEQOracle eqOracle = new LengthEQOracle(mqOracle);
+        eqOracle.setPipelining(executor, batchesInFlight);
+
+        final Output<Character, Boolean> hyp = input -> size(input) % 2 == 0;
+
+        Assert.assertNull(eqOracle.findCounterExample(hyp, Collections.singleton('a')));
+        Assert.assertEquals(mqOracle.counter.get(), MAX_QUERIES);
+    }
+
+    @Test
+    public void testExceptionPropagation() {
+        final MembershipOracle<Character, Boolean> mqOracle = queries -> {
+            throw new IllegalArgumentException();
+        };
+        final LengthEQOracle eqOracle = new LengthEQOracle(mqOracle);
+        eqOracle.setPipelining(executor, NUM_THREADS);
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                            () -> eqOracle.findCounterExample(w -> true, Collections.singleton('a')));
+    }
+
+    private static int size(Iterable<?> input) {
+        int result = 0;
+        for (Object ignored : input) {
+            result++;
+        }
+        return result;
+    }
+
+    private static class CountingMQOracle implements DFAMembershipOracle<Character> {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public void processQueries(Collection<? extends Query<Character, Boolean>> queries) {
+            for (Query<Character, Boolean> q : queries) {
+                q.answer(q.getInput().length() % 2 == 0);
+            }
+            counter.addAndGet(queries.size());
+        }
+    }
+
+    private static class LengthEQOracle extends AbstractTestWordEQOracle<Output<Character, Boolean>, Character, Boolean> {
+
+        LengthEQOracle(MembershipOracle<Character, Boolean> membershipOracle) {
+            super(membershipOracle, BATCH_SIZE);
+        }
+
+        @Override
+        protected Stream<Word<Character>> generateTestWords(Output<Character, Boolean> hypothesis,
+                                                            Collection<? extends Character> inputs) {
+            final Character sym = inputs.iterator().next();
+            return IntStream.range(0, MAX_QUERIES).mapToObj(i -> Word.fromList(Collections.nCopies(i, sym)));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.equivalence.mealy;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import de.learnlib.api.SUL;
+import de.learnlib.api.query.DefaultQuery;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class ParallelRandomWalkEQOracleTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+    private static final int NUM_WALKERS = 4;
+    private static final long MAX_STEPS = 10000;
+    private static final double RESTART_PROBABILITY = 0.05;
+
+    private ExecutorService executor;
+    private CompactMealy<Character, Character> target;
+    private CompactMealy<Character, Character> hypothesis;
+
+    @BeforeClass
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(NUM_WALKERS);
+
+        final Random random = new Random(42);
+        this.target = RandomAutomata.randomMealy(random, 20, ALPHABET, ALPHABET);
+
+        this.hypothesis = new CompactMealy<>(ALPHABET);
+        final Integer init = this.hypothesis.addInitialState();
+        for (Character c : ALPHABET) {
+            this.hypothesis.addTransition(init, c, init, 'a');
+        }
+    }
+
+    @AfterClass
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testNoCounterExample() {
+        final AtomicLong sulSteps = new AtomicLong();
+        final CountingSUL sul = new CountingSUL(target, sulSteps);
+
+        final ParallelRandomWalkEQOracle<Character, Character> oracle =
+                new ParallelRandomWalkEQOracle<>(sul, RESTART_PROBABILITY, MAX_STEPS, new Random(42), NUM_WALKERS, executor);
+
+        Assert.assertNull(oracle.findCounterExample(target, ALPHABET));
+        Assert.assertEquals(sulSteps.get(), MAX_STEPS);
+        Assert.assertEquals(oracle.getSteps(), MAX_STEPS);
+
+        // budget is exhausted
+        Assert.assertNull(oracle.findCounterExample(target, ALPHABET));
+        Assert.assertEquals(sulSteps.get(), MAX_STEPS);
+    }
+
+    @Test
+    public void testCounterExample() {
+        final DefaultQuery<Character, Word<Character>> ce = findCounterExample(NUM_WALKERS, 42);
+
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce.getOutput(), target.computeOutput(ce.getInput()));
+        Assert.assertNotEquals(ce.getOutput(), hypothesis.computeOutput(ce.getInput()));
+    }
+
+    @Test
+    public void testReproducibility() {
+        for (int walkers = 1; walkers <= NUM_WALKERS; walkers++) {
+            for (int seed = 0; seed < 10; seed++) {
+                final DefaultQuery<Character, Word<Character>> ce = findCounterExample(walkers, seed);
+                for (int i = 0; i < 5; i++) {
+                    Assert.assertEquals(findCounterExample(walkers, seed), ce);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSingleWalkerEquivalence() {
+        for (int seed = 0; seed < 10; seed++) {
+            final Random random = new Random(seed);
+            final RandomWalkEQOracle<Character, Character> sequential =
+                    new RandomWalkEQOracle<>(new CountingSUL(target, new AtomicLong()),
+                                             RESTART_PROBABILITY,
+                                             MAX_STEPS,
+                                             new Random(random.nextLong()));
+
+            Assert.assertEquals(findCounterExample(1, seed), sequential.findCounterExample(hypothesis, ALPHABET));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNonForkableSUL() {
+        final SUL<Character, Character> sul = new CountingSUL(target, new AtomicLong()) {
+
+            @Override
+            public boolean canFork() {
+                return false;
+            }
+        };
+
+        new ParallelRandomWalkEQOracle<>(sul, RESTART_PROBABILITY, MAX_STEPS, new Random(42), 2, executor);
+    }
+
+    private DefaultQuery<Character, Word<Character>> findCounterExample(int walkers, long seed) {
+        final ParallelRandomWalkEQOracle<Character, Character> oracle =
+                new ParallelRandomWalkEQOracle<>(new CountingSUL(target, new AtomicLong()),
+                                                 RESTART_PROBABILITY,
+                                                 MAX_STEPS,
+                                                 new Random(seed),
+                                                 walkers,
+                                                 executor);
+        return oracle.findCounterExample(hypothesis, ALPHABET);
+    }
+
+    private static class CountingSUL implements SUL<Character, Character> {
+
+        private final MealyMachine<?, Character, ?, Character> model;
+        private final AtomicLong steps;
+        private Object state;
+
+        CountingSUL(MealyMachine<?, Character, ?, Character> model, AtomicLong steps) {
+            this.model = model;
+            this.steps = steps;
+        }
+
+        @Override
+        public void pre() {
+            state = model.getInitialState();
+        }
+
+        @Override
+        public void post() {
+            state = null;
+        }
+
+        @Nullable
+        @Override
+        public Character step(@Nullable Character in) {
+            Assert.assertNotNull(state);
+            steps.incrementAndGet();
+            return doStep(model, in);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <S> Character doStep(MealyMachine<S, Character, ?, Character> mealy, Character in) {
+            final S s = (S) state;
+            state = mealy.getSuccessor(s, in);
+            return mealy.getOutput(s, in);
+        }
+
+        @Override
+        public boolean canFork() {
+            return true;
+        }
+
+        @Override
+        public SUL<Character, Character> fork() {
+            return new CountingSUL(model, steps);
+        }
+    }
+}
@@ -18,6 +18,9 @@ package de.learnlib.filter.cache.dfa;
 import java.util.Collection;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import javax.annotation.Nullable;
+
+import de.learnlib.api.oracle.CacheLookup;
 import de.learnlib.api.oracle.EquivalenceOracle;
 import de.learnlib.api.oracle.EquivalenceOracle.DFAEquivalenceOracle;
 import de.learnlib.api.query.DefaultQuery;
@@ -28,13 +31,16 @@ import net.automatalib.words.Word;
 
 /**
  * An {@link EquivalenceOracle} that tests an hypothesis for consistency with the contents of a {@link DFACacheOracle}.
+ * <p>
+ * Additionally, this consistency test serves as a {@link CacheLookup} for the cache contents, which allows equivalence
+ * oracles to skip test words whose outputs are already known.
  *
  * @param <I>
  *         input symbol class
  *
  * @author Malte Isberner
  */
-public final class DFACacheConsistencyTest<I> implements DFAEquivalenceOracle<I> {
+public final class DFACacheConsistencyTest<I> implements DFAEquivalenceOracle<I>, CacheLookup<I, Boolean> {
 
     private final IncrementalDFABuilder<I> incDfa;
     private final ReadWriteLock incDfaLock;
@@ -74,5 +80,19 @@ public final class DFACacheConsistencyTest<I> implements DFAEquivalenceOracle<I>
         return result;
     }
 
-}
+    @Nullable
+    @Override
+    public Boolean lookup(Word<I> input) {
+        final Acceptance acc;
+
+        incDfaLock.readLock().lock();
+        try {
+            acc = incDfa.lookup(input);
+        } finally {
+            incDfaLock.readLock().unlock();
+        }
 
+        return acc == Acceptance.DONT_KNOW ? null : acc == Acceptance.TRUE;
+    }
+
+}
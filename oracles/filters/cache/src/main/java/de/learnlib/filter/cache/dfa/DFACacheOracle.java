@@ -29,6 +29,7 @@ import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.Query;
 import de.learnlib.filter.cache.LearningCacheOracle.DFALearningCacheOracle;
 import de.learnlib.filter.cache.dfa.DFACacheOracle.DFACacheOracleState;
+import de.learnlib.filter.cache.mapped.MappedIncrementalDFATreeBuilder;
 import net.automatalib.SupportsGrowingAlphabet;
 import net.automatalib.incremental.dfa.Acceptance;
 import net.automatalib.incremental.dfa.IncrementalDFABuilder;
@@ -143,6 +144,28 @@ public class DFACacheOracle<I>
         return new DFACacheOracle<>(new IncrementalPCDFADAGBuilder<>(alphabet), delegate);
     }
 
+    /**
+     * Creates a cache oracle for a DFA learning setup, using a tree that is stored in a memory-mapped file for
+     * internal cache organization. The cache persists across JVM restarts and its contents are available as soon as
+     * the builder is opened.
+     *
+     * @param builder
+     *         the (file-backed) tree builder, which should be {@link MappedIncrementalDFATreeBuilder#close() closed}
+     *         after use
+     * @param delegate
+     *         the oracle to delegate queries to, in case of a cache-miss.
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cached {@link DFACacheOracle}.
+     *
+     * @see MappedIncrementalDFATreeBuilder
+     */
+    public static <I> DFACacheOracle<I> createMappedTreeCacheOracle(MappedIncrementalDFATreeBuilder<I> builder,
+                                                                    MembershipOracle<I, Boolean> delegate) {
+        return new DFACacheOracle<>(builder, delegate);
+    }
+
     /**
      * Creates an equivalence oracle that checks an hypothesis for consistency with the contents of this cache. Note
      * that the returned oracle is backed by the cache data structure, i.e., it is sufficient to call this method once
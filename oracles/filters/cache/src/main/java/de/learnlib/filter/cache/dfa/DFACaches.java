@@ -18,6 +18,7 @@ package de.learnlib.filter.cache.dfa;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.filter.cache.mapped.MappedIncrementalDFATreeBuilder;
 import net.automatalib.incremental.dfa.IncrementalDFABuilder;
 import net.automatalib.incremental.dfa.dag.IncrementalDFADAGBuilder;
 import net.automatalib.incremental.dfa.dag.IncrementalPCDFADAGBuilder;
@@ -86,6 +87,28 @@ public final class DFACaches {
         return DFACacheOracle.createTreePCCacheOracle(alphabet, mqOracle);
     }
 
+    /**
+     * Creates a cache oracle for a DFA learning setup, using a tree that is stored in a memory-mapped file for
+     * internal cache organization. The cache persists across JVM restarts and its contents are available as soon as
+     * the builder is opened.
+     *
+     * @param builder
+     *         the (file-backed) tree builder, which should be {@link MappedIncrementalDFATreeBuilder#close() closed}
+     *         after use
+     * @param mqOracle
+     *         the oracle to delegate queries to, in case of a cache-miss.
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cached {@link DFACacheOracle}.
+     *
+     * @see MappedIncrementalDFATreeBuilder
+     */
+    public static <I> DFACacheOracle<I> createMappedTreeCache(MappedIncrementalDFATreeBuilder<I> builder,
+                                                              MembershipOracle<I, Boolean> mqOracle) {
+        return DFACacheOracle.createMappedTreeCacheOracle(builder, mqOracle);
+    }
+
     public static <I> DFAHashCacheOracle<I> createHashCache(MembershipOracle<I, Boolean> mqOracle) {
         return new DFAHashCacheOracle<>(mqOracle);
     }
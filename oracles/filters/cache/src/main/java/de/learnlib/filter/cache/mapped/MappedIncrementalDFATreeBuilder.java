@@ -0,0 +1,355 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mapped;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.AbstractIncrementalDFABuilder;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+/**
+ * An incremental DFA tree builder whose tree is stored in a memory-mapped file. The contents of the file survive the
+ * lifetime of the JVM, so that a subsequent experiment (re-)using the same file can be warm-started with all previously
+ * inserted words. Since the tree is accessed directly in the mapped file, opening a large file does not require to
+ * deserialize its contents onto the heap.
+ * <p>
+ * The file is opened lazily, i.e. upon the first access of the builder. The builder should be {@link #close() closed}
+ * after use. If the file is still in use by another builder (e.g. of a sibling process), the builder works on a private
+ * snapshot of the current contents of the file whose modifications are discarded upon closing.
+ * <p>
+ * Note that extending the alphabet (see {@link #addAlphabetSymbol(Object)}) rewrites the file and invalidates all
+ * previously returned nodes (e.g. states of the {@link #asTransitionSystem() transition system view}).
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class MappedIncrementalDFATreeBuilder<I> extends AbstractIncrementalDFABuilder<I> implements Closeable {
+
+    private final String path;
+    private transient volatile MappedTrie trie;
+
+    public MappedIncrementalDFATreeBuilder(Alphabet<I> inputAlphabet, Path path) {
+        super(inputAlphabet);
+        this.path = path.toString();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!this.inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(this.inputAlphabet).addSymbol(symbol);
+        }
+
+        this.alphabetSize = this.inputAlphabet.size();
+        getTrie().synchronizeInputs(this.inputAlphabet);
+    }
+
+    @Override
+    public Acceptance lookup(Word<? extends I> word) {
+        final MappedTrie t = getTrie();
+        int node = MappedTrie.ROOT;
+
+        for (I sym : word) {
+            node = t.getSuccessor(node, inputAlphabet.getSymbolIndex(sym));
+            if (node == MappedTrie.NO_NODE) {
+                return Acceptance.DONT_KNOW;
+            }
+        }
+
+        return getAcceptance(t, node);
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, boolean accepting) {
+        final MappedTrie t = getTrie();
+        int node = MappedTrie.ROOT;
+
+        for (I sym : word) {
+            final int idx = inputAlphabet.getSymbolIndex(sym);
+            int succ = t.getSuccessor(node, idx);
+            if (succ == MappedTrie.NO_NODE) {
+                succ = t.addSuccessor(node, idx, MappedTrie.NO_VALUE);
+            }
+            node = succ;
+        }
+
+        final Acceptance acc = getAcceptance(t, node);
+        if (acc == Acceptance.DONT_KNOW) {
+            t.setValue(node, t.getOrAddSymbol(MappedTrie.OUTPUT, accepting));
+        } else if (acc.conflicts(accepting)) {
+            throw new ConflictException(
+                    "Conflicting acceptance values for word " + word + ": " + acc + " vs " + accepting);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Word<I> findSeparatingWord(DFA<?, I> target, Collection<? extends I> inputs, boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S> Word<I> doFindSeparatingWord(DFA<S, I> target,
+                                             Collection<? extends I> inputs,
+                                             boolean omitUndefined) {
+        final MappedTrie t = getTrie();
+        final S init = target.getInitialState();
+
+        if (init == null) {
+            return omitUndefined ? null : Word.epsilon();
+        }
+
+        final Deque<Record<S, I>> queue = new ArrayDeque<>();
+        queue.add(new Record<>(init, MappedTrie.ROOT, Word.epsilon()));
+
+        while (!queue.isEmpty()) {
+            final Record<S, I> rec = queue.poll();
+
+            if (getAcceptance(t, rec.node).conflicts(target.isAccepting(rec.state))) {
+                return rec.word;
+            }
+
+            for (I sym : inputs) {
+                final int succ = t.getSuccessor(rec.node, inputAlphabet.getSymbolIndex(sym));
+                if (succ == MappedTrie.NO_NODE) {
+                    continue;
+                }
+
+                final S targetSucc = target.getSuccessor(rec.state, sym);
+                if (targetSucc == null) {
+                    if (omitUndefined) {
+                        continue;
+                    }
+                    return rec.word.append(sym);
+                }
+
+                queue.add(new Record<>(targetSucc, succ, rec.word.append(sym)));
+            }
+        }
+
+        return null;
+    }
+
+    @Nonnull
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Nonnull
+    @Override
+    public TransitionSystemView asTransitionSystem() {
+        return new TransitionSystemView();
+    }
+
+    /**
+     * Returns the number of transitions stored in this builder.
+     *
+     * @return the number of transitions
+     */
+    public int size() {
+        return getTrie().size();
+    }
+
+    /**
+     * Writes all changes of this builder to the underlying storage device.
+     */
+    public void flush() {
+        getTrie().flush();
+    }
+
+    /**
+     * Rewrites the underlying file, removing data that is no longer reachable (e.g. due to a previous crash) and
+     * laying out the tree in depth-first order. Note that this invalidates all previously returned nodes.
+     */
+    public void compact() {
+        getTrie().compact();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (trie != null) {
+            trie.close();
+            trie = null;
+        }
+    }
+
+    private MappedTrie getTrie() {
+        MappedTrie result = trie;
+
+        if (result == null) {
+            synchronized (this) {
+                result = trie;
+                if (result == null) {
+                    result = MappedTrie.open(Paths.get(path), inputAlphabet);
+                    trie = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static Acceptance getAcceptance(MappedTrie trie, int node) {
+        final int value = trie.getValue(node);
+
+        if (value == MappedTrie.NO_VALUE) {
+            return Acceptance.DONT_KNOW;
+        }
+
+        return Acceptance.fromBoolean((Boolean) trie.getSymbol(MappedTrie.OUTPUT, value));
+    }
+
+    private static final class Record<S, I> {
+
+        private final S state;
+        private final int node;
+        private final Word<I> word;
+
+        Record(S state, int node, Word<I> word) {
+            this.state = state;
+            this.node = node;
+            this.word = word;
+        }
+    }
+
+    /**
+     * An edge of the {@link GraphView}.
+     *
+     * @param <I>
+     *         input symbol type
+     */
+    public static final class GraphEdge<I> {
+
+        private final I input;
+        private final int target;
+
+        GraphEdge(I input, int target) {
+            this.input = input;
+            this.target = target;
+        }
+    }
+
+    public class GraphView extends AbstractGraphView<I, Integer, GraphEdge<I>> {
+
+        @Override
+        public Collection<Integer> getNodes() {
+            final MappedTrie t = getTrie();
+            final List<Integer> result = new ArrayList<>(t.size() + 1);
+            final Deque<Integer> stack = new ArrayDeque<>();
+            stack.push(MappedTrie.ROOT);
+
+            while (!stack.isEmpty()) {
+                final int node = stack.pop();
+                result.add(node);
+
+                for (int i = 0; i < t.getWidth(); i++) {
+                    final int succ = t.getSuccessor(node, i);
+                    if (succ != MappedTrie.NO_NODE) {
+                        stack.push(succ);
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public Collection<GraphEdge<I>> getOutgoingEdges(Integer node) {
+            final MappedTrie t = getTrie();
+            final List<GraphEdge<I>> result = new ArrayList<>();
+
+            for (int i = 0; i < t.getWidth(); i++) {
+                final int succ = t.getSuccessor(node, i);
+                if (succ != MappedTrie.NO_NODE) {
+                    result.add(new GraphEdge<>(inputAlphabet.getSymbol(i), succ));
+                }
+            }
+
+            return result;
+        }
+
+        @Nonnull
+        @Override
+        public Integer getTarget(GraphEdge<I> edge) {
+            return edge.target;
+        }
+
+        @Nullable
+        @Override
+        public I getInputSymbol(GraphEdge<I> edge) {
+            return edge.input;
+        }
+
+        @Nonnull
+        @Override
+        public Acceptance getAcceptance(Integer node) {
+            return MappedIncrementalDFATreeBuilder.getAcceptance(getTrie(), node);
+        }
+
+        @Nonnull
+        @Override
+        public Integer getInitialNode() {
+            return MappedTrie.ROOT;
+        }
+    }
+
+    public class TransitionSystemView extends AbstractTransitionSystemView<Integer, I, Integer> {
+
+        @Nonnull
+        @Override
+        public Integer getSuccessor(Integer transition) {
+            return transition;
+        }
+
+        @Nullable
+        @Override
+        public Integer getTransition(Integer state, @Nullable I input) {
+            final int succ = getTrie().getSuccessor(state, inputAlphabet.getSymbolIndex(input));
+            return succ == MappedTrie.NO_NODE ? null : succ;
+        }
+
+        @Nonnull
+        @Override
+        public Integer getInitialState() {
+            return MappedTrie.ROOT;
+        }
+
+        @Nonnull
+        @Override
+        public Acceptance getAcceptance(Integer state) {
+            return MappedIncrementalDFATreeBuilder.getAcceptance(getTrie(), state);
+        }
+    }
+}
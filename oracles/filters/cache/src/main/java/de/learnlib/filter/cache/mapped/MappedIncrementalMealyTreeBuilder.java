@@ -0,0 +1,181 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mapped;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.incremental.mealy.tree.AbstractIncrementalMealyTreeBuilder;
+import net.automatalib.incremental.mealy.tree.AnnotatedEdge;
+import net.automatalib.incremental.mealy.tree.Edge;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+
+/**
+ * An incremental Mealy tree builder whose tree is stored in a memory-mapped file. The contents of the file survive the
+ * lifetime of the JVM, so that a subsequent experiment (re-)using the same file can be warm-started with all previously
+ * inserted words. Since the tree is accessed directly in the mapped file, opening a large file does not require to
+ * deserialize its contents onto the heap.
+ * <p>
+ * The file is opened lazily, i.e. upon the first access of the builder. Output symbols need to be {@link
+ * java.io.Serializable serializable}. The builder should be {@link #close() closed} after use. If the file is still in
+ * use by another builder (e.g. of a sibling process), the builder works on a private snapshot of the current contents
+ * of the file whose modifications are discarded upon closing.
+ * <p>
+ * Note that extending the alphabet (see {@link #addAlphabetSymbol(Object)}) rewrites the file and invalidates all
+ * previously returned nodes (e.g. states of the {@link #asTransitionSystem() transition system view}).
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class MappedIncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyTreeBuilder<Integer, I, O>
+        implements InputAlphabetHolder<I>, Closeable {
+
+    private final Alphabet<I> inputAlphabet;
+    private final String path;
+    private transient volatile MappedTrie trie;
+
+    public MappedIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet, Path path) {
+        super(MappedTrie.ROOT);
+        this.inputAlphabet = inputAlphabet;
+        this.path = path.toString();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!this.inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(this.inputAlphabet).addSymbol(symbol);
+        }
+
+        getTrie().synchronizeInputs(this.inputAlphabet);
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Edge<Integer, O> getEdge(Integer node, I symbol) {
+        final MappedTrie t = getTrie();
+        final int succ = t.getSuccessor(node, inputAlphabet.getSymbolIndex(symbol));
+
+        if (succ == MappedTrie.NO_NODE) {
+            return null;
+        }
+
+        return new Edge<>((O) t.getSymbol(MappedTrie.OUTPUT, t.getValue(succ)), succ);
+    }
+
+    @Nonnull
+    @Override
+    protected Integer createNode() {
+        return getTrie().appendNode(MappedTrie.NO_VALUE);
+    }
+
+    @Nonnull
+    @Override
+    protected Integer insertNode(Integer parent, I symbol, O output) {
+        final MappedTrie t = getTrie();
+        return t.addSuccessor(parent,
+                              inputAlphabet.getSymbolIndex(symbol),
+                              t.getOrAddSymbol(MappedTrie.OUTPUT, output));
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Collection<AnnotatedEdge<Integer, I, O>> getOutgoingEdges(Integer node) {
+        final MappedTrie t = getTrie();
+        final List<AnnotatedEdge<Integer, I, O>> result = new ArrayList<>();
+
+        for (int i = 0; i < t.getWidth(); i++) {
+            final int succ = t.getSuccessor(node, i);
+            if (succ != MappedTrie.NO_NODE) {
+                final O output = (O) t.getSymbol(MappedTrie.OUTPUT, t.getValue(succ));
+                result.add(new AnnotatedEdge<>(new Edge<>(output, succ), inputAlphabet.getSymbol(i)));
+            }
+        }
+
+        return result;
+    }
+
+    @Nonnull
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+
+    /**
+     * Returns the number of transitions stored in this builder.
+     *
+     * @return the number of transitions
+     */
+    public int size() {
+        return getTrie().size();
+    }
+
+    /**
+     * Writes all changes of this builder to the underlying storage device.
+     */
+    public void flush() {
+        getTrie().flush();
+    }
+
+    /**
+     * Rewrites the underlying file, removing data that is no longer reachable (e.g. due to a previous crash) and
+     * laying out the tree in depth-first order. Note that this invalidates all previously returned nodes.
+     */
+    public void compact() {
+        getTrie().compact();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (trie != null) {
+            trie.close();
+            trie = null;
+        }
+    }
+
+    private MappedTrie getTrie() {
+        MappedTrie result = trie;
+
+        if (result == null) {
+            synchronized (this) {
+                result = trie;
+                if (result == null) {
+                    result = MappedTrie.open(Paths.get(path), inputAlphabet);
+                    trie = result;
+                }
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,608 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mapped;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.words.Alphabet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A prefix tree which is stored in a memory-mapped file.
+ * <p>
+ * The file starts with a fixed-size header, directly followed by the root node. Each node is stored as a fixed-size
+ * record consisting of an integer value (the id of an output symbol or {@link #NO_VALUE}) and one integer offset per input
+ * symbol, pointing to the respective successor node (or {@code 0}, if the successor is undefined). Input and output
+ * symbols are stored (in serialized form) as variable-size records in between the nodes and are linked via a list
+ * whose head is stored in the header.
+ * <p>
+ * The file is append-only: new nodes and symbols are written to the end of the file and only then linked to the
+ * existing structure, so that readers (even those of other processes) never observe partially written records. The
+ * only in-place updates are the linkage of successors and values of previously undefined nodes. Nodes that have been
+ * written but have never been linked (e.g. due to a crash or because they have been {@link #appendNode(int) appended}
+ * without a predecessor) are removed by a {@link #compact() compaction}. A compaction is automatically performed when
+ * the alphabet grows and when opening a file that has not been closed properly or in which more than a quarter of all
+ * nodes are unreachable. Since a compaction invalidates all previously returned nodes, it is not triggered while nodes
+ * may still be in use.
+ * <p>
+ * Write access to a file is guarded by a lock on an accompanying {@code .lock} file. If the lock is held by another
+ * instance (e.g. of a sibling process), the trie works on a private snapshot of the current file contents instead,
+ * which is discarded upon {@link #close() closing}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+final class MappedTrie implements Closeable {
+
+    static final int NO_VALUE = -1;
+    static final int NO_NODE = 0;
+    static final int INPUT = 0;
+    static final int OUTPUT = 1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedTrie.class);
+
+    private static final int MAGIC = 0x4C4C5452; // "LLTR"
+    private static final int VERSION = 1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int WIDTH_OFFSET = 8;
+    private static final int END_OFFSET = 12;
+    private static final int SYMBOLS_OFFSET = 16;
+    private static final int NODES_OFFSET = 20;
+    private static final int DIRTY_OFFSET = 24;
+    private static final int LINKED_OFFSET = 28;
+    private static final int HEADER_SIZE = 32;
+
+    static final int ROOT = HEADER_SIZE;
+
+    private static final int INITIAL_CAPACITY = 65_536;
+    private static final int INITIAL_STACK_SIZE = 64;
+    private static final double MAX_UNREACHABLE_RATIO = 0.25;
+
+    private static final int SYMBOL_KIND_OFFSET = 4;
+    private static final int SYMBOL_LENGTH_OFFSET = 8;
+    private static final int SYMBOL_DATA_OFFSET = 12;
+
+    private final Path path;
+    private final FileChannel lockChannel;
+    private final boolean temporary;
+    private final List<List<Object>> symbols;
+    private final List<Map<Object, Integer>> symbolIds;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int width;
+    private int end;
+
+    private MappedTrie(Path path, @Nullable FileChannel lockChannel, boolean temporary) {
+        this.path = path;
+        this.lockChannel = lockChannel;
+        this.temporary = temporary;
+        this.symbols = new ArrayList<>(2);
+        this.symbolIds = new ArrayList<>(2);
+
+        for (int i = 0; i < 2; i++) {
+            this.symbols.add(new ArrayList<>());
+            this.symbolIds.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Opens the trie stored at the given path. If the file does not exist (or is empty), a new trie is created.
+     *
+     * @param path
+     *         the path of the file
+     * @param width
+     *         the number of successors of each node (in case a new trie is created)
+     *
+     * @return the opened trie
+     *
+     * @throws UncheckedIOException
+     *         if the file cannot be opened
+     */
+    static MappedTrie open(Path path, @Nonnegative int width) {
+        try {
+            final FileChannel lockChannel = FileChannel.open(Paths.get(path.toString() + ".lock"),
+                                                             StandardOpenOption.CREATE,
+                                                             StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+
+            final MappedTrie result;
+
+            if (lock != null) {
+                result = new MappedTrie(path, lockChannel, false);
+            } else {
+                lockChannel.close();
+                LOGGER.info("Cache file '{}' is in use, continuing on a private snapshot", path);
+
+                final Path snapshot = Files.createTempFile("learnlib-cache", ".bin");
+                snapshot.toFile().deleteOnExit();
+                if (Files.exists(path)) {
+                    Files.copy(path, snapshot, StandardCopyOption.REPLACE_EXISTING);
+                }
+                result = new MappedTrie(snapshot, null, true);
+            }
+
+            result.doOpen(width);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens the trie stored at the given path and aligns its input symbols with the given alphabet.
+     *
+     * @param path
+     *         the path of the file
+     * @param alphabet
+     *         the input alphabet
+     *
+     * @return the opened trie
+     *
+     * @throws UncheckedIOException
+     *         if the file cannot be opened
+     * @throws IllegalArgumentException
+     *         if the file has been created for a different alphabet
+     *
+     * @see #synchronizeInputs(Alphabet)
+     */
+    static MappedTrie open(Path path, Alphabet<?> alphabet) {
+        final MappedTrie result = open(path, alphabet.size());
+
+        try {
+            result.synchronizeInputs(alphabet);
+        } catch (IllegalArgumentException e) {
+            try {
+                result.close();
+            } catch (IOException ioe) {
+                e.addSuppressed(ioe);
+            }
+            throw e;
+        }
+
+        return result;
+    }
+
+    private void doOpen(int initialWidth) throws IOException {
+        this.channel = FileChannel.open(path,
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE);
+
+        if (channel.size() == 0) {
+            this.width = initialWidth;
+            this.end = ROOT;
+            this.buffer = channel.map(MapMode.READ_WRITE, 0, Math.max(INITIAL_CAPACITY, ROOT + getNodeSize()));
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(WIDTH_OFFSET, width);
+            buffer.putInt(SYMBOLS_OFFSET, 0);
+            buffer.putInt(NODES_OFFSET, 0);
+            buffer.putInt(LINKED_OFFSET, 0);
+            appendNode(NO_VALUE);
+        } else {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File '" + path + "' exceeds the maximum size of a cache file");
+            }
+
+            this.buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("File '" + path + "' is not a (compatible) cache file");
+            }
+
+            this.width = buffer.getInt(WIDTH_OFFSET);
+            this.end = buffer.getInt(END_OFFSET);
+            readSymbols();
+
+            if (buffer.getInt(DIRTY_OFFSET) != 0) {
+                LOGGER.info("Cache file '{}' has not been closed properly, compacting it", path);
+                doCompact(width);
+            } else if (getNumberOfUnreachableNodes() > MAX_UNREACHABLE_RATIO * buffer.getInt(NODES_OFFSET)) {
+                LOGGER.info("Cache file '{}' contains {} unreachable nodes, compacting it",
+                            path,
+                            getNumberOfUnreachableNodes());
+                doCompact(width);
+            }
+        }
+
+        buffer.putInt(DIRTY_OFFSET, 1);
+    }
+
+    private void readSymbols() throws IOException {
+        final List<Integer> records = new ArrayList<>();
+        int ptr = buffer.getInt(SYMBOLS_OFFSET);
+
+        while (ptr != 0) {
+            records.add(ptr);
+            ptr = buffer.getInt(ptr);
+        }
+
+        Collections.reverse(records);
+
+        for (int record : records) {
+            final int kind = buffer.getInt(record + SYMBOL_KIND_OFFSET);
+            final int length = buffer.getInt(record + SYMBOL_LENGTH_OFFSET);
+            final byte[] bytes = new byte[length];
+
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(record + SYMBOL_DATA_OFFSET + i);
+            }
+
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                registerSymbol(kind, ois.readObject());
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Cannot restore symbol of cache file '" + path + "'", e);
+            }
+        }
+    }
+
+    private int registerSymbol(int kind, Object symbol) {
+        final List<Object> list = symbols.get(kind);
+        final int id = list.size();
+        list.add(symbol);
+        symbolIds.get(kind).put(symbol, id);
+        return id;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of nodes (excluding the root) that are reachable in this trie.
+     *
+     * @return the number of nodes
+     */
+    int size() {
+        return buffer.getInt(LINKED_OFFSET);
+    }
+
+    /**
+     * Returns the number of nodes that have been written to the file but have never been linked to a predecessor, i.e.
+     * the number of nodes that are removed by the next {@link #compact() compaction}.
+     *
+     * @return the number of unreachable nodes
+     */
+    int getNumberOfUnreachableNodes() {
+        return buffer.getInt(NODES_OFFSET) - buffer.getInt(LINKED_OFFSET);
+    }
+
+    List<Object> getSymbols(int kind) {
+        return Collections.unmodifiableList(symbols.get(kind));
+    }
+
+    Object getSymbol(int kind, int id) {
+        return symbols.get(kind).get(id);
+    }
+
+    /**
+     * Returns the id of the given symbol, writing it to the file if it has not been stored before.
+     *
+     * @param kind
+     *         the kind of the symbol, i.e. {@link #INPUT} or {@link #OUTPUT}
+     * @param symbol
+     *         the symbol
+     *
+     * @return the id of the symbol
+     */
+    int getOrAddSymbol(int kind, Object symbol) {
+        final Integer id = symbolIds.get(kind).get(symbol);
+        if (id != null) {
+            return id;
+        }
+
+        final byte[] bytes;
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(symbol);
+            oos.flush();
+            bytes = baos.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize symbol '" + symbol + '\'', e);
+        }
+
+        final int record = allocate(SYMBOL_DATA_OFFSET + bytes.length);
+        buffer.putInt(record, buffer.getInt(SYMBOLS_OFFSET));
+        buffer.putInt(record + SYMBOL_KIND_OFFSET, kind);
+        buffer.putInt(record + SYMBOL_LENGTH_OFFSET, bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(record + SYMBOL_DATA_OFFSET + i, bytes[i]);
+        }
+        commit();
+        buffer.putInt(SYMBOLS_OFFSET, record);
+
+        return registerSymbol(kind, symbol);
+    }
+
+    /**
+     * Aligns the stored input symbols with the given alphabet. The stored input symbols need to be a prefix of the
+     * given alphabet. Additional symbols of the alphabet are stored and the trie is {@link #compact(int) widened}
+     * accordingly.
+     *
+     * @param alphabet
+     *         the input alphabet
+     *
+     * @throws IllegalArgumentException
+     *         if the stored input symbols are not a prefix of the given alphabet
+     */
+    void synchronizeInputs(Alphabet<?> alphabet) {
+        final List<Object> inputs = symbols.get(INPUT);
+
+        if (inputs.size() > alphabet.size()) {
+            throw new IllegalArgumentException(
+                    "Cache file '" + path + "' contains more input symbols than the given alphabet");
+        }
+
+        for (int i = 0; i < inputs.size(); i++) {
+            if (!Objects.equals(inputs.get(i), alphabet.getSymbol(i))) {
+                throw new IllegalArgumentException(
+                        "Cache file '" + path + "' has been created for a different alphabet: expected symbol '" +
+                        inputs.get(i) + "' at index " + i + ", but found '" + alphabet.getSymbol(i) + '\'');
+            }
+        }
+
+        for (int i = inputs.size(); i < alphabet.size(); i++) {
+            getOrAddSymbol(INPUT, alphabet.getSymbol(i));
+        }
+
+        if (width < alphabet.size()) {
+            compact(alphabet.size());
+        }
+    }
+
+    int getValue(int node) {
+        return buffer.getInt(node);
+    }
+
+    void setValue(int node, int value) {
+        buffer.putInt(node, value);
+    }
+
+    int getSuccessor(int node, int idx) {
+        if (idx >= width) {
+            return NO_NODE;
+        }
+        return buffer.getInt(getSuccessorOffset(node, idx));
+    }
+
+    /**
+     * Appends a new successor node for the given input index. The new node is written completely before it is linked
+     * to its predecessor.
+     *
+     * @param node
+     *         the predecessor node
+     * @param idx
+     *         the index of the input symbol
+     * @param value
+     *         the value of the new node
+     *
+     * @return the new node
+     */
+    int addSuccessor(int node, int idx, int value) {
+        final int succ = appendNode(value);
+        buffer.putInt(getSuccessorOffset(node, idx), succ);
+        buffer.putInt(LINKED_OFFSET, buffer.getInt(LINKED_OFFSET) + 1);
+        return succ;
+    }
+
+    /**
+     * Appends a new node that is not (yet) linked to any predecessor.
+     *
+     * @param value
+     *         the value of the new node
+     *
+     * @return the new node
+     */
+    int appendNode(int value) {
+        final int node = allocate(getNodeSize());
+        buffer.putInt(node, value);
+        for (int i = 0; i < width; i++) {
+            buffer.putInt(getSuccessorOffset(node, i), NO_NODE);
+        }
+        commit();
+
+        if (node != ROOT) {
+            buffer.putInt(NODES_OFFSET, buffer.getInt(NODES_OFFSET) + 1);
+        }
+
+        return node;
+    }
+
+    /**
+     * Rewrites the trie in depth-first order, removing all unreachable nodes and updating the number of successors of
+     * each node. Note that this invalidates all previously returned nodes except for the {@link #ROOT root}.
+     *
+     * @param newWidth
+     *         the new number of successors of each node, must not be smaller than the current one.
+     */
+    void compact(@Nonnegative int newWidth) {
+        try {
+            doCompact(newWidth);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void compact() {
+        compact(width);
+    }
+
+    private void doCompact(int newWidth) throws IOException {
+        assert newWidth >= width;
+
+        final Path tmp = Paths.get(path.toString() + ".tmp");
+        Files.deleteIfExists(tmp);
+
+        try (MappedTrie target = new MappedTrie(tmp, null, false)) {
+            target.doOpen(newWidth);
+
+            for (int kind = 0; kind < symbols.size(); kind++) {
+                for (Object symbol : symbols.get(kind)) {
+                    target.getOrAddSymbol(kind, symbol);
+                }
+            }
+
+            target.setValue(ROOT, getValue(ROOT));
+
+            int[] stack = new int[INITIAL_STACK_SIZE];
+            int top = 0;
+            stack[top++] = ROOT;
+            stack[top++] = ROOT;
+
+            while (top > 0) {
+                final int newNode = stack[--top];
+                final int oldNode = stack[--top];
+
+                for (int i = width - 1; i >= 0; i--) {
+                    final int oldSucc = getSuccessor(oldNode, i);
+                    if (isValid(oldSucc)) {
+                        final int newSucc = target.addSuccessor(newNode, i, getValue(oldSucc));
+                        if (top + 2 > stack.length) {
+                            stack = Arrays.copyOf(stack, 2 * stack.length);
+                        }
+                        stack[top++] = oldSucc;
+                        stack[top++] = newSucc;
+                    }
+                }
+            }
+        }
+
+        this.buffer = null;
+        this.channel.close();
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (List<Object> list : symbols) {
+            list.clear();
+        }
+        for (Map<Object, Integer> map : symbolIds) {
+            map.clear();
+        }
+
+        doOpen(newWidth);
+    }
+
+    /**
+     * Checks whether the given successor refers to a completely written node. This may not be the case for snapshots
+     * that have been copied while being written to.
+     */
+    private boolean isValid(int node) {
+        if (node == NO_NODE || node + getNodeSize() > buffer.capacity()) {
+            return false;
+        }
+
+        final int value = getValue(node);
+        return value == NO_VALUE || (value >= 0 && value < symbols.get(OUTPUT).size());
+    }
+
+    /**
+     * Writes all changes to the underlying storage device.
+     */
+    void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+
+        buffer.putInt(DIRTY_OFFSET, 0);
+        buffer.force();
+        buffer = null;
+        channel.close();
+
+        if (lockChannel != null) {
+            lockChannel.close();
+        }
+
+        if (temporary) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private int getNodeSize() {
+        return Integer.BYTES * (1 + width);
+    }
+
+    private static int getSuccessorOffset(int node, int idx) {
+        return node + Integer.BYTES * (1 + idx);
+    }
+
+    private int allocate(int size) {
+        final long required = (long) end + size;
+
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cache file '" + path + "' exceeds the maximum size of a cache file");
+        }
+
+        if (required > buffer.capacity()) {
+            final long capacity = Math.min(Integer.MAX_VALUE, Math.max(required, 2L * buffer.capacity()));
+            try {
+                buffer = channel.map(MapMode.READ_WRITE, 0, capacity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        final int result = end;
+        end += size;
+        return result;
+    }
+
+    private void commit() {
+        buffer.putInt(END_OFFSET, end);
+    }
+}
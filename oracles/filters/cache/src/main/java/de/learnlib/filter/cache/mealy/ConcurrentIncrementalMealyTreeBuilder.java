@@ -0,0 +1,145 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.tree.AbstractIncrementalMealyTreeBuilder;
+import net.automatalib.incremental.mealy.tree.AnnotatedEdge;
+import net.automatalib.incremental.mealy.tree.Edge;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+
+/**
+ * A thread-safe variant of the {@link net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder}.
+ * <p>
+ * Outgoing edges of a node are set via compare-and-swap operations. Hence, lookups (and traversals of the
+ * {@link #asTransitionSystem() transition system view}) never block and concurrent inserts only contend on the nodes
+ * they actually extend. If two threads concurrently insert the same transition, the first one wins and the second one
+ * continues with the winner's successor, provided both outputs coincide. Conflicting outputs still cause a
+ * {@link ConflictException}.
+ * <p>
+ * Note that extending the alphabet (see {@link #addAlphabetSymbol(Object)}) is not synchronized with concurrent
+ * lookups or inserts and therefore should only be performed while no queries are processed.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class ConcurrentIncrementalMealyTreeBuilder<I, O>
+        extends AbstractIncrementalMealyTreeBuilder<ConcurrentNode<O>, I, O> implements InputAlphabetHolder<I> {
+
+    private final Alphabet<I> inputAlphabet;
+    private volatile int alphabetSize;
+
+    public ConcurrentIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet) {
+        super(new ConcurrentNode<>(inputAlphabet.size()));
+        this.inputAlphabet = inputAlphabet;
+        this.alphabetSize = inputAlphabet.size();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!this.inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(this.inputAlphabet).addSymbol(symbol);
+        }
+
+        // nodes grow their edge arrays lazily upon the first insertion of a new symbol
+        this.alphabetSize = this.inputAlphabet.size();
+    }
+
+    @Nonnull
+    ConcurrentNode<O> getRoot() {
+        return root;
+    }
+
+    @Nullable
+    @Override
+    protected Edge<ConcurrentNode<O>, O> getEdge(ConcurrentNode<O> node, I symbol) {
+        return node.getEdge(inputAlphabet.getSymbolIndex(symbol));
+    }
+
+    @Nonnull
+    @Override
+    protected ConcurrentNode<O> createNode() {
+        return new ConcurrentNode<>(alphabetSize);
+    }
+
+    @Nonnull
+    @Override
+    protected ConcurrentNode<O> insertNode(ConcurrentNode<O> parent, I symbol, O output) {
+        final int idx = inputAlphabet.getSymbolIndex(symbol);
+        final ConcurrentNode<O> succ = createNode();
+        final Edge<ConcurrentNode<O>, O> edge = new Edge<>(output, succ);
+
+        while (true) {
+            final AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> edges = parent.getOutEdges(idx, alphabetSize);
+
+            final Edge<ConcurrentNode<O>, O> winner;
+            if (edges.compareAndSet(idx, null, edge)) {
+                winner = edge;
+            } else {
+                winner = edges.get(idx);
+                if (!Objects.equals(winner.getOutput(), output)) {
+                    throw new ConflictException(
+                            "Output mismatch: '" + output + "' vs '" + winner.getOutput() + "' for input " + symbol);
+                }
+            }
+
+            // if the edge array has been grown concurrently, our update may not have been copied. Retry on the new
+            // array, which either already contains our (or another consistent) edge or accepts ours.
+            if (parent.getOutEdges() == edges) {
+                return winner.getTarget();
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    protected Collection<AnnotatedEdge<ConcurrentNode<O>, I, O>> getOutgoingEdges(ConcurrentNode<O> node) {
+        final AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> edges = node.getOutEdges();
+        final List<AnnotatedEdge<ConcurrentNode<O>, I, O>> result = new ArrayList<>(edges.length());
+
+        for (int i = 0; i < edges.length(); i++) {
+            final Edge<ConcurrentNode<O>, O> edge = edges.get(i);
+            if (edge != null) {
+                result.add(new AnnotatedEdge<>(edge, inputAlphabet.getSymbol(i)));
+            }
+        }
+
+        return result;
+    }
+
+    @Nonnull
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+}
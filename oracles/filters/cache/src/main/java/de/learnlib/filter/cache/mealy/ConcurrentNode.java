@@ -0,0 +1,89 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nullable;
+
+import net.automatalib.incremental.mealy.tree.Edge;
+
+/**
+ * A node of a {@link ConcurrentIncrementalMealyTreeBuilder}. Outgoing edges are stored in an {@link
+ * AtomicReferenceArray} so that they can be read without synchronization and set via compare-and-swap operations.
+ * <p>
+ * The edge array is only replaced (under the monitor of the node) if it needs to grow due to alphabet extensions.
+ *
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+final class ConcurrentNode<O> implements Serializable {
+
+    private volatile AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> outEdges;
+
+    ConcurrentNode(int alphabetSize) {
+        this.outEdges = new AtomicReferenceArray<>(alphabetSize);
+    }
+
+    @Nullable
+    Edge<ConcurrentNode<O>, O> getEdge(int idx) {
+        final AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> edges = outEdges;
+        if (idx >= edges.length()) {
+            return null;
+        }
+        return edges.get(idx);
+    }
+
+    AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> getOutEdges() {
+        return outEdges;
+    }
+
+    /**
+     * Returns an edge array that is able to store the edge for the given index, growing the current array if
+     * necessary.
+     *
+     * @param idx
+     *         the index of the edge
+     * @param capacity
+     *         the capacity of the array, if it needs to be grown
+     *
+     * @return the (possibly new) edge array
+     */
+    AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> getOutEdges(int idx, int capacity) {
+        final AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> edges = outEdges;
+        if (idx < edges.length()) {
+            return edges;
+        }
+
+        synchronized (this) {
+            final AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> current = outEdges;
+            if (idx < current.length()) {
+                return current;
+            }
+
+            final AtomicReferenceArray<Edge<ConcurrentNode<O>, O>> grown =
+                    new AtomicReferenceArray<>(Math.max(idx + 1, capacity));
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            outEdges = grown;
+            return grown;
+        }
+    }
+}
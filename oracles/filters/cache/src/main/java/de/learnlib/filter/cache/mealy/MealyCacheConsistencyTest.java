@@ -18,6 +18,9 @@ package de.learnlib.filter.cache.mealy;
 import java.util.Collection;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import javax.annotation.Nullable;
+
+import de.learnlib.api.oracle.CacheLookup;
 import de.learnlib.api.oracle.EquivalenceOracle;
 import de.learnlib.api.oracle.EquivalenceOracle.MealyEquivalenceOracle;
 import de.learnlib.api.query.DefaultQuery;
@@ -29,6 +32,9 @@ import net.automatalib.words.WordBuilder;
 /**
  * An {@link EquivalenceOracle} that tests an hypothesis for consistency with the contents of a {@link
  * MealyCacheOracle}.
+ * <p>
+ * Additionally, this consistency test serves as a {@link CacheLookup} for the cache contents, which allows equivalence
+ * oracles to skip test words whose outputs are already known.
  *
  * @param <I>
  *         input symbol class
@@ -37,7 +43,7 @@ import net.automatalib.words.WordBuilder;
  *
  * @author Malte Isberner
  */
-public class MealyCacheConsistencyTest<I, O> implements MealyEquivalenceOracle<I, O> {
+public class MealyCacheConsistencyTest<I, O> implements MealyEquivalenceOracle<I, O>, CacheLookup<I, Word<O>> {
 
     private final IncrementalMealyBuilder<I, O> incMealy;
     private final ReadWriteLock incMealyLock;
@@ -78,4 +84,17 @@ public class MealyCacheConsistencyTest<I, O> implements MealyEquivalenceOracle<I
         return result;
     }
 
+    @Nullable
+    @Override
+    public Word<O> lookup(Word<I> input) {
+        final WordBuilder<O> wb = new WordBuilder<>(input.length());
+
+        incMealyLock.readLock().lock();
+        try {
+            return incMealy.lookup(input, wb) ? wb.toWord() : null;
+        } finally {
+            incMealyLock.readLock().unlock();
+        }
+    }
+
 }
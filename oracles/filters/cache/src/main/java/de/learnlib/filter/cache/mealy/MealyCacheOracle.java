@@ -21,6 +21,7 @@ import java.util.Comparator;
 
 import de.learnlib.api.Resumable;
 import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.filter.cache.mapped.MappedIncrementalMealyTreeBuilder;
 import de.learnlib.filter.cache.mealy.MealyCacheOracle.MealyCacheOracleState;
 import net.automatalib.automata.transducers.OutputAndLocalInputs;
 import net.automatalib.commons.util.mappings.Mapping;
@@ -76,6 +77,17 @@ public class MealyCacheOracle<I, O> extends InternalMealyCacheOracle<I, O>
         return new MealyCacheOracle<>(incrementalBuilder, errorSyms, delegate, inputAlphabet);
     }
 
+    public static <I, O> MealyCacheOracle<I, O> createMappedTreeCacheOracle(MappedIncrementalMealyTreeBuilder<I, O> builder,
+                                                                            MembershipOracle<I, Word<O>> delegate) {
+        return createMappedTreeCacheOracle(builder, null, delegate);
+    }
+
+    public static <I, O> MealyCacheOracle<I, O> createMappedTreeCacheOracle(MappedIncrementalMealyTreeBuilder<I, O> builder,
+                                                                            Mapping<? super O, ? extends O> errorSyms,
+                                                                            MembershipOracle<I, Word<O>> delegate) {
+        return new MealyCacheOracle<>(builder, errorSyms, delegate, builder.getInputAlphabet());
+    }
+
     public static <I, O> MealyCacheOracle<I, O> createDynamicTreeCacheOracle(MembershipOracle<I, Word<O>> delegate) {
         return createDynamicTreeCacheOracle(null, delegate);
     }
@@ -19,6 +19,7 @@ import java.util.Collection;
 
 import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.oracle.StateLocalInputOracle;
+import de.learnlib.filter.cache.mapped.MappedIncrementalMealyTreeBuilder;
 import net.automatalib.automata.transducers.OutputAndLocalInputs;
 import net.automatalib.commons.util.mappings.Mapping;
 import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
@@ -97,6 +98,45 @@ public final class MealyCaches {
         return MealyCacheOracle.createTreeCacheOracle(alphabet, errorSyms, mqOracle);
     }
 
+    /**
+     * Creates a cache oracle for a Mealy machine learning setup, using a tree that is stored in a memory-mapped file
+     * for internal cache organization. The cache persists across JVM restarts and its contents are available as soon
+     * as the builder is opened.
+     *
+     * @param builder
+     *         the (file-backed) tree builder, which should be {@link MappedIncrementalMealyTreeBuilder#close() closed}
+     *         after use
+     * @param mqOracle
+     *         the membership oracle
+     *
+     * @return a Mealy learning cache with a persistent tree-based implementation
+     */
+    public static <I, O> MealyCacheOracle<I, O> createMappedTreeCache(MappedIncrementalMealyTreeBuilder<I, O> builder,
+                                                                      MembershipOracle<I, Word<O>> mqOracle) {
+        return MealyCacheOracle.createMappedTreeCacheOracle(builder, mqOracle);
+    }
+
+    /**
+     * Creates a cache oracle for a Mealy machine learning setup, using a tree that is stored in a memory-mapped file
+     * for internal cache organization. The cache persists across JVM restarts and its contents are available as soon
+     * as the builder is opened.
+     *
+     * @param builder
+     *         the (file-backed) tree builder, which should be {@link MappedIncrementalMealyTreeBuilder#close() closed}
+     *         after use
+     * @param errorSyms
+     *         a mapping for the prefix-closure filter
+     * @param mqOracle
+     *         the membership oracle
+     *
+     * @return a Mealy learning cache with a persistent tree-based implementation
+     */
+    public static <I, O> MealyCacheOracle<I, O> createMappedTreeCache(MappedIncrementalMealyTreeBuilder<I, O> builder,
+                                                                      Mapping<? super O, ? extends O> errorSyms,
+                                                                      MembershipOracle<I, Word<O>> mqOracle) {
+        return MealyCacheOracle.createMappedTreeCacheOracle(builder, errorSyms, mqOracle);
+    }
+
     /**
      * Creates a cache oracle for a Mealy machine learning setup with a dynamic alphabet storage, using a tree for
      * internal cache organization.
@@ -19,6 +19,9 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
 
 import de.learnlib.api.Resumable;
 import de.learnlib.api.oracle.EquivalenceOracle;
@@ -27,8 +30,7 @@ import de.learnlib.api.query.DefaultQuery;
 import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
 import de.learnlib.filter.cache.mealy.SymbolQueryCache.SymbolQueryCacheState;
 import net.automatalib.automata.transducers.MealyMachine;
-import net.automatalib.automata.transducers.impl.compact.CompactMealy;
-import net.automatalib.util.automata.equivalence.NearLinearEquivalenceTest;
+import net.automatalib.incremental.mealy.tree.Edge;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 
@@ -37,7 +39,16 @@ import net.automatalib.words.Word;
  * be answered from the cache are answered directly, others are forwarded to the delegate oracle. Queried symbols that
  * have to be delegated are incorporated into the cache directly.
  * <p>
- * Internally, an incrementally growing tree (in form of a mealy automaton) is used for caching.
+ * Internally, an incrementally growing tree (a {@link ConcurrentIncrementalMealyTreeBuilder}) is used for caching.
+ * Besides being used as a {@link SymbolQueryOracle} itself, the cache can hand out additional {@link
+ * #newSession(SymbolQueryOracle) sessions}, which maintain independent cursors over the shared tree but forward cache
+ * misses to their own delegate. Hence, several (possibly concurrent) users of symbol queries may share their cache
+ * hits.
+ * <p>
+ * Similar to the {@link de.learnlib.filter.cache.sul.SULCache}, a session defers resetting its delegate until the
+ * cached information is insufficient. Furthermore, a session keeps track of the symbols its delegate has executed since
+ * its last reset: if these form a prefix of the current query, only the remaining symbols are replayed on the delegate
+ * without resetting it at all.
  *
  * @param <I>
  *         input alphabet type
@@ -49,65 +60,36 @@ import net.automatalib.words.Word;
 public class SymbolQueryCache<I, O>
         implements SymbolQueryOracle<I, O>, MealyLearningCacheOracle<I, O>, Resumable<SymbolQueryCacheState<I, O>> {
 
-    private CompactMealy<I, O> cache;
-    private final SymbolQueryOracle<I, O> delegate;
-
-    private final List<I> currentTrace;
-    private Integer currentState;
-    private boolean currentTraceValid;
+    private volatile ConcurrentIncrementalMealyTreeBuilder<I, O> cache;
+    private final Session defaultSession;
 
     public SymbolQueryCache(final SymbolQueryOracle<I, O> delegate, final Alphabet<I> alphabet) {
-        this.delegate = delegate;
-        this.cache = new CompactMealy<>(alphabet);
-        this.currentState = this.cache.addInitialState();
+        this.cache = new ConcurrentIncrementalMealyTreeBuilder<>(alphabet);
+        this.defaultSession = new Session(delegate);
+    }
 
-        this.currentTrace = new ArrayList<>();
-        this.currentTraceValid = false;
+    /**
+     * Creates a new session over this cache. The session answers queries from the (shared) cache whenever possible and
+     * forwards all other queries to the given delegate. Each session may be used by a single thread only, but different
+     * sessions may be used concurrently.
+     *
+     * @param delegate
+     *         the oracle to answer cache misses of the session, which must not be used by any other session
+     *
+     * @return the new session
+     */
+    public SymbolQueryOracle<I, O> newSession(SymbolQueryOracle<I, O> delegate) {
+        return new Session(delegate);
     }
 
     @Override
     public O query(I i) {
-
-        if (this.currentTraceValid) {
-            final Integer succ = this.cache.getSuccessor(this.currentState, i);
-
-            if (succ != null) {
-                final O output = this.cache.getOutput(this.currentState, i);
-                this.currentTrace.add(i);
-                this.currentState = succ;
-                return output;
-            } else {
-                this.currentTraceValid = false;
-                this.delegate.reset();
-
-                this.currentTrace.forEach(this.delegate::query);
-            }
-        }
-
-        final O output = this.delegate.query(i);
-
-        final Integer nextState;
-        final Integer succ = this.cache.getSuccessor(this.currentState, i);
-
-        if (succ == null) {
-            final Integer newState = this.cache.addState();
-            this.cache.addTransition(this.currentState, i, newState, output);
-            nextState = newState;
-        } else {
-            assert this.cache.getOutput(this.currentState, i).equals(output);
-            nextState = succ;
-        }
-
-        this.currentState = nextState;
-
-        return output;
+        return defaultSession.query(i);
     }
 
     @Override
     public void reset() {
-        this.currentState = this.cache.getInitialState();
-        this.currentTrace.clear();
-        this.currentTraceValid = true;
+        defaultSession.reset();
     }
 
     @Override
@@ -121,10 +103,13 @@ public class SymbolQueryCache<I, O>
         TODO: potential optimization: If the hypothesis has undefined transitions, but the cache doesn't, it is a clear
         counterexample!
          */
-        final Word<I> sepWord = NearLinearEquivalenceTest.findSeparatingWord(cache, hypothesis, alphabet, true);
+        final ConcurrentIncrementalMealyTreeBuilder<I, O> currentCache = cache;
+        final Word<I> sepWord = currentCache.findSeparatingWord(hypothesis, alphabet, true);
 
         if (sepWord != null) {
-            return new DefaultQuery<>(sepWord, cache.computeOutput(sepWord));
+            final List<O> output = new ArrayList<>(sepWord.length());
+            currentCache.lookup(sepWord, output);
+            return new DefaultQuery<>(sepWord, Word.fromList(output));
         }
 
         return null;
@@ -140,15 +125,93 @@ public class SymbolQueryCache<I, O>
         this.cache = state.getCache();
     }
 
+    private final class Session implements SymbolQueryOracle<I, O> {
+
+        private final SymbolQueryOracle<I, O> delegate;
+
+        private final List<I> currentTrace;
+        private ConcurrentNode<O> currentNode;
+
+        // the symbols executed by the delegate since its last reset, null if unknown
+        @Nullable
+        private List<I> delegateTrace;
+
+        Session(SymbolQueryOracle<I, O> delegate) {
+            this.delegate = delegate;
+            this.currentTrace = new ArrayList<>();
+            this.currentNode = cache.getRoot();
+        }
+
+        @Override
+        public O query(I i) {
+            final ConcurrentIncrementalMealyTreeBuilder<I, O> currentCache = cache;
+            final Edge<ConcurrentNode<O>, O> edge = currentCache.getEdge(currentNode, i);
+
+            this.currentTrace.add(i);
+
+            if (edge != null) {
+                this.currentNode = edge.getTarget();
+                return edge.getOutput();
+            }
+
+            synchronizeDelegate();
+
+            final O output = this.delegate.query(i);
+            this.delegateTrace.add(i);
+            this.currentNode = currentCache.insertNode(currentNode, i, output);
+
+            return output;
+        }
+
+        /**
+         * Brings the delegate into the state reached by the current trace (excluding the last symbol), resetting it
+         * only if the symbols it has executed so far do not form a prefix of the current trace.
+         */
+        private void synchronizeDelegate() {
+            final int traceLength = this.currentTrace.size() - 1;
+
+            if (!isDelegatePrefix(traceLength)) {
+                this.delegate.reset();
+                this.delegateTrace = new ArrayList<>(traceLength + 1);
+            }
+
+            for (int i = this.delegateTrace.size(); i < traceLength; i++) {
+                final I sym = this.currentTrace.get(i);
+                this.delegate.query(sym);
+                this.delegateTrace.add(sym);
+            }
+        }
+
+        private boolean isDelegatePrefix(int traceLength) {
+            if (this.delegateTrace == null || this.delegateTrace.size() > traceLength) {
+                return false;
+            }
+
+            for (int i = 0; i < this.delegateTrace.size(); i++) {
+                if (!Objects.equals(this.delegateTrace.get(i), this.currentTrace.get(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public void reset() {
+            this.currentNode = cache.getRoot();
+            this.currentTrace.clear();
+        }
+    }
+
     public static class SymbolQueryCacheState<I, O> implements Serializable {
 
-        private final CompactMealy<I, O> cache;
+        private final ConcurrentIncrementalMealyTreeBuilder<I, O> cache;
 
-        SymbolQueryCacheState(CompactMealy<I, O> cache) {
+        SymbolQueryCacheState(ConcurrentIncrementalMealyTreeBuilder<I, O> cache) {
             this.cache = cache;
         }
 
-        CompactMealy<I, O> getCache() {
+        ConcurrentIncrementalMealyTreeBuilder<I, O> getCache() {
             return cache;
         }
     }
@@ -16,6 +16,9 @@
 package de.learnlib.filter.cache.sul;
 
 import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -26,6 +29,8 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import de.learnlib.api.Resumable;
 import de.learnlib.api.SUL;
 import de.learnlib.filter.cache.LearningCacheOracle.MealyLearningCacheOracle;
+import de.learnlib.filter.cache.mapped.MappedIncrementalMealyTreeBuilder;
+import de.learnlib.filter.cache.mealy.ConcurrentIncrementalMealyTreeBuilder;
 import de.learnlib.filter.cache.mealy.MealyCacheConsistencyTest;
 import de.learnlib.filter.cache.sul.SULCache.SULCacheState;
 import de.learnlib.oracle.membership.SULOracle;
@@ -67,7 +72,11 @@ public class SULCache<I, O> extends SULOracle<I, O> implements SUL<I, O>,
     private final SULCacheImpl<?, I, ?, O> impl;
 
     SULCache(IncrementalMealyBuilder<I, O> incMealy, SUL<I, O> sul) {
-        this(new SULCacheImpl<>(incMealy, new ReentrantReadWriteLock(), incMealy.asTransitionSystem(), sul));
+        this(incMealy, new ReentrantReadWriteLock(), sul);
+    }
+
+    SULCache(IncrementalMealyBuilder<I, O> incMealy, ReadWriteLock lock, SUL<I, O> sul) {
+        this(new SULCacheImpl<>(incMealy, lock, incMealy.asTransitionSystem(), sul));
     }
 
     private <S, T> SULCache(SULCacheImpl<S, I, T, O> cacheImpl) {
@@ -83,6 +92,48 @@ public class SULCache<I, O> extends SULOracle<I, O> implements SUL<I, O>,
         return new SULCache<>(new IncrementalMealyDAGBuilder<>(alphabet), sul);
     }
 
+    /**
+     * Creates a cache backed by a {@link ConcurrentIncrementalMealyTreeBuilder}. Since the builder itself is
+     * thread-safe, the cache (and all of its {@link #fork() forks}) does not use any global lock: cache lookups never
+     * block and cache updates only contend on the tree nodes they extend.
+     *
+     * @param alphabet
+     *         the input alphabet
+     * @param sul
+     *         the system under learning
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     *
+     * @return a cache backed by a concurrent tree
+     */
+    public static <I, O> SULCache<I, O> createConcurrentTreeCache(Alphabet<I> alphabet, SUL<I, O> sul) {
+        return new SULCache<>(new ConcurrentIncrementalMealyTreeBuilder<>(alphabet), NoopReadWriteLock.INSTANCE, sul);
+    }
+
+    /**
+     * Creates a cache backed by a {@link MappedIncrementalMealyTreeBuilder}, i.e. a tree that is stored in a
+     * memory-mapped file. The cache persists across JVM restarts and its contents are available as soon as the builder
+     * is opened.
+     *
+     * @param builder
+     *         the (file-backed) tree builder, which should be {@link MappedIncrementalMealyTreeBuilder#close() closed}
+     *         after use
+     * @param sul
+     *         the system under learning
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     *
+     * @return a cache backed by a persistent tree
+     */
+    public static <I, O> SULCache<I, O> createMappedTreeCache(MappedIncrementalMealyTreeBuilder<I, O> builder,
+                                                              SUL<I, O> sul) {
+        return new SULCache<>(builder, sul);
+    }
+
     @Override
     public void pre() {
         impl.pre();
@@ -280,6 +331,52 @@ public class SULCache<I, O> extends SULOracle<I, O> implements SUL<I, O>,
         }
     }
 
+    /**
+     * A {@link ReadWriteLock} that does not lock at all. Used for thread-safe builders, which do not require external
+     * synchronization.
+     * <p>
+     * Since there is no lock to wait for, {@link Condition conditions} are not supported: {@link #newCondition()}
+     * throws an {@link UnsupportedOperationException}. The cache itself never uses conditions.
+     */
+    private static final class NoopReadWriteLock implements ReadWriteLock, Lock {
+
+        private static final NoopReadWriteLock INSTANCE = new NoopReadWriteLock();
+
+        @Override
+        public Lock readLock() {
+            return this;
+        }
+
+        @Override
+        public Lock writeLock() {
+            return this;
+        }
+
+        @Override
+        public void lock() {}
+
+        @Override
+        public void lockInterruptibly() {}
+
+        @Override
+        public boolean tryLock() {
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void unlock() {}
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("A no-op lock does not support conditions");
+        }
+    }
+
     public static class SULCacheState<I, O> implements Serializable {
 
         private final IncrementalMealyBuilder<I, O> builder;
@@ -16,6 +16,7 @@
 package de.learnlib.filter.cache.sul;
 
 import de.learnlib.api.SUL;
+import de.learnlib.filter.cache.mapped.MappedIncrementalMealyTreeBuilder;
 import net.automatalib.words.Alphabet;
 
 public final class SULCaches {
@@ -35,4 +36,13 @@ public final class SULCaches {
     public static <I, O> SULCache<I, O> createDAGCache(Alphabet<I> alphabet, SUL<I, O> sul) {
         return SULCache.createDAGCache(alphabet, sul);
     }
+
+    public static <I, O> SULCache<I, O> createConcurrentTreeCache(Alphabet<I> alphabet, SUL<I, O> sul) {
+        return SULCache.createConcurrentTreeCache(alphabet, sul);
+    }
+
+    public static <I, O> SULCache<I, O> createMappedTreeCache(MappedIncrementalMealyTreeBuilder<I, O> builder,
+                                                              SUL<I, O> sul) {
+        return SULCache.createMappedTreeCache(builder, sul);
+    }
 }
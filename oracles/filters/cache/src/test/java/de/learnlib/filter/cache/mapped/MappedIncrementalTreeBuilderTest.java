@@ -0,0 +1,239 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mapped;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.learnlib.filter.cache.CacheTestUtils;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class MappedIncrementalTreeBuilderTest {
+
+    private static final int MAXIMUM_LENGTH_OF_WORDS = 5;
+
+    private Path file;
+    private List<Word<Character>> words;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        this.file = Files.createTempFile("mapped-builder", ".bin");
+        this.words = new ArrayList<>();
+
+        for (List<Character> w : CollectionsUtil.allTuples(CacheTestUtils.INPUT_ALPHABET, 0, MAXIMUM_LENGTH_OF_WORDS)) {
+            this.words.add(Word.fromList(w));
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(Paths.get(file + ".lock"));
+    }
+
+    @Test
+    public void testMealyPersistence() throws IOException {
+        final Alphabet<Character> alphabet = CacheTestUtils.INPUT_ALPHABET;
+
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder = newMealyBuilder(alphabet)) {
+            for (Word<Character> w : words) {
+                builder.insert(w, CacheTestUtils.MEALY.computeOutput(w));
+            }
+            Assert.assertEquals(builder.size(), words.size() - 1);
+        }
+
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder = newMealyBuilder(alphabet)) {
+            Assert.assertEquals(builder.size(), words.size() - 1);
+
+            for (Word<Character> w : words) {
+                Assert.assertEquals(builder.lookup(w), CacheTestUtils.MEALY.computeOutput(w));
+            }
+
+            Assert.assertNull(builder.findSeparatingWord(CacheTestUtils.MEALY, alphabet, false));
+            Assert.assertNotNull(builder.findSeparatingWord(CacheTestUtils.MEALY_INVALID, alphabet, false));
+        }
+    }
+
+    @Test(expectedExceptions = ConflictException.class)
+    public void testMealyConflict() throws IOException {
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder =
+                     newMealyBuilder(CacheTestUtils.INPUT_ALPHABET)) {
+            builder.insert(Word.fromCharSequence("ab"), Word.fromSymbols(1, 2));
+            builder.insert(Word.fromCharSequence("ab"), Word.fromSymbols(1, 3));
+        }
+    }
+
+    @Test
+    public void testDFAPersistence() throws IOException {
+        final Alphabet<Character> alphabet = CacheTestUtils.INPUT_ALPHABET;
+
+        try (MappedIncrementalDFATreeBuilder<Character> builder = newDFABuilder(alphabet)) {
+            // only insert every second word, so that we have unknown acceptances
+            for (int i = 0; i < words.size(); i += 2) {
+                final Word<Character> w = words.get(i);
+                builder.insert(w, CacheTestUtils.DFA.accepts(w));
+            }
+        }
+
+        try (MappedIncrementalDFATreeBuilder<Character> builder = newDFABuilder(alphabet)) {
+            for (int i = 0; i < words.size(); i++) {
+                final Word<Character> w = words.get(i);
+                final Acceptance expected =
+                        i % 2 == 0 ? Acceptance.fromBoolean(CacheTestUtils.DFA.accepts(w)) : Acceptance.DONT_KNOW;
+                Assert.assertEquals(builder.lookup(w), expected);
+            }
+
+            Assert.assertNull(builder.findSeparatingWord(CacheTestUtils.DFA, alphabet, false));
+            Assert.assertNotNull(builder.findSeparatingWord(CacheTestUtils.DFA_INVALID, alphabet, false));
+            Assert.assertEquals(builder.asGraph().getNodes().size(), builder.size() + 1);
+        }
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        final Alphabet<Character> alphabet = CacheTestUtils.INPUT_ALPHABET;
+        final Word<Character> w1 = Word.fromCharSequence("abc");
+        final Word<Character> w2 = Word.fromCharSequence("cba");
+
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> owner = newMealyBuilder(alphabet)) {
+            owner.insert(w1, CacheTestUtils.MEALY.computeOutput(w1));
+
+            // the file is still locked by the owner, so the sibling works on a snapshot
+            try (MappedIncrementalMealyTreeBuilder<Character, Integer> sibling = newMealyBuilder(alphabet)) {
+                Assert.assertEquals(sibling.lookup(w1), CacheTestUtils.MEALY.computeOutput(w1));
+                sibling.insert(w2, CacheTestUtils.MEALY.computeOutput(w2));
+                Assert.assertTrue(sibling.hasDefinitiveInformation(w2));
+            }
+
+            Assert.assertFalse(owner.hasDefinitiveInformation(w2));
+        }
+
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder = newMealyBuilder(alphabet)) {
+            Assert.assertTrue(builder.hasDefinitiveInformation(w1));
+            Assert.assertFalse(builder.hasDefinitiveInformation(w2));
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        final Alphabet<Character> alphabet = CacheTestUtils.INPUT_ALPHABET;
+
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder = newMealyBuilder(alphabet)) {
+            for (Word<Character> w : words) {
+                builder.insert(w, CacheTestUtils.MEALY.computeOutput(w));
+            }
+
+            builder.compact();
+
+            Assert.assertEquals(builder.size(), words.size() - 1);
+            for (Word<Character> w : words) {
+                Assert.assertEquals(builder.lookup(w), CacheTestUtils.MEALY.computeOutput(w));
+            }
+        }
+    }
+
+    @Test
+    public void testUnreachableNodes() throws IOException {
+        final Alphabet<Character> alphabet = CacheTestUtils.INPUT_ALPHABET;
+        final Word<Character> w = Word.fromCharSequence("abc");
+
+        try (MappedTrie trie = MappedTrie.open(file, alphabet)) {
+            int node = MappedTrie.ROOT;
+            for (Character c : w) {
+                node = trie.addSuccessor(node, alphabet.getSymbolIndex(c), MappedTrie.NO_VALUE);
+            }
+
+            // nodes that are never linked to a predecessor
+            for (int i = 0; i < w.length(); i++) {
+                trie.appendNode(MappedTrie.NO_VALUE);
+            }
+
+            Assert.assertEquals(trie.size(), w.length());
+            Assert.assertEquals(trie.getNumberOfUnreachableNodes(), w.length());
+        }
+
+        // re-opening the (properly closed) file reclaims the unreachable nodes
+        try (MappedTrie trie = MappedTrie.open(file, alphabet)) {
+            Assert.assertEquals(trie.size(), w.length());
+            Assert.assertEquals(trie.getNumberOfUnreachableNodes(), 0);
+        }
+
+        try (MappedIncrementalDFATreeBuilder<Character> builder = newDFABuilder(alphabet)) {
+            Assert.assertEquals(builder.lookup(w), Acceptance.DONT_KNOW);
+            Assert.assertEquals(builder.asGraph().getNodes().size(), w.length() + 1);
+        }
+    }
+
+    @Test
+    public void testAlphabetExtension() throws IOException {
+        final GrowingMapAlphabet<Character> alphabet = new GrowingMapAlphabet<>(CacheTestUtils.INPUT_ALPHABET);
+        final Word<Character> w1 = Word.fromCharSequence("abc");
+        final Word<Character> w2 = Word.fromCharSequence("abd");
+
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder = newMealyBuilder(alphabet)) {
+            builder.insert(w1, Word.fromSymbols(1, 2, 3));
+            builder.addAlphabetSymbol('d');
+            builder.insert(w2, Word.fromSymbols(1, 2, 1));
+
+            Assert.assertEquals(builder.lookup(w1), Word.fromSymbols(1, 2, 3));
+            Assert.assertEquals(builder.lookup(w2), Word.fromSymbols(1, 2, 1));
+        }
+
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder = newMealyBuilder(Alphabets.characters('a',
+                                                                                                                  'd'))) {
+            Assert.assertEquals(builder.lookup(w1), Word.fromSymbols(1, 2, 3));
+            Assert.assertEquals(builder.lookup(w2), Word.fromSymbols(1, 2, 1));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAlphabetMismatch() throws IOException {
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder =
+                     newMealyBuilder(CacheTestUtils.INPUT_ALPHABET)) {
+            builder.insert(Word.fromCharSequence("ab"), Word.fromSymbols(1, 2));
+        }
+
+        try (MappedIncrementalMealyTreeBuilder<Character, Integer> builder =
+                     newMealyBuilder(Alphabets.characters('x', 'z'))) {
+            builder.lookup(Word.fromCharSequence("xy"));
+        }
+    }
+
+    private MappedIncrementalMealyTreeBuilder<Character, Integer> newMealyBuilder(Alphabet<Character> alphabet) {
+        return new MappedIncrementalMealyTreeBuilder<>(alphabet, file);
+    }
+
+    private MappedIncrementalDFATreeBuilder<Character> newDFABuilder(Alphabet<Character> alphabet) {
+        return new MappedIncrementalDFATreeBuilder<>(alphabet, file);
+    }
+}
@@ -0,0 +1,119 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.learnlib.filter.cache.CacheTestUtils;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class ConcurrentIncrementalMealyTreeBuilderTest {
+
+    private static final int NUMBER_OF_THREADS = 8;
+    private static final int MAXIMUM_LENGTH_OF_WORDS = 6;
+
+    @Test(timeOut = 20000)
+    public void testConcurrentInserts() throws InterruptedException, ExecutionException {
+        final CompactMealy<Character, Integer> mealy = CacheTestUtils.MEALY;
+        final Alphabet<Character> alphabet = CacheTestUtils.INPUT_ALPHABET;
+        final ConcurrentIncrementalMealyTreeBuilder<Character, Integer> builder =
+                new ConcurrentIncrementalMealyTreeBuilder<>(alphabet);
+
+        final List<Word<Character>> words = new ArrayList<>();
+        for (List<Character> w : CollectionsUtil.allTuples(alphabet, 0, MAXIMUM_LENGTH_OF_WORDS)) {
+            words.add(Word.fromList(w));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        final List<Future<?>> futures = new ArrayList<>(NUMBER_OF_THREADS);
+
+        try {
+            for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+                // every thread inserts all words, in a different order, to provoke concurrent insertions of the same
+                // transitions
+                final List<Word<Character>> shuffled = new ArrayList<>(words);
+                Collections.rotate(shuffled, i * words.size() / NUMBER_OF_THREADS);
+                futures.add(executor.submit(() -> {
+                    for (Word<Character> w : shuffled) {
+                        builder.insert(w, mealy.computeOutput(w));
+                        Assert.assertEquals(builder.lookup(w), mealy.computeOutput(w));
+                    }
+                }));
+            }
+
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (Word<Character> w : words) {
+            Assert.assertTrue(builder.hasDefinitiveInformation(w));
+            Assert.assertEquals(builder.lookup(w), mealy.computeOutput(w));
+        }
+
+        Assert.assertNull(builder.findSeparatingWord(mealy, alphabet, false));
+        Assert.assertNotNull(builder.findSeparatingWord(CacheTestUtils.MEALY_INVALID, alphabet, false));
+    }
+
+    @Test(expectedExceptions = ConflictException.class)
+    public void testConflict() {
+        final ConcurrentIncrementalMealyTreeBuilder<Character, Integer> builder =
+                new ConcurrentIncrementalMealyTreeBuilder<>(CacheTestUtils.INPUT_ALPHABET);
+
+        builder.insert(Word.fromCharSequence("ab"), Word.fromSymbols(1, 2));
+        builder.insert(Word.fromCharSequence("ab"), Word.fromSymbols(1, 3));
+    }
+
+    @Test
+    public void testAlphabetExtension() {
+        final GrowingMapAlphabet<Character> alphabet = new GrowingMapAlphabet<>(CacheTestUtils.INPUT_ALPHABET);
+        final ConcurrentIncrementalMealyTreeBuilder<Character, Integer> builder =
+                new ConcurrentIncrementalMealyTreeBuilder<>(alphabet);
+
+        final Word<Character> w1 = Word.fromCharSequence("abc");
+        final Word<Character> w2 = Word.fromCharSequence("abd");
+        final Word<Character> w3 = Word.fromCharSequence("dd");
+
+        builder.insert(w1, Word.fromSymbols(1, 2, 3));
+        builder.addAlphabetSymbol('d');
+        Assert.assertFalse(builder.hasDefinitiveInformation(w2));
+
+        builder.insert(w2, Word.fromSymbols(1, 2, 1));
+        builder.insert(w3, Word.fromSymbols(3, 3));
+
+        Assert.assertEquals(builder.lookup(w1), Word.fromSymbols(1, 2, 3));
+        Assert.assertEquals(builder.lookup(w2), Word.fromSymbols(1, 2, 1));
+        Assert.assertEquals(builder.lookup(w3), Word.fromSymbols(3, 3));
+    }
+}
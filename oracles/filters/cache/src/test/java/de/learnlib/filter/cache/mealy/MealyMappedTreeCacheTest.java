@@ -0,0 +1,61 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.learnlib.api.oracle.MembershipOracle.MealyMembershipOracle;
+import de.learnlib.filter.cache.mapped.MappedIncrementalMealyTreeBuilder;
+import org.testng.annotations.AfterClass;
+
+/**
+ * @author frohme
+ */
+public class MealyMappedTreeCacheTest extends AbstractMealyCacheTest {
+
+    private final List<MappedIncrementalMealyTreeBuilder<Character, Integer>> builders = new ArrayList<>();
+    private final List<Path> files = new ArrayList<>();
+
+    @Override
+    protected MealyCacheOracle<Character, Integer> getCache(MealyMembershipOracle<Character, Integer> delegate) {
+        try {
+            final Path file = Files.createTempFile("mealy-cache", ".bin");
+            final MappedIncrementalMealyTreeBuilder<Character, Integer> builder =
+                    new MappedIncrementalMealyTreeBuilder<>(getAlphabet(), file);
+            files.add(file);
+            builders.add(builder);
+            return MealyCaches.createMappedTreeCache(builder, delegate);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        for (MappedIncrementalMealyTreeBuilder<Character, Integer> builder : builders) {
+            builder.close();
+        }
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Paths.get(file + ".lock"));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.cache.mealy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.learnlib.api.oracle.SymbolQueryOracle;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.filter.cache.CacheTestUtils;
+import de.learnlib.filter.statistic.oracle.CounterSymbolQueryOracle;
+import de.learnlib.oracle.membership.SULSymbolQueryOracle;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the session support of the {@link SymbolQueryCache}.
+ *
+ * @author frohme
+ */
+public class SymbolQueryCacheSessionTest {
+
+    @Test
+    public void testReplayFromDivergence() {
+        final CounterSymbolQueryOracle<Character, Integer> counter = createCounter();
+        final SymbolQueryCache<Character, Integer> cache =
+                new SymbolQueryCache<>(counter, CacheTestUtils.INPUT_ALPHABET);
+
+        final Word<Character> word = Word.fromSymbols('a', 'b');
+        Assert.assertEquals(query(cache, word), CacheTestUtils.MEALY.computeOutput(word));
+        Assert.assertEquals(counter.getResetCount(), 1);
+        Assert.assertEquals(counter.getSymbolCount(), 2);
+
+        // the delegate has already executed the prefix, so it only needs to execute the new symbol
+        final Word<Character> extension = Word.fromSymbols('a', 'b', 'c');
+        Assert.assertEquals(query(cache, extension), CacheTestUtils.MEALY.computeOutput(extension));
+        Assert.assertEquals(counter.getResetCount(), 1);
+        Assert.assertEquals(counter.getSymbolCount(), 3);
+
+        // a diverging query requires a reset and the replay of the cached prefix
+        final Word<Character> divergence = Word.fromSymbols('a', 'c');
+        Assert.assertEquals(query(cache, divergence), CacheTestUtils.MEALY.computeOutput(divergence));
+        Assert.assertEquals(counter.getResetCount(), 2);
+        Assert.assertEquals(counter.getSymbolCount(), 5);
+    }
+
+    @Test
+    public void testSharedHits() {
+        final CounterSymbolQueryOracle<Character, Integer> counter1 = createCounter();
+        final CounterSymbolQueryOracle<Character, Integer> counter2 = createCounter();
+
+        final SymbolQueryCache<Character, Integer> cache =
+                new SymbolQueryCache<>(counter1, CacheTestUtils.INPUT_ALPHABET);
+        final SymbolQueryOracle<Character, Integer> session = cache.newSession(counter2);
+
+        final Word<Character> word = Word.fromSymbols('a', 'b', 'c', 'a');
+
+        Assert.assertEquals(query(cache, word), CacheTestUtils.MEALY.computeOutput(word));
+        Assert.assertEquals(query(session, word), CacheTestUtils.MEALY.computeOutput(word));
+
+        Assert.assertEquals(counter1.getSymbolCount(), word.length());
+        Assert.assertEquals(counter2.getResetCount(), 0);
+        Assert.assertEquals(counter2.getSymbolCount(), 0);
+
+        // the session's misses are visible to the cache
+        final Word<Character> other = Word.fromSymbols('c', 'c');
+        Assert.assertEquals(query(session, other), CacheTestUtils.MEALY.computeOutput(other));
+        Assert.assertEquals(query(cache, other), CacheTestUtils.MEALY.computeOutput(other));
+
+        Assert.assertEquals(counter1.getSymbolCount(), word.length());
+        Assert.assertEquals(counter2.getSymbolCount(), other.length());
+    }
+
+    @Test
+    public void testConcurrentSessions() throws InterruptedException, ExecutionException {
+        final int numSessions = 4;
+        final int numQueries = 500;
+        final int maxLength = 10;
+
+        final SymbolQueryCache<Character, Integer> cache =
+                new SymbolQueryCache<>(createCounter(), CacheTestUtils.INPUT_ALPHABET);
+        final ExecutorService executor = Executors.newFixedThreadPool(numSessions);
+
+        try {
+            final List<Future<?>> futures = new ArrayList<>(numSessions);
+
+            for (int s = 0; s < numSessions; s++) {
+                final SymbolQueryOracle<Character, Integer> session = cache.newSession(createCounter());
+                final Random random = new Random(s);
+
+                futures.add(executor.submit(() -> {
+                    for (int q = 0; q < numQueries; q++) {
+                        final WordBuilder<Character> wb = new WordBuilder<>();
+                        final int length = random.nextInt(maxLength);
+                        for (int i = 0; i < length; i++) {
+                            final int idx = random.nextInt(CacheTestUtils.INPUT_ALPHABET.size());
+                            wb.add(CacheTestUtils.INPUT_ALPHABET.getSymbol(idx));
+                        }
+                        final Word<Character> word = wb.toWord();
+                        Assert.assertEquals(query(session, word), CacheTestUtils.MEALY.computeOutput(word));
+                    }
+                }));
+            }
+
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CounterSymbolQueryOracle<Character, Integer> createCounter() {
+        final MealySimulatorSUL<Character, Integer> sul = new MealySimulatorSUL<>(CacheTestUtils.MEALY);
+        return new CounterSymbolQueryOracle<>(new SULSymbolQueryOracle<>(sul));
+    }
+
+    private static Word<Integer> query(SymbolQueryOracle<Character, Integer> oracle, Word<Character> word) {
+        oracle.reset();
+        final WordBuilder<Integer> wb = new WordBuilder<>(word.length());
+        for (Character c : word) {
+            wb.add(oracle.query(c));
+        }
+        return wb.toWord();
+    }
+}
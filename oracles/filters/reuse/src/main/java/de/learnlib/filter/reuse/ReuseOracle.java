@@ -15,16 +15,23 @@
  */
 package de.learnlib.filter.reuse;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 
 import de.learnlib.api.oracle.SingleQueryOracle.SingleQueryOracleMealy;
+import de.learnlib.api.query.Query;
 import de.learnlib.filter.reuse.ReuseCapableOracle.QueryResult;
 import de.learnlib.filter.reuse.tree.BoundedDeque.AccessPolicy;
 import de.learnlib.filter.reuse.tree.BoundedDeque.EvictPolicy;
+import de.learnlib.filter.reuse.tree.BudgetPolicy;
 import de.learnlib.filter.reuse.tree.ReuseNode;
 import de.learnlib.filter.reuse.tree.ReuseNode.NodeResult;
 import de.learnlib.filter.reuse.tree.ReuseTree;
@@ -49,6 +56,12 @@ import net.automatalib.words.WordBuilder;
  * The usage of model invariant input symbols and failure output symbols is disabled by default and can be enabled upon
  * construction (see {@link ReuseOracleBuilder#withFailureOutputs(Set)} and {@link
  * ReuseOracleBuilder#withInvariantInputs(Set)}).
+ * <p>
+ * Batches of queries are processed in lexicographic order, so that queries sharing a prefix are processed consecutively
+ * and may continue from the system states left behind by their predecessors. The longest common prefix of consecutive
+ * queries is executed only once and both queries continue from its system state. If system states are invalidated
+ * upon reuse, this requires the configured {@link SystemStateHandler} to support {@link
+ * SystemStateHandler#copy(Object) copying} system states.
  *
  * @param <S>
  *         system state class
@@ -63,6 +76,8 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
 
     private final ThreadLocal<ReuseCapableOracle<S, I, O>> executableOracles;
 
+    private final Comparator<Word<I>> lexOrder;
+
     private final ReuseTree<S, I, O> tree;
 
     /**
@@ -70,6 +85,7 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
      */
     ReuseOracle(ReuseOracleBuilder<S, I, O> builder) {
         this.executableOracles = ThreadLocal.withInitial(builder.oracleSupplier);
+        this.lexOrder = lexComparator(builder.alphabet);
         this.tree = new ReuseTreeBuilder<S, I, O>(builder.alphabet).withSystemStateHandler(builder.systemStateHandler)
                                                                    .withFailureOutputs(builder.failureOutputSymbols)
                                                                    .withInvariantInputs(builder.invariantInputSymbols)
@@ -77,9 +93,35 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
                                                                    .withMaxSystemStates(builder.maxSystemStates)
                                                                    .withAccessPolicy(builder.accessPolicy)
                                                                    .withEvictPolicy(builder.evictPolicy)
+                                                                   .withMaxTotalSystemStates(builder.maxTotalSystemStates)
+                                                                   .withBudgetPolicy(builder.budgetPolicy)
+                                                                   .withRetentionCost(builder.retentionCost)
                                                                    .build();
     }
 
+    @Override
+    public void processQueries(Collection<? extends Query<I, Word<O>>> queries) {
+        final List<Query<I, Word<O>>> sortedQueries = new ArrayList<>(queries);
+        sortedQueries.sort((q1, q2) -> lexOrder.compare(q1.getInput(), q2.getInput()));
+
+        for (int i = 0; i < sortedQueries.size(); i++) {
+            final Query<I, Word<O>> query = sortedQueries.get(i);
+            final Word<I> input = query.getInput();
+            final Word<O> knownOutput = tree.getOutput(input);
+
+            // only prepare the shared prefix if at least one of the two queries needs to be executed on the SUL
+            if (i + 1 < sortedQueries.size()) {
+                final Word<I> next = sortedQueries.get(i + 1).getInput();
+                if (knownOutput == null || tree.getOutput(next) == null) {
+                    prepareSharedPrefix(input, next);
+                }
+            }
+
+            final Word<O> output = knownOutput != null ? knownOutput : processQuery(input);
+            query.answer(output.suffix(query.getSuffix().length()));
+        }
+    }
+
     @Override
     public Word<O> answerQuery(Word<I> prefix, Word<I> suffix) {
         return processQuery(prefix.concat(suffix)).suffix(suffix.length());
@@ -106,6 +148,14 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
             return knownOutput;
         }
 
+        return executeQuery(query);
+    }
+
+    /**
+     * Executes the given query on the SUL (regardless of whether its output is already known), possibly continuing
+     * from a stored system state.
+     */
+    private Word<O> executeQuery(final Word<I> query) {
         // Search for system state
         final NodeResult<S, I, O> nodeResult = tree.fetchSystemState(query);
         final ReuseCapableOracle<S, I, O> oracle = getReuseCapableOracle();
@@ -143,6 +193,47 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
         return output;
     }
 
+    /**
+     * Makes sure that the longest common prefix of the given (lexicographically consecutive) queries provides a system
+     * state for each of the two queries, if the current query does not already leave behind a system state for the
+     * next one. The common prefix is executed only once (the current query then continues from its system state) and,
+     * if system states are invalidated upon reuse, its system state is duplicated via the {@link SystemStateHandler}.
+     */
+    private void prepareSharedPrefix(Word<I> query, Word<I> next) {
+        final int prefixLength = query.longestCommonPrefix(next).length();
+
+        // the current query is a prefix of the next one (or they share nothing)
+        if (prefixLength == 0 || prefixLength == query.length()) {
+            return;
+        }
+
+        final Word<I> prefix = query.prefix(prefixLength);
+        ReuseNode<S, I, O> node = tree.getNode(prefix);
+
+        if (node == null || !node.hasSystemStates()) {
+            executeQuery(prefix);
+            node = tree.getNode(prefix);
+        }
+
+        if (tree.isSystemstateInvalidationEnabled() && node != null && node.getSystemStateCount() < 2) {
+            tree.duplicateSystemState(node);
+        }
+    }
+
+    private static <I> Comparator<Word<I>> lexComparator(Alphabet<I> alphabet) {
+        return (w1, w2) -> {
+            final int minLength = Math.min(w1.length(), w2.length());
+            for (int i = 0; i < minLength; i++) {
+                final int cmp = Integer.compare(alphabet.getSymbolIndex(w1.getSymbol(i)),
+                                                alphabet.getSymbolIndex(w2.getSymbol(i)));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(w1.length(), w2.length());
+        };
+    }
+
     /**
      * Returns the {@link ReuseCapableOracle} used by this instance.
      */
@@ -215,6 +306,9 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
         private int maxSystemStates = -1;
         private AccessPolicy accessPolicy = AccessPolicy.LIFO;
         private EvictPolicy evictPolicy = EvictPolicy.EVICT_OLDEST;
+        private int maxTotalSystemStates = -1;
+        private BudgetPolicy budgetPolicy = BudgetPolicy.COST;
+        private ToDoubleFunction<? super S> retentionCost = state -> 1;
 
         public ReuseOracleBuilder(Alphabet<I> alphabet,
                                   Supplier<? extends ReuseCapableOracle<S, I, O>> oracleSupplier) {
@@ -257,6 +351,21 @@ public final class ReuseOracle<S, I, O> implements SingleQueryOracleMealy<I, O>
             return this;
         }
 
+        public ReuseOracleBuilder<S, I, O> withMaxTotalSystemStates(int maxTotalSystemStates) {
+            this.maxTotalSystemStates = maxTotalSystemStates;
+            return this;
+        }
+
+        public ReuseOracleBuilder<S, I, O> withBudgetPolicy(BudgetPolicy budgetPolicy) {
+            this.budgetPolicy = budgetPolicy;
+            return this;
+        }
+
+        public ReuseOracleBuilder<S, I, O> withRetentionCost(ToDoubleFunction<? super S> retentionCost) {
+            this.retentionCost = retentionCost;
+            return this;
+        }
+
         public ReuseOracle<S, I, O> build() {
             return new ReuseOracle<>(this);
         }
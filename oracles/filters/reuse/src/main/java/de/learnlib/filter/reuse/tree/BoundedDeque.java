@@ -84,7 +84,7 @@ public class BoundedDeque<E> extends AbstractCollection<E> implements Serializab
      */
     public E insert(E element) {
         E evicted = null;
-        if (size() >= capacity) {
+        if (isBounded() && size() >= capacity) {
             if (evictPolicy == EvictPolicy.REJECT_NEW) {
                 // reject the new element
                 return element;
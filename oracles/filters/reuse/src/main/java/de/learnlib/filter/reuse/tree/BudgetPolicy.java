@@ -0,0 +1,43 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.tree;
+
+/**
+ * The policy which determines the system state to evict if the global budget of system states of a {@link ReuseTree} is
+ * exceeded.
+ *
+ * @author frohme
+ */
+public enum BudgetPolicy {
+    /**
+     * Evicts the system state whose node has been reused least recently.
+     */
+    LRU,
+    /**
+     * Evicts the system state whose node has been reused least frequently.
+     */
+    LFU,
+    /**
+     * Adaptive replacement: balances between system states of nodes that have not been reused yet and those of
+     * nodes that have been reused, depending on which kind of evictions caused subsequent misses.
+     */
+    ARC,
+    /**
+     * Evicts the system state with the least value, where the value of a system state is given by its saved prefix
+     * length times the observed reuse frequency of its node, divided by its retention cost.
+     */
+    COST
+}
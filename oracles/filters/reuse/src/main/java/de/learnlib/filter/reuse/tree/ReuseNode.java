@@ -27,6 +27,10 @@ import de.learnlib.filter.reuse.tree.BoundedDeque.EvictPolicy;
  * ReuseEdge}s. Each {@link ReuseNode} may contain a system state holding relevant informations (e.g. database
  * identifiers or an object) that belongs to the system state that 'represents' the system state after executing a
  * membership query.
+ * <p>
+ * All accessors of a node synchronize on the node itself, so that concurrent operations on different nodes of a {@link
+ * ReuseTree} do not block each other. Note that the returned {@link #systemStatesIterator() iterator} is not
+ * synchronized and requires external synchronization (on the node).
  *
  * @param <S>
  *         system state class
@@ -43,29 +47,40 @@ public class ReuseNode<S, I, O> {
     private final BoundedDeque<S> systemStates;
     // private S systemstate;
     private final int id;
+    private final int depth;
+
+    public ReuseNode(int id,
+                     int alphabetSize,
+                     int maxSystemStates,
+                     AccessPolicy accessPolicy,
+                     EvictPolicy evictPolicy) {
+        this(id, 0, alphabetSize, maxSystemStates, accessPolicy, evictPolicy);
+    }
 
     @SuppressWarnings("unchecked")
     public ReuseNode(int id,
+                     int depth,
                      int alphabetSize,
                      int maxSystemStates,
                      AccessPolicy accessPolicy,
                      EvictPolicy evictPolicy) {
         this.edges = new ReuseEdge[alphabetSize];
         this.id = id;
+        this.depth = depth;
         this.systemStates = new BoundedDeque<>(maxSystemStates, accessPolicy, evictPolicy);
     }
 
     /**
      * The system state, may be {@code null}.
      */
-    public S fetchSystemState(boolean remove) {
+    public synchronized S fetchSystemState(boolean remove) {
         if (remove) {
             return systemStates.retrieve();
         }
         return systemStates.peek();
     }
 
-    public S addSystemState(S state) {
+    public synchronized S addSystemState(S state) {
         return systemStates.insert(state);
     }
 
@@ -73,26 +88,40 @@ public class ReuseNode<S, I, O> {
         return systemStates.iterator();
     }
 
-    public boolean hasSystemStates() {
+    /**
+     * Removes the given system state from this node.
+     *
+     * @return {@code true} if the system state was contained in this node, {@code false} otherwise
+     */
+    public synchronized boolean removeSystemState(S state) {
+        return systemStates.remove(state);
+    }
+
+    public synchronized boolean hasSystemStates() {
         return !systemStates.isEmpty();
     }
 
-    public void clearSystemStates() {
+    public synchronized int getSystemStateCount() {
+        return systemStates.size();
+    }
+
+    public synchronized void clearSystemStates() {
         systemStates.clear();
     }
 
     /**
      * Returns all outgoing {@link ReuseEdge}s from this {@link ReuseNode}. If there are none the returned {@link
-     * java.util.Collection} will be empty (but never {@code null}).
+     * java.util.Collection} will be empty (but never {@code null}). The returned collection is a snapshot of the current
+     * edges.
      */
-    public Collection<ReuseEdge<S, I, O>> getEdges() {
-        return Arrays.asList(edges);
+    public synchronized Collection<ReuseEdge<S, I, O>> getEdges() {
+        return Arrays.asList(edges.clone());
     }
 
     /**
      * Adds an outgoing {@link ReuseEdge} to this {@link ReuseNode}.
      */
-    public void addEdge(int index, ReuseEdge<S, I, O> edge) {
+    public synchronized void addEdge(int index, ReuseEdge<S, I, O> edge) {
         this.edges[index] = edge;
     }
 
@@ -107,7 +136,7 @@ public class ReuseNode<S, I, O> {
     /**
      * May be {@code null}.
      */
-    public ReuseEdge<S, I, O> getEdgeWithInput(int index) {
+    public synchronized ReuseEdge<S, I, O> getEdgeWithInput(int index) {
         return this.edges[index];
     }
 
@@ -115,6 +144,14 @@ public class ReuseNode<S, I, O> {
         return this.id;
     }
 
+    /**
+     * Returns the length of the (shortest) prefix leading to this node, i.e. the number of symbols whose execution is
+     * saved by reusing a system state of this node.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
     public static final class NodeResult<S, I, O> {
 
         public final ReuseNode<S, I, O> reuseNode;
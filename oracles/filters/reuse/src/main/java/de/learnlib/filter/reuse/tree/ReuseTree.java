@@ -19,8 +19,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
 
 import de.learnlib.filter.reuse.ReuseCapableOracle;
 import de.learnlib.filter.reuse.ReuseException;
@@ -42,6 +46,17 @@ import net.automatalib.words.WordBuilder;
  * SUL and maintains also available system states. The {@link ReuseTree} is only 'tree like' since it may contain
  * reflexive edges at nodes (only possible if {@link ReuseTreeBuilder#withFailureOutputs(Set)} or {@link
  * ReuseTreeBuilder#withInvariantInputs(Set)} is set).
+ * <p>
+ * The {@link ReuseTree} may be accessed concurrently. Instead of locking the whole tree, each operation only locks the
+ * individual {@link ReuseNode}s it reads or modifies, so that threads fetching or inserting system states at different
+ * nodes do not block each other.
+ * <p>
+ * Besides the per-node limit of system states (see {@link ReuseTreeBuilder#withMaxSystemStates(int)}), a global budget
+ * of system states may be configured (see {@link ReuseTreeBuilder#withMaxTotalSystemStates(int)}). If the budget is
+ * exceeded, system states are evicted according to the configured {@link BudgetPolicy}. The numbers of reused system
+ * states (hits), of queries for which no system state was available (misses) and of evicted system states are
+ * available via {@link #getSystemStateHits()}, {@link #getSystemStateMisses()} and {@link
+ * #getSystemStateEvictions()}.
  *
  * @param <S>
  *         system state class
@@ -63,10 +78,15 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
     private final int maxSystemStates;
     private final AccessPolicy accessPolicy;
     private final EvictPolicy evictPolicy;
+    /** {@code null} if the number of system states is not bounded globally. */
+    private final SystemStateBudget<S, I, O> budget;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
     /** May be reset to zero, see {@link ReuseTree#clearTree()}. */
-    private int nodeCount;
+    private final AtomicInteger nodeCount = new AtomicInteger();
     /** May be reinitialized, see {@link ReuseTree#clearTree()}. */
-    private ReuseNode<S, I, O> root;
+    private volatile ReuseNode<S, I, O> root;
 
     ReuseTree(ReuseTreeBuilder<S, I, O> builder) {
         this.alphabet = builder.alphabet;
@@ -86,13 +106,26 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
         this.accessPolicy = builder.accessPolicy;
         this.evictPolicy = builder.evictPolicy;
 
+        if (builder.maxTotalSystemStates > 0) {
+            this.budget = new SystemStateBudget<>(builder.maxTotalSystemStates,
+                                                  builder.budgetPolicy,
+                                                  builder.retentionCost);
+        } else {
+            this.budget = null;
+        }
+
         // local and not configurable
         this.alphabetSize = alphabet.size();
-        this.root = createNode();
+        this.root = createNode(0);
     }
 
-    private ReuseNode<S, I, O> createNode() {
-        return new ReuseNode<>(nodeCount++, alphabetSize, maxSystemStates, accessPolicy, evictPolicy);
+    private ReuseNode<S, I, O> createNode(int depth) {
+        return new ReuseNode<>(nodeCount.getAndIncrement(),
+                               depth,
+                               alphabetSize,
+                               maxSystemStates,
+                               accessPolicy,
+                               evictPolicy);
     }
 
     /**
@@ -111,21 +144,44 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
 
         final WordBuilder<O> output = new WordBuilder<>();
 
-        synchronized (this) {
-            ReuseNode<S, I, O> sink = getRoot();
-            for (final I symbol : query) {
-                final ReuseEdge<S, I, O> edge = sink.getEdgeWithInput(alphabet.getSymbolIndex(symbol));
-                if (edge == null) {
-                    return null;
-                }
-                output.add(edge.getOutput());
-                sink = edge.getTarget();
+        ReuseNode<S, I, O> sink = getRoot();
+        for (final I symbol : query) {
+            final ReuseEdge<S, I, O> edge = sink.getEdgeWithInput(alphabet.getSymbolIndex(symbol));
+            if (edge == null) {
+                return null;
             }
+            output.add(edge.getOutput());
+            sink = edge.getTarget();
         }
 
         return output.toWord();
     }
 
+    /**
+     * Returns the node reached by the given query or {@code null} if the query is not (fully) contained in the tree.
+     *
+     * @param query
+     *         Not allowed to be {@code null}.
+     *
+     * @return The node reached by {@code query} or {@code null} if unknown.
+     */
+    public ReuseNode<S, I, O> getNode(final Word<I> query) {
+        if (query == null) {
+            String msg = "Query is not allowed to be null.";
+            throw new IllegalArgumentException(msg);
+        }
+
+        ReuseNode<S, I, O> sink = getRoot();
+        for (final I symbol : query) {
+            sink = sink.getTargetNodeForInput(alphabet.getSymbolIndex(symbol));
+            if (sink == null) {
+                return null;
+            }
+        }
+
+        return sink;
+    }
+
     /**
      * Returns the root {@link ReuseNode} of the {@link ReuseTree}.
      *
@@ -153,22 +209,20 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
 
         final WordBuilder<O> output = new WordBuilder<>();
 
-        synchronized (this) {
-            ReuseNode<S, I, O> sink = getRoot();
-            for (final I symbol : query) {
-                final ReuseEdge<S, I, O> edge = sink.getEdgeWithInput(alphabet.getSymbolIndex(symbol));
-                // add null-pointers if no more outputs are available
-                if (edge == null) {
-                    break;
-                }
-                // add output for "reflexive" edges
-                if (sink.equals(edge.getTarget())) {
-                    output.add(edge.getOutput());
-                } else { // for "non-reflexive" edges add a null-pointer.
-                    output.add(null);
-                }
-                sink = edge.getTarget();
+        ReuseNode<S, I, O> sink = getRoot();
+        for (final I symbol : query) {
+            final ReuseEdge<S, I, O> edge = sink.getEdgeWithInput(alphabet.getSymbolIndex(symbol));
+            // add null-pointers if no more outputs are available
+            if (edge == null) {
+                break;
+            }
+            // add output for "reflexive" edges
+            if (sink.equals(edge.getTarget())) {
+                output.add(edge.getOutput());
+            } else { // for "non-reflexive" edges add a null-pointer.
+                output.add(null);
             }
+            sink = edge.getTarget();
         }
 
         // fill the output with null-pointers to the size of the query.
@@ -183,18 +237,21 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
      * The {@link SystemStateHandler} will be informed about all disposings.
      */
     public void disposeSystemstates() {
-        synchronized (this) {
-            disposeSystemstates(getRoot());
+        disposeSystemstates(getRoot());
+        if (budget != null) {
+            budget.clear();
         }
     }
 
     private void disposeSystemstates(ReuseNode<S, I, O> node) {
-        Iterator<S> stateIt = node.systemStatesIterator();
-        while (stateIt.hasNext()) {
-            S state = stateIt.next();
-            systemStateHandler.dispose(state);
+        synchronized (node) {
+            Iterator<S> stateIt = node.systemStatesIterator();
+            while (stateIt.hasNext()) {
+                S state = stateIt.next();
+                systemStateHandler.dispose(state);
+            }
+            node.clearSystemStates();
         }
-        node.clearSystemStates();
 
         for (ReuseEdge<S, I, O> edge : node.getEdges()) {
             if (edge != null) {
@@ -213,10 +270,12 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
      * The {@link SystemStateHandler} will <b>not</b> be informed about any disposings.
      */
     public void clearTree() {
-        synchronized (this) {
-            this.nodeCount = 0;
-            disposeSystemstates(root);
-            this.root = createNode();
+        final ReuseNode<S, I, O> oldRoot = root;
+        this.nodeCount.set(0);
+        this.root = createNode(0);
+        disposeSystemstates(oldRoot);
+        if (budget != null) {
+            budget.clear();
         }
     }
 
@@ -234,39 +293,93 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
             throw new IllegalArgumentException(msg);
         }
 
+        // the nodes along the longest known prefix of the query, indexed by their prefix length
+        @SuppressWarnings("unchecked")
+        final ReuseNode<S, I, O>[] path = new ReuseNode[query.size() + 1];
+
+        ReuseNode<S, I, O> sink = getRoot();
         int length = 0;
+        path[0] = sink;
 
-        synchronized (this) {
-            ReuseNode<S, I, O> sink = getRoot();
-            ReuseNode<S, I, O> lastState = null;
-            if (sink.hasSystemStates()) {
-                lastState = sink;
+        while (length < query.size()) {
+            sink = sink.getTargetNodeForInput(alphabet.getSymbolIndex(query.getSymbol(length)));
+
+            if (sink == null) {
+                // we have reached longest known prefix
+                break;
             }
 
-            ReuseNode<S, I, O> node;
-            for (int i = 0; i < query.size(); i++) {
-                node = sink.getTargetNodeForInput(alphabet.getSymbolIndex(query.getSymbol(i)));
+            path[++length] = sink;
+        }
+
+        // other threads may concurrently fetch system states, hence fall back to shorter prefixes if necessary
+        for (int i = length; i >= 0; i--) {
+            final ReuseNode<S, I, O> node = path[i];
+            final S systemState;
 
-                if (node == null) {
-                    // we have reached longest known prefix
-                    break;
+            // record the hit under the lock of the node, so that it cannot overtake the registration of the state
+            synchronized (node) {
+                systemState = node.fetchSystemState(invalidateSystemstates);
+                if (systemState != null && budget != null) {
+                    budget.recordHit(node, systemState, invalidateSystemstates);
                 }
+            }
 
-                sink = node;
-                if (sink.hasSystemStates()) {
-                    lastState = sink;
-                    length = i + 1;
+            if (systemState != null) {
+                hits.incrementAndGet();
+                if (budget != null && i < length) {
+                    budget.recordMiss(path[length]);
                 }
+                return new ReuseNode.NodeResult<>(node, systemState, i);
             }
+        }
 
-            if (lastState == null) {
-                return null;
+        misses.incrementAndGet();
+        if (budget != null) {
+            budget.recordMiss(path[length]);
+        }
+
+        return null;
+    }
+
+    /**
+     * Adds a copy (see {@link SystemStateHandler#copy(Object)}) of one of the system states of the given node to the
+     * node. This allows multiple queries that share the prefix of the node to continue from the same system state, even
+     * if system states are invalidated upon reuse.
+     *
+     * @param node
+     *         the node whose system state should be duplicated
+     *
+     * @return {@code true} if a copy has been added, {@code false} if the node contains no system state or the {@link
+     * SystemStateHandler} does not support copying system states
+     */
+    public boolean duplicateSystemState(ReuseNode<S, I, O> node) {
+        final S copy;
+
+        synchronized (node) {
+            final S systemState = node.fetchSystemState(false);
+            if (systemState == null) {
+                return false;
             }
 
-            S systemState = lastState.fetchSystemState(invalidateSystemstates);
+            copy = systemStateHandler.copy(systemState);
+        }
 
-            return new ReuseNode.NodeResult<>(lastState, systemState, length);
+        if (copy == null) {
+            return false;
         }
+
+        addSystemState(node, copy);
+        return true;
+    }
+
+    /**
+     * Returns whether system states are removed from the tree upon reuse.
+     *
+     * @return {@code true} if system states are removed upon reuse, {@code false} otherwise
+     */
+    public boolean isSystemstateInvalidationEnabled() {
+        return invalidateSystemstates;
     }
 
     /**
@@ -285,9 +398,7 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
      *         if non deterministic behavior is detected
      */
     public void insert(Word<I> query, ReuseCapableOracle.QueryResult<S, O> queryResult) {
-        synchronized (this) {
-            insert(query, getRoot(), queryResult);
-        }
+        insert(query, getRoot(), queryResult);
     }
 
     /**
@@ -322,45 +433,107 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
 
         ReuseNode<S, I, O> effectiveSink = sink;
 
-        synchronized (this) {
-            for (int i = 0; i < query.size(); i++) {
-                I in = query.getSymbol(i);
-                O out = queryResult.output.getSymbol(i);
+        for (int i = 0; i < query.size(); i++) {
+            I in = query.getSymbol(i);
+            O out = queryResult.output.getSymbol(i);
+            int index = alphabet.getSymbolIndex(in);
 
-                ReuseEdge<S, I, O> edge = effectiveSink.getEdgeWithInput(alphabet.getSymbolIndex(in));
-                if (edge != null) {
-                    if (Objects.equals(edge.getOutput(), out)) {
-                        effectiveSink = edge.getTarget();
-                        continue;
+            ReuseEdge<S, I, O> edge;
+
+            // lookup and creation of the edge need to be atomic w.r.t. the current node
+            synchronized (effectiveSink) {
+                edge = effectiveSink.getEdgeWithInput(index);
+
+                if (edge == null) {
+                    ReuseNode<S, I, O> rn;
+
+                    if (failureOutputSymbols.contains(out)) {
+                        rn = effectiveSink;
+                    } else if (invariantInputSymbols.contains(in)) {
+                        rn = effectiveSink;
+                    } else {
+                        rn = createNode(effectiveSink.getDepth() + 1);
                     }
 
-                    throw new ReuseException(
-                            "Conflict: input '" + query + "', output '" + queryResult.output + "', i=" + i +
-                            ", cached output '" + edge.getOutput() + "'");
+                    edge = new ReuseEdge<>(effectiveSink, rn, in, out);
+                    effectiveSink.addEdge(index, edge);
                 }
+            }
 
-                ReuseNode<S, I, O> rn;
+            if (!Objects.equals(edge.getOutput(), out)) {
+                throw new ReuseException(
+                        "Conflict: input '" + query + "', output '" + queryResult.output + "', i=" + i +
+                        ", cached output '" + edge.getOutput() + "'");
+            }
 
-                if (failureOutputSymbols.contains(out)) {
-                    rn = effectiveSink;
-                } else if (invariantInputSymbols.contains(in)) {
-                    rn = effectiveSink;
-                } else {
-                    rn = createNode();
-                }
+            effectiveSink = edge.getTarget();
+        }
+
+        addSystemState(effectiveSink, queryResult.newState);
+    }
+
+    /**
+     * Adds the given system state to the given node and disposes all system states that are evicted due to the per-node
+     * limit or the global budget of system states.
+     */
+    private void addSystemState(ReuseNode<S, I, O> node, S state) {
+        final S evictedState;
+        List<SystemStateBudget.Entry<S, I, O>> victims = Collections.emptyList();
 
-                int index = alphabet.getSymbolIndex(in);
-                effectiveSink.addEdge(index, new ReuseEdge<>(effectiveSink, rn, in, out));
-                effectiveSink = rn;
+        // (un-)register the system states under the lock of the node, so that they cannot be fetched in between
+        synchronized (node) {
+            evictedState = node.addSystemState(state);
+
+            if (budget != null && evictedState != state) {
+                if (evictedState != null) {
+                    budget.unregister(node, evictedState);
+                }
+                victims = budget.register(node, state);
             }
+        }
 
-            S evictedState = effectiveSink.addSystemState(queryResult.newState);
-            if (evictedState != null) {
-                systemStateHandler.dispose(evictedState);
+        if (evictedState != null) {
+            evictions.incrementAndGet();
+            systemStateHandler.dispose(evictedState);
+        }
+
+        for (SystemStateBudget.Entry<S, I, O> victim : victims) {
+            // the system state may have been fetched concurrently, in which case it must not be disposed
+            if (victim.node.removeSystemState(victim.state)) {
+                evictions.incrementAndGet();
+                systemStateHandler.dispose(victim.state);
             }
         }
     }
 
+    /**
+     * Returns the number of system states that have been reused.
+     *
+     * @return the number of reused system states
+     */
+    public long getSystemStateHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of queries for which no system state was available.
+     *
+     * @return the number of queries without an available system state
+     */
+    public long getSystemStateMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of system states that have been evicted due to the per-node limit or the global budget of
+     * system states.
+     *
+     * @return the number of evicted system states
+     */
+    public long getSystemStateEvictions() {
+        return evictions.get();
+    }
+
     @Override
     public Collection<ReuseNode<S, I, O>> getNodes() {
         Collection<ReuseNode<S, I, O>> collection = new ArrayList<>();
@@ -412,6 +585,9 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
         private int maxSystemStates = -1;
         private AccessPolicy accessPolicy = AccessPolicy.LIFO;
         private EvictPolicy evictPolicy = EvictPolicy.EVICT_OLDEST;
+        private int maxTotalSystemStates = -1;
+        private BudgetPolicy budgetPolicy = BudgetPolicy.COST;
+        private ToDoubleFunction<? super S> retentionCost = state -> 1;
 
         public ReuseTreeBuilder(Alphabet<I> alphabet) {
             this.alphabet = alphabet;
@@ -455,6 +631,28 @@ public final class ReuseTree<S, I, O> implements Graph<ReuseNode<S, I, O>, Reuse
             return this;
         }
 
+        /**
+         * Sets the global budget of system states stored in the tree. A value less than or equal to 0 means unbounded.
+         */
+        public ReuseTreeBuilder<S, I, O> withMaxTotalSystemStates(int maxTotalSystemStates) {
+            this.maxTotalSystemStates = maxTotalSystemStates;
+            return this;
+        }
+
+        public ReuseTreeBuilder<S, I, O> withBudgetPolicy(BudgetPolicy budgetPolicy) {
+            this.budgetPolicy = budgetPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the function computing the (positive) cost of retaining a system state, used by {@link
+         * BudgetPolicy#COST}. By default, all system states have a cost of 1.
+         */
+        public ReuseTreeBuilder<S, I, O> withRetentionCost(ToDoubleFunction<? super S> retentionCost) {
+            this.retentionCost = retentionCost;
+            return this;
+        }
+
         public ReuseTree<S, I, O> build() {
             return new ReuseTree<>(this);
         }
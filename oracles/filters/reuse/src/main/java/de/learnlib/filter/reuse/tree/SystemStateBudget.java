@@ -0,0 +1,296 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.tree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A global budget for the system states stored in a {@link ReuseTree}. Whenever the number of stored system states
+ * exceeds the budget, a victim is selected according to the configured {@link BudgetPolicy}. Except for {@link
+ * BudgetPolicy#COST}, which compares the value of the new system state with the stored ones, the newly added system
+ * state is never selected as a victim, since it has not had a chance to be reused yet.
+ * <p>
+ * The budget is meant for heavyweight system states (e.g. snapshots of virtual machines), of which only a moderate
+ * number can be kept. Hence, victims are selected by a linear scan over the stored system states rather than by
+ * maintaining additional index structures. The reuse statistics of a node outlive its system states, so that a node
+ * whose system state has been consumed by a reuse keeps its reuse frequency once a new system state is stored. The
+ * statistics of nodes without system states are pruned in least-recently-used order once their number exceeds twice
+ * the budget, and discarded completely if the tree is cleared. All methods synchronize on the budget, but never call back into the tree, so that no locks
+ * of {@link ReuseNode}s are acquired while holding the lock of the budget. Conversely, the tree (un-)registers system
+ * states while holding the lock of the respective node, so that the budget is consistent with the contents of the
+ * nodes.
+ *
+ * @param <S>
+ *         system state class
+ * @param <I>
+ *         input symbol class
+ * @param <O>
+ *         output symbol class
+ *
+ * @author frohme
+ */
+final class SystemStateBudget<S, I, O> {
+
+    private final int capacity;
+    private final int statisticsCapacity;
+    private final BudgetPolicy policy;
+    private final ToDoubleFunction<? super S> retentionCost;
+
+    private final List<Entry<S, I, O>> entries;
+    private final Map<ReuseNode<S, I, O>, NodeStatistics> statistics;
+
+    // ghost lists and adaptive target size of the recency partition, used by BudgetPolicy.ARC
+    private final Set<ReuseNode<S, I, O>> recentGhosts;
+    private final Set<ReuseNode<S, I, O>> frequentGhosts;
+    private int recencyTarget;
+
+    private long clock;
+
+    SystemStateBudget(int capacity, BudgetPolicy policy, ToDoubleFunction<? super S> retentionCost) {
+        this.capacity = capacity;
+        this.statisticsCapacity = capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : 2 * capacity;
+        this.policy = policy;
+        this.retentionCost = retentionCost;
+        this.entries = new ArrayList<>(capacity + 1);
+        this.statistics = new LinkedHashMap<>();
+        this.recentGhosts = new LinkedHashSet<>();
+        this.frequentGhosts = new LinkedHashSet<>();
+    }
+
+    /**
+     * Registers a system state that has been added to the given node.
+     *
+     * @return the entries that have been evicted from the budget and need to be removed from their nodes
+     */
+    synchronized List<Entry<S, I, O>> register(ReuseNode<S, I, O> node, S state) {
+        final List<Entry<S, I, O>> victims = new ArrayList<>();
+
+        if (policy != BudgetPolicy.COST) {
+            evict(capacity - 1, victims);
+        }
+
+        touch(node).registered++;
+        entries.add(new Entry<>(node, state, ++clock));
+        evict(capacity, victims);
+        pruneStatistics();
+
+        return victims;
+    }
+
+    private void evict(int size, List<Entry<S, I, O>> victims) {
+        while (!entries.isEmpty() && entries.size() > size) {
+            final Entry<S, I, O> victim = selectVictim();
+            entries.remove(victim);
+            release(victim.node);
+            victims.add(victim);
+        }
+    }
+
+    /**
+     * Unregisters a system state that has been removed from the given node (by other means than the budget).
+     */
+    synchronized void unregister(ReuseNode<S, I, O> node, S state) {
+        final Iterator<Entry<S, I, O>> iter = entries.iterator();
+        while (iter.hasNext()) {
+            final Entry<S, I, O> e = iter.next();
+            if (e.node == node && e.state == state) {
+                iter.remove();
+                release(node);
+                return;
+            }
+        }
+    }
+
+    private void release(ReuseNode<S, I, O> node) {
+        final NodeStatistics stats = statistics.get(node);
+        if (stats != null) {
+            stats.registered--;
+        }
+    }
+
+    /**
+     * Returns the statistics of the given node and moves them to the end of the (least-recently-used) pruning order.
+     */
+    private NodeStatistics touch(ReuseNode<S, I, O> node) {
+        NodeStatistics stats = statistics.remove(node);
+        if (stats == null) {
+            stats = new NodeStatistics();
+        }
+        statistics.put(node, stats);
+        return stats;
+    }
+
+    private void pruneStatistics() {
+        final Iterator<NodeStatistics> iter = statistics.values().iterator();
+        while (statistics.size() > statisticsCapacity && iter.hasNext()) {
+            if (iter.next().registered == 0) {
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Records the reuse of a system state of the given node.
+     */
+    synchronized void recordHit(ReuseNode<S, I, O> node, S state, boolean removed) {
+        final NodeStatistics stats = touch(node);
+        stats.hits++;
+        stats.lastAccess = ++clock;
+
+        if (removed) {
+            unregister(node, state);
+        }
+    }
+
+    /**
+     * Records that the given node did not provide a system state although it would have been the best candidate for
+     * reuse.
+     */
+    synchronized void recordMiss(ReuseNode<S, I, O> node) {
+        if (policy != BudgetPolicy.ARC) {
+            return;
+        }
+
+        // adapt the target size of the recency partition, see Megiddo & Modha, "ARC: A Self-Tuning, Low Overhead
+        // Replacement Cache"
+        if (recentGhosts.contains(node)) {
+            final int delta = Math.max(1, frequentGhosts.size() / recentGhosts.size());
+            recencyTarget = Math.min(capacity, recencyTarget + delta);
+            recentGhosts.remove(node);
+        } else if (frequentGhosts.contains(node)) {
+            final int delta = Math.max(1, recentGhosts.size() / frequentGhosts.size());
+            recencyTarget = Math.max(0, recencyTarget - delta);
+            frequentGhosts.remove(node);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        statistics.clear();
+        recentGhosts.clear();
+        frequentGhosts.clear();
+        recencyTarget = 0;
+    }
+
+    private Entry<S, I, O> selectVictim() {
+        switch (policy) {
+            case LRU:
+                return selectMinimum(entries, (e1, e2) -> Long.compare(lastAccess(e1), lastAccess(e2)));
+            case LFU:
+                return selectMinimum(entries, (e1, e2) -> {
+                    final int cmp = Long.compare(hits(e1), hits(e2));
+                    return cmp != 0 ? cmp : Long.compare(lastAccess(e1), lastAccess(e2));
+                });
+            case COST:
+                return selectMinimum(entries, (e1, e2) -> {
+                    final int cmp = Double.compare(value(e1), value(e2));
+                    return cmp != 0 ? cmp : Long.compare(lastAccess(e1), lastAccess(e2));
+                });
+            case ARC:
+                return selectAdaptiveVictim();
+            default:
+                throw new IllegalStateException("Unknown policy: " + policy);
+        }
+    }
+
+    private Entry<S, I, O> selectAdaptiveVictim() {
+        final List<Entry<S, I, O>> recent = new ArrayList<>();
+        final List<Entry<S, I, O>> frequent = new ArrayList<>();
+
+        for (Entry<S, I, O> e : entries) {
+            if (hits(e) == 0) {
+                recent.add(e);
+            } else {
+                frequent.add(e);
+            }
+        }
+
+        final boolean evictRecent = !recent.isEmpty() && (recent.size() > recencyTarget || frequent.isEmpty());
+        final List<Entry<S, I, O>> candidates = evictRecent ? recent : frequent;
+        final Set<ReuseNode<S, I, O>> ghosts = evictRecent ? recentGhosts : frequentGhosts;
+
+        final Entry<S, I, O> victim =
+                selectMinimum(candidates, (e1, e2) -> Long.compare(lastAccess(e1), lastAccess(e2)));
+
+        ghosts.add(victim.node);
+        if (ghosts.size() > capacity) {
+            final Iterator<ReuseNode<S, I, O>> iter = ghosts.iterator();
+            iter.next();
+            iter.remove();
+        }
+
+        return victim;
+    }
+
+    private static <E> E selectMinimum(List<E> candidates, Comparator<? super E> comparator) {
+        E result = candidates.get(0);
+        for (int i = 1; i < candidates.size(); i++) {
+            final E candidate = candidates.get(i);
+            if (comparator.compare(candidate, result) < 0) {
+                result = candidate;
+            }
+        }
+        return result;
+    }
+
+    private long hits(Entry<S, I, O> entry) {
+        final NodeStatistics stats = statistics.get(entry.node);
+        return stats == null ? 0 : stats.hits;
+    }
+
+    private long lastAccess(Entry<S, I, O> entry) {
+        final NodeStatistics stats = statistics.get(entry.node);
+        return stats == null ? entry.insertion : Math.max(entry.insertion, stats.lastAccess);
+    }
+
+    private double value(Entry<S, I, O> entry) {
+        // a reused system state saves the execution of its prefix as well as a reset
+        final double saved = (entry.node.getDepth() + 1) * (hits(entry) + 1);
+        return saved / Math.max(retentionCost.applyAsDouble(entry.state), Double.MIN_NORMAL);
+    }
+
+    static final class Entry<S, I, O> {
+
+        final ReuseNode<S, I, O> node;
+        final S state;
+        final long insertion;
+
+        Entry(ReuseNode<S, I, O> node, S state, long insertion) {
+            this.node = node;
+            this.state = state;
+            this.insertion = insertion;
+        }
+    }
+
+    private static final class NodeStatistics {
+
+        private int registered;
+        private long hits;
+        private long lastAccess;
+    }
+}
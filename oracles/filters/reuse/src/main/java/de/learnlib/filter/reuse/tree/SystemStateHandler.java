@@ -40,4 +40,20 @@ public interface SystemStateHandler<S> {
      *         The state to remove.
      */
     void dispose(S state);
+
+    /**
+     * Creates an independent copy of the given system state, so that the original state and its copy can be continued
+     * independently. This allows the {@link de.learnlib.filter.reuse.ReuseOracle} to execute a prefix shared by
+     * several queries only once, even if system states are invalidated upon reuse.
+     * <p>
+     * The default implementation does not support copying and returns {@code null}.
+     *
+     * @param state
+     *         The state to copy.
+     *
+     * @return a copy of the given state, or {@code null} if the state cannot be copied
+     */
+    default S copy(S state) {
+        return null;
+    }
 }
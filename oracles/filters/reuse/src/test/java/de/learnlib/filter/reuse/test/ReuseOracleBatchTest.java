@@ -0,0 +1,207 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.filter.reuse.ReuseCapableOracle;
+import de.learnlib.filter.reuse.ReuseOracle;
+import de.learnlib.filter.reuse.ReuseOracle.ReuseOracleBuilder;
+import de.learnlib.filter.reuse.tree.SystemStateHandler;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the batch processing of the reuse oracle.
+ *
+ * @author frohme
+ */
+public class ReuseOracleBatchTest {
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 3);
+
+    @Test
+    public void testSharedPrefixWithCopies() {
+        final CountingOracle oracle = new CountingOracle();
+        final ReuseOracle<Integer, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(ALPHABET, () -> oracle).withSystemStateHandler(new CopyHandler()).build();
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries = createQueries();
+        reuseOracle.processQueries(queries);
+
+        verifyAnswers(queries);
+
+        // the shared prefix (1, 1, 1) is executed only once
+        Assert.assertEquals(oracle.resets.get(), 1);
+        Assert.assertEquals(oracle.symbols.get(), 6);
+    }
+
+    @Test
+    public void testSharedPrefixWithoutInvalidation() {
+        final CountingOracle oracle = new CountingOracle();
+        final ReuseOracle<Integer, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(ALPHABET, () -> oracle).withEnabledSystemstateInvalidation(false).build();
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries = createQueries();
+        reuseOracle.processQueries(queries);
+
+        verifyAnswers(queries);
+
+        Assert.assertEquals(oracle.resets.get(), 1);
+        Assert.assertEquals(oracle.symbols.get(), 6);
+    }
+
+    @Test
+    public void testSharedPrefixWithoutCopies() {
+        final CountingOracle oracle = new CountingOracle();
+        final ReuseOracle<Integer, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(ALPHABET, () -> oracle).build();
+
+        final List<DefaultQuery<Integer, Word<Integer>>> queries = createQueries();
+        reuseOracle.processQueries(queries);
+
+        verifyAnswers(queries);
+
+        // without copies, each query requires its own execution of the prefix
+        Assert.assertEquals(oracle.resets.get(), 3);
+        Assert.assertEquals(oracle.symbols.get(), 12);
+    }
+
+    @Test
+    public void testCachedBatch() {
+        final CountingOracle oracle = new CountingOracle();
+        final ReuseOracle<Integer, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(ALPHABET, () -> oracle).withSystemStateHandler(new CopyHandler()).build();
+
+        reuseOracle.processQueries(createQueries());
+
+        oracle.resets.set(0);
+        oracle.symbols.set(0);
+
+        // a batch that is answered entirely from the tree must not execute any (shared) prefix
+        final List<DefaultQuery<Integer, Word<Integer>>> queries = createQueries();
+        reuseOracle.processQueries(queries);
+
+        verifyAnswers(queries);
+
+        Assert.assertEquals(oracle.resets.get(), 0);
+        Assert.assertEquals(oracle.symbols.get(), 0);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException, ExecutionException {
+        final int numThreads = 4;
+        final ReuseOracle<Integer, Integer, Integer> reuseOracle =
+                new ReuseOracleBuilder<>(ALPHABET, CountingOracle::new).withSystemStateHandler(new CopyHandler())
+                                                                       .build();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        try {
+            final List<Future<List<DefaultQuery<Integer, Word<Integer>>>>> futures = new ArrayList<>(numThreads);
+
+            for (int t = 0; t < numThreads; t++) {
+                futures.add(executor.submit(() -> {
+                    final List<DefaultQuery<Integer, Word<Integer>>> queries = new ArrayList<>();
+                    for (int a : ALPHABET) {
+                        for (int b : ALPHABET) {
+                            for (int c : ALPHABET) {
+                                queries.add(new DefaultQuery<>(Word.fromSymbols(a, b), Word.fromSymbols(c, a)));
+                            }
+                        }
+                    }
+                    reuseOracle.processQueries(queries);
+                    return queries;
+                }));
+            }
+
+            for (Future<List<DefaultQuery<Integer, Word<Integer>>>> f : futures) {
+                verifyAnswers(f.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<DefaultQuery<Integer, Word<Integer>>> createQueries() {
+        return Arrays.asList(new DefaultQuery<>(Word.fromSymbols(1, 1, 1), Word.fromLetter(3)),
+                             new DefaultQuery<>(Word.fromSymbols(1, 1, 1), Word.fromLetter(2)),
+                             new DefaultQuery<>(Word.fromSymbols(1, 1), Word.fromSymbols(1, 0)));
+    }
+
+    private static void verifyAnswers(List<DefaultQuery<Integer, Word<Integer>>> queries) {
+        for (DefaultQuery<Integer, Word<Integer>> q : queries) {
+            final Word<Integer> expected = CountingOracle.simulate(0, q.getInput()).output;
+            Assert.assertEquals(q.getOutput(), expected.suffix(q.getSuffix().length()));
+        }
+    }
+
+    /**
+     * A system that outputs the sum of all inputs so far. Since system states are plain integers, they can be copied
+     * trivially.
+     */
+    private static class CountingOracle implements ReuseCapableOracle<Integer, Integer, Integer> {
+
+        private final AtomicInteger resets = new AtomicInteger();
+        private final AtomicInteger symbols = new AtomicInteger();
+
+        @Override
+        public QueryResult<Integer, Integer> continueQuery(Word<Integer> trace, Integer s) {
+            symbols.addAndGet(trace.length());
+            return simulate(s, trace);
+        }
+
+        @Override
+        public QueryResult<Integer, Integer> processQuery(Word<Integer> trace) {
+            resets.incrementAndGet();
+            symbols.addAndGet(trace.length());
+            return simulate(0, trace);
+        }
+
+        static QueryResult<Integer, Integer> simulate(int state, Word<Integer> trace) {
+            final WordBuilder<Integer> wb = new WordBuilder<>(trace.length());
+            int sum = state;
+            for (Integer i : trace) {
+                sum += i;
+                wb.add(sum);
+            }
+            return new QueryResult<>(wb.toWord(), sum);
+        }
+    }
+
+    private static class CopyHandler implements SystemStateHandler<Integer> {
+
+        @Override
+        public void dispose(Integer state) {}
+
+        @Override
+        public Integer copy(Integer state) {
+            return state;
+        }
+    }
+}
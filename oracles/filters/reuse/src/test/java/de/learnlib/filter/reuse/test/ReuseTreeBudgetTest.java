@@ -0,0 +1,186 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.reuse.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.learnlib.filter.reuse.ReuseCapableOracle.QueryResult;
+import de.learnlib.filter.reuse.tree.BudgetPolicy;
+import de.learnlib.filter.reuse.tree.ReuseNode.NodeResult;
+import de.learnlib.filter.reuse.tree.ReuseTree;
+import de.learnlib.filter.reuse.tree.ReuseTree.ReuseTreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the global budget of system states of the reuse tree.
+ *
+ * @author frohme
+ */
+public class ReuseTreeBudgetTest {
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 3);
+
+    private final List<Integer> disposed = new ArrayList<>();
+
+    @BeforeMethod
+    public void setUp() {
+        disposed.clear();
+    }
+
+    @Test
+    public void testLRU() {
+        final ReuseTree<Integer, Integer, String> tree = createTree(BudgetPolicy.LRU, 2, false);
+
+        insert(tree, Word.fromSymbols(0), 0);
+        insert(tree, Word.fromSymbols(1), 1);
+
+        // reuse the state of (0), so (1) becomes the least recently used one
+        Assert.assertNotNull(tree.fetchSystemState(Word.fromSymbols(0, 0)));
+
+        insert(tree, Word.fromSymbols(2), 2);
+
+        Assert.assertEquals(disposed, Collections.singletonList(1));
+        Assert.assertEquals(tree.getSystemStateEvictions(), 1);
+        Assert.assertEquals(tree.getSystemStateHits(), 1);
+
+        Assert.assertNull(tree.fetchSystemState(Word.fromSymbols(1)));
+        Assert.assertEquals(tree.getSystemStateMisses(), 1);
+    }
+
+    @Test
+    public void testLFU() {
+        final ReuseTree<Integer, Integer, String> tree = createTree(BudgetPolicy.LFU, 2, false);
+
+        insert(tree, Word.fromSymbols(0), 0);
+        insert(tree, Word.fromSymbols(1), 1);
+
+        Assert.assertNotNull(tree.fetchSystemState(Word.fromSymbols(0, 0)));
+        Assert.assertNotNull(tree.fetchSystemState(Word.fromSymbols(0, 1)));
+        Assert.assertNotNull(tree.fetchSystemState(Word.fromSymbols(1, 1)));
+
+        // although more recently used, (1) has been reused less frequently
+        insert(tree, Word.fromSymbols(2), 2);
+
+        Assert.assertEquals(disposed, Collections.singletonList(1));
+    }
+
+    @Test
+    public void testStatisticsOfConsumedStates() {
+        final ReuseTree<Integer, Integer, String> tree = createTree(BudgetPolicy.LFU, 2, true);
+
+        // each reuse consumes the state of (0), but its hits survive the re-insertion of a new state
+        insert(tree, Word.fromSymbols(0), 0);
+        Assert.assertNotNull(tree.fetchSystemState(Word.fromSymbols(0, 0)));
+        insert(tree, Word.fromSymbols(0), 1);
+        Assert.assertNotNull(tree.fetchSystemState(Word.fromSymbols(0, 1)));
+        insert(tree, Word.fromSymbols(0), 2);
+
+        insert(tree, Word.fromSymbols(1), 3);
+        insert(tree, Word.fromSymbols(2), 4);
+
+        // (1) has never been reused, although the state of (0) has been stored earlier
+        Assert.assertEquals(disposed, Collections.singletonList(3));
+    }
+
+    @Test
+    public void testCost() {
+        final ReuseTree<Integer, Integer, String> tree = createTree(BudgetPolicy.COST, 1, true);
+
+        insert(tree, Word.fromSymbols(0, 0, 0), 3);
+        insert(tree, Word.fromSymbols(1), 1);
+
+        // the shallow state saves less than the deep one
+        Assert.assertEquals(disposed, Collections.singletonList(1));
+
+        final NodeResult<Integer, Integer, String> result = tree.fetchSystemState(Word.fromSymbols(0, 0, 0, 1));
+        Assert.assertNotNull(result);
+        Assert.assertEquals(result.systemState.intValue(), 3);
+        Assert.assertEquals(result.prefixLength, 3);
+
+        // retention costs are respected
+        final ReuseTree<Integer, Integer, String> costTree =
+                new ReuseTreeBuilder<Integer, Integer, String>(ALPHABET).withSystemStateHandler(disposed::add)
+                                                                        .withMaxTotalSystemStates(1)
+                                                                        .withBudgetPolicy(BudgetPolicy.COST)
+                                                                        .withRetentionCost(state -> state * state)
+                                                                        .build();
+
+        disposed.clear();
+        insert(costTree, Word.fromSymbols(0, 0, 0), 3);
+        insert(costTree, Word.fromSymbols(1), 1);
+
+        Assert.assertEquals(disposed, Collections.singletonList(3));
+    }
+
+    @Test
+    public void testARC() {
+        final int budget = 4;
+        final ReuseTree<Integer, Integer, String> tree = createTree(BudgetPolicy.ARC, budget, true);
+
+        for (int i = 0; i < 3 * budget; i++) {
+            final Word<Integer> query = Word.fromSymbols(i % ALPHABET.size(), i / ALPHABET.size());
+            tree.fetchSystemState(query);
+            insert(tree, query, i);
+        }
+
+        Assert.assertEquals(tree.getSystemStateEvictions(), 2 * budget);
+        Assert.assertEquals(disposed.size(), 2 * budget);
+
+        int remaining = 0;
+        for (int i = 0; i < 3 * budget; i++) {
+            if (tree.fetchSystemState(Word.fromSymbols(i % ALPHABET.size(), i / ALPHABET.size())) != null) {
+                remaining++;
+            }
+        }
+        Assert.assertEquals(remaining, budget);
+    }
+
+    @Test
+    public void testUnbounded() {
+        final ReuseTree<Integer, Integer, String> tree =
+                new ReuseTreeBuilder<Integer, Integer, String>(ALPHABET).withSystemStateHandler(disposed::add).build();
+
+        for (int i = 0; i < ALPHABET.size(); i++) {
+            insert(tree, Word.fromSymbols(i), i);
+        }
+
+        Assert.assertEquals(tree.getSystemStateEvictions(), 0);
+        Assert.assertTrue(disposed.isEmpty());
+    }
+
+    private ReuseTree<Integer, Integer, String> createTree(BudgetPolicy policy, int budget, boolean invalidate) {
+        return new ReuseTreeBuilder<Integer, Integer, String>(ALPHABET).withSystemStateHandler(disposed::add)
+                                                                       .withEnabledSystemstateInvalidation(invalidate)
+                                                                       .withMaxTotalSystemStates(budget)
+                                                                       .withBudgetPolicy(policy)
+                                                                       .build();
+    }
+
+    private static void insert(ReuseTree<Integer, Integer, String> tree, Word<Integer> query, int state) {
+        final List<String> outputs = new ArrayList<>(query.length());
+        for (int i = 0; i < query.length(); i++) {
+            outputs.add("ok");
+        }
+        tree.insert(query, new QueryResult<>(Word.fromList(outputs), state));
+    }
+}
@@ -0,0 +1,263 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.statistic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A thread-safe histogram of non-negative {@code long} values (e.g. latencies in nanoseconds) with a fixed memory
+ * footprint.
+ * <p>
+ * Values are recorded into logarithmic buckets: values below {@code 2^PRECISION_BITS} are counted exactly, larger
+ * values are counted in buckets whose width is at most {@code 1/2^(PRECISION_BITS - 1)} of the recorded value.
+ * Recording a value does not allocate and does not lock: each thread records into one of several stripes of atomic
+ * counters (chosen by its thread id), which are only combined upon querying. Hence, percentiles reported by this
+ * histogram are the highest value of the bucket containing the requested rank rather than an exact value.
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class ConcurrentHistogram extends AbstractStatisticData {
+
+    private static final int PRECISION_BITS = 6;
+    private static final int HALF_BUCKET_COUNT = 1 << (PRECISION_BITS - 1);
+    private static final int NUM_BUCKETS = (Long.SIZE - PRECISION_BITS + 2) * HALF_BUCKET_COUNT;
+
+    // the count and sum of a stripe are stored behind its buckets
+    private static final int COUNT_IDX = NUM_BUCKETS;
+    private static final int SUM_IDX = NUM_BUCKETS + 1;
+    private static final int STRIPE_LENGTH = NUM_BUCKETS + 2;
+
+    private static final int MAX_STRIPES = 16;
+    private static final double MEDIAN = 50;
+    private static final double P99 = 99;
+    private static final double PERCENT = 100;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public ConcurrentHistogram(String name, String unit) {
+        this(name, unit, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *         the name of the collected data
+     * @param unit
+     *         the unit of the recorded values
+     * @param concurrency
+     *         the expected number of concurrently recording threads. The number of stripes is the smallest power of two
+     *         greater than or equal to this value, but at most {@value #MAX_STRIPES}
+     */
+    public ConcurrentHistogram(String name, String unit, int concurrency) {
+        super(name, unit);
+
+        int numStripes = 1;
+        while (numStripes < concurrency && numStripes < MAX_STRIPES) {
+            numStripes <<= 1;
+        }
+
+        this.stripes = new AtomicLongArray[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            this.stripes[i] = new AtomicLongArray(STRIPE_LENGTH);
+        }
+        this.stripeMask = numStripes - 1;
+    }
+
+    /**
+     * Records the given value. Negative values are recorded as {@code 0}.
+     *
+     * @param value
+     *         the value to record
+     */
+    public void record(long value) {
+        final long v = Math.max(value, 0);
+        final AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+
+        stripe.incrementAndGet(bucketIndex(v));
+        stripe.incrementAndGet(COUNT_IDX);
+        stripe.addAndGet(SUM_IDX, v);
+
+        long currMin = min.get();
+        while (v < currMin && !min.compareAndSet(currMin, v)) {
+            currMin = min.get();
+        }
+
+        long currMax = max.get();
+        while (v > currMax && !max.compareAndSet(currMax, v)) {
+            currMax = max.get();
+        }
+    }
+
+    public long getCount() {
+        return sumOf(COUNT_IDX);
+    }
+
+    public long getSum() {
+        return sumOf(SUM_IDX);
+    }
+
+    public double getMean() {
+        final long count = getCount();
+        return count == 0 ? 0.0 : (double) getSum() / count;
+    }
+
+    /**
+     * Returns the smallest recorded value, or {@code 0} if no values have been recorded.
+     *
+     * @return the smallest recorded value
+     */
+    public long getMin() {
+        final long result = min.get();
+        return result == Long.MAX_VALUE ? 0 : result;
+    }
+
+    /**
+     * Returns the largest recorded value, or {@code 0} if no values have been recorded.
+     *
+     * @return the largest recorded value
+     */
+    public long getMax() {
+        final long result = max.get();
+        return result == Long.MIN_VALUE ? 0 : result;
+    }
+
+    public long getMedian() {
+        return getPercentile(MEDIAN);
+    }
+
+    /**
+     * Returns the (approximated) value at the given percentile, i.e. the highest value equivalent to the bucket that
+     * contains the given percentage of all recorded values. The result is bounded by {@link #getMax()}.
+     *
+     * @param percentile
+     *         the percentile, between {@code 0} and {@code 100}
+     *
+     * @return the value at the given percentile, or {@code 0} if no values have been recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > PERCENT) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+
+        final long[] counts = getBucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * total));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    @Override
+    @Nonnull
+    public String getSummary() {
+        return getName() + " [" + getUnit() + "]: " + getCount() + " (count), " + getSum() + " (sum), " + getMean() +
+               " (mean), " + getMedian() + " (p50), " + getPercentile(P99) + " (p99), " + getMax() + " (max)";
+    }
+
+    @Override
+    @Nonnull
+    public String getDetails() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(getSummary()).append(System.lineSeparator());
+
+        final long[] counts = getBucketCounts();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                sb.append('\t')
+                  .append(lowestEquivalentValue(i))
+                  .append('-')
+                  .append(highestEquivalentValue(i))
+                  .append(", ")
+                  .append(counts[i])
+                  .append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+        return getSummary();
+    }
+
+    private long[] getBucketCounts() {
+        final long[] result = new long[NUM_BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                result[i] += stripe.get(i);
+            }
+        }
+        return result;
+    }
+
+    private long sumOf(int index) {
+        long result = 0;
+        for (AtomicLongArray stripe : stripes) {
+            result += stripe.get(index);
+        }
+        return result;
+    }
+
+    static int bucketIndex(long value) {
+        final int msb = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = Math.max(0, msb - PRECISION_BITS + 1);
+        return (shift * HALF_BUCKET_COUNT) + (int) (value >>> shift);
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < 2 * HALF_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = index / HALF_BUCKET_COUNT - 1;
+        return (long) (index - shift * HALF_BUCKET_COUNT) << shift;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < 2 * HALF_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = index / HALF_BUCKET_COUNT - 1;
+        final long next = (long) (index - shift * HALF_BUCKET_COUNT + 1) << shift;
+        // the last bucket would overflow
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
@@ -16,6 +16,7 @@
 
 package de.learnlib.filter.statistic;
 
+import java.util.Collections;
 import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -24,7 +25,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 /**
- * A simple histogram data set.
+ * A simple histogram data set. All methods are synchronized, so a data set may be shared between threads. For
+ * recording large amounts of (concurrent) data points, see {@link ConcurrentHistogram}.
  *
  * @author falkhowar
  */
@@ -43,7 +45,7 @@ public class HistogramDataSet extends AbstractStatisticData {
         super(name, unit);
     }
 
-    public void addDataPoint(Long value) {
+    public synchronized void addDataPoint(Long value) {
         Integer i = histogram.get(value);
         if (i == null) {
             i = 0;
@@ -54,24 +56,30 @@ public class HistogramDataSet extends AbstractStatisticData {
         mean = mean + ((((double) value) - mean) / size);
     }
 
+    /**
+     * Returns a snapshot of the histogram, mapping each recorded value to the number of its occurrences. The returned
+     * map is unmodifiable and is not affected by data points that are added afterwards.
+     *
+     * @return an unmodifiable copy of the histogram
+     */
     @Nonnull
-    public SortedMap<Long, Integer> getHistogram() {
-        return histogram;
+    public synchronized SortedMap<Long, Integer> getHistogram() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(histogram));
     }
 
-    public double getMean() {
+    public synchronized double getMean() {
         return mean;
     }
 
-    public long getSize() {
+    public synchronized long getSize() {
         return size;
     }
 
-    public long getSum() {
+    public synchronized long getSum() {
         return sum;
     }
 
-    public double getMedian() {
+    public synchronized double getMedian() {
         long idx = 0;
         for (Entry<Long, Integer> e : histogram.entrySet()) {
             int count = e.getValue();
@@ -85,14 +93,14 @@ public class HistogramDataSet extends AbstractStatisticData {
 
     @Override
     @Nonnull
-    public String getSummary() {
+    public synchronized String getSummary() {
         return getName() + " [" + getUnit() + "]: " + size + " (count), " + sum + " (sum), " + mean + " (mean), " +
                getMedian() + " (median)";
     }
 
     @Override
     @Nonnull
-    public String getDetails() {
+    public synchronized String getDetails() {
         StringBuilder sb = new StringBuilder();
         sb.append(getSummary()).append(System.lineSeparator());
         for (Entry<Long, Integer> e : histogram.entrySet()) {
@@ -0,0 +1,108 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.statistic.oracle;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.api.statistic.StatisticOracle;
+import de.learnlib.filter.statistic.ConcurrentHistogram;
+
+/**
+ * Measures the latencies (in nanoseconds) and sizes of the query batches passed to the next oracle. Since the queries
+ * of a batch may be answered jointly, the latency of an individual query is approximated by the latency of its batch
+ * divided by the batch size.
+ * <p>
+ * This oracle is thread-safe (given the next oracle is), and may therefore be used behind parallel oracles.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class TimingOracle<I, D> implements StatisticOracle<I, D> {
+
+    private final ConcurrentHistogram queryLatencies;
+    private final ConcurrentHistogram batchLatencies;
+    private final ConcurrentHistogram batchSizes;
+
+    private MembershipOracle<I, D> nextOracle;
+
+    /**
+     * @param next
+     *         real oracle
+     * @param name
+     *         name of the collected data sets
+     */
+    public TimingOracle(MembershipOracle<I, D> next, String name) {
+        this.nextOracle = next;
+        this.queryLatencies = new ConcurrentHistogram(name, "ns per query");
+        this.batchLatencies = new ConcurrentHistogram(name, "ns per batch");
+        this.batchSizes = new ConcurrentHistogram(name, "queries per batch");
+    }
+
+    @Override
+    public final void processQueries(Collection<? extends Query<I, D>> queries) {
+        final int size = queries.size();
+        final long start = System.nanoTime();
+
+        nextOracle.processQueries(queries);
+
+        final long latency = System.nanoTime() - start;
+        batchLatencies.record(latency);
+        batchSizes.record(size);
+
+        if (size > 0) {
+            final long amortized = latency / size;
+            for (int i = 0; i < size; i++) {
+                queryLatencies.record(amortized);
+            }
+        }
+    }
+
+    /**
+     * Returns the (amortized) latencies of individual queries.
+     *
+     * @return the query latencies
+     */
+    @Override
+    @Nonnull
+    public final ConcurrentHistogram getStatisticalData() {
+        return queryLatencies;
+    }
+
+    @Nonnull
+    public final ConcurrentHistogram getBatchLatencies() {
+        return batchLatencies;
+    }
+
+    @Nonnull
+    public final ConcurrentHistogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    @Override
+    public final void setNext(MembershipOracle<I, D> next) {
+        this.nextOracle = next;
+    }
+}
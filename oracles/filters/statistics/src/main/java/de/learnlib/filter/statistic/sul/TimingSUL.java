@@ -0,0 +1,118 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.statistic.sul;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import de.learnlib.api.SUL;
+import de.learnlib.api.statistic.StatisticSUL;
+import de.learnlib.filter.statistic.ConcurrentHistogram;
+
+/**
+ * A {@link SUL} that measures the latencies (in nanoseconds) of the delegate SUL. It records the duration of each query
+ * (from the beginning of {@link #pre()} to the end of {@link #post()}), of each {@link #step(Object) step} and of each
+ * reset (i.e. {@link #pre()}). Forks share the histograms of their parent, so the data of parallel learning setups is
+ * collected in a single place.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class TimingSUL<I, O> implements StatisticSUL<I, O> {
+
+    private final SUL<I, O> sul;
+    private final ConcurrentHistogram queryLatencies;
+    private final ConcurrentHistogram stepLatencies;
+    private final ConcurrentHistogram resetLatencies;
+
+    private long queryStart;
+
+    public TimingSUL(String name, SUL<I, O> sul) {
+        this(new ConcurrentHistogram(name, "ns per query"),
+             new ConcurrentHistogram(name, "ns per step"),
+             new ConcurrentHistogram(name, "ns per reset"),
+             sul);
+    }
+
+    protected TimingSUL(ConcurrentHistogram queryLatencies,
+                        ConcurrentHistogram stepLatencies,
+                        ConcurrentHistogram resetLatencies,
+                        SUL<I, O> sul) {
+        this.queryLatencies = queryLatencies;
+        this.stepLatencies = stepLatencies;
+        this.resetLatencies = resetLatencies;
+        this.sul = sul;
+    }
+
+    @Override
+    public void pre() {
+        queryStart = System.nanoTime();
+        sul.pre();
+        resetLatencies.record(System.nanoTime() - queryStart);
+    }
+
+    @Override
+    public void post() {
+        sul.post();
+        queryLatencies.record(System.nanoTime() - queryStart);
+    }
+
+    @Override
+    @Nullable
+    public O step(@Nullable I in) {
+        final long start = System.nanoTime();
+        final O out = sul.step(in);
+        stepLatencies.record(System.nanoTime() - start);
+        return out;
+    }
+
+    @Override
+    public boolean canFork() {
+        return sul.canFork();
+    }
+
+    @Override
+    public SUL<I, O> fork() {
+        return new TimingSUL<>(queryLatencies, stepLatencies, resetLatencies, sul.fork());
+    }
+
+    /**
+     * Returns the latencies of complete queries.
+     *
+     * @return the query latencies
+     */
+    @Override
+    @Nonnull
+    public ConcurrentHistogram getStatisticalData() {
+        return queryLatencies;
+    }
+
+    @Nonnull
+    public ConcurrentHistogram getStepLatencies() {
+        return stepLatencies;
+    }
+
+    @Nonnull
+    public ConcurrentHistogram getResetLatencies() {
+        return resetLatencies;
+    }
+}
@@ -0,0 +1,127 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.statistic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class ConcurrentHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        long previousHighest = -1;
+
+        for (long value = 0; value < 1L << 20; value++) {
+            final int idx = ConcurrentHistogram.bucketIndex(value);
+            Assert.assertTrue(ConcurrentHistogram.lowestEquivalentValue(idx) <= value);
+            Assert.assertTrue(ConcurrentHistogram.highestEquivalentValue(idx) >= value);
+
+            // buckets are contiguous
+            if (ConcurrentHistogram.lowestEquivalentValue(idx) == value) {
+                Assert.assertEquals(value, previousHighest + 1);
+            }
+            previousHighest = ConcurrentHistogram.highestEquivalentValue(idx);
+        }
+
+        // small values are exact
+        for (int i = 0; i < 64; i++) {
+            Assert.assertEquals(ConcurrentHistogram.bucketIndex(i), i);
+            Assert.assertEquals(ConcurrentHistogram.highestEquivalentValue(i), i);
+        }
+
+        final int maxIdx = ConcurrentHistogram.bucketIndex(Long.MAX_VALUE);
+        Assert.assertEquals(ConcurrentHistogram.highestEquivalentValue(maxIdx), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testStatistics() {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram("test", "ns", 1);
+
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getMean(), 0.0);
+        Assert.assertEquals(histogram.getMedian(), 0);
+        Assert.assertEquals(histogram.getMax(), 0);
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getSum(), 5050);
+        Assert.assertEquals(histogram.getMean(), 50.5);
+        Assert.assertEquals(histogram.getMin(), 1);
+        Assert.assertEquals(histogram.getMax(), 100);
+        Assert.assertEquals(histogram.getMedian(), 50);
+        Assert.assertEquals(histogram.getPercentile(0), 1);
+        Assert.assertEquals(histogram.getPercentile(100), 100);
+
+        // 99 is counted in the bucket [98, 99]
+        Assert.assertEquals(histogram.getPercentile(99), 99);
+        Assert.assertEquals(histogram.getPercentile(98), 99);
+
+        final long large = 1_000_000_000L;
+        histogram.record(large);
+        final long p100 = histogram.getPercentile(100);
+        Assert.assertEquals(p100, large);
+        Assert.assertEquals(histogram.getMax(), large);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new ConcurrentHistogram("test", "ns").getPercentile(101);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException, ExecutionException {
+        final int numThreads = 4;
+        final int valuesPerThread = 100_000;
+
+        final ConcurrentHistogram histogram = new ConcurrentHistogram("test", "ns", numThreads);
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        try {
+            final List<Future<?>> futures = new ArrayList<>(numThreads);
+            for (int i = 0; i < numThreads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < valuesPerThread; j++) {
+                        histogram.record(j % 10);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(histogram.getCount(), (long) numThreads * valuesPerThread);
+        Assert.assertEquals(histogram.getSum(), (long) numThreads * valuesPerThread / 10 * 45);
+        Assert.assertEquals(histogram.getMin(), 0);
+        Assert.assertEquals(histogram.getMax(), 9);
+        Assert.assertEquals(histogram.getMedian(), 4);
+    }
+}
@@ -0,0 +1,52 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.statistic;
+
+import java.util.SortedMap;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class HistogramDataSetTest {
+
+    @Test
+    public void testHistogramSnapshot() {
+        final HistogramDataSet dataSet = new HistogramDataSet("test", "ms");
+
+        dataSet.addDataPoint(1L);
+        dataSet.addDataPoint(2L);
+        dataSet.addDataPoint(2L);
+
+        final SortedMap<Long, Integer> snapshot = dataSet.getHistogram();
+        Assert.assertEquals(snapshot.size(), 2);
+        Assert.assertEquals(snapshot.get(2L).intValue(), 2);
+
+        // later data points do not affect the snapshot
+        dataSet.addDataPoint(3L);
+        Assert.assertEquals(snapshot.size(), 2);
+        Assert.assertEquals(dataSet.getHistogram().size(), 3);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testUnmodifiableHistogram() {
+        final HistogramDataSet dataSet = new HistogramDataSet("test", "ms");
+        dataSet.addDataPoint(1L);
+        dataSet.getHistogram().put(2L, 1);
+    }
+}
@@ -0,0 +1,53 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.statistic.oracle;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.filter.statistic.TestQueries;
+import net.automatalib.words.Word;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class TimingOracleTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecording() {
+        final MembershipOracle<Integer, Word<Character>> delegate = Mockito.mock(MembershipOracle.class);
+        final TimingOracle<Integer, Word<Character>> oracle = new TimingOracle<>(delegate, TestQueries.COUNTER_NAME);
+
+        final Collection<Query<Integer, Word<Character>>> queries = TestQueries.createNoopQueries(5);
+        oracle.processQueries(queries);
+        oracle.processQueries(Collections.emptySet());
+
+        Mockito.verify(delegate).processQueries(queries);
+
+        Assert.assertEquals(oracle.getStatisticalData().getCount(), 5);
+        Assert.assertEquals(oracle.getBatchLatencies().getCount(), 2);
+        Assert.assertEquals(oracle.getBatchSizes().getCount(), 2);
+        Assert.assertEquals(oracle.getBatchSizes().getSum(), 5);
+        Assert.assertEquals(oracle.getBatchSizes().getMax(), 5);
+        Assert.assertEquals(oracle.getBatchSizes().getMin(), 0);
+    }
+}
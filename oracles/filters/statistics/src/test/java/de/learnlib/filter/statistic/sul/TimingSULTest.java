@@ -0,0 +1,65 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.filter.statistic.sul;
+
+import de.learnlib.api.SUL;
+import de.learnlib.driver.util.MealySimulatorSUL;
+import de.learnlib.filter.statistic.TestQueries;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class TimingSULTest {
+
+    @Test
+    public void testRecording() {
+        final TimingSUL<Integer, Character> sul =
+                new TimingSUL<>(TestQueries.COUNTER_NAME, new MealySimulatorSUL<>(TestQueries.DELEGATE));
+
+        final Word<Integer> input = Word.fromSymbols(1, 2, 3);
+
+        query(sul, input);
+        query(sul, input);
+
+        Assert.assertEquals(sul.getStatisticalData().getCount(), 2);
+        Assert.assertEquals(sul.getResetLatencies().getCount(), 2);
+        Assert.assertEquals(sul.getStepLatencies().getCount(), 6);
+
+        // forks share the data of their parent
+        final SUL<Integer, Character> fork = sul.fork();
+        query(fork, input);
+
+        Assert.assertEquals(sul.getStatisticalData().getCount(), 3);
+        Assert.assertEquals(sul.getResetLatencies().getCount(), 3);
+        Assert.assertEquals(sul.getStepLatencies().getCount(), 9);
+
+        // a query takes at least as long as its steps
+        Assert.assertTrue(sul.getStatisticalData().getSum() >= sul.getStepLatencies().getSum());
+        Assert.assertEquals(sul.getStatisticalData().getName(), TestQueries.COUNTER_NAME);
+    }
+
+    private static void query(SUL<Integer, Character> sul, Word<Integer> input) {
+        sul.pre();
+        try {
+            input.forEach(sul::step);
+        } finally {
+            sul.post();
+        }
+    }
+}
@@ -17,7 +17,11 @@ package de.learnlib.oracle.membership;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import javax.annotation.Nonnull;
 
@@ -41,6 +45,11 @@ import net.automatalib.words.WordBuilder;
  *
  * Like {@link SULOracle} this class is thread-safe.
  *
+ * The retrieved states are indexed by their {@link #hashQueryState(Object) hash values}, so that detecting a loop only
+ * requires to check for state equivalence (see {@link #isSameState(Word, Object, Word, Object)}) with states of the
+ * same hash value. Queries of a batch that share the same prefix and loop are answered by a single run of the {@link
+ * ObservableSUL}.
+ *
  * @author Jeroen Meijer
  *
  * @param <S> the state type of the {@link ObservableSUL}
@@ -87,14 +96,50 @@ public abstract class AbstractSULOmegaOracle<S, I, O, Q> implements MealyOmegaMe
     }
 
     private void processQueries(ObservableSUL<S, I, O> sul, Collection<? extends OmegaQuery<I, Word<O>>> queries) {
+        final Map<Pair<Word<I>, Word<I>>, List<OmegaQuery<I, Word<O>>>> lassos = new LinkedHashMap<>();
+
         for (OmegaQuery<I, Word<O>> q : queries) {
-            final Pair<Word<O>, Integer> output = answerQuery(sul, q.getPrefix(), q.getLoop(), q.getRepeat());
-            q.answer(output.getFirst(), output.getSecond());
+            lassos.computeIfAbsent(Pair.of(q.getPrefix(), q.getLoop()), k -> new ArrayList<>()).add(q);
+        }
+
+        for (Map.Entry<Pair<Word<I>, Word<I>>, List<OmegaQuery<I, Word<O>>>> e : lassos.entrySet()) {
+            final List<OmegaQuery<I, Word<O>>> group = e.getValue();
+
+            int maxRepeat = 0;
+            for (OmegaQuery<I, Word<O>> q : group) {
+                maxRepeat = Math.max(maxRepeat, q.getRepeat());
+            }
+
+            final Pair<Word<O>, Integer> output = answerQuery(sul, e.getKey().getFirst(), e.getKey().getSecond(), maxRepeat);
+            final int periodicity = output.getSecond();
+
+            // the loop is detected after the minimal number of repetitions, hence queries with fewer repetitions than
+            // necessary are not periodic
+            for (OmegaQuery<I, Word<O>> q : group) {
+                if (periodicity > 0 && periodicity <= q.getRepeat()) {
+                    q.answer(output.getFirst(), periodicity);
+                } else {
+                    q.answer(null, -1);
+                }
+            }
         }
     }
 
     protected abstract Q getQueryState(ObservableSUL<S, I, O> sul);
 
+    /**
+     * Returns the hash value used for indexing the given state. States for which {@link #isSameState(Word, Object,
+     * Word, Object)} holds, need to have the same hash value.
+     *
+     * @param state
+     *         the state information, as returned by {@link #getQueryState(ObservableSUL)}
+     *
+     * @return the hash value of the given state
+     */
+    protected int hashQueryState(Q state) {
+        return Objects.hashCode(state);
+    }
+
     @Nonnull
     private Pair<Word<O>, Integer> answerQuery(ObservableSUL<S, I, O> sul, Word<I> prefix, Word<I> loop, int repeat) {
         assert repeat > 0;
@@ -104,11 +149,16 @@ public abstract class AbstractSULOmegaOracle<S, I, O, Q> implements MealyOmegaMe
             final WordBuilder<I> inputBuilder = new WordBuilder<>(traceLength, prefix);
             final WordBuilder<O> outputBuilder = new WordBuilder<>(traceLength);
             final List<Q> states = new ArrayList<>(repeat + 1);
+            // maps hash values to the indices (i.e. the number of loop repetitions) of the states in 'states'
+            final Map<Integer, List<Integer>> index = new HashMap<>();
 
             for (int i = 0; i < prefix.length(); i++) {
                 outputBuilder.append(sul.step(prefix.getSymbol(i)));
             }
-            states.add(getQueryState(sul));
+
+            final Q initialState = getQueryState(sul);
+            states.add(initialState);
+            index.computeIfAbsent(hashQueryState(initialState), k -> new ArrayList<>(1)).add(0);
 
             for (int i = 0; i < repeat; i++) {
                 inputBuilder.append(loop);
@@ -116,15 +166,21 @@ public abstract class AbstractSULOmegaOracle<S, I, O, Q> implements MealyOmegaMe
                     outputBuilder.append(sul.step(loop.getSymbol(j)));
                 }
                 final Q nextState = getQueryState(sul);
-
-                int prefixLength = prefix.length();
-                for (Q q: states) {
-                    if (isSameState(inputBuilder.toWord(), nextState, inputBuilder.toWord(0, prefixLength), q)) {
-                        return Pair.of(outputBuilder.toWord(), i + 1);
+                final int hash = hashQueryState(nextState);
+                final List<Integer> candidates = index.get(hash);
+
+                if (candidates != null) {
+                    final Word<I> input = inputBuilder.toWord();
+                    for (int k : candidates) {
+                        final Word<I> candidateInput = input.prefix(prefix.length() + k * loop.length());
+                        if (isSameState(input, nextState, candidateInput, states.get(k))) {
+                            return Pair.of(outputBuilder.toWord(), i + 1);
+                        }
                     }
-                    prefixLength += loop.length();
                 }
+
                 states.add(nextState);
+                index.computeIfAbsent(hash, k -> new ArrayList<>(1)).add(i + 1);
             }
 
             return Pair.of(null, -1);
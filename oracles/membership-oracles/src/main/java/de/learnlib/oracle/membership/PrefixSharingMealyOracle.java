@@ -0,0 +1,175 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.membership;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.oracle.MembershipOracle.MealyMembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import net.automatalib.words.Word;
+
+/**
+ * A membership oracle for Mealy machines that organizes each batch of queries in a prefix tree and only forwards the
+ * maximal words of the tree (i.e. the words that are no prefix of any other word of the batch) to the delegate oracle.
+ * The answers of all other queries are derived from the output of the maximal word they are a prefix of. Maximal words
+ * are forwarded in depth-first order of the tree, so that words sharing long prefixes are executed consecutively, which
+ * benefits subsequent caches or reuse filters.
+ * <p>
+ * This is especially effective for test suites such as the ones generated by the W- or Wp-method, where many test words
+ * are prefixes of other test words: each such prefix saves a reset and the steps of executing it. The savings can be
+ * inspected via {@link #getSavedQueries()} and {@link #getSavedSymbols()}.
+ * <p>
+ * This oracle is thread-safe, if the delegate oracle is.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class PrefixSharingMealyOracle<I, O> implements MealyMembershipOracle<I, O> {
+
+    private final MembershipOracle<I, Word<O>> delegate;
+
+    private final AtomicLong receivedQueries = new AtomicLong();
+    private final AtomicLong receivedSymbols = new AtomicLong();
+    private final AtomicLong forwardedQueries = new AtomicLong();
+    private final AtomicLong forwardedSymbols = new AtomicLong();
+
+    public PrefixSharingMealyOracle(MembershipOracle<I, Word<O>> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, Word<O>>> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        final Node<I, O> root = new Node<>();
+        long symbols = 0;
+
+        for (Query<I, Word<O>> q : queries) {
+            final Word<I> input = q.getInput();
+            Node<I, O> curr = root;
+            for (I sym : input) {
+                curr = curr.children.computeIfAbsent(sym, k -> new Node<>());
+            }
+            curr.queries.add(q);
+            symbols += input.length();
+        }
+
+        final List<DefaultQuery<I, Word<O>>> maximalQueries = new ArrayList<>();
+        final List<List<Query<I, Word<O>>>> derivedQueries = new ArrayList<>();
+        long maximalSymbols = 0;
+
+        // In pre-order, all nodes visited after a leaf and before the next leaf are ancestors of the latter. Hence,
+        // their queries can be answered by the query of that leaf.
+        final Deque<Node<I, O>> stack = new ArrayDeque<>();
+        List<Query<I, Word<O>>> pending = new ArrayList<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            final Node<I, O> node = stack.pop();
+            pending.addAll(node.queries);
+
+            if (node.children.isEmpty()) {
+                // leaves are always created by (at least) one query
+                final Word<I> input = node.queries.get(0).getInput();
+                maximalQueries.add(new DefaultQuery<>(input));
+                derivedQueries.add(pending);
+                maximalSymbols += input.length();
+                pending = new ArrayList<>();
+            } else {
+                final List<Node<I, O>> children = new ArrayList<>(node.children.values());
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    stack.push(children.get(i));
+                }
+            }
+        }
+
+        delegate.processQueries(maximalQueries);
+
+        for (int i = 0; i < maximalQueries.size(); i++) {
+            final Word<O> output = maximalQueries.get(i).getOutput();
+            for (Query<I, Word<O>> q : derivedQueries.get(i)) {
+                q.answer(output.subWord(q.getPrefix().length(), q.getInput().length()));
+            }
+        }
+
+        receivedQueries.addAndGet(queries.size());
+        receivedSymbols.addAndGet(symbols);
+        forwardedQueries.addAndGet(maximalQueries.size());
+        forwardedSymbols.addAndGet(maximalSymbols);
+    }
+
+    /**
+     * Returns the number of queries that have been answered by this oracle.
+     *
+     * @return the number of received queries
+     */
+    public long getReceivedQueries() {
+        return receivedQueries.get();
+    }
+
+    /**
+     * Returns the number of queries that did not need to be forwarded to the delegate oracle, i.e. the number of saved
+     * resets when querying a system directly.
+     *
+     * @return the number of saved queries
+     */
+    public long getSavedQueries() {
+        return receivedQueries.get() - forwardedQueries.get();
+    }
+
+    /**
+     * Returns the number of symbols (of prefixes and suffixes) of all queries that have been answered by this oracle.
+     *
+     * @return the number of received symbols
+     */
+    public long getReceivedSymbols() {
+        return receivedSymbols.get();
+    }
+
+    /**
+     * Returns the number of symbols that did not need to be forwarded to the delegate oracle, i.e. the number of saved
+     * steps when querying a system directly.
+     *
+     * @return the number of saved symbols
+     */
+    public long getSavedSymbols() {
+        return receivedSymbols.get() - forwardedSymbols.get();
+    }
+
+    private static final class Node<I, O> {
+
+        private final Map<I, Node<I, O>> children = new LinkedHashMap<>();
+        private final List<Query<I, Word<O>>> queries = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,129 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.membership;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import de.learnlib.examples.mealy.ExampleCoffeeMachine;
+import de.learnlib.examples.mealy.ExampleCoffeeMachine.Input;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.conformance.WMethodTestsIterator;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class PrefixSharingMealyOracleTest {
+
+    @Test
+    public void testWMethodSuite() {
+        final CompactMealy<Input, String> mealy = ExampleCoffeeMachine.constructMachine();
+        final Alphabet<Input> alphabet = mealy.getInputAlphabet();
+
+        final CountingOracle<Input, String> counter = new CountingOracle<>(new SimulatorOracle<>(mealy));
+        final PrefixSharingMealyOracle<Input, String> oracle = new PrefixSharingMealyOracle<>(counter);
+
+        final List<DefaultQuery<Input, Word<String>>> queries = new ArrayList<>();
+        final WMethodTestsIterator<Input> iter = new WMethodTestsIterator<>(mealy, alphabet, 1);
+        long symbols = 0;
+        while (iter.hasNext()) {
+            final Word<Input> word = iter.next();
+            // use different prefix/suffix splits
+            final int split = word.length() / 2;
+            queries.add(new DefaultQuery<>(word.prefix(split), word.subWord(split)));
+            symbols += word.length();
+        }
+
+        oracle.processQueries(queries);
+
+        for (DefaultQuery<Input, Word<String>> q : queries) {
+            Assert.assertEquals(q.getOutput(), mealy.computeSuffixOutput(q.getPrefix(), q.getSuffix()));
+        }
+
+        Assert.assertEquals(oracle.getReceivedQueries(), queries.size());
+        Assert.assertEquals(oracle.getReceivedSymbols(), symbols);
+        Assert.assertEquals(oracle.getReceivedQueries() - oracle.getSavedQueries(), counter.queries);
+        Assert.assertEquals(oracle.getReceivedSymbols() - oracle.getSavedSymbols(), counter.symbols);
+        Assert.assertTrue(oracle.getSavedQueries() > 0);
+        Assert.assertTrue(oracle.getSavedSymbols() > 0);
+    }
+
+    @Test
+    public void testDuplicatesAndEmptyWord() {
+        final CompactMealy<Input, String> mealy = ExampleCoffeeMachine.constructMachine();
+
+        final CountingOracle<Input, String> counter = new CountingOracle<>(new SimulatorOracle<>(mealy));
+        final PrefixSharingMealyOracle<Input, String> oracle = new PrefixSharingMealyOracle<>(counter);
+
+        final Word<Input> word = Word.fromSymbols(Input.WATER, Input.POD, Input.BUTTON);
+        final List<DefaultQuery<Input, Word<String>>> queries = new ArrayList<>();
+        queries.add(new DefaultQuery<>(Word.epsilon()));
+        queries.add(new DefaultQuery<>(word));
+        queries.add(new DefaultQuery<>(word.prefix(1), word.subWord(1, 2)));
+        queries.add(new DefaultQuery<>(word));
+
+        oracle.processQueries(queries);
+
+        Assert.assertEquals(counter.queries, 1);
+        Assert.assertEquals(queries.get(0).getOutput(), Word.epsilon());
+        Assert.assertEquals(queries.get(1).getOutput(), mealy.computeOutput(word));
+        Assert.assertEquals(queries.get(2).getOutput(), mealy.computeSuffixOutput(word.prefix(1), word.subWord(1, 2)));
+        Assert.assertEquals(queries.get(3).getOutput(), mealy.computeOutput(word));
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        final CompactMealy<Input, String> mealy = ExampleCoffeeMachine.constructMachine();
+
+        final CountingOracle<Input, String> counter = new CountingOracle<>(new SimulatorOracle<>(mealy));
+        final PrefixSharingMealyOracle<Input, String> oracle = new PrefixSharingMealyOracle<>(counter);
+
+        oracle.processQueries(Collections.emptyList());
+
+        Assert.assertEquals(counter.queries, 0);
+        Assert.assertEquals(oracle.getReceivedQueries(), 0);
+        Assert.assertEquals(oracle.getSavedQueries(), 0);
+    }
+
+    private static final class CountingOracle<I, O> implements MembershipOracle<I, Word<O>> {
+
+        private final MembershipOracle<I, Word<O>> delegate;
+        private long queries;
+        private long symbols;
+
+        CountingOracle(MembershipOracle<I, Word<O>> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void processQueries(Collection<? extends Query<I, Word<O>>> queries) {
+            for (Query<I, Word<O>> q : queries) {
+                this.queries++;
+                this.symbols += q.getInput().length();
+            }
+            delegate.processQueries(queries);
+        }
+    }
+}
@@ -67,6 +67,43 @@ public class SULOmegaOracleTest {
         Assert.assertThrows(IllegalArgumentException.class, () -> AbstractSULOmegaOracle.newOracle(mock, false));
     }
 
+    @Test
+    public void testSharedLassos() {
+        final CompactMealy<Input, String> mealy = ExampleCoffeeMachine.constructMachine();
+        final ObservableSUL<Integer, Input, String> sul = new ObservableMealySimulatorSUL<>(mealy);
+        final ObservableSUL<Integer, Input, String> mock = Mockito.spy(sul);
+
+        Mockito.doAnswer(invocation -> true).when(mock).deepCopies();
+        Mockito.doAnswer(invocation -> false).when(mock).canFork();
+
+        final MealyOmegaMembershipOracle<?, Input, String> omq = AbstractSULOmegaOracle.newOracle(mock);
+
+        final Word<Input> coffeeLoop = Word.fromSymbols(Input.POD, Input.WATER, Input.BUTTON, Input.CLEAN);
+        final OmegaQuery<Input, Word<String>> coffee1 = new OmegaQuery<>(Word.epsilon(), coffeeLoop, 1);
+        final OmegaQuery<Input, Word<String>> coffee2 = new OmegaQuery<>(Word.epsilon(), coffeeLoop, 2);
+
+        // the state reached after the first repetition of the loop is only revisited after the second one
+        final Word<Input> waterLoop = Word.fromLetter(Input.WATER);
+        final OmegaQuery<Input, Word<String>> water1 = new OmegaQuery<>(Word.epsilon(), waterLoop, 1);
+        final OmegaQuery<Input, Word<String>> water3 = new OmegaQuery<>(Word.epsilon(), waterLoop, 3);
+
+        omq.processQueries(Arrays.asList(coffee1, water1, coffee2, water3));
+
+        // queries with the same lasso are answered by a single run
+        Mockito.verify(mock, Mockito.times(2)).pre();
+        Mockito.verify(mock, Mockito.times(2)).post();
+
+        Assert.assertEquals(coffee1.getPeriodicity(), 1);
+        Assert.assertEquals(coffee2.getPeriodicity(), 1);
+        Assert.assertEquals(coffee1.getOutput(), coffee2.getOutput());
+
+        Assert.assertFalse(water1.isUltimatelyPeriodic());
+        Assert.assertNull(water1.getOutput());
+
+        Assert.assertEquals(water3.getPeriodicity(), 2);
+        Assert.assertEquals(water3.getOutput(), Word.fromSymbols(ExampleCoffeeMachine.OUT_OK, ExampleCoffeeMachine.OUT_OK));
+    }
+
     private void queryAndValidateCoffeeMachine(ObservableSUL<?, Input, String> sul) {
         final MealyOmegaMembershipOracle<?, Input, String> omq = AbstractSULOmegaOracle.newOracle(sul);
 
@@ -48,9 +48,22 @@ abstract class AbstractQueriesJob<I, D> implements Runnable {
     public void run() {
         MembershipOracle<I, D> oracle = getOracle();
 
-        oracle.processQueries(queries);
+        try {
+            oracle.processQueries(queries);
+        } finally {
+            releaseOracle(oracle);
+        }
     }
 
     @Nonnull
     protected abstract MembershipOracle<I, D> getOracle();
+
+    /**
+     * Hook for releasing the oracle obtained by {@link #getOracle()} after the queries of this job have been
+     * processed. The default implementation does nothing.
+     *
+     * @param oracle
+     *         the oracle previously returned by {@link #getOracle()}
+     */
+    protected void releaseOracle(MembershipOracle<I, D> oracle) {}
 }
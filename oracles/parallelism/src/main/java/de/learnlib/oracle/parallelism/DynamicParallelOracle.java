@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 
 import javax.annotation.Nonnegative;
@@ -35,6 +36,12 @@ import de.learnlib.setting.LearnLibSettings;
 
 /**
  * A parallel membership oracle that dynamically distributes queries to worker threads.
+ * <p>
+ * Each batch of queries is processed by a membership oracle that is leased from a pool for the duration of the batch
+ * (see {@link OraclePool}). New oracles are only requested from the supplier if all existing ones are in use, so the
+ * number of oracles never exceeds the number of concurrently processed batches. The latter can additionally be bounded
+ * by a concurrency limit, which is required for executors that do not bound their number of threads (such as the ones
+ * of {@link PoolPolicy#VIRTUAL}).
  *
  * @param <I>
  *         input symbol type
@@ -49,6 +56,9 @@ public class DynamicParallelOracle<I, D> implements ParallelOracle<I, D> {
     public static final int BATCH_SIZE;
     public static final int POOL_SIZE;
     public static final PoolPolicy POOL_POLICY;
+    public static final int CONCURRENCY_LIMIT;
+
+    private static final int DEFAULT_CONCURRENCY_LIMIT = 1024;
 
     static {
         LearnLibSettings settings = LearnLibSettings.getInstance();
@@ -58,21 +68,32 @@ public class DynamicParallelOracle<I, D> implements ParallelOracle<I, D> {
         BATCH_SIZE = settings.getInt(LearnLibProperty.PARALLEL_BATCH_SIZE_DYNAMIC, 1);
         POOL_SIZE = settings.getInt(LearnLibProperty.PARALLEL_POOL_SIZE, numProcessors);
         POOL_POLICY = settings.getEnumValue(LearnLibProperty.PARALLEL_POOL_POLICY, PoolPolicy.class, PoolPolicy.CACHED);
+        CONCURRENCY_LIMIT = settings.getInt(LearnLibProperty.PARALLEL_CONCURRENCY_LIMIT, DEFAULT_CONCURRENCY_LIMIT);
     }
 
     @Nonnull
-    private final ThreadLocal<MembershipOracle<I, D>> threadLocalOracle;
+    private final OraclePool<I, D> oraclePool;
     @Nonnull
     private final ExecutorService executor;
     @Nonnegative
     private final int batchSize;
+    @Nonnull
+    private final Semaphore concurrencyLimit;
 
     public DynamicParallelOracle(final Supplier<? extends MembershipOracle<I, D>> oracleSupplier,
                                  @Nonnegative int batchSize,
                                  ExecutorService executor) {
-        this.threadLocalOracle = ThreadLocal.withInitial(oracleSupplier);
+        this(oracleSupplier, batchSize, executor, Integer.MAX_VALUE);
+    }
+
+    public DynamicParallelOracle(final Supplier<? extends MembershipOracle<I, D>> oracleSupplier,
+                                 @Nonnegative int batchSize,
+                                 ExecutorService executor,
+                                 @Nonnegative int concurrencyLimit) {
+        this.oraclePool = new OraclePool<>(oracleSupplier);
         this.executor = executor;
         this.batchSize = batchSize;
+        this.concurrencyLimit = new Semaphore(concurrencyLimit);
     }
 
     @Override
@@ -97,26 +118,24 @@ public class DynamicParallelOracle<I, D> implements ParallelOracle<I, D> {
 
         List<Future<?>> futures = new ArrayList<>(numJobs);
 
-        for (Query<I, D> query : queries) {
+        try {
+            for (Query<I, D> query : queries) {
 
-            if (currentBatch == null) {
-                currentBatch = new ArrayList<>(batchSize);
-            }
+                if (currentBatch == null) {
+                    currentBatch = new ArrayList<>(batchSize);
+                }
 
-            currentBatch.add(query);
-            if (currentBatch.size() == batchSize) {
-                Future<?> future = executor.submit(new DynamicQueriesJob<>(currentBatch, threadLocalOracle));
-                futures.add(future);
-                currentBatch = null;
+                currentBatch.add(query);
+                if (currentBatch.size() == batchSize) {
+                    futures.add(submit(currentBatch));
+                    currentBatch = null;
+                }
             }
-        }
 
-        if (currentBatch != null) {
-            Future<?> future = executor.submit(new DynamicQueriesJob<>(currentBatch, threadLocalOracle));
-            futures.add(future);
-        }
+            if (currentBatch != null) {
+                futures.add(submit(currentBatch));
+            }
 
-        try {
             // Await completion of all jobs
             for (Future<?> future : futures) {
                 future.get();
@@ -130,4 +149,24 @@ public class DynamicParallelOracle<I, D> implements ParallelOracle<I, D> {
         }
     }
 
+    private Future<?> submit(List<Query<I, D>> batch) throws InterruptedException {
+        final DynamicQueriesJob<I, D> job = new DynamicQueriesJob<>(batch, oraclePool);
+
+        // acquire the permit in the submitting thread, so that (potentially unbounded) executors do not spawn more
+        // threads than allowed
+        concurrencyLimit.acquire();
+        try {
+            return executor.submit(() -> {
+                try {
+                    job.run();
+                } finally {
+                    concurrencyLimit.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            concurrencyLimit.release();
+            throw e;
+        }
+    }
+
 }
@@ -55,6 +55,8 @@ public class DynamicParallelOracleBuilder<I, D> {
     private int poolSize = DynamicParallelOracle.POOL_SIZE;
     @Nonnull
     private PoolPolicy poolPolicy = DynamicParallelOracle.POOL_POLICY;
+    @Nonnegative
+    private int concurrencyLimit = DynamicParallelOracle.CONCURRENCY_LIMIT;
 
     public DynamicParallelOracleBuilder(Supplier<? extends MembershipOracle<I, D>> oracleSupplier) {
         this.oracleSupplier = oracleSupplier;
@@ -91,8 +93,27 @@ public class DynamicParallelOracleBuilder<I, D> {
         return this;
     }
 
+    /**
+     * Sets the maximum number of query batches that are processed concurrently. This is primarily relevant for the
+     * {@link PoolPolicy#VIRTUAL} policy or custom executors, whose number of threads is not bounded by the pool size.
+     * Since each concurrently processed batch uses its own membership oracle, this also bounds the number of oracles
+     * requested from the supplier.
+     *
+     * @param concurrencyLimit
+     *         the maximum number of concurrently processed batches
+     *
+     * @return {@code this}
+     */
+    @Nonnull
+    public DynamicParallelOracleBuilder<I, D> withConcurrencyLimit(@Nonnegative int concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+        return this;
+    }
+
     @Nonnull
     public DynamicParallelOracle<I, D> create() {
+        Preconditions.checkArgument(concurrencyLimit > 0, "Concurrency limit must be positive");
+
 
         final Supplier<? extends MembershipOracle<I, D>> supplier;
         final ExecutorService executor;
@@ -111,13 +132,16 @@ public class DynamicParallelOracleBuilder<I, D> {
                 case CACHED:
                     executor = new ScalingThreadPoolExecutor(0, poolSize, DEFAULT_KEEP_ALIVE_TIME, TimeUnit.SECONDS);
                     break;
+                case VIRTUAL:
+                    executor = VirtualThreads.newExecutor();
+                    break;
                 default:
                     throw new IllegalStateException("Unknown pool policy: " + poolPolicy);
             }
             supplier = oracleSupplier;
         }
 
-        return new DynamicParallelOracle<>(supplier, batchSize, executor);
+        return new DynamicParallelOracle<>(supplier, batchSize, executor, concurrencyLimit);
     }
 
     static class StaticOracleProvider<I, D> implements Supplier<MembershipOracle<I, D>> {
@@ -24,11 +24,9 @@ import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.api.query.Query;
 
 /**
- * A queries job that maintains a thread-local reference to a membership oracle, and dynamically selects that oracle
- * depending on the executing thread.
- * <p>
- * Note: This class assumes that the respective {@link ThreadLocal#get()} methods never returns a {@code null}
- * reference.
+ * A queries job that leases a membership oracle from a shared {@link OraclePool} for the duration of its execution,
+ * and returns it afterwards. This makes the job independent of the executing thread, so that it can equally run on
+ * pooled platform threads or on a fresh virtual thread.
  *
  * @param <I>
  *         input symbol type
@@ -41,17 +39,21 @@ import de.learnlib.api.query.Query;
 final class DynamicQueriesJob<I, D> extends AbstractQueriesJob<I, D> {
 
     @Nonnull
-    private final ThreadLocal<? extends MembershipOracle<I, D>> threadLocalOracle;
+    private final OraclePool<I, D> oraclePool;
 
-    DynamicQueriesJob(Collection<? extends Query<I, D>> queries,
-                      ThreadLocal<? extends MembershipOracle<I, D>> threadLocalOracle) {
+    DynamicQueriesJob(Collection<? extends Query<I, D>> queries, OraclePool<I, D> oraclePool) {
         super(queries);
-        this.threadLocalOracle = threadLocalOracle;
+        this.oraclePool = oraclePool;
     }
 
     @Override
     protected MembershipOracle<I, D> getOracle() {
-        return threadLocalOracle.get();
+        return oraclePool.lease();
+    }
+
+    @Override
+    protected void releaseOracle(MembershipOracle<I, D> oracle) {
+        oraclePool.release(oracle);
     }
 
 }
@@ -0,0 +1,71 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import de.learnlib.api.oracle.MembershipOracle;
+
+/**
+ * A pool of membership oracles that are leased to jobs for the duration of a single batch of queries.
+ * <p>
+ * As opposed to binding oracles to threads (e.g. via {@link ThreadLocal}s), leasing also works if every job runs on a
+ * fresh (e.g. virtual) thread. An oracle is only used by a single job at a time, and new oracles are only requested
+ * from the supplier if all previously created ones are currently leased. Hence, the number of created oracles never
+ * exceeds the maximum number of concurrently running jobs.
+ * <p>
+ * Released oracles are re-leased in LIFO order, so that recently used (and therefore likely "warm") oracles are
+ * preferred.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+final class OraclePool<I, D> {
+
+    @Nonnull
+    private final Supplier<? extends MembershipOracle<I, D>> oracleSupplier;
+    @Nonnull
+    private final Deque<MembershipOracle<I, D>> idleOracles;
+
+    OraclePool(Supplier<? extends MembershipOracle<I, D>> oracleSupplier) {
+        this.oracleSupplier = oracleSupplier;
+        this.idleOracles = new ConcurrentLinkedDeque<>();
+    }
+
+    @Nonnull
+    MembershipOracle<I, D> lease() {
+        final MembershipOracle<I, D> idle = idleOracles.pollFirst();
+        return idle == null ? oracleSupplier.get() : idle;
+    }
+
+    void release(MembershipOracle<I, D> oracle) {
+        idleOracles.offerFirst(oracle);
+    }
+
+    int getNumIdleOracles() {
+        return idleOracles.size();
+    }
+}
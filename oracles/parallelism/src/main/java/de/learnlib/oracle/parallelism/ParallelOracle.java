@@ -72,6 +72,16 @@ public interface ParallelOracle<I, D> extends MembershipOracle<I, D> {
          *
          * @see Executors#newCachedThreadPool()
          */
-        CACHED
+        CACHED,
+        /**
+         * Spawn a new virtual thread for every job. This is intended for I/O-bound oracles (e.g. SULs of remote
+         * services) that spend most of their time blocked, so that many queries can be in flight without occupying
+         * just as many platform threads. Oracles that support it, bound the number of concurrently running jobs by a
+         * separate concurrency limit instead of the pool size.
+         * <p>
+         * Virtual threads require Java 21 or newer. On older runtimes, this policy falls back to a cached pool of
+         * platform threads (still bounded by the concurrency limit).
+         */
+        VIRTUAL
     }
 }
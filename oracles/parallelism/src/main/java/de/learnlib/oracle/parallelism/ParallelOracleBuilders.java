@@ -26,7 +26,7 @@ import de.learnlib.api.oracle.MembershipOracle;
 import de.learnlib.oracle.parallelism.ParallelOracle.PoolPolicy;
 
 /**
- * Builders for (static and dynamic) parallel oracles.
+ * Builders for (static, dynamic and work-stealing) parallel oracles.
  * <p>
  * Using the methods defined in this class is the preferred way of instantiating parallel oracles.
  * <p>
@@ -57,6 +57,23 @@ import de.learnlib.oracle.parallelism.ParallelOracle.PoolPolicy;
  *      .withPoolPolicy(PoolPolicy.CACHED)
  *      .create();
  * </pre>
+ * <p>
+ * Creating a dynamic parallel oracle for I/O-bound SULs that processes each query on its own virtual thread, allowing at
+ * most 2000 queries in flight, each using a separate fork of the SUL:
+ * <pre>
+ * ParallelOracleBuilders.newVirtualThreadParallelOracle(() -&gt; new SULOracle&lt;&gt;(sul.fork()))
+ *      .withConcurrencyLimit(2000)
+ *      .create();
+ * </pre>
+ * <p>
+ * Creating a work-stealing parallel oracle with 8 workers, whose batch sizes adapt such that a single batch takes
+ * roughly 5 milliseconds to process:
+ * <pre>
+ * ParallelOracleBuilders.newWorkStealingParallelOracle(oracleSupplier)
+ *      .withParallelism(8)
+ *      .withTargetTaskNanos(5_000_000)
+ *      .create();
+ * </pre>
  *
  * @author Malte Isberner
  */
@@ -126,6 +143,27 @@ public final class ParallelOracleBuilders {
         return new DynamicParallelOracleBuilder<>(oracles);
     }
 
+    /**
+     * Creates a {@link DynamicParallelOracleBuilder} using the provided supplier, that processes every batch (of size
+     * 1, by default) on its own virtual thread (see {@link PoolPolicy#VIRTUAL}). Uses the further specified
+     * {@link DynamicParallelOracleBuilder#withConcurrencyLimit(int)} (or its default) to bound the number of
+     * concurrently processed batches, and hence the number of oracles requested from the supplier.
+     *
+     * @param oracleSupplier
+     *         the supplier for spawning new membership oracle instances, e.g. each wrapping a {@code SUL#fork()}
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    @Nonnull
+    public static <I, D> DynamicParallelOracleBuilder<I, D> newVirtualThreadParallelOracle(Supplier<? extends MembershipOracle<I, D>> oracleSupplier) {
+        return new DynamicParallelOracleBuilder<I, D>(oracleSupplier).withBatchSize(1)
+                                                                     .withPoolPolicy(PoolPolicy.VIRTUAL);
+    }
+
     /**
      * Creates a {@link StaticParallelOracleBuilder} using the provided supplier. Uses the further specified
      * {@link StaticParallelOracleBuilder#withPoolPolicy(PoolPolicy)} and
@@ -184,4 +222,63 @@ public final class ParallelOracleBuilders {
     public static <I, D> StaticParallelOracleBuilder<I, D> newStaticParallelOracle(Collection<? extends MembershipOracle<I, D>> oracles) {
         return new StaticParallelOracleBuilder<>(oracles);
     }
+
+    /**
+     * Creates a {@link WorkStealingParallelOracleBuilder} using the provided supplier. Uses the further specified
+     * {@link WorkStealingParallelOracleBuilder#withParallelism(int)} (or its default) to determine the number of
+     * worker threads.
+     *
+     * @param oracleSupplier
+     *         the supplier for spawning new worker-specific membership oracle instances
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    @Nonnull
+    public static <I, D> WorkStealingParallelOracleBuilder<I, D> newWorkStealingParallelOracle(Supplier<? extends MembershipOracle<I, D>> oracleSupplier) {
+        return new WorkStealingParallelOracleBuilder<>(oracleSupplier);
+    }
+
+    /**
+     * Convenience method for {@link #newWorkStealingParallelOracle(Collection)}.
+     *
+     * @param firstOracle
+     *         the first (mandatory) oracle
+     * @param otherOracles
+     *         further (optional) oracles to be used by other workers
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a preconfigured oracle builder
+     */
+    @Nonnull
+    @SafeVarargs
+    public static <I, D> WorkStealingParallelOracleBuilder<I, D> newWorkStealingParallelOracle(MembershipOracle<I, D> firstOracle,
+                                                                                               MembershipOracle<I, D>... otherOracles) {
+        return newWorkStealingParallelOracle(Lists.asList(firstOracle, otherOracles));
+    }
+
+    /**
+     * Creates a {@link WorkStealingParallelOracleBuilder} using the provided collection of membership oracles. The
+     * resulting parallel oracle will spawn a separate worker for each of the provided oracles (so that the oracles do
+     * not need to care about synchronization if they don't share state).
+     *
+     * @param oracles
+     *         the oracle instances to distribute the queries to
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return the preconfigured oracle builder
+     */
+    @Nonnull
+    public static <I, D> WorkStealingParallelOracleBuilder<I, D> newWorkStealingParallelOracle(Collection<? extends MembershipOracle<I, D>> oracles) {
+        return new WorkStealingParallelOracleBuilder<>(oracles);
+    }
 }
@@ -87,6 +87,9 @@ public class StaticParallelOracle<I, D> implements ParallelOracle<I, D> {
             case CACHED:
                 this.executor = Executors.newCachedThreadPool();
                 break;
+            case VIRTUAL:
+                this.executor = VirtualThreads.newExecutor();
+                break;
             default:
                 throw new IllegalArgumentException("Illegal pool policy: " + policy);
         }
@@ -0,0 +1,80 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.Nullable;
+
+import de.learnlib.oracle.parallelism.ParallelOracle.PoolPolicy;
+
+/**
+ * Utility class for creating executors that spawn a new virtual thread for each task.
+ * <p>
+ * Since LearnLib still targets Java 8, virtual threads are accessed reflectively. If the current runtime does not
+ * support virtual threads (i.e. prior to Java 21), the created executors fall back to spawning (and caching) platform
+ * threads. In either case the number of concurrently running tasks should be limited by the caller, see
+ * {@link PoolPolicy#VIRTUAL}.
+ *
+ * @author frohme
+ */
+final class VirtualThreads {
+
+    @Nullable
+    private static final Method FACTORY = lookupFactory();
+
+    private VirtualThreads() {
+        throw new AssertionError("Constructor should not be invoked");
+    }
+
+    /**
+     * Returns whether the current runtime supports virtual threads.
+     *
+     * @return {@code true} if the current runtime supports virtual threads, {@code false} otherwise.
+     */
+    static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    /**
+     * Creates a new executor that runs each task on its own virtual thread, or a cached thread pool if virtual
+     * threads are not supported by the current runtime.
+     *
+     * @return the executor
+     */
+    static ExecutorService newExecutor() {
+        if (FACTORY != null) {
+            try {
+                return (ExecutorService) FACTORY.invoke(null);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Could not create virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    @Nullable
+    private static Method lookupFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
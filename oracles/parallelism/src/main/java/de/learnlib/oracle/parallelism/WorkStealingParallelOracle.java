@@ -0,0 +1,428 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.base.Throwables;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.Query;
+import de.learnlib.setting.LearnLibProperty;
+import de.learnlib.setting.LearnLibSettings;
+
+/**
+ * A parallel membership oracle that distributes queries to the workers of a work-stealing {@link ForkJoinPool}.
+ * <p>
+ * Each batch of queries is first ordered such that queries sharing long prefixes are adjacent. The ordered batch is
+ * then recursively split in halves: a worker keeps processing the half it did not fork itself, so neighboring queries
+ * (and hence shared prefixes) tend to end up at the same worker-local membership oracle, while idle workers steal the
+ * forked halves. The size of the leaf tasks adapts to the observed per-query latency, such that each leaf task roughly
+ * takes {@link #getTargetTaskNanos()} nanoseconds.
+ * <p>
+ * Each worker thread holds its own membership oracle instance, obtained from the given supplier. Oracles of workers
+ * that terminate (e.g. due to inactivity) are retained and handed to subsequently spawned workers, so that the supplier
+ * is called at most {@code parallelism} times.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class WorkStealingParallelOracle<I, D> implements ParallelOracle<I, D> {
+
+    public static final int PARALLELISM;
+    public static final int MIN_BATCH_SIZE = 1;
+    public static final int MAX_BATCH_SIZE = 1024;
+    public static final long TARGET_TASK_NANOS = 1_000_000L;
+
+    /**
+     * The weight of the latest observation when updating the per-query latency estimate.
+     */
+    private static final double LATENCY_SMOOTHING = 0.5;
+
+    static {
+        LearnLibSettings settings = LearnLibSettings.getInstance();
+
+        int numProcessors = Runtime.getRuntime().availableProcessors();
+
+        PARALLELISM = settings.getInt(LearnLibProperty.PARALLEL_POOL_SIZE, numProcessors);
+    }
+
+    @Nonnull
+    private final ForkJoinPool pool;
+    @Nonnull
+    private final OraclePool<I, D> oraclePool;
+    @Nonnull
+    private final List<WorkerStatistics> workerStatistics;
+    @Nonnull
+    private final AtomicInteger workerIds;
+
+    @Nonnegative
+    private final int minBatchSize;
+    @Nonnegative
+    private final int maxBatchSize;
+    @Nonnegative
+    private final long targetTaskNanos;
+
+    private volatile double nanosPerQuery;
+
+    public WorkStealingParallelOracle(Supplier<? extends MembershipOracle<I, D>> oracleSupplier,
+                                      @Nonnegative int parallelism,
+                                      @Nonnegative int minBatchSize,
+                                      @Nonnegative int maxBatchSize,
+                                      @Nonnegative long targetTaskNanos) {
+        this.oraclePool = new OraclePool<>(oracleSupplier);
+        this.workerStatistics = new CopyOnWriteArrayList<>();
+        this.workerIds = new AtomicInteger();
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetTaskNanos = targetTaskNanos;
+        this.pool = new ForkJoinPool(parallelism, this::newWorker, null, false);
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public void processQueries(Collection<? extends Query<I, D>> queries) {
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        final List<Query<I, D>> ordered = orderByPrefix(queries);
+        final int leafSize = computeLeafSize(ordered.size());
+        final WorkStealingQueriesJob<I, D> job = new WorkStealingQueriesJob<>(ordered, 0, ordered.size(), leafSize);
+
+        try {
+            pool.submit(job).get();
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new AssertionError("Runnables must not throw checked exceptions", e);
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            throw new ParallelOracleInterruptedException(e);
+        }
+
+        updateLatencyEstimate(job.getProcessedQueries(), job.getProcessingNanos());
+    }
+
+    /**
+     * Returns a snapshot of the statistics of each worker thread that has been spawned by this oracle.
+     *
+     * @return the worker statistics
+     */
+    public List<WorkerStatistics> getWorkerStatistics() {
+        return Collections.unmodifiableList(new ArrayList<>(workerStatistics));
+    }
+
+    /**
+     * Returns the total number of tasks that have been stolen between the workers of this oracle.
+     *
+     * @return the total number of steals
+     */
+    public long getStealCount() {
+        long result = 0;
+        for (WorkerStatistics stats : workerStatistics) {
+            result += stats.getSteals();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current estimate of the processing time of a single query (in nanoseconds), or {@code 0} if no
+     * queries have been processed yet.
+     *
+     * @return the estimated per-query latency
+     */
+    public double getNanosPerQuery() {
+        return nanosPerQuery;
+    }
+
+    public long getTargetTaskNanos() {
+        return targetTaskNanos;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    int computeLeafSize(int numQueries) {
+        final double latency = this.nanosPerQuery;
+
+        int result;
+        if (latency <= 0) {
+            result = minBatchSize;
+        } else {
+            result = (int) Math.min(maxBatchSize, Math.max(minBatchSize, targetTaskNanos / latency));
+        }
+
+        // make sure that every worker can get a share of the batch
+        final int fairShare = Math.max(1, numQueries / pool.getParallelism());
+        return Math.max(minBatchSize, Math.min(result, fairShare));
+    }
+
+    private synchronized void updateLatencyEstimate(long processedQueries, long processingNanos) {
+        if (processedQueries == 0) {
+            return;
+        }
+
+        final double observed = (double) processingNanos / processedQueries;
+        final double current = this.nanosPerQuery;
+
+        if (current <= 0) {
+            this.nanosPerQuery = observed;
+        } else {
+            this.nanosPerQuery = LATENCY_SMOOTHING * observed + (1 - LATENCY_SMOOTHING) * current;
+        }
+    }
+
+    private ForkJoinWorkerThread newWorker(ForkJoinPool forkJoinPool) {
+        final WorkerStatistics stats = new WorkerStatistics(workerIds.getAndIncrement());
+        workerStatistics.add(stats);
+        return new Worker<>(forkJoinPool, this, stats);
+    }
+
+    /**
+     * Orders the given queries by a depth-first traversal of the prefix tree of their input words, so that queries
+     * sharing a common prefix are adjacent in the returned list. The relative order of queries whose inputs diverge
+     * at the same position follows the order of the given collection.
+     *
+     * @param queries
+     *         the queries to order
+     * @param <I>
+     *         input symbol type
+     * @param <D>
+     *         output domain type
+     *
+     * @return a list containing the given queries, ordered by shared prefixes
+     */
+    static <I, D> List<Query<I, D>> orderByPrefix(Collection<? extends Query<I, D>> queries) {
+        final PrefixNode<I, D> root = new PrefixNode<>();
+
+        for (Query<I, D> q : queries) {
+            PrefixNode<I, D> curr = root;
+            for (I sym : q.getPrefix()) {
+                curr = curr.getOrCreateChild(sym);
+            }
+            for (I sym : q.getSuffix()) {
+                curr = curr.getOrCreateChild(sym);
+            }
+            curr.addQuery(q);
+        }
+
+        final List<Query<I, D>> result = new ArrayList<>(queries.size());
+        final Deque<Iterator<PrefixNode<I, D>>> stack = new ArrayDeque<>();
+
+        root.drainQueries(result);
+        stack.push(root.children().iterator());
+
+        while (!stack.isEmpty()) {
+            final Iterator<PrefixNode<I, D>> iter = stack.peek();
+            if (iter.hasNext()) {
+                final PrefixNode<I, D> next = iter.next();
+                next.drainQueries(result);
+                stack.push(next.children().iterator());
+            } else {
+                stack.pop();
+            }
+        }
+
+        return result;
+    }
+
+    private static final class PrefixNode<I, D> {
+
+        private Map<I, PrefixNode<I, D>> children;
+        private List<Query<I, D>> queries;
+
+        PrefixNode<I, D> getOrCreateChild(I symbol) {
+            if (children == null) {
+                children = new LinkedHashMap<>();
+            }
+            return children.computeIfAbsent(symbol, k -> new PrefixNode<>());
+        }
+
+        Collection<PrefixNode<I, D>> children() {
+            return children == null ? Collections.emptyList() : children.values();
+        }
+
+        void addQuery(Query<I, D> query) {
+            if (queries == null) {
+                queries = new ArrayList<>(1);
+            }
+            queries.add(query);
+        }
+
+        void drainQueries(List<Query<I, D>> target) {
+            if (queries != null) {
+                target.addAll(queries);
+                queries = null;
+            }
+        }
+    }
+
+    /**
+     * A worker thread that owns a (leased) membership oracle for its whole lifetime.
+     */
+    static final class Worker<I, D> extends ForkJoinWorkerThread {
+
+        private final WorkStealingParallelOracle<I, D> owner;
+        private final WorkerStatistics statistics;
+        private MembershipOracle<I, D> oracle;
+
+        Worker(ForkJoinPool pool, WorkStealingParallelOracle<I, D> owner, WorkerStatistics statistics) {
+            super(pool);
+            this.owner = owner;
+            this.statistics = statistics;
+        }
+
+        MembershipOracle<I, D> getOracle() {
+            if (oracle == null) {
+                oracle = owner.oraclePool.lease();
+            }
+            return oracle;
+        }
+
+        WorkerStatistics getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        protected void onTermination(Throwable exception) {
+            if (oracle != null) {
+                owner.oraclePool.release(oracle);
+                oracle = null;
+            }
+            super.onTermination(exception);
+        }
+    }
+
+    /**
+     * Statistics of a single worker thread of a {@link WorkStealingParallelOracle}.
+     */
+    public static final class WorkerStatistics {
+
+        private final int workerId;
+        private final AtomicLong tasks = new AtomicLong();
+        private final AtomicLong steals = new AtomicLong();
+        private final AtomicLong queries = new AtomicLong();
+        private volatile int queueDepth;
+        private volatile int maxQueueDepth;
+
+        WorkerStatistics(int workerId) {
+            this.workerId = workerId;
+        }
+
+        void recordTask(boolean stolen, int currentQueueDepth) {
+            tasks.incrementAndGet();
+            if (stolen) {
+                steals.incrementAndGet();
+            }
+            queueDepth = currentQueueDepth;
+            if (currentQueueDepth > maxQueueDepth) {
+                maxQueueDepth = currentQueueDepth;
+            }
+        }
+
+        void recordQueries(int numQueries) {
+            queries.addAndGet(numQueries);
+        }
+
+        public int getWorkerId() {
+            return workerId;
+        }
+
+        /**
+         * Returns the number of (leaf and splitting) tasks executed by this worker.
+         *
+         * @return the number of executed tasks
+         */
+        public long getTasks() {
+            return tasks.get();
+        }
+
+        /**
+         * Returns the number of tasks that this worker has stolen from the queues of other workers.
+         *
+         * @return the number of stolen tasks
+         */
+        public long getSteals() {
+            return steals.get();
+        }
+
+        /**
+         * Returns the number of queries answered by the oracle of this worker.
+         *
+         * @return the number of answered queries
+         */
+        public long getQueries() {
+            return queries.get();
+        }
+
+        /**
+         * Returns the number of tasks in the queue of this worker, as observed when it last started a task.
+         *
+         * @return the last observed queue depth
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Returns the maximum number of tasks in the queue of this worker observed so far.
+         *
+         * @return the maximum observed queue depth
+         */
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        @Override
+        public String toString() {
+            return "Worker " + workerId + " [tasks=" + getTasks() + ", steals=" + getSteals() + ", queries=" +
+                   getQueries() + ", queueDepth=" + queueDepth + ", maxQueueDepth=" + maxQueueDepth + ']';
+        }
+    }
+}
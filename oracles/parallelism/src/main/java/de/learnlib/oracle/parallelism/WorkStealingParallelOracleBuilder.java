@@ -0,0 +1,117 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.base.Preconditions;
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.oracle.parallelism.DynamicParallelOracleBuilder.StaticOracleProvider;
+
+/**
+ * Builder class for a {@link WorkStealingParallelOracle}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+public class WorkStealingParallelOracleBuilder<I, D> {
+
+    private final Supplier<? extends MembershipOracle<I, D>> oracleSupplier;
+    private final Collection<? extends MembershipOracle<I, D>> oracles;
+    @Nonnegative
+    private int parallelism = WorkStealingParallelOracle.PARALLELISM;
+    @Nonnegative
+    private int minBatchSize = WorkStealingParallelOracle.MIN_BATCH_SIZE;
+    @Nonnegative
+    private int maxBatchSize = WorkStealingParallelOracle.MAX_BATCH_SIZE;
+    @Nonnegative
+    private long targetTaskNanos = WorkStealingParallelOracle.TARGET_TASK_NANOS;
+
+    public WorkStealingParallelOracleBuilder(Supplier<? extends MembershipOracle<I, D>> oracleSupplier) {
+        this.oracleSupplier = oracleSupplier;
+        this.oracles = null;
+    }
+
+    public WorkStealingParallelOracleBuilder(Collection<? extends MembershipOracle<I, D>> oracles) {
+        Preconditions.checkArgument(!oracles.isEmpty(), "No oracles specified");
+        this.oracles = oracles;
+        this.oracleSupplier = null;
+    }
+
+    @Nonnull
+    public WorkStealingParallelOracleBuilder<I, D> withParallelism(@Nonnegative int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    @Nonnull
+    public WorkStealingParallelOracleBuilder<I, D> withMinBatchSize(@Nonnegative int minBatchSize) {
+        this.minBatchSize = minBatchSize;
+        return this;
+    }
+
+    @Nonnull
+    public WorkStealingParallelOracleBuilder<I, D> withMaxBatchSize(@Nonnegative int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * Sets the desired processing time of a single (leaf) task. The batch size of the leaf tasks is adapted such that,
+     * given the observed per-query latency, a single task takes approximately this long.
+     *
+     * @param targetTaskNanos
+     *         the target task duration in nanoseconds
+     *
+     * @return {@code this}
+     */
+    @Nonnull
+    public WorkStealingParallelOracleBuilder<I, D> withTargetTaskNanos(@Nonnegative long targetTaskNanos) {
+        this.targetTaskNanos = targetTaskNanos;
+        return this;
+    }
+
+    @Nonnull
+    public WorkStealingParallelOracle<I, D> create() {
+        Preconditions.checkArgument(minBatchSize > 0, "Minimum batch size must be positive");
+        Preconditions.checkArgument(maxBatchSize >= minBatchSize,
+                                    "Maximum batch size must not be smaller than minimum batch size");
+
+        final Supplier<? extends MembershipOracle<I, D>> supplier;
+        final int numWorkers;
+
+        if (oracles != null) {
+            supplier = new StaticOracleProvider<>(oracles);
+            numWorkers = oracles.size();
+        } else {
+            supplier = oracleSupplier;
+            numWorkers = parallelism;
+        }
+
+        return new WorkStealingParallelOracle<>(supplier, numWorkers, minBatchSize, maxBatchSize, targetTaskNanos);
+    }
+
+}
@@ -0,0 +1,124 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.List;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import de.learnlib.api.query.Query;
+import de.learnlib.oracle.parallelism.WorkStealingParallelOracle.Worker;
+import de.learnlib.oracle.parallelism.WorkStealingParallelOracle.WorkerStatistics;
+
+/**
+ * A recursively splitting job of a {@link WorkStealingParallelOracle}. A job covering more than {@code leafSize}
+ * queries forks its right half and continues with its left half, so that adjacent queries (which share prefixes) stay
+ * with the current worker unless another worker steals the forked half.
+ * <p>
+ * Jobs never block on their sub-jobs but signal completion to their parent (see {@link CountedCompleter}). This
+ * prevents the pool from spawning compensation threads, which would otherwise require additional oracle instances.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <D>
+ *         output domain type
+ *
+ * @author frohme
+ */
+@ParametersAreNonnullByDefault
+final class WorkStealingQueriesJob<I, D> extends CountedCompleter<Void> {
+
+    private static final int NO_OWNER = -1;
+
+    private final List<Query<I, D>> queries;
+    private final int low;
+    private final int high;
+    private final int leafSize;
+    private final int ownerId;
+
+    private final LongAdder processedQueries;
+    private final LongAdder processingNanos;
+
+    WorkStealingQueriesJob(List<Query<I, D>> queries, int low, int high, int leafSize) {
+        this(null, queries, low, high, leafSize, NO_OWNER, new LongAdder(), new LongAdder());
+    }
+
+    private WorkStealingQueriesJob(@Nullable CountedCompleter<?> parent,
+                                   List<Query<I, D>> queries,
+                                   int low,
+                                   int high,
+                                   int leafSize,
+                                   int ownerId,
+                                   LongAdder processedQueries,
+                                   LongAdder processingNanos) {
+        super(parent);
+        this.queries = queries;
+        this.low = low;
+        this.high = high;
+        this.leafSize = leafSize;
+        this.ownerId = ownerId;
+        this.processedQueries = processedQueries;
+        this.processingNanos = processingNanos;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void compute() {
+        final Worker<I, D> worker = (Worker<I, D>) Thread.currentThread();
+        final WorkerStatistics stats = worker.getStatistics();
+        final int workerId = stats.getWorkerId();
+
+        stats.recordTask(ownerId != NO_OWNER && ownerId != workerId, ForkJoinTask.getQueuedTaskCount());
+
+        // fork the right halves and keep the left-most part of the range for this worker. Since the local queue is
+        // processed in LIFO order, non-stolen halves are processed by this worker in prefix order afterwards.
+        int hi = high;
+        while (hi - low > leafSize) {
+            final int mid = (low + hi) >>> 1;
+            addToPendingCount(1);
+            new WorkStealingQueriesJob<>(this,
+                                         queries,
+                                         mid,
+                                         hi,
+                                         leafSize,
+                                         workerId,
+                                         processedQueries,
+                                         processingNanos).fork();
+            hi = mid;
+        }
+
+        final List<Query<I, D>> batch = queries.subList(low, hi);
+        final long start = System.nanoTime();
+        worker.getOracle().processQueries(batch);
+        processingNanos.add(System.nanoTime() - start);
+        processedQueries.add(batch.size());
+        stats.recordQueries(batch.size());
+
+        tryComplete();
+    }
+
+    long getProcessedQueries() {
+        return processedQueries.sum();
+    }
+
+    long getProcessingNanos() {
+        return processingNanos.sum();
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import de.learnlib.api.oracle.MembershipOracle;
@@ -109,6 +110,69 @@ public class DynamicParallelOracleTest {
                                                               .create());
     }
 
+    @Test(timeOut = 10000)
+    public void testVirtualThreadConcurrencyLimit() {
+        final int limit = 3;
+        final AtomicInteger numOracles = new AtomicInteger();
+        final AtomicInteger concurrentJobs = new AtomicInteger();
+        final AtomicInteger maxConcurrentJobs = new AtomicInteger();
+
+        final ParallelOracle<Void, Void> oracle = ParallelOracleBuilders.newVirtualThreadParallelOracle(() -> {
+            numOracles.incrementAndGet();
+            return new NullOracle() {
+
+                @Override
+                public void processQueries(Collection<? extends Query<Void, Void>> queries) {
+                    final int current = concurrentJobs.incrementAndGet();
+                    maxConcurrentJobs.accumulateAndGet(current, Math::max);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    concurrentJobs.decrementAndGet();
+                    super.processQueries(queries);
+                }
+            };
+        }).withConcurrencyLimit(limit).create();
+
+        try {
+            final List<AnswerOnceQuery> queries = createQueries(100);
+
+            oracle.processQueries(queries);
+
+            for (AnswerOnceQuery query : queries) {
+                Assert.assertTrue(query.answered.get());
+            }
+        } finally {
+            oracle.shutdown();
+        }
+
+        Assert.assertTrue(maxConcurrentJobs.get() <= limit);
+        // oracles are leased per batch, so we never need more oracles than concurrently running batches
+        Assert.assertTrue(numOracles.get() <= limit);
+    }
+
+    @Test
+    public void testOracleLeasing() {
+        final OraclePool<Void, Void> pool = new OraclePool<>(NullOracle::new);
+
+        final MembershipOracle<Void, Void> o1 = pool.lease();
+        final MembershipOracle<Void, Void> o2 = pool.lease();
+        Assert.assertNotSame(o1, o2);
+
+        pool.release(o1);
+        Assert.assertEquals(pool.getNumIdleOracles(), 1);
+        Assert.assertSame(pool.lease(), o1);
+
+        pool.release(o2);
+        pool.release(o1);
+        // most recently released oracles are leased first
+        Assert.assertSame(pool.lease(), o1);
+        Assert.assertSame(pool.lease(), o2);
+        Assert.assertEquals(pool.getNumIdleOracles(), 0);
+    }
+
     private void testThreadCreation(Function<Collection<NullOracle>, ParallelOracle<Void, Void>> parallelOracleFunction) {
 
         final List<AnswerOnceQuery> queries = createQueries(10);
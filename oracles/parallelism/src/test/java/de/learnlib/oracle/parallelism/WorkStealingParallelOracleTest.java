@@ -0,0 +1,221 @@
+/* Copyright (C) 2013-2019 TU Dortmund
+ * This file is part of LearnLib, http://www.learnlib.de/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.learnlib.oracle.parallelism;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.learnlib.api.oracle.MembershipOracle;
+import de.learnlib.api.query.DefaultQuery;
+import de.learnlib.api.query.Query;
+import de.learnlib.oracle.parallelism.WorkStealingParallelOracle.WorkerStatistics;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class WorkStealingParallelOracleTest {
+
+    @Test
+    public void testDistinctQueries() {
+        final WorkStealingParallelOracle<Integer, Integer> oracle =
+                ParallelOracleBuilders.newWorkStealingParallelOracle(LengthOracle::new).withParallelism(4).create();
+
+        try {
+            final List<DefaultQuery<Integer, Integer>> queries = createQueries(1000);
+
+            oracle.processQueries(queries);
+
+            for (DefaultQuery<Integer, Integer> query : queries) {
+                Assert.assertEquals(query.getOutput(), Integer.valueOf(query.getInput().length()));
+            }
+
+            long processed = 0;
+            for (WorkerStatistics stats : oracle.getWorkerStatistics()) {
+                processed += stats.getQueries();
+                Assert.assertTrue(stats.getSteals() <= stats.getTasks());
+            }
+
+            Assert.assertEquals(processed, queries.size());
+            Assert.assertTrue(oracle.getWorkerStatistics().size() <= 4);
+            Assert.assertTrue(oracle.getNanosPerQuery() > 0);
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testExceptionPropagation() {
+        final WorkStealingParallelOracle<Integer, Integer> oracle =
+                ParallelOracleBuilders.newWorkStealingParallelOracle(() -> (MembershipOracle<Integer, Integer>) q -> {
+                    throw new IllegalStateException();
+                }).withParallelism(2).create();
+
+        try {
+            oracle.processQueries(createQueries(10));
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testStaticOracles() {
+        final List<LengthOracle> oracles = Arrays.asList(new LengthOracle(), new LengthOracle(), new LengthOracle());
+        final WorkStealingParallelOracle<Integer, Integer> oracle =
+                ParallelOracleBuilders.newWorkStealingParallelOracle(oracles).create();
+
+        try {
+            // the static provider throws an exception if more oracles than available are requested
+            for (int i = 0; i < 10; i++) {
+                final List<DefaultQuery<Integer, Integer>> queries = createQueries(100);
+                oracle.processQueries(queries);
+
+                for (DefaultQuery<Integer, Integer> query : queries) {
+                    Assert.assertEquals(query.getOutput(), Integer.valueOf(query.getInput().length()));
+                }
+            }
+
+            Assert.assertEquals(oracle.getParallelism(), oracles.size());
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test
+    public void testPrefixOrder() {
+        final List<DefaultQuery<Integer, Integer>> queries = new ArrayList<>();
+        queries.add(new DefaultQuery<>(Word.fromSymbols(0, 1, 2)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(1, 1)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(0, 1), Word.fromSymbols(1)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(1)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(0, 2)));
+        queries.add(new DefaultQuery<>(Word.fromSymbols(0, 1)));
+
+        final List<Query<Integer, Integer>> ordered = WorkStealingParallelOracle.orderByPrefix(queries);
+
+        Assert.assertEquals(ordered.size(), queries.size());
+        Assert.assertSame(ordered.get(0), queries.get(5));
+        Assert.assertSame(ordered.get(1), queries.get(0));
+        Assert.assertSame(ordered.get(2), queries.get(2));
+        Assert.assertSame(ordered.get(3), queries.get(4));
+        Assert.assertSame(ordered.get(4), queries.get(3));
+        Assert.assertSame(ordered.get(5), queries.get(1));
+    }
+
+    @Test
+    public void testAdaptiveBatchSize() {
+        final WorkStealingParallelOracle<Integer, Integer> oracle =
+                ParallelOracleBuilders.newWorkStealingParallelOracle(SleepingOracle::new)
+                                      .withParallelism(2)
+                                      .withMaxBatchSize(64)
+                                      .withTargetTaskNanos(10_000_000)
+                                      .create();
+
+        try {
+            // initially, we start with minimal batches
+            Assert.assertEquals(oracle.computeLeafSize(1000), 1);
+
+            oracle.processQueries(createQueries(20));
+
+            // a query takes at least 1ms, so batches of a 10ms target must not exceed 10 queries
+            final int leafSize = oracle.computeLeafSize(1000);
+            Assert.assertTrue(leafSize >= 1 && leafSize <= 10, "Unexpected leaf size " + leafSize);
+        } finally {
+            oracle.shutdown();
+        }
+    }
+
+    @Test
+    public void testWorkerAffinity() {
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final WorkStealingParallelOracle<Integer, Integer> oracle =
+                ParallelOracleBuilders.newWorkStealingParallelOracle(() -> new ThreadCheckingOracle(threads))
+                                      .withParallelism(4)
+                                      .create();
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                oracle.processQueries(createQueries(200));
+            }
+        } finally {
+            oracle.shutdown();
+        }
+
+        // each oracle instance registers the thread it is used by, and asserts it is only used by a single one
+        Assert.assertTrue(threads.size() <= 4);
+    }
+
+    private static List<DefaultQuery<Integer, Integer>> createQueries(int numQueries) {
+        final List<DefaultQuery<Integer, Integer>> result = new ArrayList<>(numQueries);
+
+        for (int i = 0; i < numQueries; i++) {
+            final Integer[] symbols = new Integer[i % 7];
+            Arrays.fill(symbols, i % 3);
+            result.add(new DefaultQuery<>(Word.fromSymbols(symbols)));
+        }
+
+        return result;
+    }
+
+    private static class LengthOracle implements MembershipOracle<Integer, Integer> {
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Integer>> queries) {
+            for (Query<Integer, Integer> q : queries) {
+                q.answer(q.getPrefix().length() + q.getSuffix().length());
+            }
+        }
+    }
+
+    private static class SleepingOracle extends LengthOracle {
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Integer>> queries) {
+            try {
+                Thread.sleep(queries.size());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            super.processQueries(queries);
+        }
+    }
+
+    private static class ThreadCheckingOracle extends LengthOracle {
+
+        private final Set<Thread> threads;
+        private Thread owner;
+
+        ThreadCheckingOracle(Set<Thread> threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public void processQueries(Collection<? extends Query<Integer, Integer>> queries) {
+            if (owner == null) {
+                owner = Thread.currentThread();
+                threads.add(owner);
+            }
+            Assert.assertSame(Thread.currentThread(), owner);
+            super.processQueries(queries);
+        }
+    }
+}